@@ -1,5 +1,10 @@
 package delta.games.lotro;
 
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.bootstrap.LoadingReport;
+import delta.games.lotro.bootstrap.LoreDatasets;
+import delta.games.lotro.bootstrap.LoreWarmUp;
 import delta.games.lotro.character.storage.currencies.CharacterCurrenciesListener;
 import delta.games.lotro.misc.migration.CarryAllsMigration;
 
@@ -9,6 +14,8 @@ import delta.games.lotro.misc.migration.CarryAllsMigration;
  */
 public class LotroCore
 {
+  private static final Logger LOGGER=Logger.getLogger(LotroCore.class);
+
   private static CharacterCurrenciesListener _characterCurrenciesListener;
 
   /**
@@ -20,6 +27,29 @@ public class LotroCore
     setupListeners();
   }
 
+  /**
+   * Load all the lore datasets, using all the available processors.
+   * @return A timing report.
+   */
+  public static LoadingReport warmUp()
+  {
+    return warmUp(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Load all the lore datasets.
+   * Independent datasets are loaded concurrently.
+   * @param parallelism Number of loader threads.
+   * @return A timing report.
+   */
+  public static LoadingReport warmUp(int parallelism)
+  {
+    LoreWarmUp warmUp=new LoreWarmUp(LoreDatasets.getDatasets(),parallelism);
+    LoadingReport report=warmUp.run();
+    LOGGER.info(report.dump());
+    return report;
+  }
+
   private static void migration()
   {
     new CarryAllsMigration().doIt();
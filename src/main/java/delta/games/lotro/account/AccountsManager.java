@@ -1,15 +1,26 @@
 package delta.games.lotro.account;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import delta.games.lotro.account.events.AccountEvent;
 import delta.games.lotro.account.events.AccountEventType;
 import delta.games.lotro.utils.events.EventsManager;
+import delta.games.lotro.utils.events.GenericEventsListener;
 
 /**
  * Manages all known accounts.
+ * <p>
+ * Accounts are indexed by account name, by subscription key and by both.
+ * Indexes are built again when accounts are added or removed, and when an
+ * account summary update is broadcasted.
+ * Misses are trusted: lookups never scan. A hit on an entry that changed without
+ * notification builds the indexes again.
+ * This class is thread-safe.
  * @author DAM
  */
 public final class AccountsManager
@@ -18,6 +29,10 @@ public final class AccountsManager
 
   private AccountsStorageManager _storage;
   private List<Account> _accounts;
+  // Indexes (null if to be built)
+  private Map<String,Account> _byName;
+  private Map<String,Account> _bySubscriptionKey;
+  private Map<List<String>,Account> _byNameAndSubscriptionKey;
 
   /**
    * Get the sole instance of this class.
@@ -36,13 +51,63 @@ public final class AccountsManager
     _storage=new AccountsStorageManager();
     _accounts=new ArrayList<Account>();
     _accounts.addAll(_storage.getAllAccounts());
+    GenericEventsListener<AccountEvent> listener=new GenericEventsListener<AccountEvent>()
+    {
+      @Override
+      public void eventOccurred(AccountEvent event)
+      {
+        if (event.getType()==AccountEventType.ACCOUNT_SUMMARY_UPDATED)
+        {
+          invalidateIndexes();
+        }
+      }
+    };
+    EventsManager.addListener(AccountEvent.class,listener);
+  }
+
+  private synchronized void invalidateIndexes()
+  {
+    _byName=null;
+    _bySubscriptionKey=null;
+    _byNameAndSubscriptionKey=null;
+  }
+
+  private void buildIndexes()
+  {
+    _byName=new HashMap<String,Account>();
+    _bySubscriptionKey=new HashMap<String,Account>();
+    _byNameAndSubscriptionKey=new HashMap<List<String>,Account>();
+    for(Account account : _accounts)
+    {
+      index(account);
+    }
+  }
+
+  private void index(Account account)
+  {
+    // Keep the first account for a key, like a scan of the accounts would do
+    String accountName=account.getAccountName();
+    String subscriptionKey=account.getSubscriptionKey();
+    if (!_byName.containsKey(accountName))
+    {
+      _byName.put(accountName,account);
+    }
+    if (!_bySubscriptionKey.containsKey(subscriptionKey))
+    {
+      _bySubscriptionKey.put(subscriptionKey,account);
+    }
+    List<String> key=Arrays.asList(accountName,subscriptionKey);
+    if (!_byNameAndSubscriptionKey.containsKey(key))
+    {
+      _byNameAndSubscriptionKey.put(key,account);
+    }
   }
 
   /**
    * Get a list of all managed accounts, sorted by name.
    * @return a list of accounts.
    */
-  public List<Account> getAllAccounts()
+  public synchronized List<Account> getAllAccounts()
   {
     List<Account> accounts=new ArrayList<Account>(_accounts);
     return accounts;
@@ -54,21 +119,21 @@ public final class AccountsManager
    * @param subscriptionKey Subscription key.
    * @return An account or <code>null</code> if not found.
    */
-  public Account getAccount(String accountName, String subscriptionKey)
+  public synchronized Account getAccount(String accountName, String subscriptionKey)
   {
-    for(Account account : _accounts)
+    if (_byNameAndSubscriptionKey==null)
     {
-      String currentAccountName=account.getAccountName();
-      if (Objects.equals(currentAccountName,accountName))
-      {
-        String currentSubscriptionKey=account.getSubscriptionKey();
-        if (Objects.equals(currentSubscriptionKey,subscriptionKey))
-        {
-          return account;
-        }
-      }
+      buildIndexes();
+    }
+    List<String> key=Arrays.asList(accountName,subscriptionKey);
+    Account ret=_byNameAndSubscriptionKey.get(key);
+    if ((ret!=null) && ((!Objects.equals(ret.getAccountName(),accountName)) || (!Objects.equals(ret.getSubscriptionKey(),subscriptionKey))))
+    {
+      // Changed without notification
+      buildIndexes();
+      ret=_byNameAndSubscriptionKey.get(key);
     }
-    return null;
+    return ret;
   }
 
   /**
@@ -105,17 +170,20 @@ public final class AccountsManager
    * @param subscriptionKey Subscription key.
    * @return An account or <code>null</code> if not found.
    */
-  public Account getAccountBySubscriptionKey(String subscriptionKey)
+  public synchronized Account getAccountBySubscriptionKey(String subscriptionKey)
   {
-    for(Account account : _accounts)
+    if (_bySubscriptionKey==null)
     {
-      String currentSubscriptionKey=account.getSubscriptionKey();
-      if (Objects.equals(currentSubscriptionKey,subscriptionKey))
-      {
-        return account;
-      }
+      buildIndexes();
     }
-    return null;
+    Account ret=_bySubscriptionKey.get(subscriptionKey);
+    if ((ret!=null) && (!Objects.equals(ret.getSubscriptionKey(),subscriptionKey)))
+    {
+      // Changed without notification
+      buildIndexes();
+      ret=_bySubscriptionKey.get(subscriptionKey);
+    }
+    return ret;
   }
 
   /**
@@ -123,17 +191,20 @@ public final class AccountsManager
    * @param accountName Account name.
    * @return An account or <code>null</code> if not found.
    */
-  public Account getAccountByAccountName(String accountName)
+  public synchronized Account getAccountByAccountName(String accountName)
   {
-    for(Account account : _accounts)
+    if (_byName==null)
     {
-      String currentAccountName=account.getAccountName();
-      if (Objects.equals(currentAccountName,accountName))
-      {
-        return account;
-      }
+      buildIndexes();
     }
-    return null;
+    Account ret=_byName.get(accountName);
+    if ((ret!=null) && (!Objects.equals(ret.getAccountName(),accountName)))
+    {
+      // Renamed without notification
+      buildIndexes();
+      ret=_byName.get(accountName);
+    }
+    return ret;
   }
 
   /**
@@ -143,10 +214,21 @@ public final class AccountsManager
    */
   public Account addAccount(AccountReference accountID)
   {
-    Account account=_storage.newAccount(accountID);
+    Account account;
+    synchronized(this)
+    {
+      account=_storage.newAccount(accountID);
+      if (account!=null)
+      {
+        _accounts.add(account);
+        if (_byName!=null)
+        {
+          index(account);
+        }
+      }
+    }
     if (account!=null)
     {
-      _accounts.add(account);
       // Broadcast account creation event...
       AccountEvent event=new AccountEvent(AccountEventType.ACCOUNT_ADDED,account);
       EventsManager.invokeEvent(event);
@@ -161,10 +243,18 @@ public final class AccountsManager
    */
   public boolean removeAccount(Account account)
   {
-    boolean ret=_accounts.remove(account);
+    boolean ret;
+    synchronized(this)
+    {
+      ret=_accounts.remove(account);
+      if (ret)
+      {
+        _storage.removeAccount(account);
+        invalidateIndexes();
+      }
+    }
     if (ret)
     {
-      _storage.removeAccount(account);
       // Broadcast account deletion event...
       AccountEvent event=new AccountEvent(AccountEventType.ACCOUNT_REMOVED,account);
       EventsManager.invokeEvent(event);
@@ -0,0 +1,106 @@
+package delta.games.lotro.bootstrap;
+
+/**
+ * Loading time of a single dataset.
+ * @author DAM
+ */
+public class DatasetLoadingTime
+{
+  /**
+   * Loading status.
+   * @author DAM
+   */
+  public enum Status
+  {
+    /**
+     * Loaded.
+     */
+    LOADED,
+    /**
+     * Loading failed.
+     */
+    FAILED,
+    /**
+     * Not loaded because one of its dependencies failed.
+     */
+    SKIPPED,
+    /**
+     * Not loaded before the end of the warm-up.
+     */
+    TIMED_OUT
+  }
+
+  private String _key;
+  private Status _status;
+  private long _start;
+  private long _duration;
+  private String _threadName;
+
+  /**
+   * Constructor.
+   * @param key Dataset key.
+   * @param status Loading status.
+   * @param start Start time, in milliseconds since the start of the warm-up.
+   * @param duration Loading duration, in milliseconds.
+   * @param threadName Name of the thread that loaded the dataset.
+   */
+  public DatasetLoadingTime(String key, Status status, long start, long duration, String threadName)
+  {
+    _key=key;
+    _status=status;
+    _start=start;
+    _duration=duration;
+    _threadName=threadName;
+  }
+
+  /**
+   * Get the dataset key.
+   * @return a data file key.
+   */
+  public String getKey()
+  {
+    return _key;
+  }
+
+  /**
+   * Get the loading status.
+   * @return a status.
+   */
+  public Status getStatus()
+  {
+    return _status;
+  }
+
+  /**
+   * Get the start time.
+   * @return a time in milliseconds, relative to the start of the warm-up.
+   */
+  public long getStart()
+  {
+    return _start;
+  }
+
+  /**
+   * Get the loading duration.
+   * @return a duration in milliseconds.
+   */
+  public long getDuration()
+  {
+    return _duration;
+  }
+
+  /**
+   * Get the name of the thread that loaded the dataset.
+   * @return a thread name.
+   */
+  public String getThreadName()
+  {
+    return _threadName;
+  }
+
+  @Override
+  public String toString()
+  {
+    return _key+": "+_status+" in "+_duration+"ms (start="+_start+"ms, thread="+_threadName+")";
+  }
+}
@@ -0,0 +1,142 @@
+package delta.games.lotro.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import delta.common.utils.text.EndOfLine;
+
+/**
+ * Timing report of a warm-up.
+ * @author DAM
+ */
+public class LoadingReport
+{
+  private List<DatasetLoadingTime> _times;
+  private long _totalDuration;
+  private int _parallelism;
+
+  /**
+   * Constructor.
+   * @param parallelism Number of loader threads.
+   */
+  public LoadingReport(int parallelism)
+  {
+    _times=new ArrayList<DatasetLoadingTime>();
+    _parallelism=parallelism;
+  }
+
+  /**
+   * Add the loading time of a dataset.
+   * @param time Time to add.
+   */
+  public synchronized void addTime(DatasetLoadingTime time)
+  {
+    _times.add(time);
+  }
+
+  /**
+   * Get the loading times of the datasets, sorted by start time.
+   * @return a list of loading times.
+   */
+  public synchronized List<DatasetLoadingTime> getTimes()
+  {
+    List<DatasetLoadingTime> ret=new ArrayList<DatasetLoadingTime>(_times);
+    Collections.sort(ret,new Comparator<DatasetLoadingTime>()
+    {
+      @Override
+      public int compare(DatasetLoadingTime t1, DatasetLoadingTime t2)
+      {
+        return Long.compare(t1.getStart(),t2.getStart());
+      }
+    });
+    return ret;
+  }
+
+  /**
+   * Get the number of datasets with the given status.
+   * @param status Status to search.
+   * @return a count.
+   */
+  public synchronized int getCount(DatasetLoadingTime.Status status)
+  {
+    int ret=0;
+    for(DatasetLoadingTime time : _times)
+    {
+      if (time.getStatus()==status)
+      {
+        ret++;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Get the cumulated loading time of all datasets.
+   * @return a duration in milliseconds.
+   */
+  public synchronized long getCumulatedDuration()
+  {
+    long ret=0;
+    for(DatasetLoadingTime time : _times)
+    {
+      ret+=time.getDuration();
+    }
+    return ret;
+  }
+
+  /**
+   * Get the wall-clock duration of the warm-up.
+   * @return a duration in milliseconds.
+   */
+  public long getTotalDuration()
+  {
+    return _totalDuration;
+  }
+
+  /**
+   * Set the wall-clock duration of the warm-up.
+   * @param totalDuration Duration to set, in milliseconds.
+   */
+  public void setTotalDuration(long totalDuration)
+  {
+    _totalDuration=totalDuration;
+  }
+
+  /**
+   * Get the number of loader threads.
+   * @return a threads count.
+   */
+  public int getParallelism()
+  {
+    return _parallelism;
+  }
+
+  /**
+   * Dump the contents of this report.
+   * @return a displayable string.
+   */
+  public String dump()
+  {
+    StringBuilder sb=new StringBuilder();
+    sb.append("Warm-up: ").append(getCount(DatasetLoadingTime.Status.LOADED)).append(" datasets loaded");
+    sb.append(", ").append(getCount(DatasetLoadingTime.Status.FAILED)).append(" failed");
+    sb.append(", ").append(getCount(DatasetLoadingTime.Status.SKIPPED)).append(" skipped");
+    sb.append(", ").append(getCount(DatasetLoadingTime.Status.TIMED_OUT)).append(" timed out");
+    sb.append(" in ").append(_totalDuration).append("ms");
+    sb.append(" (cumulated=").append(getCumulatedDuration()).append("ms, threads=").append(_parallelism).append(')');
+    sb.append(EndOfLine.NATIVE_EOL);
+    for(DatasetLoadingTime time : getTimes())
+    {
+      sb.append("  ").append(time).append(EndOfLine.NATIVE_EOL);
+    }
+    return sb.toString().trim();
+  }
+
+  @Override
+  public String toString()
+  {
+    return dump();
+  }
+}
@@ -0,0 +1,46 @@
+package delta.games.lotro.bootstrap;
+
+/**
+ * Description of a lore dataset to warm-up.
+ * @author DAM
+ */
+public class LoreDataset
+{
+  private String _key;
+  private String[] _dependencies;
+
+  /**
+   * Constructor.
+   * @param key Data file key (see {@link delta.games.lotro.config.DataFiles}).
+   * @param dependencies Keys of the datasets that shall be loaded before this one.
+   */
+  public LoreDataset(String key, String... dependencies)
+  {
+    _key=key;
+    _dependencies=dependencies;
+  }
+
+  /**
+   * Get the key of this dataset.
+   * @return A data file key.
+   */
+  public String getKey()
+  {
+    return _key;
+  }
+
+  /**
+   * Get the keys of the datasets that shall be loaded before this one.
+   * @return An array of data file keys (may be empty).
+   */
+  public String[] getDependencies()
+  {
+    return _dependencies;
+  }
+
+  @Override
+  public String toString()
+  {
+    return _key;
+  }
+}
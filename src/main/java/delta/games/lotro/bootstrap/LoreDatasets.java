@@ -0,0 +1,428 @@
+package delta.games.lotro.bootstrap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.character.classes.ClassesManager;
+import delta.games.lotro.character.classes.initialGear.InitialGearManager;
+import delta.games.lotro.character.classes.traitTree.TraitTreesManager;
+import delta.games.lotro.character.races.NationalitiesManager;
+import delta.games.lotro.character.races.RacesManager;
+import delta.games.lotro.character.skills.SkillsManager;
+import delta.games.lotro.character.stats.base.DerivedStatsContributionsMgr;
+import delta.games.lotro.character.stats.base.StartStatsManager;
+import delta.games.lotro.character.stats.buffs.BuffRegistry;
+import delta.games.lotro.character.stats.tomes.StatTomesManager;
+import delta.games.lotro.character.traits.TraitsManager;
+import delta.games.lotro.character.traits.skirmish.SkirmishTraitsManager;
+import delta.games.lotro.character.virtues.VirtuesManager;
+import delta.games.lotro.character.xp.XPTableManager;
+import delta.games.lotro.common.colors.ColorsManager;
+import delta.games.lotro.common.effects.EffectsManager;
+import delta.games.lotro.common.enums.LotroEnumsRegistry;
+import delta.games.lotro.common.global.CombatSystem;
+import delta.games.lotro.common.money.MoneyTables;
+import delta.games.lotro.common.progression.ProgressionsManager;
+import delta.games.lotro.common.stats.StatsRegistry;
+import delta.games.lotro.common.treasure.LootsManager;
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.servers.ServersManager;
+import delta.games.lotro.lore.agents.mobs.MobsManager;
+import delta.games.lotro.lore.agents.mobs.loot.SpeciesLootsManager;
+import delta.games.lotro.lore.agents.npcs.NPCsManager;
+import delta.games.lotro.lore.allegiances.AllegiancesManager;
+import delta.games.lotro.lore.billingGroups.BillingGroupsManager;
+import delta.games.lotro.lore.collections.CollectionsManager;
+import delta.games.lotro.lore.crafting.CraftingSystem;
+import delta.games.lotro.lore.crafting.recipes.RecipesManager;
+import delta.games.lotro.lore.deeds.DeedsManager;
+import delta.games.lotro.lore.emotes.EmotesManager;
+import delta.games.lotro.lore.geo.landmarks.LandmarksManager;
+import delta.games.lotro.lore.hobbies.HobbiesManager;
+import delta.games.lotro.lore.instances.InstancesTree;
+import delta.games.lotro.lore.instances.PrivateEncountersManager;
+import delta.games.lotro.lore.instances.loot.InstanceLootTablesManager;
+import delta.games.lotro.lore.items.ContainersManager;
+import delta.games.lotro.lore.items.DisenchantmentManager;
+import delta.games.lotro.lore.items.ItemsManager;
+import delta.games.lotro.lore.items.cosmetics.ItemCosmeticsManager;
+import delta.games.lotro.lore.items.effects.GenericItemEffectsManager;
+import delta.games.lotro.lore.items.legendary.LegaciesManager;
+import delta.games.lotro.lore.items.legendary.PassivesManager;
+import delta.games.lotro.lore.items.legendary.global.LegendarySystem;
+import delta.games.lotro.lore.items.legendary.non_imbued.NonImbuedLegaciesManager;
+import delta.games.lotro.lore.items.legendary.relics.RelicsManager;
+import delta.games.lotro.lore.items.legendary.titles.LegendaryTitlesManager;
+import delta.games.lotro.lore.items.legendary2.EnhancementRunesManager;
+import delta.games.lotro.lore.items.legendary2.LegendaryAttributes2Manager;
+import delta.games.lotro.lore.items.legendary2.TraceriesManager;
+import delta.games.lotro.lore.items.legendary2.global.LegendarySystem2;
+import delta.games.lotro.lore.items.paper.PaperItemsManager;
+import delta.games.lotro.lore.items.sets.ItemsSetsManager;
+import delta.games.lotro.lore.items.weapons.DPSTables;
+import delta.games.lotro.lore.items.weapons.WeaponDamageManager;
+import delta.games.lotro.lore.items.weapons.WeaponSpeedsManager;
+import delta.games.lotro.lore.maps.DungeonsManager;
+import delta.games.lotro.lore.maps.GeoAreasManager;
+import delta.games.lotro.lore.maps.ParchmentMapsManager;
+import delta.games.lotro.lore.maps.landblocks.LandblocksManager;
+import delta.games.lotro.lore.maps.resources.ResourcesMapsManager;
+import delta.games.lotro.lore.mood.MoodManager;
+import delta.games.lotro.lore.perks.PerksManager;
+import delta.games.lotro.lore.pvp.RanksManager;
+import delta.games.lotro.lore.quests.QuestsManager;
+import delta.games.lotro.lore.relics.melding.RelicMeldingRecipesManager;
+import delta.games.lotro.lore.reputation.FactionsRegistry;
+import delta.games.lotro.lore.rewardsTrack.RewardsTracksManager;
+import delta.games.lotro.lore.tasks.TasksRegistry;
+import delta.games.lotro.lore.titles.TitlesManager;
+import delta.games.lotro.lore.trade.barter.BarterersManager;
+import delta.games.lotro.lore.trade.vendor.VendorsManager;
+import delta.games.lotro.lore.warbands.WarbandsRegistry;
+import delta.games.lotro.lore.webStore.WebStoreItemsManager;
+import delta.games.lotro.lore.worldEvents.WorldEventsManager;
+
+/**
+ * Catalog of the lore datasets that can be warmed-up, with their load dependencies.
+ * <p>
+ * Dependencies are the direct ones, as found in the loading code of each manager:
+ * a dataset is loaded only when all the datasets it uses are available.
+ * @author DAM
+ */
+public class LoreDatasets
+{
+  private static final Logger LOGGER=Logger.getLogger(LoreDatasets.class);
+
+  /**
+   * Get all the lore datasets, in a valid load order.
+   * @return A list of datasets.
+   */
+  public static List<LoreDataset> getDatasets()
+  {
+    List<LoreDataset> ret=new ArrayList<LoreDataset>();
+    ret.add(new LoreDataset(DataFiles.SERVERS_DESCRIPTION));
+    ret.add(new LoreDataset(DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.PROGRESSIONS));
+    ret.add(new LoreDataset(DataFiles.STATS));
+    ret.add(new LoreDataset(DataFiles.COLORS));
+    ret.add(new LoreDataset(DataFiles.PVP));
+    ret.add(new LoreDataset(DataFiles.TITLES));
+    ret.add(new LoreDataset(DataFiles.WORLD_EVENTS));
+    ret.add(new LoreDataset(DataFiles.MOOD));
+    ret.add(new LoreDataset(DataFiles.FACTIONS));
+    ret.add(new LoreDataset(DataFiles.WARBANDS));
+    ret.add(new LoreDataset(DataFiles.LANDMARKS));
+    ret.add(new LoreDataset(DataFiles.EMOTES));
+    ret.add(new LoreDataset(DataFiles.ITEM_COSMETICS));
+    ret.add(new LoreDataset(DataFiles.GEO_AREAS));
+    ret.add(new LoreDataset(DataFiles.LANDBLOCKS));
+    ret.add(new LoreDataset(DataFiles.NATIONALITIES));
+    ret.add(new LoreDataset(DataFiles.XP_TABLE));
+    ret.add(new LoreDataset(DataFiles.VALUE_TABLES,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.NPCS,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.WEB_STORE_ITEMS,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.WEAPON_DAMAGE,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.DPS_TABLES,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.SPEED_TABLES,DataFiles.ENUMS_DIR));
+    ret.add(new LoreDataset(DataFiles.COMBAT_DATA,DataFiles.PROGRESSIONS));
+    ret.add(new LoreDataset(DataFiles.LEGENDARY_DATA2,DataFiles.PROGRESSIONS));
+    ret.add(new LoreDataset(DataFiles.PASSIVES,DataFiles.PROGRESSIONS,DataFiles.STATS));
+    ret.add(new LoreDataset(DataFiles.LEGENDARY_TITLES,DataFiles.ENUMS_DIR,DataFiles.STATS));
+    ret.add(new LoreDataset(DataFiles.STAT_TOMES,DataFiles.STATS));
+    ret.add(new LoreDataset(DataFiles.BILLING_GROUPS,DataFiles.ENUMS_DIR,DataFiles.TITLES));
+    ret.add(new LoreDataset(DataFiles.CRAFTING_DATA,DataFiles.FACTIONS,DataFiles.ENUMS_DIR,DataFiles.TITLES));
+    ret.add(new LoreDataset(DataFiles.PARCHMENT_MAPS,DataFiles.GEO_AREAS));
+    ret.add(new LoreDataset(DataFiles.DUNGEONS,DataFiles.GEO_AREAS));
+    ret.add(new LoreDataset(DataFiles.EFFECTS,DataFiles.DUNGEONS,DataFiles.ENUMS_DIR,DataFiles.PROGRESSIONS,DataFiles.STATS));
+    ret.add(new LoreDataset(DataFiles.GENERIC_ITEM_EFFECTS,DataFiles.EFFECTS));
+    ret.add(new LoreDataset(DataFiles.PERKS,DataFiles.EFFECTS));
+    ret.add(new LoreDataset(DataFiles.SKILLS,DataFiles.EFFECTS));
+    ret.add(new LoreDataset(DataFiles.TRAITS,DataFiles.SKILLS));
+    ret.add(new LoreDataset(DataFiles.SKIRMISH_TRAITS,DataFiles.TRAITS));
+    ret.add(new LoreDataset(DataFiles.TRAIT_TREES,DataFiles.TRAITS));
+    ret.add(new LoreDataset(DataFiles.RACES,DataFiles.NATIONALITIES,DataFiles.TRAITS));
+    ret.add(new LoreDataset(DataFiles.VIRTUES,DataFiles.TRAITS));
+    ret.add(new LoreDataset(DataFiles.CLASSES,DataFiles.TRAIT_TREES));
+    ret.add(new LoreDataset(DataFiles.START_STATS,DataFiles.CLASSES));
+    ret.add(new LoreDataset(DataFiles.STAT_CONTRIBS,DataFiles.CLASSES));
+    ret.add(new LoreDataset(DataFiles.LEGACIES,DataFiles.CLASSES));
+    ret.add(new LoreDataset(DataFiles.NON_IMBUED_LEGACIES,DataFiles.CLASSES));
+    ret.add(new LoreDataset(DataFiles.RELICS,DataFiles.CLASSES,DataFiles.CRAFTING_DATA,DataFiles.RACES));
+    ret.add(new LoreDataset(DataFiles.LEGENDARY_ATTRS,DataFiles.CLASSES,DataFiles.CRAFTING_DATA,DataFiles.RACES));
+    ret.add(new LoreDataset(DataFiles.PRIVATE_ENCOUNTERS,DataFiles.CLASSES,DataFiles.CRAFTING_DATA,DataFiles.RACES));
+    ret.add(new LoreDataset(DataFiles.LEGENDARY_DATA,DataFiles.CRAFTING_DATA,DataFiles.NON_IMBUED_LEGACIES,DataFiles.RACES));
+    ret.add(new LoreDataset(DataFiles.ITEMS,DataFiles.DPS_TABLES,DataFiles.EMOTES,DataFiles.GENERIC_ITEM_EFFECTS,DataFiles.LEGACIES,DataFiles.LEGENDARY_ATTRS,DataFiles.VALUE_TABLES,DataFiles.NON_IMBUED_LEGACIES,DataFiles.WEAPON_DAMAGE,DataFiles.SPEED_TABLES));
+    ret.add(new LoreDataset(DataFiles.INSTANCES_TREE,DataFiles.PRIVATE_ENCOUNTERS));
+    ret.add(new LoreDataset(DataFiles.LOOTS,DataFiles.ITEMS,DataFiles.RELICS));
+    ret.add(new LoreDataset(DataFiles.REWARDS_TRACKS,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.PAPER_ITEMS,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.SETS,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.TRACERIES,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.ENHANCEMENT_RUNES,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.HOBBIES,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.RECIPES,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.RELIC_MELDING_RECIPES,DataFiles.ITEMS,DataFiles.RELICS));
+    ret.add(new LoreDataset(DataFiles.COLLECTIONS,DataFiles.ITEMS,DataFiles.RELICS,DataFiles.VIRTUES));
+    ret.add(new LoreDataset(DataFiles.INITIAL_GEAR,DataFiles.ITEMS));
+    ret.add(new LoreDataset(DataFiles.MOBS,DataFiles.LOOTS));
+    ret.add(new LoreDataset(DataFiles.GENERIC_MOB_LOOTS,DataFiles.LOOTS));
+    ret.add(new LoreDataset(DataFiles.DISENCHANTMENTS,DataFiles.LOOTS));
+    ret.add(new LoreDataset(DataFiles.CONTAINERS,DataFiles.LOOTS));
+    ret.add(new LoreDataset(DataFiles.INSTANCE_LOOTS,DataFiles.LOOTS,DataFiles.PRIVATE_ENCOUNTERS));
+    ret.add(new LoreDataset(DataFiles.BUFFS,DataFiles.COLORS,DataFiles.LEGENDARY_TITLES,DataFiles.PASSIVES,DataFiles.RELICS,DataFiles.STAT_TOMES,DataFiles.TRACERIES,DataFiles.VIRTUES));
+    ret.add(new LoreDataset(DataFiles.BARTERS,DataFiles.MOBS,DataFiles.NPCS));
+    ret.add(new LoreDataset(DataFiles.VENDORS,DataFiles.MOBS,DataFiles.NPCS));
+    ret.add(new LoreDataset(DataFiles.QUESTS,DataFiles.LANDMARKS,DataFiles.MOBS,DataFiles.NPCS,DataFiles.VIRTUES,DataFiles.WEB_STORE_ITEMS,DataFiles.WORLD_EVENTS));
+    ret.add(new LoreDataset(DataFiles.DEEDS,DataFiles.LANDMARKS,DataFiles.MOBS,DataFiles.NPCS,DataFiles.VIRTUES,DataFiles.WEB_STORE_ITEMS,DataFiles.WORLD_EVENTS));
+    ret.add(new LoreDataset(DataFiles.RESOURCES_MAPS,DataFiles.MOBS,DataFiles.NPCS));
+    ret.add(new LoreDataset(DataFiles.TASKS,DataFiles.QUESTS));
+    ret.add(new LoreDataset(DataFiles.ALLEGIANCES,DataFiles.DEEDS));
+    return ret;
+  }
+
+  /**
+   * Load a dataset, using its manager.
+   * @param key Data file key of the dataset to load.
+   */
+  public static void load(String key)
+  {
+    switch(key)
+    {
+      case DataFiles.SERVERS_DESCRIPTION:
+        ServersManager.getInstance();
+      break;
+      case DataFiles.ENUMS_DIR:
+        LotroEnumsRegistry.getInstance();
+      break;
+      case DataFiles.PROGRESSIONS:
+        ProgressionsManager.getInstance();
+      break;
+      case DataFiles.STATS:
+        StatsRegistry.getInstance();
+      break;
+      case DataFiles.COLORS:
+        ColorsManager.getInstance();
+      break;
+      case DataFiles.PVP:
+        RanksManager.getInstance();
+      break;
+      case DataFiles.TITLES:
+        TitlesManager.getInstance();
+      break;
+      case DataFiles.WORLD_EVENTS:
+        WorldEventsManager.getInstance();
+      break;
+      case DataFiles.MOOD:
+        MoodManager.getInstance();
+      break;
+      case DataFiles.FACTIONS:
+        FactionsRegistry.getInstance();
+      break;
+      case DataFiles.WARBANDS:
+        WarbandsRegistry.getWarbandsRegistry();
+      break;
+      case DataFiles.LANDMARKS:
+        LandmarksManager.getInstance();
+      break;
+      case DataFiles.EMOTES:
+        EmotesManager.getInstance();
+      break;
+      case DataFiles.ITEM_COSMETICS:
+        ItemCosmeticsManager.getInstance();
+      break;
+      case DataFiles.GEO_AREAS:
+        GeoAreasManager.getInstance();
+      break;
+      case DataFiles.LANDBLOCKS:
+        LandblocksManager.getInstance();
+      break;
+      case DataFiles.NATIONALITIES:
+        NationalitiesManager.getInstance();
+      break;
+      case DataFiles.XP_TABLE:
+        XPTableManager.getInstance();
+      break;
+      case DataFiles.VALUE_TABLES:
+        MoneyTables.getMoneyTablesManager();
+      break;
+      case DataFiles.NPCS:
+        NPCsManager.getInstance();
+      break;
+      case DataFiles.WEB_STORE_ITEMS:
+        WebStoreItemsManager.getInstance();
+      break;
+      case DataFiles.WEAPON_DAMAGE:
+        WeaponDamageManager.getWeaponDamageManager();
+      break;
+      case DataFiles.DPS_TABLES:
+        DPSTables.getDPSTablesManager();
+      break;
+      case DataFiles.SPEED_TABLES:
+        WeaponSpeedsManager.getWeaponSpeedsManager();
+      break;
+      case DataFiles.COMBAT_DATA:
+        CombatSystem.getInstance();
+      break;
+      case DataFiles.LEGENDARY_DATA2:
+        LegendarySystem2.getInstance();
+      break;
+      case DataFiles.PASSIVES:
+        PassivesManager.getInstance();
+      break;
+      case DataFiles.LEGENDARY_TITLES:
+        LegendaryTitlesManager.getInstance();
+      break;
+      case DataFiles.STAT_TOMES:
+        StatTomesManager.getInstance();
+      break;
+      case DataFiles.BILLING_GROUPS:
+        BillingGroupsManager.getInstance();
+      break;
+      case DataFiles.CRAFTING_DATA:
+        CraftingSystem.getInstance();
+      break;
+      case DataFiles.PARCHMENT_MAPS:
+        ParchmentMapsManager.getInstance();
+      break;
+      case DataFiles.DUNGEONS:
+        DungeonsManager.getInstance();
+      break;
+      case DataFiles.EFFECTS:
+        EffectsManager.getInstance();
+      break;
+      case DataFiles.GENERIC_ITEM_EFFECTS:
+        GenericItemEffectsManager.getInstance();
+      break;
+      case DataFiles.PERKS:
+        PerksManager.getInstance();
+      break;
+      case DataFiles.SKILLS:
+        SkillsManager.getInstance();
+      break;
+      case DataFiles.TRAITS:
+        TraitsManager.getInstance();
+      break;
+      case DataFiles.SKIRMISH_TRAITS:
+        SkirmishTraitsManager.getInstance();
+      break;
+      case DataFiles.TRAIT_TREES:
+        TraitTreesManager.getInstance();
+      break;
+      case DataFiles.RACES:
+        RacesManager.getInstance();
+      break;
+      case DataFiles.VIRTUES:
+        VirtuesManager.getInstance();
+      break;
+      case DataFiles.CLASSES:
+        ClassesManager.getInstance();
+      break;
+      case DataFiles.START_STATS:
+        StartStatsManager.getInstance();
+      break;
+      case DataFiles.STAT_CONTRIBS:
+        DerivedStatsContributionsMgr.getInstance();
+      break;
+      case DataFiles.LEGACIES:
+        LegaciesManager.getInstance();
+      break;
+      case DataFiles.NON_IMBUED_LEGACIES:
+        NonImbuedLegaciesManager.getInstance();
+      break;
+      case DataFiles.RELICS:
+        RelicsManager.getInstance();
+      break;
+      case DataFiles.LEGENDARY_ATTRS:
+        LegendaryAttributes2Manager.getInstance();
+      break;
+      case DataFiles.PRIVATE_ENCOUNTERS:
+        PrivateEncountersManager.getInstance();
+      break;
+      case DataFiles.LEGENDARY_DATA:
+        LegendarySystem.getInstance();
+      break;
+      case DataFiles.ITEMS:
+        ItemsManager.getInstance();
+      break;
+      case DataFiles.INSTANCES_TREE:
+        InstancesTree.getInstance();
+      break;
+      case DataFiles.LOOTS:
+        LootsManager.getInstance();
+      break;
+      case DataFiles.REWARDS_TRACKS:
+        RewardsTracksManager.getInstance();
+      break;
+      case DataFiles.PAPER_ITEMS:
+        PaperItemsManager.getInstance();
+      break;
+      case DataFiles.SETS:
+        ItemsSetsManager.getInstance();
+      break;
+      case DataFiles.TRACERIES:
+        TraceriesManager.getInstance();
+      break;
+      case DataFiles.ENHANCEMENT_RUNES:
+        EnhancementRunesManager.getInstance();
+      break;
+      case DataFiles.HOBBIES:
+        HobbiesManager.getInstance();
+      break;
+      case DataFiles.RECIPES:
+        RecipesManager.getInstance();
+      break;
+      case DataFiles.RELIC_MELDING_RECIPES:
+        RelicMeldingRecipesManager.getInstance();
+      break;
+      case DataFiles.COLLECTIONS:
+        CollectionsManager.getInstance();
+      break;
+      case DataFiles.INITIAL_GEAR:
+        InitialGearManager.getInstance();
+      break;
+      case DataFiles.MOBS:
+        MobsManager.getInstance();
+      break;
+      case DataFiles.GENERIC_MOB_LOOTS:
+        SpeciesLootsManager.getInstance();
+      break;
+      case DataFiles.DISENCHANTMENTS:
+        DisenchantmentManager.getInstance();
+      break;
+      case DataFiles.CONTAINERS:
+        ContainersManager.getInstance();
+      break;
+      case DataFiles.INSTANCE_LOOTS:
+        InstanceLootTablesManager.getInstance();
+      break;
+      case DataFiles.BUFFS:
+        BuffRegistry.getInstance();
+      break;
+      case DataFiles.BARTERS:
+        BarterersManager.getInstance();
+      break;
+      case DataFiles.VENDORS:
+        VendorsManager.getInstance();
+      break;
+      case DataFiles.QUESTS:
+        QuestsManager.getInstance();
+      break;
+      case DataFiles.DEEDS:
+        DeedsManager.getInstance();
+      break;
+      case DataFiles.RESOURCES_MAPS:
+        ResourcesMapsManager.getInstance();
+      break;
+      case DataFiles.TASKS:
+        TasksRegistry.getInstance();
+      break;
+      case DataFiles.ALLEGIANCES:
+        AllegiancesManager.getInstance();
+      break;
+      default:
+        LOGGER.warn("Unmanaged dataset: "+key);
+    }
+  }
+}
@@ -0,0 +1,329 @@
+package delta.games.lotro.bootstrap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.common.utils.LoreInterners;
+
+/**
+ * Parallel, dependency-aware warm-up of lore datasets.
+ * <p>
+ * Each dataset is loaded on a fork-join pool as soon as all its dependencies are loaded,
+ * so independent datasets are loaded concurrently.
+ * A dataset is loaded exactly once. If it fails, the datasets that depend on it are skipped
+ * and will be loaded lazily, on first use.
+ * Dependencies shall not contain cycles. The warm-up waits for a bounded time: datasets
+ * not loaded by then are reported as timed out, and will be loaded lazily too.
+ * <p>
+ * The shared interners are cleared once all the loaders are finished: by the warm-up
+ * if they are finished in time, otherwise by the last loader that finishes.
+ * <p>
+ * Lock order: each dataset is loaded by the <code>getInstance()</code> method of its manager,
+ * that holds the class lock of that manager while loading. A manager takes the class locks of
+ * the managers it uses, so class locks are always taken in the order of the actual load
+ * dependencies. These dependencies have no cycle (a cycle would recurse forever, even when
+ * loading serially), so concurrent loaders cannot deadlock, even if some dependencies are not
+ * declared in {@link LoreDatasets}: undeclared dependencies only make loaders wait.
+ * @author DAM
+ */
+public class LoreWarmUp
+{
+  private static final Logger LOGGER=Logger.getLogger(LoreWarmUp.class);
+
+  /**
+   * Default timeout, in milliseconds.
+   */
+  public static final long DEFAULT_TIMEOUT=10*60*1000L;
+
+  private int _parallelism;
+  private long _timeout;
+  private List<Node> _nodes;
+  private CountDownLatch _done;
+  private LoadingReport _report;
+  private long _startTime;
+  private volatile boolean _waitOver;
+  private AtomicBoolean _interningDone;
+
+  /**
+   * Constructor.
+   * @param datasets Datasets to load.
+   * @param parallelism Number of loader threads.
+   * @throws IllegalArgumentException if the dependencies of the datasets contain a cycle.
+   */
+  public LoreWarmUp(List<LoreDataset> datasets, int parallelism)
+  {
+    _parallelism=Math.max(1,parallelism);
+    _timeout=DEFAULT_TIMEOUT;
+    _nodes=buildNodes(datasets);
+    checkCycles(_nodes);
+  }
+
+  /**
+   * Set the maximum time to wait for the datasets.
+   * @param timeout Timeout, in milliseconds.
+   */
+  public void setTimeout(long timeout)
+  {
+    _timeout=Math.max(0,timeout);
+  }
+
+  private List<Node> buildNodes(List<LoreDataset> datasets)
+  {
+    List<Node> ret=new ArrayList<Node>();
+    Map<String,Node> nodesMap=new HashMap<String,Node>();
+    for(LoreDataset dataset : datasets)
+    {
+      Node node=new Node(dataset);
+      ret.add(node);
+      nodesMap.put(dataset.getKey(),node);
+    }
+    for(Node node : ret)
+    {
+      for(String dependency : node._dataset.getDependencies())
+      {
+        Node parent=nodesMap.get(dependency);
+        if (parent!=null)
+        {
+          parent._dependents.add(node);
+          node._pendingDependencies.incrementAndGet();
+        }
+        else
+        {
+          LOGGER.warn("Dataset "+node._dataset.getKey()+" depends on an unknown dataset: "+dependency);
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Check that the dependencies of the given nodes contain no cycle.
+   * Nodes are removed as their dependencies are removed: the remaining nodes are in a cycle,
+   * or depend on a cycle.
+   * @param nodes Nodes to check.
+   */
+  private static void checkCycles(List<Node> nodes)
+  {
+    Map<Node,Integer> pending=new HashMap<Node,Integer>();
+    List<Node> ready=new ArrayList<Node>();
+    for(Node node : nodes)
+    {
+      int count=node._pendingDependencies.get();
+      pending.put(node,Integer.valueOf(count));
+      if (count==0)
+      {
+        ready.add(node);
+      }
+    }
+    int nbRemoved=0;
+    while (!ready.isEmpty())
+    {
+      Node node=ready.remove(ready.size()-1);
+      nbRemoved++;
+      for(Node dependent : node._dependents)
+      {
+        int count=pending.get(dependent).intValue()-1;
+        pending.put(dependent,Integer.valueOf(count));
+        if (count==0)
+        {
+          ready.add(dependent);
+        }
+      }
+    }
+    if (nbRemoved<nodes.size())
+    {
+      List<String> keys=new ArrayList<String>();
+      for(Node node : nodes)
+      {
+        if (pending.get(node).intValue()>0)
+        {
+          keys.add(node._dataset.getKey());
+        }
+      }
+      throw new IllegalArgumentException("Cycle in the dependencies of the lore datasets: "+keys);
+    }
+  }
+
+  /**
+   * Load all datasets and wait for completion.
+   * @return A timing report.
+   */
+  public LoadingReport run()
+  {
+    _report=new LoadingReport(_parallelism);
+    _done=new CountDownLatch(_nodes.size());
+    _waitOver=false;
+    _interningDone=new AtomicBoolean(false);
+    _startTime=System.currentTimeMillis();
+    ForkJoinPool pool=new ForkJoinPool(_parallelism);
+    try
+    {
+      for(Node node : _nodes)
+      {
+        if (node._pendingDependencies.get()==0)
+        {
+          pool.execute(new LoadTask(node));
+        }
+      }
+      if (!_done.await(_timeout,TimeUnit.MILLISECONDS))
+      {
+        LOGGER.error("Lore warm-up timed out after "+_timeout+"ms");
+      }
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted while warming-up lore datasets",ie);
+    }
+    finally
+    {
+      // Loaders still running are not interrupted: they complete in the background
+      pool.shutdown();
+    }
+    reportPendingDatasets();
+    _report.setTotalDuration(System.currentTimeMillis()-_startTime);
+    _waitOver=true;
+    clearInterners();
+    return _report;
+  }
+
+  /**
+   * Clear the interners, once the warm-up is over and all the loaders are finished.
+   * Loaders that are still running use the interners: then the last one clears them.
+   */
+  private void clearInterners()
+  {
+    if ((_waitOver) && (_done.getCount()==0) && (_interningDone.compareAndSet(false,true)))
+    {
+      if (LOGGER.isInfoEnabled())
+      {
+        LOGGER.info(LoreInterners.dump());
+      }
+      // Loaded data keeps the shared values: the interners are not needed anymore
+      LoreInterners.clear();
+    }
+  }
+
+  private void reportPendingDatasets()
+  {
+    long now=System.currentTimeMillis()-_startTime;
+    for(Node node : _nodes)
+    {
+      if (node._reported.compareAndSet(false,true))
+      {
+        _report.addTime(new DatasetLoadingTime(node._dataset.getKey(),DatasetLoadingTime.Status.TIMED_OUT,now,0,Thread.currentThread().getName()));
+      }
+    }
+  }
+
+  private void report(Node node, DatasetLoadingTime time)
+  {
+    // Datasets still running at the end of the warm-up are already reported
+    if (node._reported.compareAndSet(false,true))
+    {
+      _report.addTime(time);
+    }
+  }
+
+  private void load(Node node)
+  {
+    String key=node._dataset.getKey();
+    String threadName=Thread.currentThread().getName();
+    long start=System.currentTimeMillis();
+    boolean loaded=false;
+    try
+    {
+      LoreDatasets.load(key);
+      loaded=true;
+    }
+    catch(RuntimeException re)
+    {
+      LOGGER.error("Could not load dataset: "+key,re);
+    }
+    finally
+    {
+      // Always release the dependents, so that the warm-up terminates
+      long end=System.currentTimeMillis();
+      DatasetLoadingTime.Status status=loaded?DatasetLoadingTime.Status.LOADED:DatasetLoadingTime.Status.FAILED;
+      report(node,new DatasetLoadingTime(key,status,start-_startTime,end-start,threadName));
+      release(node,!loaded);
+    }
+  }
+
+  private void release(Node node, boolean failed)
+  {
+    List<Node> ready=new ArrayList<Node>();
+    for(Node dependent : node._dependents)
+    {
+      if (failed)
+      {
+        dependent._failedDependency=true;
+      }
+      if (dependent._pendingDependencies.decrementAndGet()==0)
+      {
+        ready.add(dependent);
+      }
+    }
+    _done.countDown();
+    clearInterners();
+    for(Node dependent : ready)
+    {
+      if (dependent._failedDependency)
+      {
+        long now=System.currentTimeMillis()-_startTime;
+        report(dependent,new DatasetLoadingTime(dependent._dataset.getKey(),DatasetLoadingTime.Status.SKIPPED,now,0,Thread.currentThread().getName()));
+        release(dependent,true);
+      }
+      else
+      {
+        new LoadTask(dependent).fork();
+      }
+    }
+  }
+
+  private static class Node
+  {
+    private LoreDataset _dataset;
+    private List<Node> _dependents;
+    private AtomicInteger _pendingDependencies;
+    private volatile boolean _failedDependency;
+    private AtomicBoolean _reported;
+
+    private Node(LoreDataset dataset)
+    {
+      _dataset=dataset;
+      _dependents=new ArrayList<Node>();
+      _pendingDependencies=new AtomicInteger(0);
+      _failedDependency=false;
+      _reported=new AtomicBoolean(false);
+    }
+  }
+
+  private class LoadTask extends RecursiveAction
+  {
+    private static final long serialVersionUID=1L;
+
+    private transient Node _node;
+
+    private LoadTask(Node node)
+    {
+      _node=node;
+    }
+
+    @Override
+    protected void compute()
+    {
+      load(_node);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package delta.games.lotro.character;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
 import java.util.Date;
 
 import delta.common.utils.misc.Preferences;
@@ -27,6 +28,15 @@ import delta.games.lotro.character.storage.stash.io.xml.StashXMLWriter;
 
 /**
  * Character file description.
+ * <p>
+ * The storage and status data (stash, level history, reputation, data files) may be released
+ * when this character is not used (see {@link CharacterFilesCache}):
+ * <ul>
+ * <li>data is released under the lock of this character, and never while this character is pinned
+ * (see {@link #pinData()}),
+ * <li>released data that is still referenced elsewhere is reused, instead of being loaded again,
+ * so that pending edits are saved.
+ * </ul>
  * @author DAM
  */
 public class CharacterFile
@@ -34,13 +44,14 @@ public class CharacterFile
   private File _rootDir;
   private CharacterInfosManager _infosManager;
   private CharacterLogsManager _logsManager;
-  private LevelHistory _levelHistory;
-  private ReputationStatus _reputation;
+  private ReleasableData<LevelHistory> _levelHistory;
+  private ReleasableData<ReputationStatus> _reputation;
   private CraftingStatusManager _craftingMgr;
   private CharacterDetails _details;
   private CharacterSummary _summary;
-  private ItemsStash _stash;
+  private ReleasableData<ItemsStash> _stash;
   private Preferences _preferences;
+  private int _pins;
 
   /**
    * Constructor.
@@ -52,7 +63,9 @@ public class CharacterFile
     _infosManager=new CharacterInfosManager(this);
     _logsManager=new CharacterLogsManager(this);
     _craftingMgr=new CraftingStatusManager(this);
-    _stash=null;
+    _levelHistory=new ReleasableData<LevelHistory>();
+    _reputation=new ReleasableData<ReputationStatus>();
+    _stash=new ReleasableData<ItemsStash>();
     File preferencesDir=new File(_rootDir,"preferences");
     _preferences=new Preferences(preferencesDir);
   }
@@ -161,11 +174,18 @@ public class CharacterFile
    */
   public ItemsStash getStash()
   {
-    if (_stash==null)
+    ItemsStash stash;
+    synchronized(this)
     {
-      _stash=loadStash();
+      stash=_stash.get();
+      if (stash==null)
+      {
+        stash=loadStash();
+        _stash.set(stash);
+      }
     }
-    return _stash;
+    dataUsed();
+    return stash;
   }
 
   private ItemsStash loadStash()
@@ -183,13 +203,14 @@ public class CharacterFile
   /**
    * Save stash to file.
    */
-  public void saveStash()
+  public synchronized void saveStash()
   {
-    if (_stash!=null)
+    ItemsStash stash=_stash.get();
+    if (stash!=null)
     {
       File stashFile=getStashFile();
       StashXMLWriter writer=new StashXMLWriter();
-      writer.write(stashFile,_stash,EncodingNames.UTF_8);
+      writer.write(stashFile,stash,EncodingNames.UTF_8);
     }
   }
 
@@ -267,17 +288,34 @@ public class CharacterFile
    */
   public LevelHistory getLevelHistory()
   {
-    if (_levelHistory==null)
+    LevelHistory levelHistory;
+    synchronized(this)
     {
-      _levelHistory=loadLevelHistory();
-      if (_levelHistory==null)
+      levelHistory=_levelHistory.get();
+      if (levelHistory==null)
       {
-        LevelHistoryComputer c=new LevelHistoryComputer();
-        _levelHistory=c.buildLevelHistory(this);
-        saveLevelHistory();
+        levelHistory=loadLevelHistory();
+        _levelHistory.set(levelHistory);
+      }
+    }
+    if (levelHistory==null)
+    {
+      // Computed out of the lock: uses the other data of this toon
+      LevelHistoryComputer c=new LevelHistoryComputer();
+      LevelHistory computed=c.buildLevelHistory(this);
+      synchronized(this)
+      {
+        levelHistory=_levelHistory.get();
+        if (levelHistory==null)
+        {
+          levelHistory=computed;
+          _levelHistory.set(levelHistory);
+          saveLevelHistory();
+        }
       }
     }
-    return _levelHistory;
+    dataUsed();
+    return levelHistory;
   }
 
   private LevelHistory loadLevelHistory()
@@ -296,11 +334,17 @@ public class CharacterFile
    * Save reputation to file.
    * @return <code>true</code> if it was successful, <code>false</code> otherwise.
    */
-  public boolean saveLevelHistory()
+  public synchronized boolean saveLevelHistory()
   {
+    LevelHistory levelHistory=_levelHistory.get();
+    if (levelHistory==null)
+    {
+      // Not loaded: nothing to save
+      return true;
+    }
     File historyFile=getLevelHistoryFile();
     LevelHistoryXMLWriter writer=new LevelHistoryXMLWriter();
-    boolean ok=writer.write(historyFile,_levelHistory,EncodingNames.ISO8859_1);
+    boolean ok=writer.write(historyFile,levelHistory,EncodingNames.ISO8859_1);
     return ok;
   }
 
@@ -315,16 +359,27 @@ public class CharacterFile
    */
   public ReputationStatus getReputation()
   {
-    if (_reputation==null)
+    ReputationStatus reputation;
+    synchronized(this)
     {
-      _reputation=loadReputation();
-      if (_reputation==null)
+      reputation=_reputation.get();
+      if (reputation==null)
       {
-        _reputation=new ReputationStatus();
-        saveReputation();
+        reputation=loadReputation();
+        if (reputation==null)
+        {
+          reputation=new ReputationStatus();
+          _reputation.set(reputation);
+          saveReputation();
+        }
+        else
+        {
+          _reputation.set(reputation);
+        }
       }
     }
-    return _reputation;
+    dataUsed();
+    return reputation;
   }
 
   private ReputationStatus loadReputation()
@@ -342,20 +397,26 @@ public class CharacterFile
   /**
    * Revert reputation status from disk.
    */
-  public void revertReputation()
+  public synchronized void revertReputation()
   {
-    _reputation=loadReputation();
+    _reputation.set(loadReputation());
   }
 
   /**
    * Save reputation to file.
    * @return <code>true</code> if it was successful, <code>false</code> otherwise.
    */
-  public boolean saveReputation()
+  public synchronized boolean saveReputation()
   {
+    ReputationStatus reputation=_reputation.get();
+    if (reputation==null)
+    {
+      // Not loaded: nothing to save
+      return true;
+    }
     File reputationFile=getReputationFile();
     ReputationXMLWriter writer=new ReputationXMLWriter();
-    boolean ok=writer.write(reputationFile,_reputation,EncodingNames.ISO8859_1);
+    boolean ok=writer.write(reputationFile,reputation,EncodingNames.ISO8859_1);
     return ok;
   }
 
@@ -379,13 +440,7 @@ public class CharacterFile
    */
   public Date getLastLogUpdate()
   {
-    Date ret=null;
-    File lastFile=_logsManager.getLastLogFile();
-    if (lastFile!=null)
-    {
-      ret=CharacterLogsManager.getDateFromFilename(lastFile.getName());
-    }
-    return ret;
+    return _logsManager.getLastUpdate();
   }
 
   /**
@@ -434,15 +489,68 @@ public class CharacterFile
     return _logsManager.hasLog();
   }
 
+  /**
+   * Record a use of the data of this toon.
+   * Loaded data may be released later, if this toon is not used (see {@link CharacterFilesCache}).
+   */
+  void dataUsed()
+  {
+    CharacterFilesCache.getInstance().use(this);
+  }
+
+  /**
+   * Pin the loaded data of this toon: it is not released until unpinned.
+   * Callers that edit the stash, level history or reputation pin this toon
+   * from the first access to the save (or revert).
+   * Calls shall be balanced by calls to {@link #unpinData()}.
+   */
+  public synchronized void pinData()
+  {
+    _pins++;
+  }
+
+  /**
+   * Unpin the loaded data of this toon.
+   */
+  public void unpinData()
+  {
+    synchronized(this)
+    {
+      if (_pins>0)
+      {
+        _pins--;
+      }
+    }
+    // Tracked again by the cache, so that data can be released later
+    dataUsed();
+  }
+
+  /**
+   * Release the loaded data (storage, status, data files).
+   * They will be loaded again when needed.
+   * Nothing is released if this toon is pinned.
+   * @return <code>true</code> if data was released, <code>false</code> if this toon is pinned.
+   */
+  synchronized boolean releaseData()
+  {
+    if (_pins>0)
+    {
+      return false;
+    }
+    _infosManager.gc();
+    _stash.release();
+    _levelHistory.release();
+    _reputation.release();
+    return true;
+  }
+
   /**
    * Release as much memory as possible.
    */
   public void gc()
   {
-    _infosManager.gc();
-    _stash=null;
-    _levelHistory=null;
-    _reputation=null;
+    CharacterFilesCache.getInstance().remove(this);
+    releaseData();
   }
 
   @Override
@@ -450,4 +558,41 @@ public class CharacterFile
   {
     return getIdentifier();
   }
+
+  /**
+   * Data that can be released.
+   * Released data is kept through a weak reference: if it is still used elsewhere,
+   * the same instance is used again instead of being loaded again.
+   * @param <T> Type of data.
+   */
+  private static class ReleasableData<T>
+  {
+    private T _data;
+    private WeakReference<T> _released;
+
+    private T get()
+    {
+      if ((_data==null) && (_released!=null))
+      {
+        _data=_released.get();
+        _released=null;
+      }
+      return _data;
+    }
+
+    private void set(T data)
+    {
+      _data=data;
+      _released=null;
+    }
+
+    private void release()
+    {
+      if (_data!=null)
+      {
+        _released=new WeakReference<T>(_data);
+        _data=null;
+      }
+    }
+  }
 }
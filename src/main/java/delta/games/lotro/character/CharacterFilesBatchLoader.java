@@ -0,0 +1,209 @@
+package delta.games.lotro.character;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Loads the files of many characters, in parallel.
+ * <p>
+ * Each character is loaded by a single thread. Summaries and details are always kept;
+ * other data (storage, status, data files) are kept as long as the {@link CharacterFilesCache} allows it.
+ * <p>
+ * If the calling thread is interrupted, no character is dropped: the characters
+ * that are not loaded yet are loaded by the calling thread, then the interrupt status is restored.
+ * @author DAM
+ */
+public class CharacterFilesBatchLoader
+{
+  private static final Logger LOGGER=Logger.getLogger(CharacterFilesBatchLoader.class);
+
+  private int _nbThreads;
+  private boolean _loadDetails;
+  private boolean _loadStash;
+  private boolean _loadStatus;
+  private boolean _loadData;
+
+  /**
+   * Constructor.
+   * By default, only summaries are loaded, using a thread per processor.
+   */
+  public CharacterFilesBatchLoader()
+  {
+    _nbThreads=Runtime.getRuntime().availableProcessors();
+    _loadDetails=false;
+    _loadStash=false;
+    _loadStatus=false;
+    _loadData=false;
+  }
+
+  /**
+   * Set the number of threads to use.
+   * @param nbThreads Threads count (at least 1).
+   */
+  public void setThreads(int nbThreads)
+  {
+    _nbThreads=Math.max(1,nbThreads);
+  }
+
+  /**
+   * Indicates if details shall be loaded.
+   * @param loadDetails <code>true</code> to load them, <code>false</code> otherwise.
+   */
+  public void setLoadDetails(boolean loadDetails)
+  {
+    _loadDetails=loadDetails;
+  }
+
+  /**
+   * Indicates if items stash shall be loaded.
+   * @param loadStash <code>true</code> to load it, <code>false</code> otherwise.
+   */
+  public void setLoadStash(boolean loadStash)
+  {
+    _loadStash=loadStash;
+  }
+
+  /**
+   * Indicates if status (reputation, level history) shall be loaded.
+   * @param loadStatus <code>true</code> to load it, <code>false</code> otherwise.
+   */
+  public void setLoadStatus(boolean loadStatus)
+  {
+    _loadStatus=loadStatus;
+  }
+
+  /**
+   * Indicates if character data files shall be loaded.
+   * @param loadData <code>true</code> to load them, <code>false</code> otherwise.
+   */
+  public void setLoadData(boolean loadData)
+  {
+    _loadData=loadData;
+  }
+
+  /**
+   * Load some characters.
+   * @param toons Characters to load.
+   * @return the characters that have a summary, in the order of the given characters.
+   */
+  public List<CharacterFile> load(List<CharacterFile> toons)
+  {
+    long now=System.currentTimeMillis();
+    int nbToons=toons.size();
+    List<CharacterFile> ret=new ArrayList<CharacterFile>(nbToons);
+    if (nbToons==0)
+    {
+      return ret;
+    }
+    int nbThreads=Math.min(nbToons,_nbThreads);
+    ExecutorService executor=Executors.newFixedThreadPool(nbThreads);
+    boolean interrupted=false;
+    try
+    {
+      List<Future<Boolean>> futures=new ArrayList<Future<Boolean>>(nbToons);
+      for(final CharacterFile toon : toons)
+      {
+        Callable<Boolean> task=new Callable<Boolean>()
+        {
+          @Override
+          public Boolean call()
+          {
+            return Boolean.valueOf(load(toon));
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      for(int i=0;i<nbToons;i++)
+      {
+        CharacterFile toon=toons.get(i);
+        Future<Boolean> future=futures.get(i);
+        Boolean loaded=null;
+        while (loaded==null)
+        {
+          if ((interrupted) && (future.cancel(false)))
+          {
+            // Not started yet: load it in this thread
+            loaded=Boolean.valueOf(load(toon));
+          }
+          else
+          {
+            try
+            {
+              loaded=Boolean.valueOf(waitFor(future));
+            }
+            catch(InterruptedException ie)
+            {
+              if (!interrupted)
+              {
+                LOGGER.warn("Interrupted while loading characters: loading the remaining ones in this thread");
+              }
+              interrupted=true;
+            }
+          }
+        }
+        if (loaded.booleanValue())
+        {
+          ret.add(toon);
+        }
+      }
+    }
+    finally
+    {
+      executor.shutdown();
+      if (interrupted)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }
+    long now2=System.currentTimeMillis();
+    LOGGER.info("Loaded "+ret.size()+"/"+nbToons+" characters with "+nbThreads+" threads in "+(now2-now)+"ms.");
+    return ret;
+  }
+
+  private boolean load(CharacterFile toon)
+  {
+    CharacterSummary summary=toon.getSummary();
+    if (summary==null)
+    {
+      return false;
+    }
+    if (_loadDetails)
+    {
+      toon.getDetails();
+    }
+    if (_loadStash)
+    {
+      toon.getStash();
+    }
+    if (_loadStatus)
+    {
+      toon.getReputation();
+      toon.getLevelHistory();
+    }
+    if (_loadData)
+    {
+      toon.getInfosManager().getLastCharacterDescription();
+    }
+    return true;
+  }
+
+  private static boolean waitFor(Future<Boolean> future) throws InterruptedException
+  {
+    try
+    {
+      return future.get().booleanValue();
+    }
+    catch(ExecutionException ee)
+    {
+      LOGGER.error("Error when loading character",ee.getCause());
+    }
+    return false;
+  }
+}
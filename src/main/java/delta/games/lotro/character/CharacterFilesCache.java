@@ -0,0 +1,177 @@
+package delta.games.lotro.character;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Cache of the characters that have loaded data.
+ * <p>
+ * Characters are kept in least recently used order. When too many characters
+ * have loaded data, the least recently used ones release their data (see {@link CharacterFile#gc()}).
+ * Released data is loaded again when it is used.
+ * Pinned characters (see {@link CharacterFile#pinData()}) keep their data, and are tracked again when unpinned.
+ * @author DAM
+ */
+public final class CharacterFilesCache
+{
+  private static final Logger LOGGER=Logger.getLogger(CharacterFilesCache.class);
+
+  /**
+   * Default maximum number of characters with loaded data.
+   */
+  public static final int DEFAULT_MAX_SIZE=50;
+
+  private static final CharacterFilesCache _instance=new CharacterFilesCache(DEFAULT_MAX_SIZE);
+
+  private int _maxSize;
+  // Access-ordered: least recently used first
+  private LinkedHashMap<CharacterFile,CharacterFile> _toons;
+
+  /**
+   * Get the sole instance of this class.
+   * @return the sole instance of this class.
+   */
+  public static CharacterFilesCache getInstance()
+  {
+    return _instance;
+  }
+
+  /**
+   * Constructor.
+   * @param maxSize Maximum number of characters with loaded data.
+   */
+  public CharacterFilesCache(int maxSize)
+  {
+    _maxSize=Math.max(1,maxSize);
+    _toons=new LinkedHashMap<CharacterFile,CharacterFile>(16,0.75f,true);
+  }
+
+  /**
+   * Get the maximum number of characters with loaded data.
+   * @return a characters count.
+   */
+  public synchronized int getMaxSize()
+  {
+    return _maxSize;
+  }
+
+  /**
+   * Set the maximum number of characters with loaded data.
+   * Characters in excess are released immediately.
+   * @param maxSize Maximum size to set (at least 1).
+   */
+  public void setMaxSize(int maxSize)
+  {
+    List<CharacterFile> evicted;
+    synchronized(this)
+    {
+      _maxSize=Math.max(1,maxSize);
+      evicted=evict();
+    }
+    release(evicted);
+  }
+
+  /**
+   * Get the number of characters with loaded data.
+   * @return a characters count.
+   */
+  public synchronized int getSize()
+  {
+    return _toons.size();
+  }
+
+  /**
+   * Indicates if the data of a character is cached.
+   * @param toon Character to test.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public synchronized boolean contains(CharacterFile toon)
+  {
+    return _toons.containsKey(toon);
+  }
+
+  /**
+   * Record a use of the data of a character.
+   * This character becomes the most recently used one. If the cache is full,
+   * the least recently used characters release their data.
+   * @param toon Used character.
+   */
+  public void use(CharacterFile toon)
+  {
+    List<CharacterFile> evicted=null;
+    synchronized(this)
+    {
+      if (_toons.get(toon)==null)
+      {
+        _toons.put(toon,toon);
+        evicted=evict();
+      }
+    }
+    // Release data out of the lock: each character releases its data under its own lock
+    release(evicted);
+  }
+
+  /**
+   * Remove a character from this cache, without releasing its data.
+   * @param toon Character to remove.
+   */
+  public synchronized void remove(CharacterFile toon)
+  {
+    _toons.remove(toon);
+  }
+
+  /**
+   * Release the data of all characters.
+   */
+  public void clear()
+  {
+    List<CharacterFile> evicted;
+    synchronized(this)
+    {
+      evicted=new ArrayList<CharacterFile>(_toons.keySet());
+      _toons.clear();
+    }
+    release(evicted);
+  }
+
+  private List<CharacterFile> evict()
+  {
+    List<CharacterFile> ret=null;
+    Iterator<CharacterFile> it=_toons.keySet().iterator();
+    while ((_toons.size()>_maxSize) && (it.hasNext()))
+    {
+      CharacterFile toon=it.next();
+      it.remove();
+      if (ret==null)
+      {
+        ret=new ArrayList<CharacterFile>();
+      }
+      ret.add(toon);
+    }
+    return ret;
+  }
+
+  private void release(List<CharacterFile> toons)
+  {
+    if (toons==null)
+    {
+      return;
+    }
+    for(CharacterFile toon : toons)
+    {
+      if (LOGGER.isDebugEnabled())
+      {
+        LOGGER.debug("Releasing data of: "+toon);
+      }
+      boolean released=toon.releaseData();
+      if ((!released) && (LOGGER.isDebugEnabled()))
+      {
+        LOGGER.debug("Pinned, data kept: "+toon);
+      }
+    }
+  }
+}
@@ -30,7 +30,9 @@ public class CharacterInfosManager
 
   private CharacterFile _toon;
   private CharacterData _current;
-  private List<CharacterData> _datas;
+  // Copy-on-write (replaced under the lock of this manager, never modified in place),
+  // so that iterations in progress are not disturbed
+  private volatile List<CharacterData> _datas;
 
   /**
    * Constructor.
@@ -70,12 +72,21 @@ public class CharacterInfosManager
     return _datas.get(index);
   }
 
+  /**
+   * Get a snapshot of the loaded character data.
+   * @return a list of character data.
+   */
+  public List<CharacterData> getAllData()
+  {
+    return new ArrayList<CharacterData>(_datas);
+  }
+
   /**
    * Release as much memory as possible.
    */
-  public void gc()
+  public synchronized void gc()
   {
-    _datas.clear();
+    _datas=new ArrayList<CharacterData>();
   }
 
   /**
@@ -92,12 +103,14 @@ public class CharacterInfosManager
     setSummary();
   }
 
-  private void loadAllData()
+  private synchronized void loadAllData()
   {
+    _toon.dataUsed();
     if (!_datas.isEmpty())
     {
       return;
     }
+    List<CharacterData> datas=new ArrayList<CharacterData>();
     File[] dataFiles=getDataFiles();
     if (dataFiles!=null)
     {
@@ -106,10 +119,11 @@ public class CharacterInfosManager
         CharacterData data=CharacterDataIO.getCharacterDescription(dataFile);
         if (data!=null)
         {
-          _datas.add(data);
+          datas.add(data);
         }
       }
     }
+    _datas=datas;
   }
 
   /**
@@ -183,7 +197,7 @@ public class CharacterInfosManager
   public void setSummary()
   {
     CharacterSummary characterSummary=_toon.getSummary();
-    for(CharacterData data : _datas)
+    for(CharacterData data : getAllData())
     {
       data.getSummary().setSummary(characterSummary);
     }
@@ -224,7 +238,7 @@ public class CharacterInfosManager
     }
     CharacterData c=null;
     Long latestDate=null;
-    for(CharacterData data : _datas)
+    for(CharacterData data : getAllData())
     {
       Long date=data.getDate();
       if (date!=null)
@@ -334,7 +348,7 @@ public class CharacterInfosManager
     if (ret)
     {
       data.setFile(dataFile);
-      _datas.add(data);
+      addData(data);
     }
     if (ret)
     {
@@ -356,11 +370,25 @@ public class CharacterInfosManager
     boolean ok=file.delete();
     if (ok)
     {
-      _datas.remove(data);
+      removeData(data);
     }
     return ok;
   }
 
+  private synchronized void addData(CharacterData data)
+  {
+    List<CharacterData> datas=new ArrayList<CharacterData>(_datas);
+    datas.add(data);
+    _datas=datas;
+  }
+
+  private synchronized void removeData(CharacterData data)
+  {
+    List<CharacterData> datas=new ArrayList<CharacterData>(_datas);
+    datas.remove(data);
+    _datas=datas;
+  }
+
   private File getNewInfoFile()
   {
     File ret=null;
@@ -1,15 +1,25 @@
 package delta.games.lotro.character;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import delta.games.lotro.character.events.CharacterEvent;
 import delta.games.lotro.character.events.CharacterEventType;
 import delta.games.lotro.common.id.InternalGameId;
 import delta.games.lotro.utils.events.EventsManager;
+import delta.games.lotro.utils.events.GenericEventsListener;
 
 /**
  * Manages all known toons.
+ * <p>
+ * Toons are indexed by server/name and by internal identifier.
+ * Indexes are built again when toons are added or removed, and when a
+ * character summary update is broadcasted.
+ * Misses are trusted: lookups never scan. A hit on an entry that changed without
+ * notification builds the indexes again.
+ * This class is thread-safe.
  * @author DAM
  */
 public final class CharactersManager
@@ -18,6 +28,9 @@ public final class CharactersManager
 
   private CharactersStorageManager _storage;
   private List<CharacterFile> _toons;
+  // Indexes (null if to be built)
+  private Map<String,CharacterFile> _byServerAndName;
+  private Map<InternalGameId,CharacterFile> _byId;
 
   /**
    * Get the sole instance of this class.
@@ -36,13 +49,66 @@ public final class CharactersManager
     _storage=new CharactersStorageManager();
     _toons=new ArrayList<CharacterFile>();
     _toons.addAll(_storage.getAllToons());
+    GenericEventsListener<CharacterEvent> listener=new GenericEventsListener<CharacterEvent>()
+    {
+      @Override
+      public void eventOccurred(CharacterEvent event)
+      {
+        if (event.getType()==CharacterEventType.CHARACTER_SUMMARY_UPDATED)
+        {
+          invalidateIndexes();
+        }
+      }
+    };
+    EventsManager.addListener(CharacterEvent.class,listener);
+  }
+
+  private synchronized void invalidateIndexes()
+  {
+    _byServerAndName=null;
+    _byId=null;
+  }
+
+  private void buildIndexes()
+  {
+    _byServerAndName=new HashMap<String,CharacterFile>();
+    _byId=new HashMap<InternalGameId,CharacterFile>();
+    for(CharacterFile toon : _toons)
+    {
+      index(toon);
+    }
+  }
+
+  private void index(CharacterFile toon)
+  {
+    CharacterSummary summary=toon.getSummary();
+    if (summary==null)
+    {
+      return;
+    }
+    // Keep the first toon for a key, like a scan of the toons would do
+    String key=getKey(summary.getServer(),summary.getName());
+    if (!_byServerAndName.containsKey(key))
+    {
+      _byServerAndName.put(key,toon);
+    }
+    InternalGameId id=summary.getId();
+    if ((id!=null) && (!_byId.containsKey(id)))
+    {
+      _byId.put(id,toon);
+    }
+  }
+
+  private static String getKey(String serverName, String toonName)
+  {
+    return serverName+"#"+toonName;
   }
 
   /**
    * Get a list of all managed toons, sorted by name.
    * @return a list of toons.
    */
-  public List<CharacterFile> getAllToons()
+  public synchronized List<CharacterFile> getAllToons()
   {
     List<CharacterFile> toons=new ArrayList<CharacterFile>(_toons);
     return toons;
@@ -68,20 +134,26 @@ public final class CharactersManager
    * @param toonName Toon name.
    * @return A toon or <code>null</code> if not found.
    */
-  public CharacterFile getToonById(String serverName, String toonName)
+  public synchronized CharacterFile getToonById(String serverName, String toonName)
   {
-    for(CharacterFile toon : _toons)
+    if (_byServerAndName==null)
     {
-      CharacterSummary summary=toon.getSummary();
-      if (summary!=null)
-      {
-        if ((serverName.equals(summary.getServer())) && (toonName.equals(summary.getName())))
-        {
-          return toon;
-        }
-      }
+      buildIndexes();
+    }
+    CharacterFile ret=_byServerAndName.get(getKey(serverName,toonName));
+    if ((ret!=null) && (!matches(ret,serverName,toonName)))
+    {
+      // Renamed without notification
+      buildIndexes();
+      ret=_byServerAndName.get(getKey(serverName,toonName));
     }
-    return null;
+    return ret;
+  }
+
+  private boolean matches(CharacterFile toon, String serverName, String toonName)
+  {
+    CharacterSummary summary=toon.getSummary();
+    return ((summary!=null) && (serverName.equals(summary.getServer())) && (toonName.equals(summary.getName())));
   }
 
   /**
@@ -89,24 +161,30 @@ public final class CharactersManager
    * @param id Identifier to use.
    * @return A toon or <code>null</code> if not found.
    */
-  public CharacterFile getToonById(InternalGameId id)
+  public synchronized CharacterFile getToonById(InternalGameId id)
   {
     if (id==null)
     {
       return null;
     }
-    for(CharacterFile toon : _toons)
+    if (_byId==null)
     {
-      CharacterSummary summary=toon.getSummary();
-      if (summary!=null)
-      {
-        if (id.equals(summary.getId()))
-        {
-          return toon;
-        }
-      }
+      buildIndexes();
+    }
+    CharacterFile ret=_byId.get(id);
+    if ((ret!=null) && (!matches(ret,id)))
+    {
+      // Identifier changed without notification
+      buildIndexes();
+      ret=_byId.get(id);
     }
-    return null;
+    return ret;
+  }
+
+  private boolean matches(CharacterFile toon, InternalGameId id)
+  {
+    CharacterSummary summary=toon.getSummary();
+    return ((summary!=null) && (id.equals(summary.getId())));
   }
 
   /**
@@ -116,10 +194,21 @@ public final class CharactersManager
    */
   public CharacterFile addToon(CharacterSummary summary)
   {
-    CharacterFile toon=_storage.newToon(summary);
+    CharacterFile toon;
+    synchronized(this)
+    {
+      toon=_storage.newToon(summary);
+      if (toon!=null)
+      {
+        _toons.add(toon);
+        if (_byId!=null)
+        {
+          index(toon);
+        }
+      }
+    }
     if (toon!=null)
     {
-      _toons.add(toon);
       // Broadcast toon creation event...
       CharacterEvent event=new CharacterEvent(CharacterEventType.CHARACTER_ADDED,toon,null);
       EventsManager.invokeEvent(event);
@@ -134,10 +223,19 @@ public final class CharactersManager
    */
   public boolean removeToon(CharacterFile toon)
   {
-    boolean ret=_toons.remove(toon);
+    boolean ret;
+    synchronized(this)
+    {
+      ret=_toons.remove(toon);
+      if (ret)
+      {
+        _storage.removeToon(toon);
+        CharacterFilesCache.getInstance().remove(toon);
+        invalidateIndexes();
+      }
+    }
     if (ret)
     {
-      _storage.removeToon(toon);
       // Broadcast toon deletion event...
       CharacterEvent event=new CharacterEvent(CharacterEventType.CHARACTER_REMOVED,toon,null);
       EventsManager.invokeEvent(event);
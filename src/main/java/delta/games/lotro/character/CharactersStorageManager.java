@@ -104,7 +104,7 @@ public class CharactersStorageManager
    */
   public List<CharacterFile> getAllToons()
   {
-    List<CharacterFile> toons=new ArrayList<CharacterFile>();
+    List<CharacterFile> candidates=new ArrayList<CharacterFile>();
     FileFilter fileFilter=new FileTypePredicate(FileTypePredicate.DIRECTORY);
     File[] toonDirs=_toonsDir.listFiles(fileFilter);
     if (toonDirs!=null)
@@ -114,19 +114,20 @@ public class CharactersStorageManager
         String dirName=toonDir.getName();
         if (dirName.startsWith(TOON_SEED))
         {
-          CharacterFile toon=new CharacterFile(toonDir);
-          CharacterSummary summary=toon.getSummary();
-          if (summary!=null)
-          {
-            toons.add(toon);
-            if (LOGGER.isDebugEnabled())
-            {
-              LOGGER.debug("Loaded: "+summary);
-            }
-          }
+          candidates.add(new CharacterFile(toonDir));
         }
       }
     }
+    // Parse summaries in parallel
+    CharacterFilesBatchLoader loader=new CharacterFilesBatchLoader();
+    List<CharacterFile> toons=loader.load(candidates);
+    if (LOGGER.isDebugEnabled())
+    {
+      for(CharacterFile toon : toons)
+      {
+        LOGGER.debug("Loaded: "+toon.getSummary());
+      }
+    }
     return toons;
   }
 
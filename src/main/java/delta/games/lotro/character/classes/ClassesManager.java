@@ -15,7 +15,7 @@ import delta.games.lotro.config.LotroCoreConfig;
  */
 public class ClassesManager
 {
-  private static ClassesManager _instance=null;
+  private static volatile ClassesManager _instance;
 
   private SimpleClassesManager<ClassDescription> _characterClasses;
   private SimpleClassesManager<MonsterClassDescription> _monsterClasses;
@@ -26,12 +26,21 @@ public class ClassesManager
    */
   public static ClassesManager getInstance()
   {
-    if (_instance==null)
+    ClassesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new ClassesManager();
-      _instance.loadAll();
+      synchronized(ClassesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new ClassesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
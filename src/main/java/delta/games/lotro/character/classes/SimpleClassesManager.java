@@ -10,6 +10,7 @@ import org.apache.log4j.Logger;
 
 import delta.games.lotro.character.classes.io.xml.ClassDescriptionXMLParser;
 import delta.games.lotro.common.comparators.NamedComparator;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to class descriptions.
@@ -21,7 +22,7 @@ public class SimpleClassesManager<T extends AbstractClassDescription>
   private static final Logger LOGGER=Logger.getLogger(SimpleClassesManager.class);
 
   private HashMap<String,T> _mapByKey;
-  private HashMap<Integer,T> _mapByCode;
+  private IntObjectMap<T> _mapByCode;
 
   /**
    * Constructor.
@@ -29,7 +30,7 @@ public class SimpleClassesManager<T extends AbstractClassDescription>
   public SimpleClassesManager()
   {
     _mapByKey=new HashMap<String,T>(10);
-    _mapByCode=new HashMap<Integer,T>(10);
+    _mapByCode=new IntObjectMap<T>(10);
   }
 
   /**
@@ -47,7 +48,7 @@ public class SimpleClassesManager<T extends AbstractClassDescription>
     for(AbstractClassDescription classDescription : classDescriptions)
     {
       _mapByKey.put(classDescription.getKey(),(T)classDescription);
-      Integer codeKey=Integer.valueOf(classDescription.getCode());
+      int codeKey=classDescription.getCode();
       _mapByCode.put(codeKey,(T)classDescription);
     }
     long now2=System.currentTimeMillis();
@@ -74,7 +75,7 @@ public class SimpleClassesManager<T extends AbstractClassDescription>
    */
   public T getByCode(int code)
   {
-    return _mapByCode.get(Integer.valueOf(code));
+    return _mapByCode.get(code);
   }
 
   /**
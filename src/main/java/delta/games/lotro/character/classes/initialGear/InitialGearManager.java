@@ -19,7 +19,7 @@ public class InitialGearManager
 {
   private static final Logger LOGGER=Logger.getLogger(InitialGearManager.class);
 
-  private static InitialGearManager _instance=null;
+  private static volatile InitialGearManager _instance;
 
   private Map<String,InitialGearDefinition> _gearMap;
 
@@ -29,12 +29,21 @@ public class InitialGearManager
    */
   public static InitialGearManager getInstance()
   {
-    if (_instance==null)
+    InitialGearManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new InitialGearManager();
-      _instance.loadAll();
+      synchronized(InitialGearManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new InitialGearManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
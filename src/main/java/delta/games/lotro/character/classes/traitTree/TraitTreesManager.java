@@ -1,7 +1,6 @@
 package delta.games.lotro.character.classes.traitTree;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -9,6 +8,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.character.classes.traitTree.io.xml.TraitTreeXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to trait trees.
@@ -18,10 +18,10 @@ public class TraitTreesManager
 {
   private static final Logger LOGGER=Logger.getLogger(TraitTreesManager.class);
 
-  private static TraitTreesManager _instance=null;
+  private static volatile TraitTreesManager _instance;
 
-  private HashMap<Integer,TraitTree> _cacheByID;
-  private HashMap<Integer,TraitTree> _cacheByCode;
+  private IntObjectMap<TraitTree> _cacheByID;
+  private IntObjectMap<TraitTree> _cacheByCode;
 
   /**
    * Get the sole instance of this class.
@@ -29,12 +29,21 @@ public class TraitTreesManager
    */
   public static TraitTreesManager getInstance()
   {
-    if (_instance==null)
+    TraitTreesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new TraitTreesManager();
-      _instance.loadAll();
+      synchronized(TraitTreesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new TraitTreesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -42,8 +51,8 @@ public class TraitTreesManager
    */
   private TraitTreesManager()
   {
-    _cacheByID=new HashMap<Integer,TraitTree>(10);
-    _cacheByCode=new HashMap<Integer,TraitTree>(10);
+    _cacheByID=new IntObjectMap<TraitTree>(10);
+    _cacheByCode=new IntObjectMap<TraitTree>(10);
   }
 
   /**
@@ -69,10 +78,10 @@ public class TraitTreesManager
   private void registerTraitTree(TraitTree traitTree)
   {
     // ID
-    Integer id=Integer.valueOf(traitTree.getIdentifier());
+    int id=traitTree.getIdentifier();
     _cacheByID.put(id,traitTree);
     // Code
-    Integer code=Integer.valueOf(traitTree.getType().getCode());
+    int code=traitTree.getType().getCode();
     _cacheByCode.put(code,traitTree);
   }
 
@@ -83,7 +92,7 @@ public class TraitTreesManager
    */
   public TraitTree getTraitTree(int id)
   {
-    TraitTree ret=_cacheByID.get(Integer.valueOf(id));
+    TraitTree ret=_cacheByID.get(id);
     return ret;
   }
 
@@ -94,7 +103,7 @@ public class TraitTreesManager
    */
   public TraitTree getTraitTreeByCode(int code)
   {
-    TraitTree ret=_cacheByCode.get(Integer.valueOf(code));
+    TraitTree ret=_cacheByCode.get(code);
     return ret;
   }
 }
@@ -0,0 +1,15 @@
+package delta.games.lotro.character.log;
+
+/**
+ * Handler for streamed character log items.
+ * @author DAM
+ */
+public interface CharacterLogItemsHandler
+{
+  /**
+   * Handle a log item.
+   * @param item Item to handle.
+   * @return <code>true</code> to continue, <code>false</code> to stop the iteration.
+   */
+  boolean handleItem(CharacterLogItem item);
+}
@@ -0,0 +1,905 @@
+package delta.games.lotro.character.log;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.character.log.CharacterLogItem.LogItemType;
+
+/**
+ * Append-only, date-partitioned store for a character log.
+ * <p>
+ * File layout:
+ * <ul>
+ * <li>header: magic, format version, character name,
+ * <li>segments: kind, date, items count, body size, then the items of a single date.
+ * </ul>
+ * A segment either appends items to its date, or replaces all the previous items of its date
+ * (an empty replacement segment removes a date).
+ * Updates append segments at the end of the file, without rewriting it.
+ * A store which header cannot be read is never updated: appends are refused,
+ * and a full rewrite keeps the previous file aside (<code>.bad</code> suffix).
+ * <p>
+ * A date index (segments of each date) is built when the store is first used,
+ * by reading the segment headers only. Items are read on demand.
+ * <p>
+ * Items are given by date, most recent date first (like in {@link CharacterLog}),
+ * and in insertion order within a date.
+ * This class is not thread-safe.
+ * @author DAM
+ */
+public class CharacterLogStore
+{
+  private static final Logger LOGGER=Logger.getLogger(CharacterLogStore.class);
+
+  private static final int MAGIC=0x4C434C47; // 'LCLG'
+  private static final int FORMAT_VERSION=1;
+  private static final byte APPEND_SEGMENT=1;
+  private static final byte REPLACE_SEGMENT=2;
+  private static final int SEGMENT_HEADER_SIZE=1+8+4+4;
+  private static final LogItemType[] TYPES=LogItemType.values();
+
+  private File _file;
+  private String _name;
+  // Index: date to live segments
+  private Map<Long,DayIndex> _index;
+  // Sorted dates (most recent first), null if to be computed
+  private long[] _dates;
+  private int _nbItems;
+  // Length of the valid data in the file
+  private long _length;
+  // Indicates if segments can be appended to the file
+  private boolean _writable;
+  // Last item of the most recent date, null if to be read
+  private CharacterLogItem _lastItem;
+
+  /**
+   * Constructor.
+   * @param file Store file.
+   */
+  public CharacterLogStore(File file)
+  {
+    _file=file;
+  }
+
+  /**
+   * Get the store file.
+   * @return the store file.
+   */
+  public File getFile()
+  {
+    return _file;
+  }
+
+  /**
+   * Indicates if the store file exists.
+   * @return <code>true</code> if it does, <code>false</code> otherwise.
+   */
+  public boolean exists()
+  {
+    return _file.exists();
+  }
+
+  /**
+   * Get the name of the character.
+   * @return a character name or <code>null</code> if the store does not exist.
+   */
+  public String getName()
+  {
+    loadIndex();
+    return _name;
+  }
+
+  /**
+   * Get the number of items in this store.
+   * @return a positive integer.
+   */
+  public int getNbItems()
+  {
+    loadIndex();
+    return _nbItems;
+  }
+
+  /**
+   * Get a sorted list of dates found in the stored log items.
+   * @return A possibly empty list of dates (oldest first).
+   */
+  public List<Long> getDates()
+  {
+    long[] dates=getSortedDates();
+    List<Long> ret=new ArrayList<Long>(dates.length);
+    for(int i=dates.length-1;i>=0;i--)
+    {
+      ret.add(Long.valueOf(dates[i]));
+    }
+    return ret;
+  }
+
+  /**
+   * Get all the items for a given date.
+   * @param date Date to use.
+   * @return A possibly empty list of items.
+   */
+  public List<CharacterLogItem> getItemsOfDay(long date)
+  {
+    loadIndex();
+    List<CharacterLogItem> ret=new ArrayList<CharacterLogItem>();
+    DayIndex day=_index.get(Long.valueOf(date));
+    if (day!=null)
+    {
+      RandomAccessFile in=null;
+      try
+      {
+        in=new RandomAccessFile(_file,"r");
+        readDay(in,day,null,ret);
+      }
+      catch(IOException ioe)
+      {
+        LOGGER.warn("Could not read character log store: "+_file,ioe);
+      }
+      finally
+      {
+        close(in);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Iterate over the stored items, most recent date first.
+   * The date bounds of the filter are used to select dates without reading their items.
+   * @param filter Filter to use (may be <code>null</code>).
+   * @param handler Handler for the selected items.
+   */
+  public void iterate(CharacterLogItemsFilter filter, CharacterLogItemsHandler handler)
+  {
+    long[] dates=getSortedDates();
+    Long minDate=(filter!=null)?filter.getMinDate():null;
+    Long maxDate=(filter!=null)?filter.getMaxDate():null;
+    List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+    RandomAccessFile in=null;
+    try
+    {
+      for(long date : dates)
+      {
+        if ((maxDate!=null) && (date>maxDate.longValue()))
+        {
+          continue;
+        }
+        if ((minDate!=null) && (date<minDate.longValue()))
+        {
+          break;
+        }
+        if (in==null)
+        {
+          in=new RandomAccessFile(_file,"r");
+        }
+        items.clear();
+        readDay(in,_index.get(Long.valueOf(date)),filter,items);
+        for(CharacterLogItem item : items)
+        {
+          if (!handler.handleItem(item))
+          {
+            return;
+          }
+        }
+      }
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read character log store: "+_file,ioe);
+    }
+    finally
+    {
+      close(in);
+    }
+  }
+
+  /**
+   * Get the items that pass a filter.
+   * @param filter Filter to use (may be <code>null</code>).
+   * @return A possibly empty list of items, most recent date first.
+   */
+  public List<CharacterLogItem> getItems(CharacterLogItemsFilter filter)
+  {
+    final List<CharacterLogItem> ret=new ArrayList<CharacterLogItem>();
+    CharacterLogItemsHandler handler=new CharacterLogItemsHandler()
+    {
+      @Override
+      public boolean handleItem(CharacterLogItem item)
+      {
+        ret.add(item);
+        return true;
+      }
+    };
+    iterate(filter,handler);
+    return ret;
+  }
+
+  /**
+   * Load the whole log.
+   * @return A character log or <code>null</code> if the store does not exist.
+   */
+  public CharacterLog getLog()
+  {
+    if (!exists())
+    {
+      return null;
+    }
+    CharacterLog ret=new CharacterLog(getName());
+    for(CharacterLogItem item : getItems(null))
+    {
+      ret.addLogItem(item);
+    }
+    return ret;
+  }
+
+  /**
+   * Append items. Existing items are kept.
+   * @param items Items to add, in any date order.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean appendItems(List<CharacterLogItem> items)
+  {
+    return writeSegments(APPEND_SEGMENT,items);
+  }
+
+  /**
+   * Replace the items of a given date.
+   * @param date Targeted date.
+   * @param items Items that replace existing ones (expected to be of the given date).
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean replaceItemsOfDate(long date, List<CharacterLogItem> items)
+  {
+    loadIndex();
+    try
+    {
+      appendSegment(REPLACE_SEGMENT,date,items);
+      return true;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write character log store: "+_file,ioe);
+      return false;
+    }
+  }
+
+  /**
+   * Remove all the items for a given date.
+   * @param date Date to use.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean removeItemsOfDay(long date)
+  {
+    return replaceItemsOfDate(date,new ArrayList<CharacterLogItem>());
+  }
+
+  /**
+   * Update this store so that it contains the items of the given log.
+   * Only the differences are written: new items of a date are appended,
+   * the dates which stored items changed otherwise are replaced, and the missing dates are removed.
+   * <p>
+   * Logs usually grow at their most recent date: if the log has the stored items count for each past date,
+   * and the stored items of the most recent date (compared by count and last item), only the new items
+   * are appended, without reading the stored items. Otherwise, all stored items are read and compared.
+   * @param log Log to use.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean update(CharacterLog log)
+  {
+    loadIndex();
+    if ((_length==0) && (_name==null))
+    {
+      _name=log.getName();
+    }
+    List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+    int nbItems=log.getNbItems();
+    for(int i=0;i<nbItems;i++)
+    {
+      items.add(log.getLogItem(i));
+    }
+    try
+    {
+      Map<Long,List<CharacterLogItem>> itemsByDate=groupByDate(items);
+      if (isAppendOnly(itemsByDate))
+      {
+        for(Map.Entry<Long,List<CharacterLogItem>> entry : itemsByDate.entrySet())
+        {
+          List<CharacterLogItem> itemsOfDate=entry.getValue();
+          DayIndex day=_index.get(entry.getKey());
+          int nbStoredItems=(day!=null)?day._nbItems:0;
+          if (itemsOfDate.size()>nbStoredItems)
+          {
+            appendSegment(APPEND_SEGMENT,entry.getKey().longValue(),itemsOfDate.subList(nbStoredItems,itemsOfDate.size()));
+          }
+        }
+        return true;
+      }
+      Map<Long,List<CharacterLogItem>> storedItemsByDate=readItemsByDate();
+      for(Map.Entry<Long,List<CharacterLogItem>> entry : itemsByDate.entrySet())
+      {
+        long date=entry.getKey().longValue();
+        List<CharacterLogItem> itemsOfDate=entry.getValue();
+        List<CharacterLogItem> storedItems=storedItemsByDate.remove(entry.getKey());
+        if (storedItems==null)
+        {
+          appendSegment(APPEND_SEGMENT,date,itemsOfDate);
+        }
+        else if (isPrefix(storedItems,itemsOfDate))
+        {
+          int nbStoredItems=storedItems.size();
+          if (itemsOfDate.size()>nbStoredItems)
+          {
+            appendSegment(APPEND_SEGMENT,date,itemsOfDate.subList(nbStoredItems,itemsOfDate.size()));
+          }
+        }
+        else
+        {
+          appendSegment(REPLACE_SEGMENT,date,itemsOfDate);
+        }
+      }
+      for(Long removedDate : storedItemsByDate.keySet())
+      {
+        appendSegment(REPLACE_SEGMENT,removedDate.longValue(),new ArrayList<CharacterLogItem>());
+      }
+      return true;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not update character log store: "+_file,ioe);
+      return false;
+    }
+  }
+
+  /**
+   * Indicates if the given items only add items to the stored ones.
+   * Past dates are compared by items count, the most recent date by items count and last item.
+   * @param itemsByDate Items to check, by date.
+   * @return <code>true</code> if the stored items are kept, <code>false</code> if they shall be compared.
+   * @throws IOException If the last stored item cannot be read.
+   */
+  private boolean isAppendOnly(Map<Long,List<CharacterLogItem>> itemsByDate) throws IOException
+  {
+    long[] dates=getSortedDates();
+    for(int i=0;i<dates.length;i++)
+    {
+      Long date=Long.valueOf(dates[i]);
+      List<CharacterLogItem> itemsOfDate=itemsByDate.get(date);
+      int nbStoredItems=_index.get(date)._nbItems;
+      if ((itemsOfDate==null) || (nbStoredItems==0) || (itemsOfDate.size()<nbStoredItems))
+      {
+        return false;
+      }
+      if (i==0)
+      {
+        // Most recent date: check the last stored item
+        if (!isSameItem(getLastItem(),itemsOfDate.get(nbStoredItems-1)))
+        {
+          return false;
+        }
+      }
+      else if (itemsOfDate.size()!=nbStoredItems)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the last stored item of the most recent date.
+   * @return An item (the store shall not be empty).
+   * @throws IOException If it cannot be read.
+   */
+  private CharacterLogItem getLastItem() throws IOException
+  {
+    if (_lastItem==null)
+    {
+      DayIndex day=_index.get(Long.valueOf(getSortedDates()[0]));
+      List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+      RandomAccessFile in=null;
+      try
+      {
+        in=new RandomAccessFile(_file,"r");
+        readDay(in,day,null,items);
+      }
+      finally
+      {
+        close(in);
+      }
+      _lastItem=items.get(items.size()-1);
+    }
+    return _lastItem;
+  }
+
+  private boolean isPrefix(List<CharacterLogItem> prefix, List<CharacterLogItem> items)
+  {
+    int nbPrefixItems=prefix.size();
+    if (nbPrefixItems>items.size())
+    {
+      return false;
+    }
+    for(int i=0;i<nbPrefixItems;i++)
+    {
+      if (!isSameItem(prefix.get(i),items.get(i)))
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isSameItem(CharacterLogItem item, CharacterLogItem other)
+  {
+    return ((item.getLogItemType()==other.getLogItemType())
+        && (Objects.equals(item.getLabel(),other.getLabel()))
+        && (Objects.equals(item.getAssociatedUrl(),other.getAssociatedUrl())));
+  }
+
+  private Map<Long,List<CharacterLogItem>> readItemsByDate() throws IOException
+  {
+    Map<Long,List<CharacterLogItem>> ret=new HashMap<Long,List<CharacterLogItem>>();
+    if (_index.isEmpty())
+    {
+      return ret;
+    }
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(_file,"r");
+      for(Map.Entry<Long,DayIndex> entry : _index.entrySet())
+      {
+        List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+        readDay(in,entry.getValue(),null,items);
+        ret.put(entry.getKey(),items);
+      }
+    }
+    finally
+    {
+      close(in);
+    }
+    return ret;
+  }
+
+  /**
+   * Write a whole log to this store, replacing its previous contents.
+   * The file is written to a temporary file first, then renamed.
+   * @param log Log to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean write(CharacterLog log)
+  {
+    List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+    int nbItems=log.getNbItems();
+    for(int i=0;i<nbItems;i++)
+    {
+      items.add(log.getLogItem(i));
+    }
+    return rewrite(log.getName(),items);
+  }
+
+  /**
+   * Rewrite the store file, to remove the data of replaced segments.
+   * A store which header cannot be read is not compacted.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean compact()
+  {
+    if (!exists())
+    {
+      return true;
+    }
+    loadIndex();
+    if (!_writable)
+    {
+      LOGGER.warn("Bad character log store, not compacted: "+_file);
+      return false;
+    }
+    List<CharacterLogItem> items=getItems(null);
+    return rewrite(getName(),items);
+  }
+
+  private boolean rewrite(String name, List<CharacterLogItem> items)
+  {
+    loadIndex();
+    File parentDir=_file.getAbsoluteFile().getParentFile();
+    if ((parentDir!=null) && (!parentDir.exists()))
+    {
+      parentDir.mkdirs();
+    }
+    File tmpFile=new File(_file.getPath()+".tmp");
+    boolean ok=false;
+    DataOutputStream out=null;
+    try
+    {
+      out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile),64*1024));
+      writeHeader(out,name);
+      Map<Long,List<CharacterLogItem>> itemsByDate=groupByDate(items);
+      for(Map.Entry<Long,List<CharacterLogItem>> entry : itemsByDate.entrySet())
+      {
+        writeSegment(out,REPLACE_SEGMENT,entry.getKey().longValue(),entry.getValue());
+      }
+      out.close();
+      out=null;
+      if (_writable)
+      {
+        _file.delete();
+      }
+      else
+      {
+        // Keep the unreadable file aside
+        File badFile=new File(_file.getPath()+".bad");
+        badFile.delete();
+        _file.renameTo(badFile);
+      }
+      ok=tmpFile.renameTo(_file);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write character log store: "+_file,ioe);
+    }
+    finally
+    {
+      close(out);
+      if (!ok)
+      {
+        tmpFile.delete();
+      }
+    }
+    // Index to be built again
+    _index=null;
+    _dates=null;
+    return ok;
+  }
+
+  private boolean writeSegments(byte kind, List<CharacterLogItem> items)
+  {
+    loadIndex();
+    try
+    {
+      Map<Long,List<CharacterLogItem>> itemsByDate=groupByDate(items);
+      for(Map.Entry<Long,List<CharacterLogItem>> entry : itemsByDate.entrySet())
+      {
+        appendSegment(kind,entry.getKey().longValue(),entry.getValue());
+      }
+      return true;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write character log store: "+_file,ioe);
+      return false;
+    }
+  }
+
+  private Map<Long,List<CharacterLogItem>> groupByDate(List<CharacterLogItem> items)
+  {
+    Map<Long,List<CharacterLogItem>> ret=new HashMap<Long,List<CharacterLogItem>>();
+    for(CharacterLogItem item : items)
+    {
+      Long key=Long.valueOf(item.getDate());
+      List<CharacterLogItem> itemsOfDate=ret.get(key);
+      if (itemsOfDate==null)
+      {
+        itemsOfDate=new ArrayList<CharacterLogItem>();
+        ret.put(key,itemsOfDate);
+      }
+      itemsOfDate.add(item);
+    }
+    return ret;
+  }
+
+  private void appendSegment(byte kind, long date, List<CharacterLogItem> items) throws IOException
+  {
+    if (!_writable)
+    {
+      throw new IOException("Bad character log store, not updated: "+_file);
+    }
+    ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+    DataOutputStream out=new DataOutputStream(bytes);
+    if (_length==0)
+    {
+      writeHeader(out,_name);
+    }
+    long segmentOffset=_length+out.size();
+    writeSegment(out,kind,date,items);
+    out.flush();
+    RandomAccessFile file=null;
+    try
+    {
+      File parentDir=_file.getAbsoluteFile().getParentFile();
+      if ((parentDir!=null) && (!parentDir.exists()))
+      {
+        parentDir.mkdirs();
+      }
+      file=new RandomAccessFile(_file,"rw");
+      // Drops any truncated segment at the end of the file
+      file.setLength(_length);
+      file.seek(_length);
+      file.write(bytes.toByteArray());
+    }
+    finally
+    {
+      close(file);
+    }
+    _length+=bytes.size();
+    indexSegment(kind,date,segmentOffset+SEGMENT_HEADER_SIZE,items.size());
+    long[] dates=getSortedDates();
+    if ((dates.length>0) && (dates[0]==date) && (!items.isEmpty()))
+    {
+      _lastItem=items.get(items.size()-1);
+    }
+  }
+
+  private void writeHeader(DataOutputStream out, String name) throws IOException
+  {
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    writeString(out,name);
+  }
+
+  private void writeSegment(DataOutputStream out, byte kind, long date, List<CharacterLogItem> items) throws IOException
+  {
+    ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+    DataOutputStream body=new DataOutputStream(bytes);
+    for(CharacterLogItem item : items)
+    {
+      LogItemType type=item.getLogItemType();
+      body.writeByte((type!=null)?type.ordinal():-1);
+      writeString(body,item.getLabel());
+      writeString(body,item.getAssociatedUrl());
+    }
+    body.flush();
+    out.writeByte(kind);
+    out.writeLong(date);
+    out.writeInt(items.size());
+    out.writeInt(bytes.size());
+    bytes.writeTo(out);
+  }
+
+  private void writeString(DataOutputStream out, String value) throws IOException
+  {
+    if (value==null)
+    {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private String readString(DataInputStream in) throws IOException
+  {
+    int length=in.readInt();
+    if (length<0)
+    {
+      return null;
+    }
+    byte[] bytes=new byte[length];
+    in.readFully(bytes);
+    return new String(bytes,StandardCharsets.UTF_8);
+  }
+
+  private long[] getSortedDates()
+  {
+    loadIndex();
+    if (_dates==null)
+    {
+      long[] dates=new long[_index.size()];
+      int index=0;
+      for(Long date : _index.keySet())
+      {
+        dates[index]=date.longValue();
+        index++;
+      }
+      Arrays.sort(dates);
+      // Most recent first
+      for(int i=0,j=dates.length-1;i<j;i++,j--)
+      {
+        long tmp=dates[i];
+        dates[i]=dates[j];
+        dates[j]=tmp;
+      }
+      _dates=dates;
+    }
+    return _dates;
+  }
+
+  private void loadIndex()
+  {
+    if (_index!=null)
+    {
+      return;
+    }
+    _index=new HashMap<Long,DayIndex>();
+    _dates=null;
+    _lastItem=null;
+    _nbItems=0;
+    _length=0;
+    _name=null;
+    _writable=false;
+    if ((!_file.exists()) || (_file.length()==0))
+    {
+      _writable=true;
+      return;
+    }
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(_file,"r");
+      long fileLength=in.length();
+      int magic=in.readInt();
+      int version=in.readInt();
+      if ((magic!=MAGIC) || (version!=FORMAT_VERSION))
+      {
+        LOGGER.warn("Bad character log store format, it will not be updated: "+_file);
+        return;
+      }
+      int nameLength=in.readInt();
+      if (nameLength>=0)
+      {
+        byte[] bytes=new byte[nameLength];
+        in.readFully(bytes);
+        _name=new String(bytes,StandardCharsets.UTF_8);
+      }
+      _length=in.getFilePointer();
+      while (_length+SEGMENT_HEADER_SIZE<=fileLength)
+      {
+        byte kind=in.readByte();
+        long date=in.readLong();
+        int count=in.readInt();
+        int size=in.readInt();
+        long bodyOffset=_length+SEGMENT_HEADER_SIZE;
+        if ((count<0) || (size<0) || (bodyOffset+size>fileLength))
+        {
+          // Corrupted or truncated segment
+          break;
+        }
+        indexSegment(kind,date,bodyOffset,count);
+        _length=bodyOffset+size;
+        in.seek(_length);
+      }
+      if (_length<fileLength)
+      {
+        LOGGER.warn("Ignored bad or truncated data at the end of character log store: "+_file);
+      }
+      _writable=true;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read character log store: "+_file,ioe);
+    }
+    finally
+    {
+      close(in);
+    }
+  }
+
+  private void indexSegment(byte kind, long date, long bodyOffset, int count)
+  {
+    // The most recent date may change
+    _lastItem=null;
+    Long key=Long.valueOf(date);
+    DayIndex day=_index.get(key);
+    if (kind==REPLACE_SEGMENT)
+    {
+      if (day!=null)
+      {
+        _nbItems-=day._nbItems;
+        _index.remove(key);
+        _dates=null;
+        day=null;
+      }
+      if (count==0)
+      {
+        return;
+      }
+    }
+    if (day==null)
+    {
+      day=new DayIndex();
+      _index.put(key,day);
+      _dates=null;
+    }
+    day.addSegment(bodyOffset,count);
+    _nbItems+=count;
+  }
+
+  private void readDay(RandomAccessFile in, DayIndex day, CharacterLogItemsFilter filter, List<CharacterLogItem> storage) throws IOException
+  {
+    for(int i=0;i<day._nbSegments;i++)
+    {
+      readSegment(in,day._offsets[i],filter,storage);
+    }
+  }
+
+  private void readSegment(RandomAccessFile in, long bodyOffset, CharacterLogItemsFilter filter, List<CharacterLogItem> storage) throws IOException
+  {
+    in.seek(bodyOffset-SEGMENT_HEADER_SIZE);
+    in.readByte(); // Kind
+    long date=in.readLong();
+    int count=in.readInt();
+    int size=in.readInt();
+    byte[] body=new byte[size];
+    in.readFully(body);
+    DataInputStream bodyIn=new DataInputStream(new ByteArrayInputStream(body));
+    for(int j=0;j<count;j++)
+    {
+      CharacterLogItem item=readItem(bodyIn,date);
+      if ((filter==null) || (filter.accept(item)))
+      {
+        storage.add(item);
+      }
+    }
+  }
+
+  private CharacterLogItem readItem(DataInputStream in, long date) throws IOException
+  {
+    int typeIndex=in.readByte();
+    LogItemType type=null;
+    if (typeIndex>=0)
+    {
+      if (typeIndex>=TYPES.length)
+      {
+        throw new IOException("Bad log item type: "+typeIndex);
+      }
+      type=TYPES[typeIndex];
+    }
+    String label=readString(in);
+    String url=readString(in);
+    return new CharacterLogItem(date,type,label,url);
+  }
+
+  private void close(Closeable closeable)
+  {
+    if (closeable!=null)
+    {
+      try
+      {
+        closeable.close();
+      }
+      catch(IOException ioe)
+      {
+        LOGGER.warn("Could not close character log store: "+_file,ioe);
+      }
+    }
+  }
+
+  /**
+   * Live segments of a date.
+   */
+  private static class DayIndex
+  {
+    private long[] _offsets=new long[1];
+    private int _nbSegments;
+    private int _nbItems;
+
+    private void addSegment(long bodyOffset, int count)
+    {
+      if (_nbSegments==_offsets.length)
+      {
+        _offsets=Arrays.copyOf(_offsets,_nbSegments*2);
+      }
+      _offsets[_nbSegments]=bodyOffset;
+      _nbSegments++;
+      _nbItems+=count;
+    }
+  }
+}
@@ -17,13 +17,24 @@ import delta.games.lotro.utils.Formats;
 
 /**
  * Manages log files for a single toon.
+ * <p>
+ * The log is kept in a store file ({@link CharacterLogStore}).
+ * Legacy XML log files ('log *.xml') are read if there is no store file yet.
+ * They are migrated to the store by an explicit step ({@link #migrateXmlLog()}),
+ * or when a new log is written.
  * @author DAM
  */
 public class CharacterLogsManager
 {
   private static final Logger LOGGER=Logger.getLogger(CharacterLogsManager.class);
 
+  /**
+   * Name of the log store file.
+   */
+  private static final String STORE_FILENAME="log.bin";
+
   private CharacterFile _toon;
+  private CharacterLogStore _store;
 
   /**
    * Constructor.
@@ -41,14 +52,88 @@ public class CharacterLogsManager
    */
   public CharacterLog getLastLog()
   {
-    CharacterLog log=null;
+    CharacterLogStore store=getLogStore();
+    if (store.exists())
+    {
+      return store.getLog();
+    }
+    return loadXmlLog();
+  }
+
+  /**
+   * Get the log store.
+   * The store may not exist yet, see {@link #migrateXmlLog()}.
+   * @return the log store.
+   */
+  public CharacterLogStore getLogStore()
+  {
+    if (_store==null)
+    {
+      File storeFile=new File(_toon.getRootDir(),STORE_FILENAME);
+      _store=new CharacterLogStore(storeFile);
+    }
+    return _store;
+  }
+
+  private CharacterLog loadXmlLog()
+  {
+    CharacterLog ret=null;
     File lastLog=getLastLogFile();
     if (lastLog!=null)
     {
       CharacterLogXMLParser xmlLogParser=new CharacterLogXMLParser();
-      log=xmlLogParser.parseXML(lastLog);
+      ret=xmlLogParser.parseXML(lastLog);
+    }
+    return ret;
+  }
+
+  /**
+   * Migrate the most recent XML log file (if any) to the log store.
+   * Nothing is done if the store already exists.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean migrateXmlLog()
+  {
+    CharacterLogStore store=getLogStore();
+    if (store.exists())
+    {
+      return true;
+    }
+    File lastLog=getLastLogFile();
+    if (lastLog==null)
+    {
+      return true;
+    }
+    CharacterLog log=loadXmlLog();
+    boolean ok=((log!=null) && (store.write(log)));
+    if (ok)
+    {
+      LOGGER.info("Migrated character log ["+lastLog+"]: "+log.getNbItems()+" items.");
+    }
+    else
+    {
+      LOGGER.warn("Could not migrate character log ["+lastLog+"]!");
+    }
+    return ok;
+  }
+
+  /**
+   * Get the date of the last log update.
+   * @return A date or <code>null</code> if there's no log.
+   */
+  public Date getLastUpdate()
+  {
+    File storeFile=getLogStore().getFile();
+    if (storeFile.exists())
+    {
+      return new Date(storeFile.lastModified());
+    }
+    File lastFile=getLastLogFile();
+    if (lastFile!=null)
+    {
+      return getDateFromFilename(lastFile.getName());
     }
-    return log;
+    return null;
   }
 
   /**
@@ -74,8 +159,8 @@ public class CharacterLogsManager
   }
 
   /**
-   * Get the most recent log file.
-   * @return a file or <code>null</code> if there is no log file for this toon.
+   * Get the most recent XML log file.
+   * @return a file or <code>null</code> if there is no XML log file for this toon.
    */
   public File getLastLogFile()
   {
@@ -117,17 +202,31 @@ public class CharacterLogsManager
    */
   public boolean hasLog()
   {
-    File lastLog=getLastLogFile();
-    return (lastLog!=null);
+    return ((getLogStore().exists()) || (getLastLogFile()!=null));
   }
 
   /**
-   * Write a new log file for this toon.
+   * Write a new log for this toon.
+   * Only the differences with the stored log are written (see {@link CharacterLogStore#update(CharacterLog)}).
    * @param log Log to write.
    * @return <code>true</code> it it succeeds, <code>false</code> otherwise.
    */
   public boolean writeNewLog(CharacterLog log)
   {
+    return getLogStore().update(log);
+  }
+
+  /**
+   * Export the log to a new XML log file.
+   * @return <code>true</code> it it succeeds, <code>false</code> otherwise.
+   */
+  public boolean exportToXml()
+  {
+    CharacterLog log=getLastLog();
+    if (log==null)
+    {
+      return false;
+    }
     boolean ret=true;
     File logFile=getNewLogFile();
     File parentFile=logFile.getParentFile();
@@ -9,6 +9,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.character.races.io.xml.NationalityDescriptionXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to nationalities descriptions.
@@ -18,9 +19,9 @@ public class NationalitiesManager
 {
   private static final Logger LOGGER=Logger.getLogger(NationalitiesManager.class);
 
-  private static NationalitiesManager _instance=null;
+  private static volatile NationalitiesManager _instance;
 
-  private HashMap<Integer,NationalityDescription> _cache;
+  private IntObjectMap<NationalityDescription> _cache;
   private HashMap<String,NationalityDescription> _mapByName;
 
   /**
@@ -29,12 +30,21 @@ public class NationalitiesManager
    */
   public static NationalitiesManager getInstance()
   {
-    if (_instance==null)
+    NationalitiesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new NationalitiesManager();
-      _instance.loadAll();
+      synchronized(NationalitiesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new NationalitiesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -42,7 +52,7 @@ public class NationalitiesManager
    */
   private NationalitiesManager()
   {
-    _cache=new HashMap<Integer,NationalityDescription>(10);
+    _cache=new IntObjectMap<NationalityDescription>(10);
     _mapByName=new HashMap<String,NationalityDescription>(10);
   }
 
@@ -68,7 +78,7 @@ public class NationalitiesManager
   private void register(NationalityDescription nationalityDescription)
   {
     // ID
-    _cache.put(Integer.valueOf(nationalityDescription.getIdentifier()),nationalityDescription);
+    _cache.put(nationalityDescription.getIdentifier(),nationalityDescription);
     // Name
     _mapByName.put(nationalityDescription.getName(),nationalityDescription);
     // Alias
@@ -85,7 +95,7 @@ public class NationalitiesManager
    */
   public NationalityDescription getNationalityDescription(int code)
   {
-    return _cache.get(Integer.valueOf(code));
+    return _cache.get(code);
   }
 
   /**
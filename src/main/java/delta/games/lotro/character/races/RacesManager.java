@@ -12,6 +12,7 @@ import delta.games.lotro.character.races.io.xml.RaceDescriptionXMLParser;
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to race descriptions.
@@ -21,10 +22,10 @@ public class RacesManager
 {
   private static final Logger LOGGER=Logger.getLogger(RacesManager.class);
 
-  private static RacesManager _instance=null;
+  private static volatile RacesManager _instance;
 
-  private HashMap<Integer,RaceDescription> _cacheByID;
-  private HashMap<Integer,RaceDescription> _cacheByCode;
+  private IntObjectMap<RaceDescription> _cacheByID;
+  private IntObjectMap<RaceDescription> _cacheByCode;
   private HashMap<String,RaceDescription> _cacheByKey;
   private HashMap<String,RaceDescription> _cacheByLegacyLabel;
 
@@ -34,12 +35,21 @@ public class RacesManager
    */
   public static RacesManager getInstance()
   {
-    if (_instance==null)
+    RacesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new RacesManager();
-      _instance.loadAll();
+      synchronized(RacesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new RacesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -47,8 +57,8 @@ public class RacesManager
    */
   private RacesManager()
   {
-    _cacheByID=new HashMap<Integer,RaceDescription>(10);
-    _cacheByCode=new HashMap<Integer,RaceDescription>(10);
+    _cacheByID=new IntObjectMap<RaceDescription>(10);
+    _cacheByCode=new IntObjectMap<RaceDescription>(10);
     _cacheByKey=new HashMap<String,RaceDescription>(10);
     _cacheByLegacyLabel=new HashMap<String,RaceDescription>(10);
   }
@@ -70,10 +80,10 @@ public class RacesManager
     {
       // ID
       int id=raceDescription.getIdentifier();
-      _cacheByID.put(Integer.valueOf(id),raceDescription);
+      _cacheByID.put(id,raceDescription);
       // Code
       int code=raceDescription.getCode();
-      _cacheByCode.put(Integer.valueOf(code),raceDescription);
+      _cacheByCode.put(code,raceDescription);
       // Key
       _cacheByKey.put(raceDescription.getKey(),raceDescription);
       // Legacy label
@@ -119,7 +129,7 @@ public class RacesManager
    */
   public RaceDescription getByCode(int code)
   {
-    RaceDescription ret=_cacheByCode.get(Integer.valueOf(code));
+    RaceDescription ret=_cacheByCode.get(code);
     return ret;
   }
 
@@ -19,7 +19,6 @@ import delta.games.lotro.common.requirements.UsageRequirement;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
 import delta.games.lotro.lore.items.details.GrantedElement;
-import delta.games.lotro.lore.items.details.ItemDetailsManager;
 
 /**
  * Finds the skills that match some filter/constraints.
@@ -109,12 +108,7 @@ public class SkillsFinder
   {
     for(Item item : ItemsManager.getInstance().getAllItems())
     {
-      ItemDetailsManager detailsMgr=item.getDetails();
-      if (detailsMgr==null)
-      {
-        continue;
-      }
-      for(GrantedElement<?> element : detailsMgr.getItemDetails(GrantedElement.class))
+      for(GrantedElement<?> element : item.getGrantedElements())
       {
         Identifiable identifiable=element.getGrantedElement();
         if (identifiable instanceof SkillDescription)
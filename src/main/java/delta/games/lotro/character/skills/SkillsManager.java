@@ -3,7 +3,6 @@ package delta.games.lotro.character.skills;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -13,6 +12,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.common.enums.SkillCategory;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to skills.
@@ -22,9 +22,9 @@ public class SkillsManager
 {
   private static final Logger LOGGER=Logger.getLogger(SkillsManager.class);
 
-  private static SkillsManager _instance=null;
+  private static volatile SkillsManager _instance;
 
-  private HashMap<Integer,SkillDescription> _cache;
+  private IntObjectMap<SkillDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -32,12 +32,21 @@ public class SkillsManager
    */
   public static SkillsManager getInstance()
   {
-    if (_instance==null)
+    SkillsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new SkillsManager();
-      _instance.loadAll();
+      synchronized(SkillsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new SkillsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -45,7 +54,7 @@ public class SkillsManager
    */
   private SkillsManager()
   {
-    _cache=new HashMap<Integer,SkillDescription>(100);
+    _cache=new IntObjectMap<SkillDescription>(100);
   }
 
   /**
@@ -79,7 +88,7 @@ public class SkillsManager
    */
   public void registerSkill(SkillDescription skill)
   {
-    _cache.put(Integer.valueOf(skill.getIdentifier()),skill);
+    _cache.put(skill.getIdentifier(),skill);
   }
 
   /**
@@ -121,7 +130,7 @@ public class SkillsManager
   public SkillDescription getSkill(int id)
   {
     SkillDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -31,6 +31,8 @@ import delta.games.lotro.lore.collections.pets.CosmeticPetDescription;
 import delta.games.lotro.utils.Proxy;
 import delta.games.lotro.utils.i18n.I18nFacade;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 
 /**
  * Parser for skill descriptions stored in XML.
@@ -66,17 +68,23 @@ public class SkillDescriptionXMLParser
    */
   public List<SkillDescription> parseSkillsFile(File source)
   {
-    List<SkillDescription> skills=new ArrayList<SkillDescription>();
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final List<SkillDescription> skills=new ArrayList<SkillDescription>();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      List<Element> skillTags=DOMParsingTools.getChildTags(root);
-      for(Element skillTag : skillTags)
+      @Override
+      public void handleRecord(Element skillTag)
       {
         SkillDescription skill=parseSkillTag(skillTag);
         SkillEffectsXmlIO.readSkillEffects(skillTag,skill);
         skills.add(skill);
       }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    if (!ok)
+    {
+      // Partially loaded skills are not kept
+      LOGGER.warn("Could not load skills from: "+source);
+      skills.clear();
     }
     return skills;
   }
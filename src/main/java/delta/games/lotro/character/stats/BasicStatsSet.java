@@ -12,17 +12,28 @@ import delta.common.utils.text.EndOfLine;
 import delta.games.lotro.common.stats.StatDescription;
 import delta.games.lotro.common.stats.StatOperator;
 import delta.games.lotro.common.stats.StatUtils;
-import delta.games.lotro.utils.NumericUtils;
 
 /**
  * Set of basic stats.
+ * <p>
+ * Elements are kept in insertion order. Sets with more than a few elements
+ * also use a lookup table indexed by the registry slot of the stats.
  * @author DAM
  */
 public class BasicStatsSet
 {
   private static final Logger LOGGER=Logger.getLogger(BasicStatsSet.class);
 
+  /**
+   * Minimum number of elements to use a lookup table.
+   */
+  private static final int LOOKUP_TABLE_THRESHOLD=8;
+
   private List<StatsSetElement> _elements;
+  // Lookup table: stat slot to element (null if not used)
+  private StatsSetElement[] _bySlot;
+  // Number of elements that are not in the lookup table
+  private int _unindexed;
 
   /**
    * Constructor.
@@ -59,6 +70,8 @@ public class BasicStatsSet
   public void clear()
   {
     _elements.clear();
+    _bySlot=null;
+    _unindexed=0;
   }
 
   /**
@@ -77,7 +90,7 @@ public class BasicStatsSet
 
   /**
    * Get the managed elements.
-   * @return a list of stat elements.
+   * @return a list of stat elements (not to be modified directly).
    */
   public List<StatsSetElement> getStatElements()
   {
@@ -104,7 +117,8 @@ public class BasicStatsSet
     {
       if (_elements.get(i).getStat()==stat)
       {
-        _elements.remove(i);
+        StatsSetElement removed=_elements.remove(i);
+        unindex(removed);
       }
       else
       {
@@ -173,7 +187,7 @@ public class BasicStatsSet
     }
     else
     {
-      _elements.add(elementToSet);
+      register(elementToSet);
     }
   }
 
@@ -183,13 +197,13 @@ public class BasicStatsSet
    */
   public void setStats(BasicStatsSet stats)
   {
-    _elements.clear();
+    clear();
     for(StatsSetElement element : stats._elements)
     {
       StatsSetElement newElement=new StatsSetElement(element.getStat(),element.getOperator());
       newElement.setValue(element.getValue());
       newElement.setDescriptionOverride(element.getDescriptionOverride());
-      _elements.add(newElement);
+      register(newElement);
     }
   }
 
@@ -200,7 +214,18 @@ public class BasicStatsSet
    */
   public void addStat(StatDescription stat, float value)
   {
-    addStat(stat,Float.valueOf(value));
+    StatsSetElement existing=findElement(stat);
+    if (existing!=null)
+    {
+      existing.setDescriptionOverride(null);
+      existing.add(value);
+    }
+    else
+    {
+      StatsSetElement element=new StatsSetElement(stat,StatOperator.ADD);
+      element.setValue(value);
+      register(element);
+    }
   }
 
   /**
@@ -236,20 +261,17 @@ public class BasicStatsSet
     StatsSetElement existing=findElement(elementToAdd.getStat());
     if (existing!=null)
     {
-      Number value=existing.getValue();
-      Number valueToAdd=elementToAdd.getValue();
-      Number newValue=NumericUtils.add(value,valueToAdd);
       // Update this one
       if (!Objects.equals(existing.getDescriptionOverride(),elementToAdd.getDescriptionOverride()))
       {
         //LOGGER.warn("Add stat will replace description!");
       }
       existing.setDescriptionOverride(elementToAdd.getDescriptionOverride());
-      existing.setValue(newValue);
+      existing.add(elementToAdd);
     }
     else
     {
-      _elements.add(new StatsSetElement(elementToAdd));
+      register(new StatsSetElement(elementToAdd));
     }
   }
 
@@ -260,6 +282,22 @@ public class BasicStatsSet
    */
   public StatsSetElement findElement(StatDescription stat)
   {
+    if (_bySlot!=null)
+    {
+      int slot=stat.getSlot();
+      if ((slot>=0) && (slot<_bySlot.length))
+      {
+        StatsSetElement element=_bySlot[slot];
+        if ((element!=null) && (element.getStat()==stat))
+        {
+          return element;
+        }
+      }
+      if (_unindexed==0)
+      {
+        return null;
+      }
+    }
     for(StatsSetElement element : _elements)
     {
       if (element.getStat()==stat)
@@ -270,6 +308,76 @@ public class BasicStatsSet
     return null;
   }
 
+  private void register(StatsSetElement element)
+  {
+    _elements.add(element);
+    if (_bySlot!=null)
+    {
+      index(element);
+    }
+    else if (_elements.size()>LOOKUP_TABLE_THRESHOLD)
+    {
+      buildLookupTable();
+    }
+  }
+
+  private void buildLookupTable()
+  {
+    int maxSlot=0;
+    for(StatsSetElement element : _elements)
+    {
+      maxSlot=Math.max(maxSlot,element.getStat().getSlot());
+    }
+    _bySlot=new StatsSetElement[maxSlot+1];
+    _unindexed=0;
+    for(StatsSetElement element : _elements)
+    {
+      index(element);
+    }
+  }
+
+  private void index(StatsSetElement element)
+  {
+    int slot=element.getStat().getSlot();
+    if (slot<0)
+    {
+      _unindexed++;
+      return;
+    }
+    if (slot>=_bySlot.length)
+    {
+      StatsSetElement[] newTable=new StatsSetElement[Math.max(slot+1,_bySlot.length*2)];
+      System.arraycopy(_bySlot,0,newTable,0,_bySlot.length);
+      _bySlot=newTable;
+    }
+    if (_bySlot[slot]==null)
+    {
+      _bySlot[slot]=element;
+    }
+    else
+    {
+      // Slot collision (stats from another registry)
+      _unindexed++;
+    }
+  }
+
+  private void unindex(StatsSetElement element)
+  {
+    if (_bySlot==null)
+    {
+      return;
+    }
+    int slot=element.getStat().getSlot();
+    if ((slot>=0) && (slot<_bySlot.length) && (_bySlot[slot]==element))
+    {
+      _bySlot[slot]=null;
+    }
+    else
+    {
+      _unindexed--;
+    }
+  }
+
   @Override
   public boolean equals(Object object)
   {
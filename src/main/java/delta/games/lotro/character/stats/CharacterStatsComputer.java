@@ -13,7 +13,6 @@ import delta.games.lotro.character.gear.GearSlotContents;
 import delta.games.lotro.character.gear.GearSlots;
 import delta.games.lotro.character.stats.base.BaseStatsManager;
 import delta.games.lotro.character.stats.base.DerivedStatsContributionsMgr;
-import delta.games.lotro.character.stats.base.io.DerivedStatContributionsIO;
 import delta.games.lotro.character.stats.computer.MultiplyContribsComputer;
 import delta.games.lotro.character.stats.computer.StatsStorage;
 import delta.games.lotro.character.stats.computer.SubstractContribsComputer;
@@ -75,24 +74,74 @@ public class CharacterStatsComputer
     _contribs=contribs;
   }
 
+  /**
+   * Get the contributions of the base stats (from character class, race and level).
+   * @param c Character to use.
+   * @return some contributions.
+   */
+  List<StatsContribution> getBaseStats(CharacterData c)
+  {
+    return _baseStatsMgr.getBaseStats(c.getCharacterClass(),c.getRace(),c.getLevel());
+  }
+
+  /**
+   * Get the contributions of the tomes.
+   * @param c Character to use.
+   * @return some contributions.
+   */
+  List<StatsContribution> getTomesStats(CharacterData c)
+  {
+    TomesSet tomes=c.getTomes();
+    return _tomesMgr.getContribution(tomes);
+  }
+
   private List<StatsContribution> getEquipmentStats(int characterLevel, CharacterGear equipment)
   {
     List<StatsContribution> ret=new ArrayList<StatsContribution>();
     // Iterate on slots
     for(GearSlot slot : GearSlots.getSlotsForStatsComputation())
     {
-      GearSlotContents slotContents=equipment.getSlotContents(slot,false);
-      if (slotContents!=null)
+      StatsContribution contrib=getGearSlotStats(slot,equipment);
+      if (contrib!=null)
       {
-        ItemInstance<?> item=slotContents.getItem();
-        if (item!=null)
-        {
-          BasicStatsSet itemStats=getItemStats(item);
-          StatsContribution contrib=StatsContribution.getGearContrib(slot,item,itemStats);
-          ret.add(contrib);
-        }
+        ret.add(contrib);
       }
     }
+    // Items sets and traceries sets
+    ret.addAll(getSetsStats(characterLevel,equipment));
+    return ret;
+  }
+
+  /**
+   * Get the contribution of a gear slot.
+   * @param slot Slot to use.
+   * @param equipment Equipment to use.
+   * @return A contribution or <code>null</code> if none.
+   */
+  StatsContribution getGearSlotStats(GearSlot slot, CharacterGear equipment)
+  {
+    GearSlotContents slotContents=equipment.getSlotContents(slot,false);
+    if (slotContents!=null)
+    {
+      ItemInstance<?> item=slotContents.getItem();
+      if (item!=null)
+      {
+        BasicStatsSet itemStats=getItemStats(item);
+        return StatsContribution.getGearContrib(slot,item,itemStats);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the contributions of the items sets and traceries sets.
+   * @param characterLevel Character level.
+   * @param equipment Equipment to use.
+   * @return some contributions.
+   */
+  List<StatsContribution> getSetsStats(int characterLevel, CharacterGear equipment)
+  {
+    List<StatsContribution> ret=new ArrayList<StatsContribution>();
     // Items sets
     List<StatsContribution> itemsSetsStats=_itemsSetsMgr.getStats(characterLevel,equipment);
     ret.addAll(itemsSetsStats);
@@ -118,31 +167,43 @@ public class CharacterStatsComputer
    * @return A set of stats.
    */
   public BasicStatsSet getStats(CharacterData c)
+  {
+    // Base stats (from character class, race and level)
+    List<StatsContribution> baseStatsContribs=getBaseStats(c);
+    // Tomes
+    List<StatsContribution> tomeStatsContribs=getTomesStats(c);
+    // Equipment
+    List<StatsContribution> equipmentStats=getEquipmentStats(c.getLevel(),c.getEquipment());
+    // Buffs
+    List<StatsContribution> buffContribs=c.getBuffs().getContributions(c);
+    // Traits
+    List<StatsContribution> traitContribs=c.getTraits().getContributions(c);
+    return getStats(c,baseStatsContribs,tomeStatsContribs,equipmentStats,buffContribs,traitContribs);
+  }
+
+  /**
+   * Compute the stats of a character, using the given source contributions.
+   * The given contributions may be modified.
+   * @param c Character to use.
+   * @param baseStatsContribs Contributions of the base stats.
+   * @param tomeStatsContribs Contributions of the tomes.
+   * @param equipmentStats Contributions of the equipment (gear slots then sets).
+   * @param buffContribs Contributions of the buffs.
+   * @param traitContribs Contributions of the traits.
+   * @return A set of stats.
+   */
+  BasicStatsSet getStats(CharacterData c, List<StatsContribution> baseStatsContribs, List<StatsContribution> tomeStatsContribs,
+      List<StatsContribution> equipmentStats, List<StatsContribution> buffContribs, List<StatsContribution> traitContribs)
   {
     if (_contribs!=null)
     {
       _contribs.clear();
     }
     List<StatsContribution> allContribs=new ArrayList<StatsContribution>();
-    // Base stats (from character class, race and level)
-    List<StatsContribution> baseStatsContribs=_baseStatsMgr.getBaseStats(c.getCharacterClass(),c.getRace(),c.getLevel());
     allContribs.addAll(baseStatsContribs);
-
-    // Tomes
-    TomesSet tomes=c.getTomes();
-    List<StatsContribution> tomeStatsContribs=_tomesMgr.getContribution(tomes);
     allContribs.addAll(tomeStatsContribs);
-
-    // Equipment
-    List<StatsContribution> equipmentStats=getEquipmentStats(c.getLevel(),c.getEquipment());
     allContribs.addAll(equipmentStats);
-
-    // Buffs
-    List<StatsContribution> buffContribs=c.getBuffs().getContributions(c);
     allContribs.addAll(buffContribs);
-
-    // Traits
-    List<StatsContribution> traitContribs=c.getTraits().getContributions(c);
     allContribs.addAll(traitContribs);
 
     // Virtues
@@ -174,7 +235,7 @@ public class CharacterStatsComputer
 
     List<StatsContribution> allContribsWithDerivedStats=new ArrayList<StatsContribution>(allContribs);
     // Derived contributions
-    DerivedStatsContributionsMgr derivedStatsMgr=DerivedStatContributionsIO.load();
+    DerivedStatsContributionsMgr derivedStatsMgr=DerivedStatsContributionsMgr.getInstance();
     List<StatsContribution> derivedStatContribs=derivedStatsMgr.getContributions(c.getCharacterClass(),total);
     if ((_contribs!=null) && (_contribs.isResolveIndirectContributions()))
     {
@@ -421,10 +482,10 @@ public class CharacterStatsComputer
     float ret=0f;
     if (rating!=null)
     {
-      Double percentage=curve.getPercentage(rating.doubleValue(),level);
-      if (percentage!=null)
+      double percentage=curve.percentage(rating.doubleValue(),level);
+      if (!Double.isNaN(percentage))
       {
-        ret=percentage.floatValue();
+        ret=(float)percentage;
       }
     }
     return ret;
@@ -0,0 +1,185 @@
+package delta.games.lotro.character.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import delta.games.lotro.character.CharacterData;
+import delta.games.lotro.character.gear.CharacterGear;
+import delta.games.lotro.character.gear.GearSlot;
+import delta.games.lotro.character.gear.GearSlots;
+import delta.games.lotro.character.stats.contribs.StatsContribution;
+import delta.games.lotro.character.stats.contribs.StatsContributionsManager;
+
+/**
+ * Stats computation session for a single character.
+ * <p>
+ * Keeps the contributions of each source (base stats, tomes, gear slots, sets,
+ * buffs and traits) and only computes again the ones that were declared as changed.
+ * Virtues, hope/dread, derived stats and ratings depend on the aggregated stats,
+ * so they are computed on each call, with the same code as a full computation.
+ * <p>
+ * Computed stats are the same as the ones given by
+ * {@link CharacterStatsComputer#getStats(CharacterData)} for the current state of the character.
+ * @author DAM
+ */
+public class CharacterStatsSession
+{
+  private CharacterStatsComputer _computer;
+  private CharacterData _character;
+  private List<GearSlot> _slots;
+  // Cached contributions (null if to be computed)
+  private List<StatsContribution> _base;
+  private List<StatsContribution> _tomes;
+  private Map<GearSlot,StatsContribution> _gear;
+  private List<StatsContribution> _sets;
+  private List<StatsContribution> _buffs;
+  private List<StatsContribution> _traits;
+
+  /**
+   * Constructor.
+   * @param character Character to use.
+   */
+  public CharacterStatsSession(CharacterData character)
+  {
+    this(character,null);
+  }
+
+  /**
+   * Constructor.
+   * @param character Character to use.
+   * @param contribs Optional contributions manager.
+   */
+  public CharacterStatsSession(CharacterData character, StatsContributionsManager contribs)
+  {
+    _computer=new CharacterStatsComputer(contribs);
+    _character=character;
+    _slots=GearSlots.getSlotsForStatsComputation();
+    _gear=new HashMap<GearSlot,StatsContribution>();
+  }
+
+  /**
+   * Get the managed character.
+   * @return the managed character.
+   */
+  public CharacterData getCharacter()
+  {
+    return _character;
+  }
+
+  /**
+   * Invalidate all the cached contributions.
+   * To be used when the character level, class or race changes.
+   */
+  public void invalidateAll()
+  {
+    _base=null;
+    _tomes=null;
+    _gear.clear();
+    _sets=null;
+    _buffs=null;
+    _traits=null;
+  }
+
+  /**
+   * Invalidate the contributions of the tomes.
+   */
+  public void tomesChanged()
+  {
+    _tomes=null;
+  }
+
+  /**
+   * Invalidate the contributions of a gear slot.
+   * The contributions of the items sets and traceries sets are also invalidated.
+   * @param slot Changed slot.
+   */
+  public void gearSlotChanged(GearSlot slot)
+  {
+    _gear.remove(slot);
+    _sets=null;
+  }
+
+  /**
+   * Invalidate the contributions of the whole gear.
+   */
+  public void gearChanged()
+  {
+    _gear.clear();
+    _sets=null;
+  }
+
+  /**
+   * Invalidate the contributions of the buffs.
+   */
+  public void buffsChanged()
+  {
+    _buffs=null;
+  }
+
+  /**
+   * Invalidate the contributions of the traits.
+   */
+  public void traitsChanged()
+  {
+    _traits=null;
+  }
+
+  /**
+   * Compute the stats of the managed character.
+   * @return A set of stats.
+   */
+  public BasicStatsSet getStats()
+  {
+    CharacterData c=_character;
+    if (_base==null)
+    {
+      _base=_computer.getBaseStats(c);
+    }
+    if (_tomes==null)
+    {
+      _tomes=_computer.getTomesStats(c);
+    }
+    CharacterGear equipment=c.getEquipment();
+    List<StatsContribution> equipmentStats=new ArrayList<StatsContribution>();
+    for(GearSlot slot : _slots)
+    {
+      StatsContribution contrib=_gear.get(slot);
+      if ((contrib==null) && (!_gear.containsKey(slot)))
+      {
+        contrib=_computer.getGearSlotStats(slot,equipment);
+        _gear.put(slot,contrib);
+      }
+      if (contrib!=null)
+      {
+        equipmentStats.add(contrib);
+      }
+    }
+    if (_sets==null)
+    {
+      _sets=_computer.getSetsStats(c.getLevel(),equipment);
+    }
+    equipmentStats.addAll(_sets);
+    if (_buffs==null)
+    {
+      _buffs=c.getBuffs().getContributions(c);
+    }
+    if (_traits==null)
+    {
+      _traits=c.getTraits().getContributions(c);
+    }
+    // The computation updates the contributions, so give it copies
+    return _computer.getStats(c,copy(_base),copy(_tomes),copy(equipmentStats),copy(_buffs),copy(_traits));
+  }
+
+  private List<StatsContribution> copy(List<StatsContribution> contribs)
+  {
+    List<StatsContribution> ret=new ArrayList<StatsContribution>(contribs.size());
+    for(StatsContribution contrib : contribs)
+    {
+      ret.add(new StatsContribution(contrib));
+    }
+    return ret;
+  }
+}
@@ -18,8 +18,17 @@ public class StatsSetElement
 {
   private static final Logger LOGGER=Logger.getLogger(StatsSetElement.class);
 
+  private static final byte NO_VALUE=0;
+  private static final byte INT_VALUE=1;
+  private static final byte FLOAT_VALUE=2;
+
   private StatDescription _stat;
   private StatOperator _operator;
+  // Value: kind tag and primitive storage
+  private byte _kind;
+  private int _intValue;
+  private float _floatValue;
+  // Boxed value, built on demand
   private Number _value;
   private String _descriptionOverride;
 
@@ -43,6 +52,9 @@ public class StatsSetElement
     _stat=source._stat;
     _operator=source._operator;
     _descriptionOverride=source._descriptionOverride;
+    _kind=source._kind;
+    _intValue=source._intValue;
+    _floatValue=source._floatValue;
     _value=source._value;
   }
 
@@ -79,16 +91,42 @@ public class StatsSetElement
    */
   public Number getValue()
   {
+    if ((_value==null) && (_kind!=NO_VALUE))
+    {
+      _value=(_kind==INT_VALUE)?(Number)Integer.valueOf(_intValue):(Number)Float.valueOf(_floatValue);
+    }
     return _value;
   }
 
+  /**
+   * Indicates if this element has a value.
+   * @return <code>true</code> if it has, <code>false</code> otherwise.
+   */
+  public boolean hasValue()
+  {
+    return (_kind!=NO_VALUE);
+  }
+
+  /**
+   * Indicates if the value of this element is an integer.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public boolean isIntValue()
+  {
+    return (_kind==INT_VALUE);
+  }
+
   /**
    * Get a float value.
    * @return a float value.
    */
   public float getFloatValue()
   {
-    return (_value!=null)?_value.floatValue():0f;
+    if (_kind==INT_VALUE)
+    {
+      return _intValue;
+    }
+    return (_kind==FLOAT_VALUE)?_floatValue:0f;
   }
 
   /**
@@ -97,7 +135,11 @@ public class StatsSetElement
    */
   public int getIntValue()
   {
-    return (_value!=null)?_value.intValue():0;
+    if (_kind==FLOAT_VALUE)
+    {
+      return (int)_floatValue;
+    }
+    return (_kind==INT_VALUE)?_intValue:0;
   }
 
   /**
@@ -108,7 +150,7 @@ public class StatsSetElement
   {
     if (number==null)
     {
-      _value=null;
+      setNoValue();
     }
     else if (number instanceof Float)
     {
@@ -129,29 +171,29 @@ public class StatsSetElement
     StatType type=_stat.getType();
     if (type==StatType.FLOAT)
     {
-      _value=Float.valueOf(value);
+      setFloat(value);
     }
     else if ((type==StatType.INTEGER) || (type==StatType.BOOLEAN))
     {
       if (_operator==StatOperator.MULTIPLY)
       {
-        _value=Float.valueOf(value);
+        setFloat(value);
       }
       else
       {
-        _value=Integer.valueOf(Math.round(value));
+        setInt(Math.round(value));
       }
     }
     else if ((type==StatType.BITFIELD) || (type==StatType.DID))
     {
       // TODO Better support for DIDs and bitfields!
       LOGGER.info("Set float value of type: "+type+" "+_stat.getKey()+" => "+value);
-      _value=Float.valueOf(value);
+      setFloat(value);
     }
     else
     {
       LOGGER.warn("Attempt to set a float value for stat: "+_stat.getKey()+": "+value);
-      _value=Integer.valueOf(0);
+      setInt(0);
     }
   }
 
@@ -164,32 +206,99 @@ public class StatsSetElement
     StatType type=_stat.getType();
     if (type==StatType.FLOAT)
     {
-      _value=Float.valueOf(value);
+      setFloat(value);
     }
     else if ((type==StatType.INTEGER) || (type==StatType.BOOLEAN))
     {
-      _value=Integer.valueOf(value);
+      setInt(value);
     }
     else if ((type==StatType.BITFIELD) || (type==StatType.DID))
     {
       // TODO Better support for DIDs bitfields!
       LOGGER.info("Set integer value of type: "+type+" "+_stat.getKey()+" => "+value);
-      _value=Integer.valueOf(value);
+      setInt(value);
     }
     else
     {
       LOGGER.warn("Attempt to set an integer value for stat: "+_stat+": "+value);
-      _value=Integer.valueOf(0);
+      setInt(0);
     }
   }
 
+  private void setNoValue()
+  {
+    _kind=NO_VALUE;
+    _intValue=0;
+    _floatValue=0;
+    _value=null;
+  }
+
+  private void setInt(int value)
+  {
+    _kind=INT_VALUE;
+    _intValue=value;
+    _floatValue=0;
+    _value=null;
+  }
+
+  private void setFloat(float value)
+  {
+    _kind=FLOAT_VALUE;
+    _intValue=0;
+    _floatValue=value;
+    _value=null;
+  }
+
+  /**
+   * Add the value of another element to this element.
+   * Two integers give an integer, otherwise a float is used.
+   * @param other Element to add.
+   */
+  public void add(StatsSetElement other)
+  {
+    if ((_kind==INT_VALUE) && (other._kind==INT_VALUE))
+    {
+      setValue(_intValue+other._intValue);
+    }
+    else
+    {
+      setValue(getFloatValue()+other.getFloatValue());
+    }
+  }
+
+  /**
+   * Add a float value to this element.
+   * @param value Value to add.
+   */
+  public void add(float value)
+  {
+    setValue(getFloatValue()+value);
+  }
+
+  /**
+   * Multiply the value of this element by a factor.
+   * @param factor Factor to use.
+   */
+  public void multiply(float factor)
+  {
+    setValue(getFloatValue()*factor);
+  }
+
   /**
    * Remove a value from this stat.
    * @param value Value to remove.
    */
   public void substract(Number value)
   {
-    _value=NumericUtils.diff(_value,value);
+    Number newValue=NumericUtils.diff(getValue(),value);
+    if (newValue instanceof Integer)
+    {
+      setInt(newValue.intValue());
+    }
+    else
+    {
+      setFloat(newValue.floatValue());
+    }
   }
 
   /**
@@ -220,7 +329,8 @@ public class StatsSetElement
     }
     StatsSetElement other=(StatsSetElement)object;
     return ((_stat==other._stat) && (Objects.equals(_descriptionOverride,other._descriptionOverride))
-        && (Objects.equals(_value,other._value)));
+        && (_kind==other._kind) && (_intValue==other._intValue)
+        && (Float.floatToIntBits(_floatValue)==Float.floatToIntBits(other._floatValue)));
   }
 
   @Override
@@ -6,7 +6,6 @@ import java.util.List;
 import delta.games.lotro.character.classes.ClassDescription;
 import delta.games.lotro.character.races.RaceDescription;
 import delta.games.lotro.character.stats.BasicStatsSet;
-import delta.games.lotro.character.stats.base.io.StartStatsManagerIO;
 import delta.games.lotro.character.stats.contribs.StatsContribution;
 import delta.games.lotro.character.traits.TraitDescription;
 import delta.games.lotro.common.stats.StatsProvider;
@@ -26,7 +25,7 @@ public class BaseStatsManager
    */
   public BaseStatsManager()
   {
-    _startStatsManager=StartStatsManagerIO.load();
+    _startStatsManager=StartStatsManager.getInstance();
     _toAdd=new BasicStatsSet();
     _toAdd.setStat(WellKnownStat.PHYSICAL_MASTERY,1);
     _toAdd.setStat(WellKnownStat.TACTICAL_MASTERY,1);
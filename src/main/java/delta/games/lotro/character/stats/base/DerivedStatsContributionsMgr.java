@@ -9,6 +9,7 @@ import org.apache.log4j.Logger;
 
 import delta.games.lotro.character.classes.ClassDescription;
 import delta.games.lotro.character.stats.BasicStatsSet;
+import delta.games.lotro.character.stats.base.io.DerivedStatContributionsIO;
 import delta.games.lotro.character.stats.computer.StatsStorage;
 import delta.games.lotro.character.stats.contribs.StatsContribution;
 import delta.games.lotro.common.comparators.NamedComparator;
@@ -18,12 +19,16 @@ import delta.games.lotro.utils.NumericUtils;
 
 /**
  * Manager for derived statistics contributions.
+ * <p>
+ * The shared instance is loaded once and must not be modified.
  * @author DAM
  */
 public final class DerivedStatsContributionsMgr
 {
   private static final Logger LOGGER=Logger.getLogger(DerivedStatsContributionsMgr.class);
 
+  private static volatile DerivedStatsContributionsMgr _instance;
+
   /**
    * Contribution for a derived stat.
    * @author DAM
@@ -85,7 +90,7 @@ public final class DerivedStatsContributionsMgr
      */
     public List<DerivedStatContribution> getFactors()
     {
-      return _factors;
+      return Collections.unmodifiableList(_factors);
     }
   }
 
@@ -142,6 +147,28 @@ public final class DerivedStatsContributionsMgr
 
   private HashMap<ClassDescription,ClassDerivedStats> _allContribs;
 
+  /**
+   * Get the shared instance of this class.
+   * @return the shared instance of this class.
+   */
+  public static DerivedStatsContributionsMgr getInstance()
+  {
+    DerivedStatsContributionsMgr ret=_instance;
+    if (ret==null)
+    {
+      synchronized(DerivedStatsContributionsMgr.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=DerivedStatContributionsIO.load();
+          _instance=ret;
+        }
+      }
+    }
+    return ret;
+  }
+
   /**
    * Constructor.
    */
@@ -9,18 +9,46 @@ import org.apache.log4j.Logger;
 
 import delta.games.lotro.character.classes.ClassDescription;
 import delta.games.lotro.character.stats.BasicStatsSet;
+import delta.games.lotro.character.stats.base.io.StartStatsManagerIO;
 import delta.games.lotro.common.comparators.NamedComparator;
 
 /**
  * Manager for character start stats.
+ * <p>
+ * The shared instance is loaded once and must not be modified:
+ * use {@link #getStats(ClassDescription, int)} to get a private copy of some stats.
  * @author DAM
  */
 public class StartStatsManager
 {
   private static final Logger LOGGER=Logger.getLogger(StartStatsManager.class);
 
+  private static volatile StartStatsManager _instance;
+
   private HashMap<ClassDescription,HashMap<Integer,BasicStatsSet>> _startStatsByClass;
 
+  /**
+   * Get the shared instance of this class.
+   * @return the shared instance of this class.
+   */
+  public static StartStatsManager getInstance()
+  {
+    StartStatsManager ret=_instance;
+    if (ret==null)
+    {
+      synchronized(StartStatsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=StartStatsManagerIO.load();
+          _instance=ret;
+        }
+      }
+    }
+    return ret;
+  }
+
   /**
    * Constructor.
    */
@@ -60,8 +88,12 @@ public class StartStatsManager
    */
   public List<Integer> getLevels(ClassDescription characterClass)
   {
-    HashMap<Integer,BasicStatsSet> mapForClass=getMapForClass(characterClass);
-    List<Integer> levels=new ArrayList<Integer>(mapForClass.keySet());
+    List<Integer> levels=new ArrayList<Integer>();
+    HashMap<Integer,BasicStatsSet> mapForClass=_startStatsByClass.get(characterClass);
+    if (mapForClass!=null)
+    {
+      levels.addAll(mapForClass.keySet());
+    }
     Collections.sort(levels);
     return levels;
   }
@@ -70,18 +102,22 @@ public class StartStatsManager
    * Get the start stats for a given character class and level.
    * @param characterClass Character class.
    * @param level Level, starting at 1.
-   * @return Some stats or <code>null</code> if not supported.
+   * @return A new set of stats (empty if not supported).
    */
   public BasicStatsSet getStats(ClassDescription characterClass, int level)
   {
-    HashMap<Integer,BasicStatsSet> mapForClass=getMapForClass(characterClass);
-    BasicStatsSet ret=mapForClass.get(Integer.valueOf(level));
-    if (ret==null)
+    BasicStatsSet stats=null;
+    HashMap<Integer,BasicStatsSet> mapForClass=_startStatsByClass.get(characterClass);
+    if (mapForClass!=null)
+    {
+      stats=mapForClass.get(Integer.valueOf(level));
+    }
+    if (stats==null)
     {
       LOGGER.warn("Could not find start stats for class="+characterClass+", level="+level);
-      ret=new BasicStatsSet();
+      return new BasicStatsSet();
     }
-    return ret;
+    return new BasicStatsSet(stats);
   }
 
   private HashMap<Integer,BasicStatsSet> getMapForClass(ClassDescription characterClass)
@@ -105,8 +105,7 @@ public class StatsStorage
       Float factor=multiplyFactors.get(key);
       if (factor!=null)
       {
-        Number newValue=NumericUtils.multiply(element.getValue(),factor);
-        element.setValue(newValue);
+        element.multiply(factor.floatValue());
       }
     }
   }
@@ -88,6 +88,16 @@ public class StatsContribution
     _stats=stats;
   }
 
+  /**
+   * Copy constructor.
+   * @param source Source contribution.
+   */
+  public StatsContribution(StatsContribution source)
+  {
+    _source=source._source;
+    _stats=new BasicStatsSet(source._stats);
+  }
+
   /**
    * Build a stat contribution for the body of the character.
    * @param stats Contributed stats.
@@ -9,7 +9,6 @@ import java.util.Map;
 import delta.games.lotro.character.classes.ClassDescription;
 import delta.games.lotro.character.stats.BasicStatsSet;
 import delta.games.lotro.character.stats.base.DerivedStatsContributionsMgr;
-import delta.games.lotro.character.stats.base.io.DerivedStatContributionsIO;
 import delta.games.lotro.common.stats.StatDescription;
 import delta.games.lotro.common.stats.StatDescriptionIndexComparator;
 
@@ -69,7 +68,7 @@ public class StatsContributionsManager
   {
     if (_resolveIndirectContributions)
     {
-      DerivedStatsContributionsMgr derivatedMgr=DerivedStatContributionsIO.load();
+      DerivedStatsContributionsMgr derivatedMgr=DerivedStatsContributionsMgr.getInstance();
       for(StatsContribution contrib : _contribs)
       {
         BasicStatsSet stats=contrib.getStats();
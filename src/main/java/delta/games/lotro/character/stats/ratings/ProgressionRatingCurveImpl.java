@@ -55,30 +55,44 @@ public class ProgressionRatingCurveImpl implements RatingCurve
   @Override
   public Double getPercentage(double rating, int level)
   {
-    Float hardCapPoint=_hardCap.getValue(level);
-    Float ratingPoint=_rating.getValue(level);
-    Float targetCapPoint=_targetCap.getValue(level);
-    if ((hardCapPoint!=null) && (ratingPoint!=null) && (targetCapPoint!=null))
+    double percentage=percentage(rating,level);
+    return Double.isNaN(percentage)?null:Double.valueOf(percentage);
+  }
+
+  @Override
+  public Double getRatingForCap(int level)
+  {
+    double ratingForCap=ratingForCap(level);
+    return Double.isNaN(ratingForCap)?null:Double.valueOf(ratingForCap);
+  }
+
+  @Override
+  public double percentage(double rating, int level)
+  {
+    float hardCapPoint=_hardCap.valueAt(level);
+    float ratingPoint=_rating.valueAt(level);
+    float targetCapPoint=_targetCap.valueAt(level);
+    if (Float.isNaN(hardCapPoint) || Float.isNaN(ratingPoint) || Float.isNaN(targetCapPoint))
     {
-      float percentage=targetCapPoint.floatValue()/(1+(ratingPoint.floatValue()/(float)rating));
-      percentage=Math.min(percentage,hardCapPoint.floatValue());
-      return Double.valueOf(percentage*100);
+      return Double.NaN;
     }
-    return null;
+    float percentage=targetCapPoint/(1+(ratingPoint/(float)rating));
+    percentage=Math.min(percentage,hardCapPoint);
+    return percentage*100;
   }
 
   @Override
-  public Double getRatingForCap(int level)
+  public double ratingForCap(int level)
   {
     // B
-    Float ratingPoint=_rating.getValue(level);
+    float ratingPoint=_rating.valueAt(level);
     // C
-    Float hardCapPoint=_hardCap.getValue(level);
-    Float targetCapPoint=_targetCap.getValue(level);
-    if ((hardCapPoint!=null) && (ratingPoint!=null) && (targetCapPoint!=null))
+    float hardCapPoint=_hardCap.valueAt(level);
+    float targetCapPoint=_targetCap.valueAt(level);
+    if (Float.isNaN(hardCapPoint) || Float.isNaN(ratingPoint) || Float.isNaN(targetCapPoint))
     {
-      return Double.valueOf(ratingPoint.doubleValue()*(hardCapPoint.doubleValue()/(targetCapPoint.doubleValue()-hardCapPoint.doubleValue())));
+      return Double.NaN;
     }
-    return null;
+    return ratingPoint*((double)hardCapPoint/((double)targetCapPoint-hardCapPoint));
   }
 }
@@ -20,4 +20,19 @@ public interface RatingCurve
    * @return A rating value or <code>null</code> if not available.
    */
   public Double getRatingForCap(int level);
+
+  /**
+   * Get the percentage for a given rating and level, without boxing.
+   * @param rating Rating.
+   * @param level Level.
+   * @return A percentage or <code>Double.NaN</code> if not available.
+   */
+  public double percentage(double rating, int level);
+
+  /**
+   * Get the rating for the percentage cap at the given level, without boxing.
+   * @param level Level to use.
+   * @return A rating value or <code>Double.NaN</code> if not available.
+   */
+  public double ratingForCap(int level);
 }
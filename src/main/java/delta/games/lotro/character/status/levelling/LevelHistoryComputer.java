@@ -1,6 +1,7 @@
 package delta.games.lotro.character.status.levelling;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import delta.common.utils.NumericTools;
@@ -9,6 +10,8 @@ import delta.games.lotro.character.CharacterFile;
 import delta.games.lotro.character.CharacterInfosManager;
 import delta.games.lotro.character.log.CharacterLog;
 import delta.games.lotro.character.log.CharacterLogItem;
+import delta.games.lotro.character.log.CharacterLogItemsFilter;
+import delta.games.lotro.character.log.CharacterLogStore;
 import delta.games.lotro.character.log.CharacterLogItem.LogItemType;
 
 /**
@@ -26,10 +29,19 @@ public class LevelHistoryComputer
   {
     String name=toon.getName();
     LevelHistory history=new LevelHistory(name);
-    CharacterLog log=toon.getLastCharacterLog();
-    if (log!=null)
+    CharacterLogStore store=toon.getLogsManager().getLogStore();
+    if (store.exists())
     {
-      loadLog(history,log);
+      loadLog(history,store);
+    }
+    else
+    {
+      // Legacy XML log, not migrated yet
+      CharacterLog log=toon.getLastCharacterLog();
+      if (log!=null)
+      {
+        loadLog(history,log);
+      }
     }
     loadInfos(history,toon);
     return history;
@@ -38,10 +50,8 @@ public class LevelHistoryComputer
   private void loadInfos(LevelHistory history, CharacterFile toon)
   {
     CharacterInfosManager infosMgr=toon.getInfosManager();
-    int nb=infosMgr.getDataCount();
-    for(int i=0;i<nb;i++)
+    for(CharacterData c : infosMgr.getAllData())
     {
-      CharacterData c=infosMgr.getData(i);
       if (c!=null)
       {
         Long date=c.getDate();
@@ -57,27 +67,40 @@ public class LevelHistoryComputer
   /**
    * Load level history from a character log.
    * @param history History to fill.
-   * @param log Log items to use.
+   * @param store Log store to use.
    */
-  private void loadLog(LevelHistory history, CharacterLog log)
+  private void loadLog(LevelHistory history, CharacterLogStore store)
   {
-    List<CharacterLogItem> items=getLevelItems(log);
+    List<CharacterLogItem> items=store.getItems(buildLevelUpFilter());
     parseLevelUpItems(history,items);
   }
 
-  private List<CharacterLogItem> getLevelItems(CharacterLog log)
+  /**
+   * Load level history from a character log.
+   * @param history History to fill.
+   * @param log Log to use.
+   */
+  private void loadLog(LevelHistory history, CharacterLog log)
   {
-    List<CharacterLogItem> ret=new ArrayList<CharacterLogItem>();
-    int nb=log.getNbItems();
-    for(int i=0;i<nb;i++)
+    CharacterLogItemsFilter filter=buildLevelUpFilter();
+    List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+    int nbItems=log.getNbItems();
+    for(int i=0;i<nbItems;i++)
     {
       CharacterLogItem item=log.getLogItem(i);
-      if ((item!=null) && (item.getLogItemType()==LogItemType.LEVELUP))
+      if ((item!=null) && (filter.accept(item)))
       {
-        ret.add(item);
+        items.add(item);
       }
     }
-    return ret;
+    parseLevelUpItems(history,items);
+  }
+
+  private CharacterLogItemsFilter buildLevelUpFilter()
+  {
+    CharacterLogItemsFilter filter=new CharacterLogItemsFilter();
+    filter.setSelectedTypes(EnumSet.of(LogItemType.LEVELUP));
+    return filter;
   }
 
   private void parseLevelUpItems(LevelHistory history, List<CharacterLogItem> items)
@@ -1,5 +1,10 @@
 package delta.games.lotro.character.storage.currencies;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import delta.games.lotro.account.Account;
 import delta.games.lotro.account.AccountOnServer;
 import delta.games.lotro.character.CharacterFile;
@@ -89,6 +94,46 @@ public class CurrenciesFacade
     return null;
   }
 
+  /**
+   * Get the summed history of a currency, for several contexts.
+   * Histories shared by several contexts (server or account scope) are counted once.
+   * @param currency Currency to use.
+   * @param facades Facades to use.
+   * @return A new storage.
+   */
+  public static CurrencyStorage sumHistories(Currency currency, List<CurrenciesFacade> facades)
+  {
+    List<CurrencyStorage> storages=new ArrayList<CurrencyStorage>();
+    Set<String> usedScopes=new HashSet<String>();
+    for(CurrenciesFacade facade : facades)
+    {
+      String scopeKey=facade.getScopeKey(currency.getScope());
+      if ((scopeKey!=null) && (!usedScopes.add(scopeKey)))
+      {
+        continue;
+      }
+      CurrencyHistory history=facade.getCurrencyHistory(currency);
+      if (history!=null)
+      {
+        storages.add(history.getStorage());
+      }
+    }
+    return CurrencyStorage.sum(storages);
+  }
+
+  private String getScopeKey(Scope scope)
+  {
+    if ((scope==Scope.SERVER) && (_account!=null))
+    {
+      return _account.getAccountName()+"@"+_serverName;
+    }
+    if ((scope==Scope.ACCOUNT) && (_account!=null))
+    {
+      return _account.getAccountName();
+    }
+    return null;
+  }
+
   /**
    * Get the context.
    * @return A displayable context string.
@@ -4,9 +4,12 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.log4j.Logger;
+
 import delta.games.lotro.account.Account;
 import delta.games.lotro.character.CharacterFile;
 import delta.games.lotro.character.storage.currencies.io.CurrenciesIo;
+import delta.games.lotro.character.storage.currencies.io.CurrencyHistoryFiles;
 
 /**
  * Currencies manager.
@@ -17,10 +20,18 @@ import delta.games.lotro.character.storage.currencies.io.CurrenciesIo;
  * <li>update,
  * <li>save.
  * </ul>
+ * Currency histories are stored in binary files (<code>key.bin</code>).
+ * Legacy XML history files (<code>key.xml</code>) are still read if there is no binary file.
+ * Once the binary file is written, the legacy XML file is renamed to <code>key.xml.migrated</code>,
+ * so that a stale XML history is never loaded again.
+ * A binary history file that cannot be read is moved aside and never overwritten
+ * (see {@link CurrencyHistoryFiles}).
  * @author DAM
  */
 public class CurrenciesManager
 {
+  private static final Logger LOGGER=Logger.getLogger(CurrenciesManager.class);
+
   /**
    * Currencies directory name.
    */
@@ -29,6 +40,7 @@ public class CurrenciesManager
   private File _rootDir;
   private CurrenciesSummary _summary;
   private Map<String,CurrencyHistory> _histories;
+  private Map<String,CurrencyHistoryFiles> _files;
 
   /**
    * Constructor for a character.
@@ -64,6 +76,7 @@ public class CurrenciesManager
   private void init()
   {
     _histories=new HashMap<String,CurrencyHistory>();
+    _files=new HashMap<String,CurrencyHistoryFiles>();
     _summary=CurrenciesIo.load(getSummaryFile());
   }
 
@@ -116,7 +129,7 @@ public class CurrenciesManager
       Currency currency=Currencies.get().getByKey(currencyId);
       if (currency!=null)
       {
-        ret=loadCurrencyHistory(currency);
+        ret=getHistoryFiles(currency).load(currency);
         if (ret==null)
         {
           ret=new CurrencyHistory(currency);
@@ -127,39 +140,22 @@ public class CurrenciesManager
     return ret;
   }
 
-  private CurrencyHistory loadCurrencyHistory(Currency currency)
+  private CurrencyHistoryFiles getHistoryFiles(Currency currency)
   {
-    CurrencyHistory ret=null;
-    String legacyKey=currency.getLegacyKey();
-    if (legacyKey!=null)
-    {
-      File legacyFile=new File(_rootDir,legacyKey+".xml");
-      ret=CurrenciesIo.load(legacyFile,currency);
-    }
-    else
+    String currencyId=currency.getKey();
+    CurrencyHistoryFiles ret=_files.get(currencyId);
+    if (ret==null)
     {
-      File regularFile=new File(_rootDir,currency.getKey()+".xml");
-      ret=CurrenciesIo.load(regularFile,currency);
+      ret=new CurrencyHistoryFiles(_rootDir,getHistoryBaseName(currency));
+      _files.put(currencyId,ret);
     }
     return ret;
   }
 
-  private boolean saveCurrencyHistory(CurrencyHistory history)
+  private String getHistoryBaseName(Currency currency)
   {
-    boolean ret;
-    Currency currency=history.getCurrency();
     String legacyKey=currency.getLegacyKey();
-    if (legacyKey!=null)
-    {
-      File legacyFile=new File(_rootDir,legacyKey+".xml");
-      ret=CurrenciesIo.save(legacyFile,history);
-    }
-    else
-    {
-      File regularFile=new File(_rootDir,currency.getKey()+".xml");
-      ret=CurrenciesIo.save(regularFile,history);
-    }
-    return ret;
+    return (legacyKey!=null)?legacyKey:currency.getKey();
   }
 
   /**
@@ -170,7 +166,11 @@ public class CurrenciesManager
     CurrenciesIo.save(getSummaryFile(),_summary);
     for(CurrencyHistory history : _histories.values())
     {
-      saveCurrencyHistory(history);
+      boolean ok=getHistoryFiles(history.getCurrency()).save(history);
+      if (!ok)
+      {
+        LOGGER.warn("Could not save history of currency: "+history.getCurrency().getKey());
+      }
     }
   }
 
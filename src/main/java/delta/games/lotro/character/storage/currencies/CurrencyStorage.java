@@ -1,25 +1,41 @@
 package delta.games.lotro.character.storage.currencies;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
 /**
  * Storage for a currency.
+ * <p>
+ * Points are stored in two primitive columns (start times and values), sorted by time.
+ * Appending a point after the last one is done in constant time (amortized).
  * @author DAM
  */
 public class CurrencyStorage
 {
-  private List<Long> _startTimes;
-  private List<Integer> _values;
+  /**
+   * Duration of a day (milliseconds).
+   */
+  public static final long DAY=24L*3600*1000;
+  /**
+   * Duration of a week (milliseconds).
+   */
+  public static final long WEEK=7*DAY;
+
+  private static final int INITIAL_CAPACITY=8;
+
+  private long[] _startTimes;
+  private int[] _values;
+  private int _size;
 
   /**
    * Constructor.
    */
   public CurrencyStorage()
   {
-    _startTimes=new ArrayList<Long>();
-    _values=new ArrayList<Integer>();
+    _startTimes=new long[INITIAL_CAPACITY];
+    _values=new int[INITIAL_CAPACITY];
+    _size=0;
   }
 
   /**
@@ -34,20 +50,28 @@ public class CurrencyStorage
     {
       return null;
     }
-    int nbPoints=_startTimes.size();
-    if (index==nbPoints-1)
+    if (index==_size-1)
     {
-      if (time==_startTimes.get(index).longValue())
+      if (time==_startTimes[index])
       {
-        return _values.get(index);
+        return Integer.valueOf(_values[index]);
       }
       return null;
     }
-    if (index>=nbPoints)
-    {
-      return null;
-    }
-    return _values.get(index);
+    return Integer.valueOf(_values[index]);
+  }
+
+  /**
+   * Get the last known value at a given time.
+   * Unlike {@link #getValueAtTime(long)}, the last value is kept after the last point.
+   * @param time Time to use.
+   * @param defaultValue Value to use before the first point.
+   * @return A value.
+   */
+  public int getLastValueAt(long time, int defaultValue)
+  {
+    int index=getInsertPoint(time);
+    return (index>=0)?_values[index]:defaultValue;
   }
 
   /**
@@ -57,11 +81,9 @@ public class CurrencyStorage
    */
   public void setValueAt(long time, int value)
   {
-    int nbItems=_startTimes.size();
-    if (nbItems==0)
+    if (_size==0)
     {
-      _startTimes.add(Long.valueOf(time));
-      _values.add(Integer.valueOf(value));
+      insert(0,time,value);
       return;
     }
     int insertionIndex=getInsertPoint(time);
@@ -72,12 +94,8 @@ public class CurrencyStorage
     }
     else
     {
-      long lastTime=_startTimes.get(insertionIndex).longValue();
-      if (time==lastTime)
-      {
-        _startTimes.set(insertionIndex,Long.valueOf(time));
-      }
-      else
+      long lastTime=_startTimes[insertionIndex];
+      if (time!=lastTime)
       {
         // Time is after the one of the insertion index
         handleInsertion(insertionIndex,time,value);
@@ -87,86 +105,70 @@ public class CurrencyStorage
 
   private void handleInsertBeforeBeginning(long time, int value)
   {
-    int firstValue=_values.get(0).intValue();
-    if (value==firstValue)
+    int firstValue=_values[0];
+    if ((value==firstValue) && (_size>1))
     {
-      int nbItems=_startTimes.size();
-      if (nbItems>1)
-      {
-        // Update first time
-        _startTimes.set(0,Long.valueOf(time));
-      }
-      else
-      {
-        // Insert before first point
-        _startTimes.add(0,Long.valueOf(time));
-        _values.add(0,Integer.valueOf(value));
-      }
+      // Update first time
+      _startTimes[0]=time;
     }
     else
     {
       // Insert before first point
-      _startTimes.add(0,Long.valueOf(time));
-      _values.add(0,Integer.valueOf(value));
+      insert(0,time,value);
     }
   }
 
   private void handleInsertion(int insertionIndex, long time, int value)
   {
-    int lastValue=_values.get(insertionIndex).intValue();
-    if (value==lastValue)
+    int lastValue=_values[insertionIndex];
+    if ((value==lastValue) && (insertionIndex>0) && (_values[insertionIndex-1]==lastValue))
     {
-      if (insertionIndex>0)
-      {
-        int valueBeforeLast=_values.get(insertionIndex-1).intValue();
-        if (valueBeforeLast==lastValue)
-        {
-          // Just update the last time
-          _startTimes.set(insertionIndex,Long.valueOf(time));
-        }
-        else
-        {
-          // Insert new point
-          _startTimes.add(insertionIndex+1,Long.valueOf(time));
-          _values.add(insertionIndex+1,Integer.valueOf(value));
-        }
-      }
-      else
-      {
-        // Insert new point
-        _startTimes.add(insertionIndex+1,Long.valueOf(time));
-        _values.add(insertionIndex+1,Integer.valueOf(value));
-      }
+      // Just update the last time
+      _startTimes[insertionIndex]=time;
     }
     else
     {
       // Insert new point
-      _startTimes.add(insertionIndex+1,Long.valueOf(time));
-      _values.add(insertionIndex+1,Integer.valueOf(value));
+      insert(insertionIndex+1,time,value);
     }
   }
 
-  private int getInsertPoint(long time)
+  private void insert(int index, long time, int value)
   {
-    if (_startTimes.isEmpty())
+    if (_size==_startTimes.length)
     {
-      return -1;
+      int capacity=Math.max(INITIAL_CAPACITY,_size+(_size>>1));
+      _startTimes=Arrays.copyOf(_startTimes,capacity);
+      _values=Arrays.copyOf(_values,capacity);
     }
-    if (time<_startTimes.get(0).longValue())
+    if (index<_size)
+    {
+      System.arraycopy(_startTimes,index,_startTimes,index+1,_size-index);
+      System.arraycopy(_values,index,_values,index+1,_size-index);
+    }
+    _startTimes[index]=time;
+    _values[index]=value;
+    _size++;
+  }
+
+  /**
+   * Get the index of the last point that starts at or before the given time.
+   * @param time Time to use.
+   * @return A point index, or <code>-1</code> if the given time is before the first point.
+   */
+  private int getInsertPoint(long time)
+  {
+    if ((_size==0) || (time<_startTimes[0]))
     {
       return -1;
     }
-    int index=0;
-    int ret=0;
-    for(Long timeSample : _startTimes)
+    // Fast path for the latest time
+    if (time>=_startTimes[_size-1])
     {
-      if (time>=timeSample.longValue())
-      {
-        ret=index;
-      }
-      index++;
+      return _size-1;
     }
-    return ret;
+    int index=Arrays.binarySearch(_startTimes,0,_size,time);
+    return (index>=0)?index:(-index-2);
   }
 
   /**
@@ -175,7 +177,7 @@ public class CurrencyStorage
    */
   public int getPoints()
   {
-    return _startTimes.size();
+    return _size;
   }
 
   /**
@@ -185,7 +187,7 @@ public class CurrencyStorage
    */
   public Long getTimeAtIndex(int index)
   {
-    return _startTimes.get(index);
+    return Long.valueOf(getTime(index));
   }
 
   /**
@@ -195,23 +197,187 @@ public class CurrencyStorage
    */
   public Integer getValueAtIndex(int index)
   {
-    return _values.get(index);
+    return Integer.valueOf(getValue(index));
+  }
+
+  /**
+   * Get the time at the given point.
+   * @param index Index of targeted point.
+   * @return A time value.
+   */
+  public long getTime(int index)
+  {
+    checkIndex(index);
+    return _startTimes[index];
+  }
+
+  /**
+   * Get the value at the given point.
+   * @param index Index of targeted point.
+   * @return A value.
+   */
+  public int getValue(int index)
+  {
+    checkIndex(index);
+    return _values[index];
+  }
+
+  private void checkIndex(int index)
+  {
+    if ((index<0) || (index>=_size))
+    {
+      throw new IndexOutOfBoundsException("Index: "+index+", size: "+_size);
+    }
+  }
+
+  /**
+   * Append a point, without merging identical values.
+   * Used to load stored data.
+   * @param time Time to use (must be after the time of the last point).
+   * @param value Value to use.
+   */
+  public void appendPoint(long time, int value)
+  {
+    if ((_size>0) && (time<=_startTimes[_size-1]))
+    {
+      throw new IllegalArgumentException("Point not in time order: "+time);
+    }
+    insert(_size,time,value);
+  }
+
+  /**
+   * Get the index of the first point at or after the given time.
+   * @param time Time to use.
+   * @return A point index, or the points count if there is none.
+   */
+  public int getFirstIndexFrom(long time)
+  {
+    int index=Arrays.binarySearch(_startTimes,0,_size,time);
+    return (index>=0)?index:(-index-1);
+  }
+
+  /**
+   * Get the points in a time range.
+   * The value at the start of the range is given by a point at the start time.
+   * @param from Start time (included).
+   * @param to End time (included).
+   * @return A new storage.
+   */
+  public CurrencyStorage getRange(long from, long to)
+  {
+    CurrencyStorage ret=new CurrencyStorage();
+    if (from>to)
+    {
+      return ret;
+    }
+    int index=getInsertPoint(from);
+    if (index>=0)
+    {
+      ret.appendPoint(from,_values[index]);
+      index++;
+    }
+    else
+    {
+      index=0;
+    }
+    while ((index<_size) && (_startTimes[index]<=to))
+    {
+      ret.appendPoint(_startTimes[index],_values[index]);
+      index++;
+    }
+    return ret;
+  }
+
+  /**
+   * Down-sample this storage.
+   * Time is split in periods, starting at the given origin. For each period
+   * that has data, a point gives the last known value at the end of the period.
+   * @param origin Time origin (start of a period).
+   * @param period Period duration (see {@link #DAY} and {@link #WEEK}).
+   * @return A new storage, with one point per period, at the start of the period.
+   */
+  public CurrencyStorage downsample(long origin, long period)
+  {
+    CurrencyStorage ret=new CurrencyStorage();
+    int index=0;
+    while (index<_size)
+    {
+      long periodStart=origin+Math.floorDiv(_startTimes[index]-origin,period)*period;
+      long periodEnd=periodStart+period;
+      // Skip to the last point of the period
+      while ((index+1<_size) && (_startTimes[index+1]<periodEnd))
+      {
+        index++;
+      }
+      ret.appendPoint(periodStart,_values[index]);
+      index++;
+    }
+    return ret;
+  }
+
+  /**
+   * Sum several storages.
+   * At each time, each storage contributes its last known value (or nothing before its first point).
+   * @param storages Storages to sum.
+   * @return A new storage.
+   */
+  public static CurrencyStorage sum(List<CurrencyStorage> storages)
+  {
+    int nbStorages=storages.size();
+    int[] indexes=new int[nbStorages];
+    int[] lastValues=new int[nbStorages];
+    CurrencyStorage ret=new CurrencyStorage();
+    long total=0;
+    while (true)
+    {
+      // Find next time
+      long next=Long.MAX_VALUE;
+      boolean found=false;
+      for(int i=0;i<nbStorages;i++)
+      {
+        CurrencyStorage storage=storages.get(i);
+        if (indexes[i]<storage._size)
+        {
+          next=Math.min(next,storage._startTimes[indexes[i]]);
+          found=true;
+        }
+      }
+      if (!found)
+      {
+        break;
+      }
+      // Update values at this time
+      for(int i=0;i<nbStorages;i++)
+      {
+        CurrencyStorage storage=storages.get(i);
+        int index=indexes[i];
+        if ((index<storage._size) && (storage._startTimes[index]==next))
+        {
+          int value=storage._values[index];
+          total+=value-lastValues[i];
+          lastValues[i]=value;
+          indexes[i]=index+1;
+        }
+      }
+      int value=(int)Math.max(Integer.MIN_VALUE,Math.min(Integer.MAX_VALUE,total));
+      ret.appendPoint(next,value);
+    }
+    return ret;
   }
 
   @Override
   public String toString()
   {
     StringBuilder sb=new StringBuilder();
-    int nbPoints=getPoints();
     Date date=new Date(0);
-    for(int i=0;i<nbPoints;i++)
+    for(int i=0;i<_size;i++)
     {
       if (i>0)
       {
         sb.append(", ");
       }
-      long time=_startTimes.get(i).longValue();
-      int value=_values.get(i).intValue();
+      long time=_startTimes[i];
+      int value=_values[i];
       sb.append(time);
       date.setTime(time);
       sb.append(" (").append(date).append(')');
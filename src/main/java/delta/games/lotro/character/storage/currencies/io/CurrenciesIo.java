@@ -6,6 +6,7 @@ import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.character.storage.currencies.CurrenciesSummary;
 import delta.games.lotro.character.storage.currencies.Currency;
 import delta.games.lotro.character.storage.currencies.CurrencyHistory;
+import delta.games.lotro.character.storage.currencies.io.binary.CurrencyStorageBinaryIo;
 import delta.games.lotro.character.storage.currencies.io.xml.CurrenciesXMLParser;
 import delta.games.lotro.character.storage.currencies.io.xml.CurrenciesXMLWriter;
 import delta.games.lotro.character.storage.currencies.io.xml.CurrencyHistoryXMLParser;
@@ -80,4 +81,36 @@ public class CurrenciesIo
     boolean ok=writer.writeCurrencyHistory(toFile,history,EncodingNames.UTF_8);
     return ok;
   }
+
+  /**
+   * Load a currency history from a binary file.
+   * @param fromFile Source file.
+   * @param currency Currency to use.
+   * @return A currency history or <code>null</code> if the file does not exist or could not be read.
+   */
+  public static CurrencyHistory loadBinary(File fromFile, Currency currency)
+  {
+    CurrencyHistory history=null;
+    if (fromFile.exists())
+    {
+      history=new CurrencyHistory(currency);
+      boolean ok=CurrencyStorageBinaryIo.read(fromFile,history.getStorage());
+      if (!ok)
+      {
+        history=null;
+      }
+    }
+    return history;
+  }
+
+  /**
+   * Save a currency history to a binary file.
+   * @param toFile File to write to.
+   * @param history History to save.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean saveBinary(File toFile, CurrencyHistory history)
+  {
+    return CurrencyStorageBinaryIo.write(toFile,history.getStorage());
+  }
 }
@@ -0,0 +1,117 @@
+package delta.games.lotro.character.storage.currencies.io;
+
+import java.io.File;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.character.storage.currencies.Currency;
+import delta.games.lotro.character.storage.currencies.CurrencyHistory;
+
+/**
+ * Files of a currency history.
+ * <p>
+ * Histories are stored in binary files (<code>key.bin</code>).
+ * Legacy XML files (<code>key.xml</code>) are still read if there is no binary file.
+ * Once the binary file is written, the legacy XML file is renamed to <code>key.xml.migrated</code>.
+ * <p>
+ * A binary file that cannot be read is never overwritten: it is moved aside (<code>key.bin.bad</code>)
+ * and the XML files (legacy or migrated) are used instead.
+ * If it cannot be moved aside, the history is not saved.
+ * @author DAM
+ */
+public class CurrencyHistoryFiles
+{
+  private static final Logger LOGGER=Logger.getLogger(CurrencyHistoryFiles.class);
+
+  private File _binaryFile;
+  private File _xmlFile;
+  private File _migratedXmlFile;
+  private boolean _writable;
+
+  /**
+   * Constructor.
+   * @param rootDir Directory of the currency files.
+   * @param baseName Base name of the files of the managed currency.
+   */
+  public CurrencyHistoryFiles(File rootDir, String baseName)
+  {
+    _binaryFile=new File(rootDir,baseName+".bin");
+    _xmlFile=new File(rootDir,baseName+".xml");
+    _migratedXmlFile=new File(rootDir,baseName+".xml.migrated");
+    _writable=true;
+  }
+
+  /**
+   * Load the history.
+   * @param currency Currency to use.
+   * @return A currency history or <code>null</code> if none could be read.
+   */
+  public CurrencyHistory load(Currency currency)
+  {
+    if (_binaryFile.exists())
+    {
+      CurrencyHistory ret=CurrenciesIo.loadBinary(_binaryFile,currency);
+      if (ret!=null)
+      {
+        return ret;
+      }
+      // Keep the unreadable file aside
+      File badFile=getBadFile();
+      if (_binaryFile.renameTo(badFile))
+      {
+        LOGGER.warn("Could not read currency history file, moved to: "+badFile);
+      }
+      else
+      {
+        LOGGER.warn("Could not read currency history file, it will not be updated: "+_binaryFile);
+        _writable=false;
+      }
+    }
+    CurrencyHistory ret=CurrenciesIo.load(_xmlFile,currency);
+    if (ret==null)
+    {
+      ret=CurrenciesIo.load(_migratedXmlFile,currency);
+    }
+    return ret;
+  }
+
+  private File getBadFile()
+  {
+    // Never replace a previously kept file
+    File ret=new File(_binaryFile.getPath()+".bad");
+    int index=1;
+    while (ret.exists())
+    {
+      ret=new File(_binaryFile.getPath()+".bad"+index);
+      index++;
+    }
+    return ret;
+  }
+
+  /**
+   * Save the history.
+   * @param history History to save.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean save(CurrencyHistory history)
+  {
+    if (!_writable)
+    {
+      return false;
+    }
+    boolean ok=CurrenciesIo.saveBinary(_binaryFile,history);
+    if (ok)
+    {
+      // The XML file is not kept in sync: move it aside
+      if (_xmlFile.exists())
+      {
+        _migratedXmlFile.delete();
+        if (!_xmlFile.renameTo(_migratedXmlFile))
+        {
+          LOGGER.warn("Could not rename migrated currency history file: "+_xmlFile);
+        }
+      }
+    }
+    return ok;
+  }
+}
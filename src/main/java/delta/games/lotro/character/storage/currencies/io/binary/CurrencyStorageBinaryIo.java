@@ -0,0 +1,143 @@
+package delta.games.lotro.character.storage.currencies.io.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.character.storage.currencies.CurrencyStorage;
+import delta.games.lotro.utils.io.binary.BinaryIoUtils;
+
+/**
+ * Binary I/O for currency storages.
+ * <p>
+ * File layout:
+ * <ul>
+ * <li>header: magic, format version, points count,
+ * <li>points: time delta and value delta from the previous point (from 0 for the first one).
+ * Time deltas are written as unsigned var-longs, value deltas as zig-zag var-ints.
+ * </ul>
+ * @author DAM
+ */
+public class CurrencyStorageBinaryIo
+{
+  private static final Logger LOGGER=Logger.getLogger(CurrencyStorageBinaryIo.class);
+
+  /**
+   * Magic number at the start of each file ('LCCH').
+   */
+  private static final int MAGIC=0x4C434348;
+  /**
+   * Version of the file format.
+   */
+  private static final int FORMAT_VERSION=1;
+
+  /**
+   * Write a currency storage to a file.
+   * The file is written to a temporary file first, then renamed.
+   * @param toFile File to write.
+   * @param storage Storage to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean write(File toFile, CurrencyStorage storage)
+  {
+    File parentDir=toFile.getAbsoluteFile().getParentFile();
+    if ((parentDir!=null) && (!parentDir.exists()))
+    {
+      parentDir.mkdirs();
+    }
+    File tmpFile=new File(toFile.getPath()+".tmp");
+    boolean ok=false;
+    DataOutputStream out=null;
+    try
+    {
+      out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      int nbPoints=storage.getPoints();
+      out.writeInt(nbPoints);
+      long lastTime=0;
+      int lastValue=0;
+      for(int i=0;i<nbPoints;i++)
+      {
+        long time=storage.getTime(i);
+        int value=storage.getValue(i);
+        BinaryIoUtils.writeVarLong(out,time-lastTime);
+        int delta=value-lastValue;
+        BinaryIoUtils.writeVarLong(out,((delta<<1)^(delta>>31))&0xFFFFFFFFL);
+        lastTime=time;
+        lastValue=value;
+      }
+      out.close();
+      out=null;
+      toFile.delete();
+      ok=tmpFile.renameTo(toFile);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write currency file: "+toFile,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(out);
+      if (!ok)
+      {
+        tmpFile.delete();
+      }
+    }
+    return ok;
+  }
+
+  /**
+   * Read a currency storage from a file.
+   * @param fromFile File to read.
+   * @param storage Storage to fill (expected to be empty).
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean read(File fromFile, CurrencyStorage storage)
+  {
+    boolean ok=false;
+    DataInputStream in=null;
+    try
+    {
+      in=new DataInputStream(new BufferedInputStream(new FileInputStream(fromFile)));
+      int magic=in.readInt();
+      int version=in.readInt();
+      if ((magic!=MAGIC) || (version!=FORMAT_VERSION))
+      {
+        LOGGER.warn("Bad currency file format: "+fromFile);
+        return false;
+      }
+      int nbPoints=in.readInt();
+      long time=0;
+      int value=0;
+      for(int i=0;i<nbPoints;i++)
+      {
+        time+=BinaryIoUtils.readVarLong(in);
+        int zigzag=(int)BinaryIoUtils.readVarLong(in);
+        value+=(zigzag>>>1)^(-(zigzag&1));
+        storage.appendPoint(time,value);
+      }
+      ok=true;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read currency file: "+fromFile,ioe);
+    }
+    catch(IllegalArgumentException iae)
+    {
+      LOGGER.warn("Bad currency file data: "+fromFile,iae);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ok;
+  }
+}
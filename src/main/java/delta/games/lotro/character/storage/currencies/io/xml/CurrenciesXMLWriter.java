@@ -126,10 +126,10 @@ public class CurrenciesXMLWriter
     {
       AttributesImpl statusAttrs=new AttributesImpl();
       // Date
-      long date=storage.getTimeAtIndex(i).longValue();
+      long date=storage.getTime(i);
       statusAttrs.addAttribute("","",CurrenciesXMLConstants.CURRENCY_SAMPLE_DATE_ATTR,XmlWriter.CDATA,String.valueOf(date));
       // Value
-      int value=storage.getValueAtIndex(i).intValue();
+      int value=storage.getValue(i);
       statusAttrs.addAttribute("","",CurrenciesXMLConstants.CURRENCY_SAMPLE_VALUE_ATTR,XmlWriter.CDATA,String.valueOf(value));
       hd.startElement("","",CurrenciesXMLConstants.CURRENCY_SAMPLE_TAG,statusAttrs);
       hd.endElement("","",CurrenciesXMLConstants.CURRENCY_SAMPLE_TAG);
@@ -13,6 +13,9 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.common.enums.TraitNature;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for access to traits.
@@ -22,9 +25,10 @@ public class TraitsManager
 {
   private static final Logger LOGGER=Logger.getLogger(TraitsManager.class);
 
-  private static TraitsManager _instance=null;
+  private static volatile TraitsManager _instance;
 
-  private HashMap<Integer,TraitDescription> _cache;
+  private IntObjectMap<TraitDescription> _cache;
+  private SortedView<TraitDescription> _sortedById;
   private HashMap<String,TraitDescription> _mapByKey;
 
   /**
@@ -33,12 +37,21 @@ public class TraitsManager
    */
   public static TraitsManager getInstance()
   {
-    if (_instance==null)
+    TraitsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new TraitsManager();
-      _instance.loadAll();
+      synchronized(TraitsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new TraitsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -46,7 +59,8 @@ public class TraitsManager
    */
   public TraitsManager()
   {
-    _cache=new HashMap<Integer,TraitDescription>(100);
+    _cache=new IntObjectMap<TraitDescription>(100);
+    _sortedById=new SortedView<TraitDescription>(new IdentifiableComparator<TraitDescription>());
     _mapByKey=new HashMap<String,TraitDescription>();
   }
 
@@ -56,6 +70,7 @@ public class TraitsManager
   private void loadAll()
   {
     _cache.clear();
+    _sortedById.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File traitsFile=cfg.getFile(DataFiles.TRAITS);
     if (!traitsFile.canRead())
@@ -79,7 +94,9 @@ public class TraitsManager
    */
   public void registerTrait(TraitDescription trait)
   {
-    _cache.put(Integer.valueOf(trait.getIdentifier()),trait);
+    _cache.put(trait.getIdentifier(),trait);
+    _sortedById.invalidate();
+    ReferencesIndex.invalidateAll();
     String key=trait.getKey();
     if (key.length()>0)
     {
@@ -89,14 +106,17 @@ public class TraitsManager
 
   /**
    * Get a list of all traits, sorted by identifier.
-   * @return A list of traits.
+   * @return An immutable list of traits.
    */
   public List<TraitDescription> getAll()
   {
-    ArrayList<TraitDescription> traits=new ArrayList<TraitDescription>();
-    traits.addAll(_cache.values());
-    Collections.sort(traits,new IdentifiableComparator<TraitDescription>());
-    return traits;
+    List<TraitDescription> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
+    return ret;
   }
 
   /**
@@ -107,7 +127,7 @@ public class TraitsManager
   public TraitDescription getTrait(int id)
   {
     TraitDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
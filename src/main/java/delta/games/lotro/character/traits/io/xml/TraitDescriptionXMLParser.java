@@ -31,6 +31,8 @@ import delta.games.lotro.common.stats.StatsProvider;
 import delta.games.lotro.common.stats.io.xml.StatsProviderXMLParser;
 import delta.games.lotro.utils.i18n.I18nFacade;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 import delta.games.lotro.utils.maths.ArrayProgression;
 
 /**
@@ -62,16 +64,25 @@ public class TraitDescriptionXMLParser
    */
   public List<TraitDescription> parseTraitsFile(File source)
   {
-    List<TraitDescription> traits=new ArrayList<TraitDescription>();
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final List<TraitDescription> traits=new ArrayList<TraitDescription>();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      List<Element> traitTags=DOMParsingTools.getChildTagsByName(root,TraitDescriptionXMLConstants.TRAIT_TAG);
-      for(Element traitTag:traitTags)
+      @Override
+      public void handleRecord(Element traitTag)
       {
-        TraitDescription trait=parseTrait(traitTag);
-        traits.add(trait);
+        if (TraitDescriptionXMLConstants.TRAIT_TAG.equals(traitTag.getTagName()))
+        {
+          TraitDescription trait=parseTrait(traitTag);
+          traits.add(trait);
+        }
       }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    if (!ok)
+    {
+      // Partially loaded traits are not kept
+      LOGGER.warn("Could not load traits from: "+source);
+      traits.clear();
     }
     _prerequisitesParser.resolveProxies(traits);
     return traits;
@@ -3,7 +3,6 @@ package delta.games.lotro.character.traits.skirmish;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,6 +16,7 @@ import delta.games.lotro.common.enums.TraitNature;
 import delta.games.lotro.common.enums.comparator.LotroEnumEntryCodeComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Skirmish traits manager.
@@ -26,9 +26,9 @@ public class SkirmishTraitsManager
 {
   private static final Logger LOGGER=Logger.getLogger(SkirmishTraitsManager.class);
 
-  private static SkirmishTraitsManager _instance=null;
+  private static volatile SkirmishTraitsManager _instance;
 
-  private HashMap<Integer,TraitDescription> _cache;
+  private IntObjectMap<TraitDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -36,12 +36,21 @@ public class SkirmishTraitsManager
    */
   public static SkirmishTraitsManager getInstance()
   {
-    if (_instance==null)
+    SkirmishTraitsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new SkirmishTraitsManager();
-      _instance.loadAll();
+      synchronized(SkirmishTraitsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new SkirmishTraitsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -49,7 +58,7 @@ public class SkirmishTraitsManager
    */
   public SkirmishTraitsManager()
   {
-    _cache=new HashMap<Integer,TraitDescription>(100);
+    _cache=new IntObjectMap<TraitDescription>(100);
   }
 
   /**
@@ -68,7 +77,7 @@ public class SkirmishTraitsManager
     List<TraitDescription> traits=SkirmishTraitsXMLParser.parseTraitsFile(skirmishTraitsFile);
     for(TraitDescription trait : traits)
     {
-      _cache.put(Integer.valueOf(trait.getIdentifier()),trait);
+      _cache.put(trait.getIdentifier(),trait);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -11,6 +11,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.character.virtues.io.xml.VirtueDescriptionXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to virtues.
@@ -20,9 +21,9 @@ public class VirtuesManager
 {
   private static final Logger LOGGER=Logger.getLogger(VirtuesManager.class);
 
-  private static VirtuesManager _instance=null;
+  private static volatile VirtuesManager _instance;
 
-  private HashMap<Integer,VirtueDescription> _cache;
+  private IntObjectMap<VirtueDescription> _cache;
   private HashMap<String,VirtueDescription> _mapByKey;
 
   /**
@@ -31,12 +32,21 @@ public class VirtuesManager
    */
   public static VirtuesManager getInstance()
   {
-    if (_instance==null)
+    VirtuesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new VirtuesManager();
-      _instance.loadAll();
+      synchronized(VirtuesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new VirtuesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +54,7 @@ public class VirtuesManager
    */
   public VirtuesManager()
   {
-    _cache=new HashMap<Integer,VirtueDescription>(20);
+    _cache=new IntObjectMap<VirtueDescription>(20);
     _mapByKey=new HashMap<String,VirtueDescription>();
   }
 
@@ -73,7 +83,7 @@ public class VirtuesManager
    */
   public void registerVirtue(VirtueDescription virtue)
   {
-    _cache.put(Integer.valueOf(virtue.getIdentifier()),virtue);
+    _cache.put(virtue.getIdentifier(),virtue);
     String key=virtue.getPersistenceKey();
     _mapByKey.put(key,virtue);
   }
@@ -97,7 +107,7 @@ public class VirtuesManager
    */
   public VirtueDescription getVirtue(int id)
   {
-    return _cache.get(Integer.valueOf(id));
+    return _cache.get(id);
   }
 
   /**
@@ -12,7 +12,7 @@ import delta.games.lotro.config.LotroCoreConfig;
  */
 public class XPTableManager
 {
-  private static XPTableManager _instance=null;
+  private static volatile XPTableManager _instance;
 
   private XPTable _table;
 
@@ -22,11 +22,20 @@ public class XPTableManager
    */
   public static XPTableManager getInstance()
   {
-    if (_instance==null)
+    XPTableManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new XPTableManager();
+      synchronized(XPTableManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new XPTableManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
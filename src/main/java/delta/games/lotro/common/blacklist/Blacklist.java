@@ -2,10 +2,9 @@ package delta.games.lotro.common.blacklist;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+
+import delta.games.lotro.utils.IntSet;
 
 /**
  * Blacklist of identifiers.
@@ -14,7 +13,7 @@ import java.util.Set;
 public class Blacklist
 {
   private File _file;
-  private Set<Integer> _blacklistedIDs;
+  private IntSet _blacklistedIDs;
 
   /**
    * Constructor.
@@ -23,7 +22,7 @@ public class Blacklist
   public Blacklist(File file)
   {
     _file=file;
-    _blacklistedIDs=new HashSet<Integer>();
+    _blacklistedIDs=new IntSet();
   }
 
   /**
@@ -41,8 +40,11 @@ public class Blacklist
    */
   public List<Integer> getAllBLacklistedIDs()
   {
-    List<Integer> ids=new ArrayList<Integer>(_blacklistedIDs);
-    Collections.sort(ids);
+    List<Integer> ids=new ArrayList<Integer>();
+    for(int id : _blacklistedIDs.toArray())
+    {
+      ids.add(Integer.valueOf(id));
+    }
     return ids;
   }
 
@@ -53,7 +55,7 @@ public class Blacklist
    */
   public boolean isBlacklisted(int id)
   {
-    return _blacklistedIDs.contains(Integer.valueOf(id));
+    return _blacklistedIDs.contains(id);
   }
 
   /**
@@ -62,7 +64,7 @@ public class Blacklist
    */
   public void add(int id)
   {
-    _blacklistedIDs.add(Integer.valueOf(id));
+    _blacklistedIDs.add(id);
   }
 
   /**
@@ -71,7 +73,7 @@ public class Blacklist
    */
   public void remove(int id)
   {
-    _blacklistedIDs.remove(Integer.valueOf(id));
+    _blacklistedIDs.remove(id);
   }
 
   @Override
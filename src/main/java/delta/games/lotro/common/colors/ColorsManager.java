@@ -10,6 +10,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.common.colors.io.xml.ColorXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to colors.
@@ -19,11 +20,11 @@ public class ColorsManager
 {
   private static final Logger LOGGER=Logger.getLogger(ColorsManager.class);
 
-  private static ColorsManager _instance=null;
+  private static volatile ColorsManager _instance;
 
   private List<ColorDescription> _colors;
   private HashMap<Float,ColorDescription> _cache;
-  private HashMap<Integer,ColorDescription> _intCodeCache;
+  private IntObjectMap<ColorDescription> _intCodeCache;
 
   /**
    * Get the sole instance of this class.
@@ -31,12 +32,21 @@ public class ColorsManager
    */
   public static ColorsManager getInstance()
   {
-    if (_instance==null)
+    ColorsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new ColorsManager();
-      _instance.loadAll();
+      synchronized(ColorsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new ColorsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -46,7 +56,7 @@ public class ColorsManager
   {
     _colors=new ArrayList<ColorDescription>();
     _cache=new HashMap<Float,ColorDescription>(10);
-    _intCodeCache=new HashMap<Integer,ColorDescription>(10);
+    _intCodeCache=new IntObjectMap<ColorDescription>(10);
   }
 
   /**
@@ -76,7 +86,7 @@ public class ColorsManager
   {
     _colors.add(color);
     _cache.put(Float.valueOf(color.getCode()),color);
-    _intCodeCache.put(Integer.valueOf(color.getIntCode()),color);
+    _intCodeCache.put(color.getIntCode(),color);
   }
 
   /**
@@ -109,7 +119,7 @@ public class ColorsManager
   public ColorDescription getColor(int code)
   {
     ColorDescription ret=null;
-    ret=_intCodeCache.get(Integer.valueOf(code));
+    ret=_intCodeCache.get(code);
     return ret;
   }
 }
@@ -4,9 +4,7 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -15,6 +13,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.common.effects.io.xml.EffectXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.i18n.I18nFacade;
 
 /**
@@ -25,8 +24,8 @@ public class EffectsManager
 {
   private static final Logger LOGGER=Logger.getLogger(EffectsManager.class);
 
-  private static EffectsManager _instance=null;
-  private Map<Integer,Effect> _effects;
+  private static volatile EffectsManager _instance;
+  private IntObjectMap<Effect> _effects;
 
   /**
    * Get the reference instance of this class.
@@ -34,11 +33,20 @@ public class EffectsManager
    */
   public static EffectsManager getInstance()
   {
-    if (_instance==null)
+    EffectsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(EffectsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static EffectsManager load()
@@ -67,7 +75,7 @@ public class EffectsManager
    */
   public EffectsManager()
   {
-    _effects=new HashMap<Integer,Effect>();
+    _effects=new IntObjectMap<Effect>();
   }
 
   /**
@@ -76,7 +84,7 @@ public class EffectsManager
    */
   public void addEffect(Effect effect)
   {
-    Integer key=Integer.valueOf(effect.getIdentifier());
+    int key=effect.getIdentifier();
     _effects.put(key,effect);
   }
 
@@ -87,7 +95,7 @@ public class EffectsManager
    */
   public Effect getEffectById(int effectId)
   {
-    return _effects.get(Integer.valueOf(effectId));
+    return _effects.get(effectId);
   }
 
   /**
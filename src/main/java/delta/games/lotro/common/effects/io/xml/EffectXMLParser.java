@@ -55,6 +55,8 @@ import delta.games.lotro.common.stats.io.xml.StatsProviderXMLParser;
 import delta.games.lotro.lore.items.DamageType;
 import delta.games.lotro.utils.Proxy;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 import delta.games.lotro.utils.maths.Progression;
 
 /**
@@ -91,16 +93,22 @@ public class EffectXMLParser
    */
   public List<Effect> parseEffectsFile(File source)
   {
-    List<Effect> effects=new ArrayList<Effect>();
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final List<Effect> effects=new ArrayList<Effect>();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      List<Element> effectTags=DOMParsingTools.getChildTags(root);
-      for(Element effectTag : effectTags)
+      @Override
+      public void handleRecord(Element effectTag)
       {
         Effect effect=parseEffect(effectTag);
         effects.add(effect);
       }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    if (!ok)
+    {
+      // Partially loaded effects are not kept
+      LOGGER.warn("Could not load effects from: "+source);
+      effects.clear();
     }
     resolveEffects();
     return effects;
@@ -8,7 +8,6 @@ import javax.xml.transform.sax.TransformerHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.AttributesImpl;
 
-import delta.common.utils.io.xml.XmlFileWriterHelper;
 import delta.common.utils.io.xml.XmlWriter;
 import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.common.Interactable;
@@ -46,6 +45,8 @@ import delta.games.lotro.common.stats.StatsProvider;
 import delta.games.lotro.common.stats.io.xml.StatsProviderXMLWriter;
 import delta.games.lotro.lore.items.DamageType;
 import delta.games.lotro.utils.Proxy;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 import delta.games.lotro.utils.maths.Progression;
 
 /**
@@ -62,21 +63,16 @@ public class EffectXMLWriter
    */
   public boolean write(File toFile, final List<Effect> effects)
   {
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<Effect> recordWriter=new XMLRecordWriter<Effect>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, Effect effect) throws Exception
       {
-        hd.startElement("","",EffectXMLConstants.EFFECTS_TAG,new AttributesImpl());
-        for(Effect effect : effects)
-        {
-          writeEffect(hd,effect);
-        }
-        hd.endElement("","",EffectXMLConstants.EFFECTS_TAG);
+        writeEffect(hd,effect);
       }
     };
-    boolean ret=helper.write(toFile,EncodingNames.UTF_8,writer);
+    ShardedXMLFileWriter<Effect> writer=new ShardedXMLFileWriter<Effect>(EffectXMLConstants.EFFECTS_TAG,recordWriter);
+    boolean ret=writer.write(toFile,EncodingNames.UTF_8,effects);
     return ret;
   }
 
@@ -1,8 +1,8 @@
 package delta.games.lotro.common.enums;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
@@ -18,7 +18,7 @@ public class LotroEnumsRegistry
 {
   private static final Logger LOGGER=Logger.getLogger(LotroEnumsRegistry.class);
 
-  private static LotroEnumsRegistry _instance=null;
+  private static volatile LotroEnumsRegistry _instance;
 
   private Map<Class<? extends LotroEnumEntry>, LotroEnum<?>> _enums;
 
@@ -28,11 +28,20 @@ public class LotroEnumsRegistry
    */
   public static LotroEnumsRegistry getInstance()
   {
-    if (_instance==null)
+    LotroEnumsRegistry ret=_instance;
+    if (ret==null)
     {
-      _instance=new LotroEnumsRegistry();
+      synchronized(LotroEnumsRegistry.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LotroEnumsRegistry();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -40,22 +49,38 @@ public class LotroEnumsRegistry
    */
   public LotroEnumsRegistry()
   {
-    _enums=new HashMap<Class<? extends LotroEnumEntry>, LotroEnum<?>>();
+    _enums=new ConcurrentHashMap<Class<? extends LotroEnumEntry>, LotroEnum<?>>();
   }
 
   /**
    * Get an enum.
+   * Loaded enums are read without locking. Each enum is loaded at most once.
+   * Loading of an unknown enum is tried again on each call.
    * @param implClass Entry implementation class.
    * @return An enum or <code>null</code> if not found.
    */
   public <T extends LotroEnumEntry> LotroEnum<T> get(Class<T> implClass)
+  {
+    @SuppressWarnings("unchecked")
+    LotroEnum<T> ret=(LotroEnum<T>)_enums.get(implClass);
+    if (ret==null)
+    {
+      ret=getOrLoad(implClass);
+    }
+    return ret;
+  }
+
+  private synchronized <T extends LotroEnumEntry> LotroEnum<T> getOrLoad(Class<T> implClass)
   {
     @SuppressWarnings("unchecked")
     LotroEnum<T> ret=(LotroEnum<T>)_enums.get(implClass);
     if (ret==null)
     {
       ret=load(implClass);
-      _enums.put(implClass,ret);
+      if (ret!=null)
+      {
+        _enums.put(implClass,ret);
+      }
     }
     return ret;
   }
@@ -17,7 +17,7 @@ public class CombatSystem
 {
   private static final Logger LOGGER=Logger.getLogger(CombatSystem.class);
 
-  private static CombatSystem _instance=null;
+  private static volatile CombatSystem _instance;
 
   private CombatData _data;
 
@@ -27,11 +27,20 @@ public class CombatSystem
    */
   public static CombatSystem getInstance()
   {
-    if (_instance==null)
+    CombatSystem ret=_instance;
+    if (ret==null)
     {
-      _instance=new CombatSystem();
+      synchronized(CombatSystem.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new CombatSystem();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
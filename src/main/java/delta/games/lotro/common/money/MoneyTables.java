@@ -12,7 +12,7 @@ import delta.games.lotro.config.LotroCoreConfig;
  */
 public class MoneyTables
 {
-  private static ValueTablesManager _instance=null;
+  private static volatile ValueTablesManager _instance;
 
   /**
    * Get the money tables manager.
@@ -20,11 +20,20 @@ public class MoneyTables
    */
   public static ValueTablesManager getMoneyTablesManager()
   {
-    if (_instance==null)
+    ValueTablesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=buildMoneyTablesManager();
+      synchronized(MoneyTables.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=buildMoneyTablesManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static ValueTablesManager buildMoneyTablesManager()
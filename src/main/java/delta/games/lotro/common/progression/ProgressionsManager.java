@@ -3,15 +3,14 @@ package delta.games.lotro.common.progression;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.maths.Progression;
 import delta.games.lotro.utils.maths.io.xml.ProgressionSaxParser;
 import delta.games.lotro.utils.maths.io.xml.ProgressionsXMLWriter;
@@ -24,9 +23,9 @@ public class ProgressionsManager
 {
   private static final Logger LOGGER=Logger.getLogger(ProgressionsManager.class);
 
-  private static ProgressionsManager _instance=null;
+  private static volatile ProgressionsManager _instance;
 
-  private Map<Integer,Progression> _map;
+  private IntObjectMap<Progression> _map;
 
   /**
    * Get the sole instance of this class.
@@ -34,12 +33,21 @@ public class ProgressionsManager
    */
   public static ProgressionsManager getInstance()
   {
-    if (_instance==null)
+    ProgressionsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new ProgressionsManager();
-      _instance.loadAll();
+      synchronized(ProgressionsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new ProgressionsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -47,7 +55,7 @@ public class ProgressionsManager
    */
   public ProgressionsManager()
   {
-    _map=new HashMap<Integer,Progression>();
+    _map=new IntObjectMap<Progression>();
   }
 
   /**
@@ -73,7 +81,7 @@ public class ProgressionsManager
       List<Progression> progressions=ProgressionSaxParser.parseProgressionsFile(from);
       for(Progression progression : progressions)
       {
-        _map.put(Integer.valueOf(progression.getIdentifier()),progression);
+        _map.put(progression.getIdentifier(),progression);
       }
       long now2=System.currentTimeMillis();
       long duration=now2-now;
@@ -88,7 +96,7 @@ public class ProgressionsManager
    */
   public Progression getProgression(int id)
   {
-    return _map.get(Integer.valueOf(id));
+    return _map.get(id);
   }
 
   /**
@@ -98,7 +106,7 @@ public class ProgressionsManager
    */
   public void registerProgression(int id, Progression progression)
   {
-    _map.put(Integer.valueOf(id),progression);
+    _map.put(id,progression);
   }
 
   /**
@@ -16,6 +16,7 @@ import delta.games.lotro.lore.items.comparators.ItemNameComparator;
 import delta.games.lotro.lore.items.legendary.relics.Relic;
 import delta.games.lotro.lore.items.legendary.relics.RelicsManager;
 import delta.games.lotro.lore.titles.TitleDescription;
+import delta.games.lotro.utils.IntSet;
 
 /**
  * Tool to explore rewards.
@@ -25,9 +26,9 @@ public class RewardsExplorer
 {
   private Set<String> _emotes;
   private Set<TitleDescription> _titles;
-  private Set<Integer> _itemIds;
+  private IntSet _itemIds;
   private List<Item> _items;
-  private Set<Integer> _relicIds;
+  private IntSet _relicIds;
   private List<Relic> _relics;
   private Set<String> _skills;
   private Set<String> _traits;
@@ -39,9 +40,9 @@ public class RewardsExplorer
   public RewardsExplorer()
   {
     _titles=new HashSet<TitleDescription>();
-    _itemIds=new HashSet<Integer>();
+    _itemIds=new IntSet();
     _items=new ArrayList<Item>();
-    _relicIds=new HashSet<Integer>();
+    _relicIds=new IntSet();
     _relics=new ArrayList<Relic>();
     _emotes=new HashSet<String>();
     _skills=new HashSet<String>();
@@ -89,7 +90,7 @@ public class RewardsExplorer
         ItemReward itemReward=(ItemReward)rewardElement;
         Item item=itemReward.getItem();
         int id=item.getIdentifier();
-        _itemIds.add(Integer.valueOf(id));
+        _itemIds.add(id);
       }
       // Relics
       else if (rewardElement instanceof RelicReward)
@@ -97,7 +98,7 @@ public class RewardsExplorer
         RelicReward relicReward=(RelicReward)rewardElement;
         Relic relic=relicReward.getRelic();
         int relicId=relic.getIdentifier();
-        _relicIds.add(Integer.valueOf(relicId));
+        _relicIds.add(relicId);
       }
       // Billing Token
       else if (rewardElement instanceof BillingTokenReward)
@@ -127,9 +128,9 @@ public class RewardsExplorer
   private void resolveItems()
   {
     ItemsManager items=ItemsManager.getInstance();
-    for(Integer id : _itemIds)
+    for(int id : _itemIds.toArray())
     {
-      Item item=items.getItem(id.intValue());
+      Item item=items.getItem(id);
       if (item!=null)
       {
         _items.add(item);
@@ -140,9 +141,9 @@ public class RewardsExplorer
   private void resolveRelics()
   {
     RelicsManager relics=RelicsManager.getInstance();
-    for(Integer id : _relicIds)
+    for(int id : _relicIds.toArray())
     {
-      Relic relic=relics.getById(id.intValue());
+      Relic relic=relics.getById(id);
       if (relic!=null)
       {
         _relics.add(relic);
@@ -10,6 +10,7 @@ import delta.games.lotro.common.Named;
 public class StatDescription implements Identifiable,Named
 {
   private int _id;
+  private int _slot;
   private Integer _index;
   private String _key;
   private String _legacyKey;
@@ -24,6 +25,7 @@ public class StatDescription implements Identifiable,Named
   public StatDescription()
   {
     _id=0;
+    _slot=-1;
     _index=null;
     _key=null;
     _legacyKey=null;
@@ -51,6 +53,25 @@ public class StatDescription implements Identifiable,Named
     _id=identifier;
   }
 
+  /**
+   * Get the slot of this stat in the stats registry.
+   * Slots are small dense integers, suitable for array-based lookups.
+   * @return a slot or <code>-1</code> if not registered.
+   */
+  public int getSlot()
+  {
+    return _slot;
+  }
+
+  /**
+   * Set the registry slot.
+   * @param slot Slot to set.
+   */
+  public void setSlot(int slot)
+  {
+    _slot=slot;
+  }
+
   /**
    * Get the stat index.
    * @return an index or <code>null</code> if none.
@@ -12,6 +12,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.common.stats.io.xml.StatXMLParser;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Registry for all stats.
@@ -21,11 +22,11 @@ public class StatsRegistry
 {
   private static final Logger LOGGER=Logger.getLogger(StatsRegistry.class);
 
-  private static StatsRegistry _instance=null;
+  private static volatile StatsRegistry _instance;
 
   private List<StatDescription> _stats;
   private List<StatDescription> _indexedStats;
-  private Map<Integer,StatDescription> _mapById;
+  private IntObjectMap<StatDescription> _mapById;
   private Map<String,StatDescription> _mapByKey;
 
   /**
@@ -34,12 +35,21 @@ public class StatsRegistry
    */
   public static StatsRegistry getInstance()
   {
-    if (_instance==null)
+    StatsRegistry ret=_instance;
+    if (ret==null)
     {
-      _instance=new StatsRegistry();
-      _instance.loadAll();
+      synchronized(StatsRegistry.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new StatsRegistry();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -49,7 +59,7 @@ public class StatsRegistry
   {
     _stats=new ArrayList<StatDescription>();
     _indexedStats=new ArrayList<StatDescription>();
-    _mapById=new HashMap<Integer,StatDescription>();
+    _mapById=new IntObjectMap<StatDescription>();
     _mapByKey=new HashMap<String,StatDescription>();
   }
 
@@ -109,10 +119,11 @@ public class StatsRegistry
    */
   public void addStat(StatDescription stat)
   {
-    Integer id=Integer.valueOf(stat.getIdentifier());
+    int id=stat.getIdentifier();
     StatDescription old=_mapById.get(id);
     if (old==null)
     {
+      stat.setSlot(_stats.size());
       _stats.add(stat);
       _mapById.put(id,stat);
       String key=stat.getKey();
@@ -140,7 +151,7 @@ public class StatsRegistry
   public void removeStat(StatDescription stat)
   {
     _stats.remove(stat);
-    Integer id=Integer.valueOf(stat.getIdentifier());
+    int id=stat.getIdentifier();
     _mapById.remove(id);
     String key=stat.getKey();
     if (key!=null)
@@ -171,7 +182,7 @@ public class StatsRegistry
    */
   public StatDescription getById(int id)
   {
-    return _mapById.get(Integer.valueOf(id));
+    return _mapById.get(id);
   }
 
   /**
@@ -0,0 +1,208 @@
+package delta.games.lotro.common.treasure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Reverse index: from item identifiers to the loot tables that may give them.
+ * <p>
+ * The reachable items of each table are computed once, bottom-up,
+ * so shared sub-tables are walked only once.
+ * @author DAM
+ */
+public class LootItemsIndex
+{
+  private static final int[] NO_ITEMS=new int[0];
+
+  private IntObjectMap<List<LootTable>> _tablesByItem;
+  private Map<LootTable,int[]> _itemIdsByTable;
+
+  /**
+   * Constructor.
+   * @param lootsMgr Loots manager to index.
+   */
+  public LootItemsIndex(LootsManager lootsMgr)
+  {
+    _tablesByItem=new IntObjectMap<List<LootTable>>();
+    _itemIdsByTable=new IdentityHashMap<LootTable,int[]>();
+    // Registry items are sorted by identifier, so are the lists of tables
+    for(LootTable table : lootsMgr.getTables().getItems())
+    {
+      for(int itemId : getItemIds(table))
+      {
+        List<LootTable> tables=_tablesByItem.get(itemId);
+        if (tables==null)
+        {
+          tables=new ArrayList<LootTable>();
+          _tablesByItem.put(itemId,tables);
+        }
+        tables.add(table);
+      }
+    }
+  }
+
+  /**
+   * Get the loot tables that may give an item.
+   * @param itemId Item identifier.
+   * @return A possibly empty, but never <code>null</code>, list of loot tables, sorted by identifier.
+   */
+  public List<LootTable> getTables(int itemId)
+  {
+    List<LootTable> ret=_tablesByItem.get(itemId);
+    if (ret==null)
+    {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(ret);
+  }
+
+  /**
+   * Get the number of indexed items.
+   * @return an items count.
+   */
+  public int getItemsCount()
+  {
+    return _tablesByItem.size();
+  }
+
+  /**
+   * Indicates if a loot table may give an item.
+   * @param table Loot table.
+   * @param itemId Item identifier.
+   * @return <code>true</code> if it does, <code>false</code> otherwise.
+   */
+  public boolean contains(LootTable table, int itemId)
+  {
+    return (Arrays.binarySearch(getItemIds(table),itemId)>=0);
+  }
+
+  /**
+   * Get the identifiers of the items reachable from a loot table.
+   * @param table Loot table.
+   * @return A sorted array of item identifiers. Shall not be modified.
+   */
+  public synchronized int[] getItemIds(LootTable table)
+  {
+    int[] ret=_itemIdsByTable.get(table);
+    if (ret==null)
+    {
+      // Mark the table as being computed, to stop on cycles
+      _itemIdsByTable.put(table,NO_ITEMS);
+      ret=computeItemIds(table);
+      _itemIdsByTable.put(table,ret);
+    }
+    return ret;
+  }
+
+  private int[] computeItemIds(LootTable table)
+  {
+    ItemIdsCollector collector=new ItemIdsCollector();
+    if (table instanceof TrophyList)
+    {
+      for(TrophyListEntry entry : ((TrophyList)table).getEntries())
+      {
+        collector.add(entry.getItem());
+        collector.add(entry.getTreasureGroup());
+      }
+    }
+    else if (table instanceof WeightedTreasureTable)
+    {
+      for(WeightedTreasureTableEntry entry : ((WeightedTreasureTable)table).getEntries())
+      {
+        collector.add(entry.getTrophyList());
+      }
+    }
+    else if (table instanceof TreasureList)
+    {
+      for(TreasureListEntry entry : ((TreasureList)table).getEntries())
+      {
+        collector.add(entry.getTreasureGroup());
+      }
+    }
+    else if (table instanceof ItemsTable)
+    {
+      for(ItemsTableEntry entry : ((ItemsTable)table).getEntries())
+      {
+        collector.add(entry.getItem());
+      }
+    }
+    else if (table instanceof FilteredTrophyTable)
+    {
+      for(FilteredTrophyTableEntry entry : ((FilteredTrophyTable)table).getEntries())
+      {
+        collector.add(entry.getLootTable());
+      }
+    }
+    else
+    {
+      Set<Integer> itemIds=table.getItemIds();
+      for(Integer itemId : itemIds)
+      {
+        collector.add(itemId.intValue());
+      }
+    }
+    return collector.build();
+  }
+
+  private class ItemIdsCollector
+  {
+    private int[] _ids=new int[16];
+    private int _size=0;
+
+    private void add(Item item)
+    {
+      if (item!=null)
+      {
+        add(item.getIdentifier());
+      }
+    }
+
+    private void add(LootTable table)
+    {
+      if (table!=null)
+      {
+        for(int itemId : getItemIds(table))
+        {
+          add(itemId);
+        }
+      }
+    }
+
+    private void add(int itemId)
+    {
+      if (_size==_ids.length)
+      {
+        _ids=Arrays.copyOf(_ids,_size*2);
+      }
+      _ids[_size]=itemId;
+      _size++;
+    }
+
+    private int[] build()
+    {
+      if (_size==0)
+      {
+        return NO_ITEMS;
+      }
+      Arrays.sort(_ids,0,_size);
+      int count=1;
+      for(int i=1;i<_size;i++)
+      {
+        if (_ids[i]!=_ids[count-1])
+        {
+          _ids[count]=_ids[i];
+          count++;
+        }
+      }
+      return Arrays.copyOf(_ids,count);
+    }
+  }
+}
@@ -18,11 +18,12 @@ public class LootsManager
 {
   private static final Logger LOGGER=Logger.getLogger(LootsManager.class);
 
-  private static LootsManager _instance;
+  private static volatile LootsManager _instance;
 
   private Registry<LootTable> _tables;
   private Registry<RelicsList> _relicsLists;
   private Registry<RelicsTreasureGroup> _relicsTreasureGroups;
+  private volatile LootItemsIndex _itemsIndex;
 
   /**
    * Get the sole instance of this class.
@@ -30,11 +31,20 @@ public class LootsManager
    */
   public static LootsManager getInstance()
   {
-    if (_instance==null)
+    LootsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=loadLootManager();
+      synchronized(LootsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=loadLootManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -86,6 +96,29 @@ public class LootsManager
     return _relicsTreasureGroups;
   }
 
+  /**
+   * Get the reverse index from items to loot tables.
+   * It is built on first use, once all the loot tables are loaded.
+   * @return the items index.
+   */
+  public LootItemsIndex getItemsIndex()
+  {
+    LootItemsIndex ret=_itemsIndex;
+    if (ret==null)
+    {
+      synchronized(this)
+      {
+        ret=_itemsIndex;
+        if (ret==null)
+        {
+          ret=new LootItemsIndex(this);
+          _itemsIndex=ret;
+        }
+      }
+    }
+    return ret;
+  }
+
   /**
    * Dump some statistics about loots.
    * @param out Output stream.
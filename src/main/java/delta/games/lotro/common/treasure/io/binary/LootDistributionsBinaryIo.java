@@ -0,0 +1,164 @@
+package delta.games.lotro.common.treasure.io.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.common.treasure.simulation.LootDistribution;
+import delta.games.lotro.utils.io.binary.BinaryIoUtils;
+
+/**
+ * Binary I/O for loot distributions.
+ * <p>
+ * File layout:
+ * <ul>
+ * <li>header: magic, format version, distributions count,
+ * <li>distributions: table identifier and items count (var-ints), then for each item:
+ * identifier delta from the previous item (var-int), maximum quantity (var-int),
+ * then the probability of each quantity from 1 to the maximum (floats).
+ * The probability of quantity 0 is the remainder.
+ * </ul>
+ * @author DAM
+ */
+public class LootDistributionsBinaryIo
+{
+  private static final Logger LOGGER=Logger.getLogger(LootDistributionsBinaryIo.class);
+
+  /**
+   * Magic number at the start of each file ('LTDS').
+   */
+  private static final int MAGIC=0x4C544453;
+  /**
+   * Version of the file format.
+   */
+  private static final int FORMAT_VERSION=2;
+
+  /**
+   * Write loot distributions to a file.
+   * The file is written to a temporary file first, then renamed.
+   * @param toFile File to write.
+   * @param distributions Distributions to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean write(File toFile, List<LootDistribution> distributions)
+  {
+    File parentDir=toFile.getAbsoluteFile().getParentFile();
+    if ((parentDir!=null) && (!parentDir.exists()))
+    {
+      parentDir.mkdirs();
+    }
+    File tmpFile=new File(toFile.getPath()+".tmp");
+    boolean ok=false;
+    DataOutputStream out=null;
+    try
+    {
+      out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(distributions.size());
+      for(LootDistribution distribution : distributions)
+      {
+        BinaryIoUtils.writeVarLong(out,distribution.getTableId()&0xFFFFFFFFL);
+        int nbItems=distribution.getItemsCount();
+        BinaryIoUtils.writeVarLong(out,nbItems);
+        int lastItemId=0;
+        for(int i=0;i<nbItems;i++)
+        {
+          int itemId=distribution.getItemId(i);
+          BinaryIoUtils.writeVarLong(out,(itemId-lastItemId)&0xFFFFFFFFL);
+          double[] quantities=distribution.getQuantityProbabilities(i);
+          BinaryIoUtils.writeVarLong(out,quantities.length-1);
+          for(int quantity=1;quantity<quantities.length;quantity++)
+          {
+            out.writeFloat((float)quantities[quantity]);
+          }
+          lastItemId=itemId;
+        }
+      }
+      out.close();
+      out=null;
+      toFile.delete();
+      ok=tmpFile.renameTo(toFile);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write loot distributions file: "+toFile,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(out);
+      if (!ok)
+      {
+        tmpFile.delete();
+      }
+    }
+    return ok;
+  }
+
+  /**
+   * Read loot distributions from a file.
+   * @param fromFile File to read.
+   * @return A list of distributions or <code>null</code> if an error occurred.
+   */
+  public static List<LootDistribution> read(File fromFile)
+  {
+    List<LootDistribution> ret=null;
+    DataInputStream in=null;
+    try
+    {
+      in=new DataInputStream(new BufferedInputStream(new FileInputStream(fromFile)));
+      int magic=in.readInt();
+      int version=in.readInt();
+      if ((magic!=MAGIC) || (version!=FORMAT_VERSION))
+      {
+        LOGGER.warn("Bad loot distributions file format: "+fromFile);
+        return null;
+      }
+      int nbDistributions=in.readInt();
+      List<LootDistribution> distributions=new ArrayList<LootDistribution>(nbDistributions);
+      for(int i=0;i<nbDistributions;i++)
+      {
+        int tableId=(int)BinaryIoUtils.readVarLong(in);
+        int nbItems=(int)BinaryIoUtils.readVarLong(in);
+        int[] itemIds=new int[nbItems];
+        double[][] quantities=new double[nbItems][];
+        int itemId=0;
+        for(int j=0;j<nbItems;j++)
+        {
+          itemId+=(int)BinaryIoUtils.readVarLong(in);
+          itemIds[j]=itemId;
+          int maxQuantity=(int)BinaryIoUtils.readVarLong(in);
+          double[] itemQuantities=new double[maxQuantity+1];
+          double some=0;
+          for(int quantity=1;quantity<=maxQuantity;quantity++)
+          {
+            itemQuantities[quantity]=in.readFloat();
+            some+=itemQuantities[quantity];
+          }
+          itemQuantities[0]=Math.max(0,1-some);
+          quantities[j]=itemQuantities;
+        }
+        distributions.add(new LootDistribution(tableId,itemIds,quantities));
+      }
+      ret=distributions;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read loot distributions file: "+fromFile,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ret;
+  }
+}
@@ -1,6 +1,7 @@
 package delta.games.lotro.common.treasure.io.xml;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.transform.sax.TransformerHandler;
@@ -8,7 +9,6 @@ import javax.xml.transform.sax.TransformerHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.AttributesImpl;
 
-import delta.common.utils.io.xml.XmlFileWriterHelper;
 import delta.common.utils.io.xml.XmlWriter;
 import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.common.requirements.UsageRequirement;
@@ -32,6 +32,8 @@ import delta.games.lotro.common.treasure.WeightedTreasureTable;
 import delta.games.lotro.common.treasure.WeightedTreasureTableEntry;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.legendary.relics.Relic;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 
 /**
  * Writes loot tables to XML files.
@@ -61,49 +63,48 @@ public class TreasureXMLWriter
    */
   private boolean writeLoots(File outFile, final LootsManager lootsMgr, String encoding)
   {
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<Object> recordWriter=new XMLRecordWriter<Object>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, Object record) throws Exception
       {
-        hd.startElement("","",TreasureXMLConstants.LOOTS_TAG,new AttributesImpl());
-        writeLootsManager(hd,lootsMgr);
-        hd.endElement("","",TreasureXMLConstants.LOOTS_TAG);
+        writeLootRecord(hd,record);
       }
     };
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    boolean ret=helper.write(outFile,encoding,writer);
+    ShardedXMLFileWriter<Object> writer=new ShardedXMLFileWriter<Object>(TreasureXMLConstants.LOOTS_TAG,recordWriter);
+    boolean ret=writer.write(outFile,encoding,getRecords(lootsMgr));
     return ret;
   }
 
-  private void writeLootsManager(TransformerHandler hd, LootsManager loots) throws SAXException
+  private List<Object> getRecords(LootsManager loots)
   {
+    List<Object> ret=new ArrayList<Object>();
     // Items tables
-    writeTables(hd,loots.getTables().getItems(ItemsTable.class));
-    writeTables(hd,loots.getTables().getItems(TreasureList.class));
-    writeTables(hd,loots.getTables().getItems(TrophyList.class));
-    writeTables(hd,loots.getTables().getItems(WeightedTreasureTable.class));
-    writeTables(hd,loots.getTables().getItems(FilteredTrophyTable.class));
-
+    ret.addAll(loots.getTables().getItems(ItemsTable.class));
+    ret.addAll(loots.getTables().getItems(TreasureList.class));
+    ret.addAll(loots.getTables().getItems(TrophyList.class));
+    ret.addAll(loots.getTables().getItems(WeightedTreasureTable.class));
+    ret.addAll(loots.getTables().getItems(FilteredTrophyTable.class));
     // Relics lists
-    List<RelicsList> relicsLists=loots.getRelicsLists().getItems();
-    for(RelicsList relicsList : relicsLists)
-    {
-      writeRelicsList(hd,relicsList);
-    }
+    ret.addAll(loots.getRelicsLists().getItems());
     // Relics treasure groups
-    List<RelicsTreasureGroup> relicsTreasureGroups=loots.getRelicsTreasureGroups().getItems();
-    for(RelicsTreasureGroup relicsTreasureGroup : relicsTreasureGroups)
-    {
-      writeRelicsTreasureGroup(hd,relicsTreasureGroup);
-    }
+    ret.addAll(loots.getRelicsTreasureGroups().getItems());
+    return ret;
   }
 
-  private void writeTables(TransformerHandler hd, List<LootTable> tables) throws SAXException
+  private void writeLootRecord(TransformerHandler hd, Object record) throws SAXException
   {
-    for(LootTable table : tables)
+    if (record instanceof LootTable)
+    {
+      writeTable(hd,(LootTable)record);
+    }
+    else if (record instanceof RelicsList)
+    {
+      writeRelicsList(hd,(RelicsList)record);
+    }
+    else if (record instanceof RelicsTreasureGroup)
     {
-      writeTable(hd,table);
+      writeRelicsTreasureGroup(hd,(RelicsTreasureGroup)record);
     }
   }
 
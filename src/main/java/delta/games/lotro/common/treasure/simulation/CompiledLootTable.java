@@ -0,0 +1,455 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import delta.games.lotro.common.treasure.FilteredTrophyTable;
+import delta.games.lotro.common.treasure.FilteredTrophyTableEntry;
+import delta.games.lotro.common.treasure.ItemsTable;
+import delta.games.lotro.common.treasure.ItemsTableEntry;
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.common.treasure.TreasureList;
+import delta.games.lotro.common.treasure.TreasureListEntry;
+import delta.games.lotro.common.treasure.TrophyList;
+import delta.games.lotro.common.treasure.TrophyListEntry;
+import delta.games.lotro.common.treasure.WeightedTreasureTable;
+import delta.games.lotro.common.treasure.WeightedTreasureTableEntry;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Loot table compiled to flat arrays, for fast sampling.
+ * <p>
+ * Each reachable table is a node. A node has a range of edges:
+ * <ul>
+ * <li>'pick' nodes (treasure lists, items tables, weighted treasure tables) choose one edge,
+ * using cumulated probabilities,
+ * <li>'roll' nodes (trophy lists) roll each edge independently.
+ * </ul>
+ * An edge leads to another node, to an item slot (with a quantity), or to nothing.
+ * Node 0 is the root table. Nodes are stored parents first.
+ * <p>
+ * Requirements of filtered trophy tables are not evaluated: their first entry is used.
+ * Cyclic tables are rejected.
+ * @author DAM
+ */
+public final class CompiledLootTable
+{
+  static final byte PICK=0;
+  static final byte ROLL=1;
+  static final int NOTHING=Integer.MIN_VALUE;
+
+  private LootTable _root;
+  // Tables of the nodes
+  LootTable[] _tables;
+  // Item slots
+  int[] _itemIds;
+  // Nodes
+  int _nodesCount;
+  byte[] _kinds;
+  int[] _firstEdge;
+  int[] _endEdge;
+  // Edges
+  int _edgesCount;
+  double[] _edgeValues;
+  int[] _edgeTargets;
+  int[] _edgeQuantities;
+  // Size of the stack needed to roll this table
+  int _stackSize;
+
+  private CompiledLootTable(LootTable root)
+  {
+    _root=root;
+  }
+
+  /**
+   * Get the compiled root table.
+   * @return a loot table.
+   */
+  public LootTable getRoot()
+  {
+    return _root;
+  }
+
+  /**
+   * Get the identifiers of the reachable items.
+   * Item slots are indexes in this array.
+   * @return An array of item identifiers. Shall not be modified.
+   */
+  public int[] getItemIds()
+  {
+    return _itemIds;
+  }
+
+  /**
+   * Get the number of nodes.
+   * @return a nodes count.
+   */
+  public int getNodesCount()
+  {
+    return _nodesCount;
+  }
+
+  /**
+   * Compute the exact expected quantity of each item, for a single roll of the root table.
+   * @return An array of expected quantities, indexed by item slot.
+   */
+  public double[] computeExpectedDrops()
+  {
+    double[] ret=new double[_itemIds.length];
+    double[] reach=new double[_nodesCount];
+    reach[0]=1;
+    // Parents are stored before their children
+    for(int node=0;node<_nodesCount;node++)
+    {
+      double nodeReach=reach[node];
+      if (nodeReach==0)
+      {
+        continue;
+      }
+      double previous=0;
+      for(int edge=_firstEdge[node];edge<_endEdge[node];edge++)
+      {
+        double probability;
+        if (_kinds[node]==PICK)
+        {
+          probability=_edgeValues[edge]-previous;
+          previous=_edgeValues[edge];
+        }
+        else
+        {
+          probability=_edgeValues[edge];
+        }
+        double edgeReach=nodeReach*probability;
+        int target=_edgeTargets[edge];
+        if (target>=0)
+        {
+          reach[target]+=edgeReach;
+        }
+        else if (target!=NOTHING)
+        {
+          ret[-target-1]+=edgeReach*_edgeQuantities[edge];
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Compile a loot table.
+   * @param root Table to compile.
+   * @return the compiled table.
+   * @throws IllegalArgumentException if the table contains a cycle.
+   */
+  public static CompiledLootTable compile(LootTable root)
+  {
+    return new Compiler(root).compile();
+  }
+
+  private static class Compiler
+  {
+    private LootTable _rootTable;
+    private Map<LootTable,Integer> _nodeIndexes;
+    private LootTable[] _nodes;
+    private IntObjectMap<Integer> _slots;
+    private int[] _itemIds;
+    private int _itemsCount;
+    private CompiledLootTable _result;
+
+    private Compiler(LootTable root)
+    {
+      _rootTable=root;
+      _nodeIndexes=new IdentityHashMap<LootTable,Integer>();
+      _slots=new IntObjectMap<Integer>();
+      _itemIds=new int[16];
+      _itemsCount=0;
+    }
+
+    private CompiledLootTable compile()
+    {
+      _result=new CompiledLootTable(_rootTable);
+      // Nodes, in topological order (parents first)
+      TopologicalSorter sorter=new TopologicalSorter();
+      sorter.visit(_rootTable);
+      _nodes=sorter.getSortedTables();
+      _result._tables=_nodes;
+      int nodesCount=_nodes.length;
+      for(int i=0;i<nodesCount;i++)
+      {
+        _nodeIndexes.put(_nodes[i],Integer.valueOf(i));
+      }
+      _result._nodesCount=nodesCount;
+      _result._kinds=new byte[nodesCount];
+      _result._firstEdge=new int[nodesCount];
+      _result._endEdge=new int[nodesCount];
+      _result._edgeValues=new double[16];
+      _result._edgeTargets=new int[16];
+      _result._edgeQuantities=new int[16];
+      // Edges
+      for(int i=0;i<nodesCount;i++)
+      {
+        _result._firstEdge[i]=_result._edgesCount;
+        compileNode(i,_nodes[i]);
+        _result._endEdge[i]=_result._edgesCount;
+      }
+      _result._itemIds=Arrays.copyOf(_itemIds,_itemsCount);
+      _result._stackSize=computeStackSize();
+      return _result;
+    }
+
+    /**
+     * Compute the maximum size of the stack of pending nodes, when rolling.
+     * Children are pushed in edges order, so the child of the n-th table edge
+     * has at most n-1 siblings below it. Children come after their parents.
+     * @return a stack size.
+     */
+    private int computeStackSize()
+    {
+      CompiledLootTable r=_result;
+      int[] sizes=new int[r._nodesCount];
+      for(int node=r._nodesCount-1;node>=0;node--)
+      {
+        int size=1;
+        int pushed=0;
+        for(int edge=r._firstEdge[node];edge<r._endEdge[node];edge++)
+        {
+          int target=r._edgeTargets[edge];
+          if (target>=0)
+          {
+            int below=(r._kinds[node]==ROLL)?pushed:0;
+            size=Math.max(size,below+sizes[target]);
+            pushed++;
+          }
+        }
+        sizes[node]=size;
+      }
+      return (r._nodesCount>0)?sizes[0]:1;
+    }
+
+    private void compileNode(int index, LootTable table)
+    {
+      if (table instanceof TrophyList)
+      {
+        _result._kinds[index]=ROLL;
+        for(TrophyListEntry entry : ((TrophyList)table).getEntries())
+        {
+          double probability=Math.max(0,Math.min(1,entry.getProbability()));
+          Item item=entry.getItem();
+          if (item!=null)
+          {
+            addItemEdge(probability,item,entry.getQuantity());
+          }
+          else if (entry.getTreasureGroup()!=null)
+          {
+            addTableEdge(probability,entry.getTreasureGroup());
+          }
+        }
+        return;
+      }
+      _result._kinds[index]=PICK;
+      if (table instanceof WeightedTreasureTable)
+      {
+        WeightedTreasureTable weightedTable=(WeightedTreasureTable)table;
+        int total=0;
+        for(WeightedTreasureTableEntry entry : weightedTable.getEntries())
+        {
+          total+=entry.getWeight();
+        }
+        int cumulated=0;
+        for(WeightedTreasureTableEntry entry : weightedTable.getEntries())
+        {
+          cumulated+=entry.getWeight();
+          if (entry.getWeight()>0)
+          {
+            addTableEdge(threshold(cumulated,total),entry.getTrophyList());
+          }
+        }
+      }
+      else if (table instanceof TreasureList)
+      {
+        TreasureList treasureList=(TreasureList)table;
+        int total=0;
+        for(TreasureListEntry entry : treasureList.getEntries())
+        {
+          total+=entry.getWeight();
+        }
+        int cumulated=0;
+        for(TreasureListEntry entry : treasureList.getEntries())
+        {
+          cumulated+=entry.getWeight();
+          if (entry.getWeight()>0)
+          {
+            addTableEdge(threshold(cumulated,total),entry.getTreasureGroup());
+          }
+        }
+      }
+      else if (table instanceof ItemsTable)
+      {
+        ItemsTable itemsTable=(ItemsTable)table;
+        int total=0;
+        for(ItemsTableEntry entry : itemsTable.getEntries())
+        {
+          total+=entry.getWeight();
+        }
+        int cumulated=0;
+        for(ItemsTableEntry entry : itemsTable.getEntries())
+        {
+          cumulated+=entry.getWeight();
+          if (entry.getWeight()>0)
+          {
+            addItemEdge(threshold(cumulated,total),entry.getItem(),entry.getQuantity());
+          }
+        }
+      }
+      else if (table instanceof FilteredTrophyTable)
+      {
+        LootTable first=getFirstTable((FilteredTrophyTable)table);
+        if (first!=null)
+        {
+          addTableEdge(1,first);
+        }
+      }
+    }
+
+    private double threshold(int cumulated, int total)
+    {
+      return (cumulated>=total)?1:((double)cumulated)/total;
+    }
+
+    private void addTableEdge(double value, LootTable table)
+    {
+      if (table==null)
+      {
+        addEdge(value,NOTHING,0);
+        return;
+      }
+      addEdge(value,_nodeIndexes.get(table).intValue(),1);
+    }
+
+    private void addItemEdge(double value, Item item, int quantity)
+    {
+      if (item==null)
+      {
+        addEdge(value,NOTHING,0);
+        return;
+      }
+      int itemId=item.getIdentifier();
+      Integer slot=_slots.get(itemId);
+      if (slot==null)
+      {
+        if (_itemsCount==_itemIds.length)
+        {
+          _itemIds=Arrays.copyOf(_itemIds,_itemsCount*2);
+        }
+        _itemIds[_itemsCount]=itemId;
+        slot=Integer.valueOf(_itemsCount);
+        _slots.put(itemId,slot);
+        _itemsCount++;
+      }
+      addEdge(value,-slot.intValue()-1,quantity);
+    }
+
+    private void addEdge(double value, int target, int quantity)
+    {
+      CompiledLootTable r=_result;
+      if (r._edgesCount==r._edgeValues.length)
+      {
+        int newSize=r._edgesCount*2;
+        r._edgeValues=Arrays.copyOf(r._edgeValues,newSize);
+        r._edgeTargets=Arrays.copyOf(r._edgeTargets,newSize);
+        r._edgeQuantities=Arrays.copyOf(r._edgeQuantities,newSize);
+      }
+      r._edgeValues[r._edgesCount]=value;
+      r._edgeTargets[r._edgesCount]=target;
+      r._edgeQuantities[r._edgesCount]=quantity;
+      r._edgesCount++;
+    }
+  }
+
+  static LootTable getFirstTable(FilteredTrophyTable table)
+  {
+    for(FilteredTrophyTableEntry entry : table.getEntries())
+    {
+      if (entry.getLootTable()!=null)
+      {
+        return entry.getLootTable();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Sorts the reachable tables so that parents come before their children.
+   */
+  private static class TopologicalSorter
+  {
+    private Map<LootTable,Boolean> _visited=new IdentityHashMap<LootTable,Boolean>();
+    private Map<LootTable,Boolean> _inProgress=new IdentityHashMap<LootTable,Boolean>();
+    private LootTable[] _postOrder=new LootTable[16];
+    private int _count=0;
+
+    private void visit(LootTable table)
+    {
+      if (table==null)
+      {
+        return;
+      }
+      if (_inProgress.containsKey(table))
+      {
+        throw new IllegalArgumentException("Cycle in loot table ID="+table.getIdentifier());
+      }
+      if (_visited.containsKey(table))
+      {
+        return;
+      }
+      _visited.put(table,Boolean.TRUE);
+      _inProgress.put(table,Boolean.TRUE);
+      if (table instanceof TrophyList)
+      {
+        for(TrophyListEntry entry : ((TrophyList)table).getEntries())
+        {
+          if (entry.getItem()==null)
+          {
+            visit(entry.getTreasureGroup());
+          }
+        }
+      }
+      else if (table instanceof WeightedTreasureTable)
+      {
+        for(WeightedTreasureTableEntry entry : ((WeightedTreasureTable)table).getEntries())
+        {
+          visit(entry.getTrophyList());
+        }
+      }
+      else if (table instanceof TreasureList)
+      {
+        for(TreasureListEntry entry : ((TreasureList)table).getEntries())
+        {
+          visit(entry.getTreasureGroup());
+        }
+      }
+      else if (table instanceof FilteredTrophyTable)
+      {
+        visit(getFirstTable((FilteredTrophyTable)table));
+      }
+      _inProgress.remove(table);
+      if (_count==_postOrder.length)
+      {
+        _postOrder=Arrays.copyOf(_postOrder,_count*2);
+      }
+      _postOrder[_count]=table;
+      _count++;
+    }
+
+    private LootTable[] getSortedTables()
+    {
+      LootTable[] ret=new LootTable[_count];
+      for(int i=0;i<_count;i++)
+      {
+        ret[i]=_postOrder[_count-1-i];
+      }
+      return ret;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.Arrays;
+
+import delta.common.utils.text.EndOfLine;
+
+/**
+ * Exact drop distribution of a loot table, for a single roll.
+ * <p>
+ * For each reachable item, it gives the probability of each quantity of this item,
+ * the expected quantity and the probability to get this item at least once.
+ * Items are sorted by identifier.
+ * Instances are immutable.
+ * @author DAM
+ */
+public final class LootDistribution
+{
+  private int _tableId;
+  private int[] _itemIds;
+  private double[][] _quantityProbabilities;
+  private double[] _expectedQuantities;
+  private double[] _dropProbabilities;
+
+  /**
+   * Constructor.
+   * @param tableId Identifier of the loot table.
+   * @param itemIds Item identifiers, sorted.
+   * @param quantityProbabilities Quantity distributions, in the order of the items:
+   * for each item, the probability of each quantity (index 0 for none).
+   */
+  public LootDistribution(int tableId, int[] itemIds, double[][] quantityProbabilities)
+  {
+    _tableId=tableId;
+    _itemIds=itemIds;
+    _quantityProbabilities=quantityProbabilities;
+    int nbItems=itemIds.length;
+    _expectedQuantities=new double[nbItems];
+    _dropProbabilities=new double[nbItems];
+    for(int i=0;i<nbItems;i++)
+    {
+      double[] probabilities=quantityProbabilities[i];
+      double expected=0;
+      for(int quantity=1;quantity<probabilities.length;quantity++)
+      {
+        expected+=quantity*probabilities[quantity];
+      }
+      _expectedQuantities[i]=expected;
+      _dropProbabilities[i]=Math.max(0,Math.min(1,1-probabilities[0]));
+    }
+  }
+
+  /**
+   * Get the identifier of the loot table.
+   * @return a loot table identifier.
+   */
+  public int getTableId()
+  {
+    return _tableId;
+  }
+
+  /**
+   * Get the number of reachable items.
+   * @return an items count.
+   */
+  public int getItemsCount()
+  {
+    return _itemIds.length;
+  }
+
+  /**
+   * Get the identifier of an item.
+   * @param index Index of the item, starting at 0.
+   * @return an item identifier.
+   */
+  public int getItemId(int index)
+  {
+    return _itemIds[index];
+  }
+
+  /**
+   * Get the quantity distribution of an item.
+   * @param index Index of the item, starting at 0.
+   * @return the probability of each quantity (index 0 for none). Shall not be modified.
+   */
+  public double[] getQuantityProbabilities(int index)
+  {
+    return _quantityProbabilities[index];
+  }
+
+  /**
+   * Get the expected quantity of an item.
+   * @param index Index of the item, starting at 0.
+   * @return an expected quantity.
+   */
+  public double getExpectedQuantity(int index)
+  {
+    return _expectedQuantities[index];
+  }
+
+  /**
+   * Get the probability to get an item at least once.
+   * @param index Index of the item, starting at 0.
+   * @return a probability in [0,1].
+   */
+  public double getDropProbability(int index)
+  {
+    return _dropProbabilities[index];
+  }
+
+  /**
+   * Find the index of an item.
+   * @param itemId Item identifier.
+   * @return an index, or a negative value if this item cannot drop.
+   */
+  public int indexOf(int itemId)
+  {
+    return Arrays.binarySearch(_itemIds,itemId);
+  }
+
+  int[] getItemIds()
+  {
+    return _itemIds;
+  }
+
+  /**
+   * Dump the contents of this object.
+   * @return a displayable string.
+   */
+  public String dump()
+  {
+    StringBuilder sb=new StringBuilder();
+    sb.append("Table ID=").append(_tableId).append(EndOfLine.NATIVE_EOL);
+    for(int i=0;i<_itemIds.length;i++)
+    {
+      sb.append('\t').append(_itemIds[i]);
+      sb.append(": expected=").append(_expectedQuantities[i]);
+      sb.append(", drop probability=").append(_dropProbabilities[i]);
+      sb.append(", quantities=").append(Arrays.toString(_quantityProbabilities[i]));
+      sb.append(EndOfLine.NATIVE_EOL);
+    }
+    return sb.toString().trim();
+  }
+
+  @Override
+  public String toString()
+  {
+    return dump();
+  }
+}
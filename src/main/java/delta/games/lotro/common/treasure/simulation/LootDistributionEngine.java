@@ -0,0 +1,373 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.common.treasure.LootsManager;
+
+/**
+ * Computes exact drop distributions of loot tables.
+ * <p>
+ * Tables are compiled (see {@link CompiledLootTable}), then the distribution of each node
+ * is built from the distributions of its edges, children first:
+ * <ul>
+ * <li>'pick' nodes choose a single edge, so the quantity distribution of an item
+ * is the weighted mixture of the distributions of the edges,
+ * <li>'roll' nodes roll each edge independently, so the quantity distribution of an item
+ * is the convolution of the distributions of the edges.
+ * </ul>
+ * Distributions are memoized by table, so that shared sub-tables are evaluated only once.
+ * This class is thread-safe.
+ * <p>
+ * Requirements of filtered trophy tables are not evaluated: their first entry is used.
+ * Cyclic tables are rejected.
+ * @author DAM
+ */
+public class LootDistributionEngine
+{
+  private static final Logger LOGGER=Logger.getLogger(LootDistributionEngine.class);
+
+  private static final int[] NO_ITEMS=new int[0];
+  private static final double[][] NO_QUANTITIES=new double[0][];
+  private static final double[] NONE={1};
+
+  private ConcurrentHashMap<LootTable,LootDistribution> _distributions;
+  private int _threads;
+
+  /**
+   * Constructor.
+   */
+  public LootDistributionEngine()
+  {
+    _distributions=new ConcurrentHashMap<LootTable,LootDistribution>();
+    _threads=Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Set the number of threads to use.
+   * @param threads Threads count.
+   */
+  public void setThreads(int threads)
+  {
+    _threads=Math.max(1,threads);
+  }
+
+  /**
+   * Get the number of memoized distributions.
+   * @return a distributions count.
+   */
+  public int getDistributionsCount()
+  {
+    return _distributions.size();
+  }
+
+  /**
+   * Compute the distributions of all the tables of a loots manager, in parallel.
+   * @param lootsMgr Loots manager.
+   * @return A list of distributions, ordered by table identifier.
+   * @throws IllegalStateException if a distribution could not be computed (for instance, a cyclic table).
+   */
+  public List<LootDistribution> computeAll(LootsManager lootsMgr)
+  {
+    return computeAll(lootsMgr.getTables().getItems());
+  }
+
+  /**
+   * Compute the distributions of some tables, in parallel.
+   * @param tables Tables to use.
+   * @return A list of distributions, in the order of the given tables.
+   * @throws IllegalStateException if a distribution could not be computed (for instance, a cyclic table).
+   */
+  public List<LootDistribution> computeAll(final List<? extends LootTable> tables)
+  {
+    long now=System.currentTimeMillis();
+    final int nbTables=tables.size();
+    final LootDistribution[] results=new LootDistribution[nbTables];
+    final int nbThreads=Math.max(1,Math.min(nbTables,_threads));
+    ExecutorService executor=Executors.newFixedThreadPool(nbThreads);
+    List<Future<Void>> futures=new ArrayList<Future<Void>>();
+    try
+    {
+      for(int i=0;i<nbThreads;i++)
+      {
+        final int first=i;
+        Callable<Void> task=new Callable<Void>()
+        {
+          @Override
+          public Void call()
+          {
+            // Interleaved slices: each thread gets small and large tables
+            for(int index=first;index<nbTables;index+=nbThreads)
+            {
+              results[index]=getDistribution(tables.get(index));
+            }
+            return null;
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      for(Future<Void> future : futures)
+      {
+        waitFor(future);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+    List<LootDistribution> ret=new ArrayList<LootDistribution>(Arrays.asList(results));
+    long now2=System.currentTimeMillis();
+    LOGGER.info("Computed "+ret.size()+" loot distributions ("+_distributions.size()+" memoized) in "+(now2-now)+"ms.");
+    return ret;
+  }
+
+  private static void waitFor(Future<Void> future)
+  {
+    try
+    {
+      future.get();
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while computing loot distributions",ie);
+    }
+    catch(ExecutionException ee)
+    {
+      throw new IllegalStateException("Error when computing loot distributions",ee.getCause());
+    }
+  }
+
+  /**
+   * Get the distribution of a loot table.
+   * @param table Table to use.
+   * @return a distribution.
+   * @throws IllegalArgumentException if the table is cyclic.
+   */
+  public LootDistribution getDistribution(LootTable table)
+  {
+    LootDistribution ret=_distributions.get(table);
+    if (ret!=null)
+    {
+      return ret;
+    }
+    // Rejects cyclic tables
+    CompiledLootTable compiled=CompiledLootTable.compile(table);
+    int nbNodes=compiled._nodesCount;
+    LootDistribution[] nodes=new LootDistribution[nbNodes];
+    // Nodes are stored parents first: children are computed before their parents
+    for(int node=nbNodes-1;node>=0;node--)
+    {
+      LootTable nodeTable=compiled._tables[node];
+      LootDistribution distribution=_distributions.get(nodeTable);
+      if (distribution==null)
+      {
+        distribution=compute(compiled,node,nodes);
+        // Another thread may have computed the same table: keep the first one
+        LootDistribution previous=_distributions.putIfAbsent(nodeTable,distribution);
+        if (previous!=null)
+        {
+          distribution=previous;
+        }
+      }
+      nodes[node]=distribution;
+    }
+    return nodes[0];
+  }
+
+  private LootDistribution compute(CompiledLootTable compiled, int node, LootDistribution[] nodes)
+  {
+    int tableId=compiled._tables[node].getIdentifier();
+    boolean exclusive=(compiled._kinds[node]==CompiledLootTable.PICK);
+    Combiner combiner=new Combiner(tableId,exclusive);
+    double previousValue=0;
+    for(int edge=compiled._firstEdge[node];edge<compiled._endEdge[node];edge++)
+    {
+      double value=compiled._edgeValues[edge];
+      // Pick nodes store cumulated probabilities
+      double probability=exclusive?value-previousValue:value;
+      previousValue=value;
+      int target=compiled._edgeTargets[edge];
+      if ((target==CompiledLootTable.NOTHING) || (probability<=0))
+      {
+        continue;
+      }
+      if (target>=0)
+      {
+        combiner.add(probability,nodes[target]);
+      }
+      else
+      {
+        int itemId=compiled._itemIds[-target-1];
+        combiner.addItem(probability,itemId,compiled._edgeQuantities[edge]);
+      }
+    }
+    return combiner.combine();
+  }
+
+  /**
+   * Combines the distributions of the edges of a node.
+   */
+  private static class Combiner
+  {
+    private int _tableId;
+    private boolean _exclusive;
+    private List<LootDistribution> _children;
+    private double[] _probabilities;
+
+    private Combiner(int tableId, boolean exclusive)
+    {
+      _tableId=tableId;
+      _exclusive=exclusive;
+      _children=new ArrayList<LootDistribution>();
+      _probabilities=new double[8];
+    }
+
+    private void add(double probability, LootDistribution child)
+    {
+      int index=_children.size();
+      if (index==_probabilities.length)
+      {
+        _probabilities=Arrays.copyOf(_probabilities,index*2);
+      }
+      _probabilities[index]=probability;
+      _children.add(child);
+    }
+
+    private void addItem(double probability, int itemId, int quantity)
+    {
+      double[] quantities=new double[Math.max(0,quantity)+1];
+      quantities[quantities.length-1]=1;
+      LootDistribution child=new LootDistribution(0,new int[] {itemId},new double[][] {quantities});
+      add(probability,child);
+    }
+
+    private LootDistribution combine()
+    {
+      int nbChildren=_children.size();
+      if (nbChildren==0)
+      {
+        return new LootDistribution(_tableId,NO_ITEMS,NO_QUANTITIES);
+      }
+      // Sorted union of the items of the children
+      int total=0;
+      for(LootDistribution child : _children)
+      {
+        total+=child.getItemsCount();
+      }
+      int[] all=new int[total];
+      int offset=0;
+      for(LootDistribution child : _children)
+      {
+        int[] childIds=child.getItemIds();
+        System.arraycopy(childIds,0,all,offset,childIds.length);
+        offset+=childIds.length;
+      }
+      Arrays.sort(all);
+      int nbItems=0;
+      for(int i=0;i<total;i++)
+      {
+        if ((nbItems==0) || (all[i]!=all[nbItems-1]))
+        {
+          all[nbItems++]=all[i];
+        }
+      }
+      int[] itemIds=Arrays.copyOf(all,nbItems);
+      // Exclusive: mixture of the quantity distributions; independent: convolution
+      double[][] quantities=new double[nbItems][];
+      for(int k=0;k<nbItems;k++)
+      {
+        quantities[k]=_exclusive?new double[1]:NONE;
+      }
+      for(int i=0;i<nbChildren;i++)
+      {
+        double p=_probabilities[i];
+        LootDistribution child=_children.get(i);
+        int[] childIds=child.getItemIds();
+        // Both arrays are sorted: merge walk
+        int k=0;
+        for(int j=0;j<childIds.length;j++)
+        {
+          while (itemIds[k]!=childIds[j])
+          {
+            k++;
+          }
+          double[] childQuantities=child.getQuantityProbabilities(j);
+          if (_exclusive)
+          {
+            quantities[k]=mix(quantities[k],p,childQuantities);
+          }
+          else
+          {
+            quantities[k]=convolve(quantities[k],p,childQuantities);
+          }
+        }
+      }
+      if (_exclusive)
+      {
+        // No quantity gets the remaining probability
+        for(int k=0;k<nbItems;k++)
+        {
+          double[] itemQuantities=quantities[k];
+          double some=0;
+          for(int quantity=1;quantity<itemQuantities.length;quantity++)
+          {
+            some+=itemQuantities[quantity];
+          }
+          itemQuantities[0]=Math.max(0,1-some);
+        }
+      }
+      return new LootDistribution(_tableId,itemIds,quantities);
+    }
+
+    /**
+     * Add the non-zero quantities of a child, weighted by its probability.
+     */
+    private static double[] mix(double[] quantities, double p, double[] childQuantities)
+    {
+      double[] ret=quantities;
+      if (childQuantities.length>ret.length)
+      {
+        ret=Arrays.copyOf(ret,childQuantities.length);
+      }
+      for(int quantity=1;quantity<childQuantities.length;quantity++)
+      {
+        ret[quantity]+=p*childQuantities[quantity];
+      }
+      return ret;
+    }
+
+    /**
+     * Sum of the current quantity and of the quantity of a child rolled with probability p.
+     */
+    private static double[] convolve(double[] quantities, double p, double[] childQuantities)
+    {
+      double[] ret=new double[quantities.length+childQuantities.length-1];
+      for(int i=0;i<quantities.length;i++)
+      {
+        double current=quantities[i];
+        if (current==0)
+        {
+          continue;
+        }
+        // Child not rolled
+        ret[i]+=current*(1-p);
+        for(int j=0;j<childQuantities.length;j++)
+        {
+          ret[i+j]+=current*p*childQuantities[j];
+        }
+      }
+      return ret;
+    }
+  }
+}
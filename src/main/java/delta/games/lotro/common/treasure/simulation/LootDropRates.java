@@ -0,0 +1,150 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import delta.common.utils.text.EndOfLine;
+import delta.games.lotro.common.treasure.LootTable;
+
+/**
+ * Drop rates of the items of a loot table: exact and simulated.
+ * @author DAM
+ */
+public class LootDropRates
+{
+  private LootTable _table;
+  private long _rolls;
+  private int[] _itemIds;
+  private double[] _expectedQuantities;
+  private double[] _simulatedQuantities;
+  private double[] _simulatedDropProbabilities;
+
+  /**
+   * Constructor.
+   * @param compiledTable Compiled loot table.
+   * @param sampler Sampler used to simulate rolls of this table.
+   */
+  public LootDropRates(CompiledLootTable compiledTable, LootSampler sampler)
+  {
+    _table=compiledTable.getRoot();
+    _rolls=sampler.getRolls();
+    _itemIds=compiledTable.getItemIds();
+    _expectedQuantities=compiledTable.computeExpectedDrops();
+    int nbItems=_itemIds.length;
+    _simulatedQuantities=new double[nbItems];
+    _simulatedDropProbabilities=new double[nbItems];
+    if (_rolls>0)
+    {
+      long[] quantities=sampler.getQuantities();
+      long[] rollsWithDrop=sampler.getRollsWithDrop();
+      for(int i=0;i<nbItems;i++)
+      {
+        _simulatedQuantities[i]=((double)quantities[i])/_rolls;
+        _simulatedDropProbabilities[i]=((double)rollsWithDrop[i])/_rolls;
+      }
+    }
+  }
+
+  /**
+   * Get the loot table.
+   * @return a loot table.
+   */
+  public LootTable getTable()
+  {
+    return _table;
+  }
+
+  /**
+   * Get the number of simulated rolls.
+   * @return a rolls count.
+   */
+  public long getRolls()
+  {
+    return _rolls;
+  }
+
+  /**
+   * Get the number of reachable items.
+   * @return an items count.
+   */
+  public int getItemsCount()
+  {
+    return _itemIds.length;
+  }
+
+  /**
+   * Get the identifier of an item.
+   * @param index Index of the item, starting at 0.
+   * @return an item identifier.
+   */
+  public int getItemId(int index)
+  {
+    return _itemIds[index];
+  }
+
+  /**
+   * Get the exact expected quantity of an item, for a single roll.
+   * @param index Index of the item, starting at 0.
+   * @return an expected quantity.
+   */
+  public double getExpectedQuantity(int index)
+  {
+    return _expectedQuantities[index];
+  }
+
+  /**
+   * Get the simulated mean quantity of an item, for a single roll.
+   * @param index Index of the item, starting at 0.
+   * @return a mean quantity.
+   */
+  public double getSimulatedQuantity(int index)
+  {
+    return _simulatedQuantities[index];
+  }
+
+  /**
+   * Get the simulated probability to get an item, for a single roll.
+   * @param index Index of the item, starting at 0.
+   * @return a probability in [0,1].
+   */
+  public double getSimulatedDropProbability(int index)
+  {
+    return _simulatedDropProbabilities[index];
+  }
+
+  /**
+   * Get the largest difference between expected and simulated quantities.
+   * @return a quantity.
+   */
+  public double getMaxDeviation()
+  {
+    double ret=0;
+    for(int i=0;i<_itemIds.length;i++)
+    {
+      ret=Math.max(ret,Math.abs(_expectedQuantities[i]-_simulatedQuantities[i]));
+    }
+    return ret;
+  }
+
+  /**
+   * Dump the contents of this object.
+   * @return a displayable string.
+   */
+  public String dump()
+  {
+    StringBuilder sb=new StringBuilder();
+    sb.append("Table ID=").append(_table.getIdentifier()).append(", rolls=").append(_rolls).append(EndOfLine.NATIVE_EOL);
+    for(int i=0;i<_itemIds.length;i++)
+    {
+      sb.append('\t').append(_itemIds[i]);
+      sb.append(": expected=").append(_expectedQuantities[i]);
+      sb.append(", simulated=").append(_simulatedQuantities[i]);
+      sb.append(", drop probability=").append(_simulatedDropProbabilities[i]);
+      sb.append(EndOfLine.NATIVE_EOL);
+    }
+    return sb.toString().trim();
+  }
+
+  @Override
+  public String toString()
+  {
+    return dump();
+  }
+}
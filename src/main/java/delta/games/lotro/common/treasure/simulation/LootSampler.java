@@ -0,0 +1,151 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Monte Carlo sampler for a compiled loot table.
+ * <p>
+ * Rolls work on the flat arrays of the compiled table, with an inlined xorshift generator
+ * and a preallocated stack, so that no object is allocated while sampling.
+ * This class is not thread-safe: use a sampler per thread.
+ * @author DAM
+ */
+public class LootSampler
+{
+  private CompiledLootTable _table;
+  private long _state;
+  private int[] _stack;
+  // Results
+  private long _rolls;
+  private long[] _quantities;
+  private long[] _rollsWithDrop;
+  private long[] _lastRoll;
+
+  /**
+   * Constructor.
+   * @param table Compiled table to sample.
+   * @param seed Random seed.
+   */
+  public LootSampler(CompiledLootTable table, long seed)
+  {
+    _table=table;
+    _state=(seed!=0)?seed:0x9E3779B97F4A7C15L;
+    _stack=new int[table._stackSize];
+    int nbItems=table._itemIds.length;
+    _quantities=new long[nbItems];
+    _rollsWithDrop=new long[nbItems];
+    _lastRoll=new long[nbItems];
+    Arrays.fill(_lastRoll,-1);
+    _rolls=0;
+  }
+
+  /**
+   * Roll the table several times.
+   * @param count Number of rolls.
+   */
+  public void roll(long count)
+  {
+    CompiledLootTable t=_table;
+    byte[] kinds=t._kinds;
+    int[] firstEdge=t._firstEdge;
+    int[] endEdge=t._endEdge;
+    double[] values=t._edgeValues;
+    int[] targets=t._edgeTargets;
+    int[] quantities=t._edgeQuantities;
+    int[] stack=_stack;
+    long state=_state;
+    long end=_rolls+count;
+    for(long roll=_rolls;roll<end;roll++)
+    {
+      int size=0;
+      stack[size++]=0;
+      while (size>0)
+      {
+        int node=stack[--size];
+        int first=firstEdge[node];
+        int last=endEdge[node];
+        if (kinds[node]==CompiledLootTable.PICK)
+        {
+          if (first==last)
+          {
+            continue;
+          }
+          state^=state>>>12;
+          state^=state<<25;
+          state^=state>>>27;
+          double u=((state*0x2545F4914F6CDD1DL)>>>11)*0x1.0p-53;
+          int edge=first;
+          while ((edge<last-1) && (u>=values[edge]))
+          {
+            edge++;
+          }
+          size=follow(targets[edge],quantities[edge],roll,stack,size);
+        }
+        else
+        {
+          for(int edge=first;edge<last;edge++)
+          {
+            state^=state>>>12;
+            state^=state<<25;
+            state^=state>>>27;
+            double u=((state*0x2545F4914F6CDD1DL)>>>11)*0x1.0p-53;
+            if (u<values[edge])
+            {
+              size=follow(targets[edge],quantities[edge],roll,stack,size);
+            }
+          }
+        }
+      }
+    }
+    _state=state;
+    _rolls=end;
+  }
+
+  private int follow(int target, int quantity, long roll, int[] stack, int size)
+  {
+    if (target>=0)
+    {
+      // Compiled tables are acyclic and the stack is sized for them
+      stack[size]=target;
+      return size+1;
+    }
+    if (target!=CompiledLootTable.NOTHING)
+    {
+      int slot=-target-1;
+      _quantities[slot]+=quantity;
+      if (_lastRoll[slot]!=roll)
+      {
+        _lastRoll[slot]=roll;
+        _rollsWithDrop[slot]++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Get the number of rolls.
+   * @return a rolls count.
+   */
+  public long getRolls()
+  {
+    return _rolls;
+  }
+
+  /**
+   * Get the total quantities, by item slot.
+   * @return An array of quantities. Shall not be modified.
+   */
+  public long[] getQuantities()
+  {
+    return _quantities;
+  }
+
+  /**
+   * Get the number of rolls that gave each item, by item slot.
+   * @return An array of rolls counts. Shall not be modified.
+   */
+  public long[] getRollsWithDrop()
+  {
+    return _rollsWithDrop;
+  }
+}
@@ -0,0 +1,200 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.common.IdentifiableComparator;
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.lore.agents.mobs.loot.GenericMobLootEntry;
+import delta.games.lotro.lore.agents.mobs.loot.GenericMobLootSpec;
+import delta.games.lotro.lore.agents.mobs.loot.SpeciesLoot;
+import delta.games.lotro.lore.agents.mobs.loot.SpeciesLootsManager;
+import delta.games.lotro.lore.agents.mobs.loot.SubSpeciesLoot;
+import delta.games.lotro.lore.instances.loot.InstanceLootEntry;
+import delta.games.lotro.lore.instances.loot.InstanceLootTablesManager;
+import delta.games.lotro.lore.instances.loot.InstanceLoots;
+import delta.games.lotro.lore.instances.loot.InstanceLootsTable;
+
+/**
+ * Simulates rolls of loot tables, in parallel.
+ * @author DAM
+ */
+public class LootSimulator
+{
+  private static final Logger LOGGER=Logger.getLogger(LootSimulator.class);
+
+  private int _threads;
+  private long _seed;
+
+  /**
+   * Constructor.
+   */
+  public LootSimulator()
+  {
+    _threads=Runtime.getRuntime().availableProcessors();
+    _seed=System.nanoTime();
+  }
+
+  /**
+   * Set the number of threads to use.
+   * @param threads Threads count.
+   */
+  public void setThreads(int threads)
+  {
+    _threads=Math.max(1,threads);
+  }
+
+  /**
+   * Set the random seed, for reproducible simulations.
+   * @param seed Seed to set.
+   */
+  public void setSeed(long seed)
+  {
+    _seed=seed;
+  }
+
+  /**
+   * Simulate rolls of some loot tables.
+   * @param tables Tables to roll.
+   * @param rolls Number of rolls for each table.
+   * @return the drop rates for each table, in the order of the given tables.
+   * @throws IllegalStateException if a table could not be simulated.
+   */
+  public List<LootDropRates> simulate(List<? extends LootTable> tables, final long rolls)
+  {
+    long now=System.currentTimeMillis();
+    int nbThreads=Math.max(1,Math.min(tables.size(),_threads));
+    ExecutorService executor=Executors.newFixedThreadPool(nbThreads);
+    List<Future<LootDropRates>> futures=new ArrayList<Future<LootDropRates>>();
+    try
+    {
+      for(final LootTable table : tables)
+      {
+        final long seed=_seed^(table.getIdentifier()*0x9E3779B97F4A7C15L);
+        Callable<LootDropRates> task=new Callable<LootDropRates>()
+        {
+          @Override
+          public LootDropRates call()
+          {
+            return simulate(table,rolls,seed);
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      List<LootDropRates> ret=new ArrayList<LootDropRates>();
+      for(Future<LootDropRates> future : futures)
+      {
+        ret.add(waitFor(future));
+      }
+      long now2=System.currentTimeMillis();
+      LOGGER.info("Simulated "+rolls+" rolls of "+tables.size()+" loot tables in "+(now2-now)+"ms.");
+      return ret;
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Simulate rolls of a single loot table.
+   * @param table Table to roll.
+   * @param rolls Number of rolls.
+   * @param seed Random seed.
+   * @return the drop rates.
+   */
+  public static LootDropRates simulate(LootTable table, long rolls, long seed)
+  {
+    CompiledLootTable compiledTable=CompiledLootTable.compile(table);
+    LootSampler sampler=new LootSampler(compiledTable,seed);
+    sampler.roll(rolls);
+    return new LootDropRates(compiledTable,sampler);
+  }
+
+  private static LootDropRates waitFor(Future<LootDropRates> future)
+  {
+    try
+    {
+      return future.get();
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while simulating loots",ie);
+    }
+    catch(ExecutionException ee)
+    {
+      throw new IllegalStateException("Error when simulating loots",ee.getCause());
+    }
+  }
+
+  /**
+   * Get the loot tables used by instances.
+   * @return A list of distinct loot tables, sorted by identifier.
+   */
+  public static List<LootTable> getInstanceLootTables()
+  {
+    Map<LootTable,Boolean> tables=new IdentityHashMap<LootTable,Boolean>();
+    for(InstanceLootsTable lootsTable : InstanceLootTablesManager.getInstance().getTables())
+    {
+      for(InstanceLoots instanceLoots : lootsTable.getInstanceLoots())
+      {
+        for(InstanceLootEntry entry : instanceLoots.getEntries())
+        {
+          addTable(tables,entry.getTrophyList());
+        }
+      }
+    }
+    return sort(tables);
+  }
+
+  /**
+   * Get the loot tables used by generic mob loots.
+   * @return A list of distinct loot tables, sorted by identifier.
+   */
+  public static List<LootTable> getMobLootTables()
+  {
+    Map<LootTable,Boolean> tables=new IdentityHashMap<LootTable,Boolean>();
+    for(SpeciesLoot speciesLoot : SpeciesLootsManager.getInstance().getLootSpecs())
+    {
+      for(SubSpeciesLoot subSpeciesLoot : speciesLoot.getLootSpecs())
+      {
+        for(GenericMobLootSpec spec : subSpeciesLoot.getLootSpecs())
+        {
+          for(Integer level : spec.getLevels())
+          {
+            GenericMobLootEntry entry=spec.getEntryForLevel(level.intValue());
+            addTable(tables,entry.getTreasureList());
+            addTable(tables,entry.getTrophyList());
+          }
+        }
+      }
+    }
+    return sort(tables);
+  }
+
+  private static void addTable(Map<LootTable,Boolean> tables, LootTable table)
+  {
+    if (table!=null)
+    {
+      tables.put(table,Boolean.TRUE);
+    }
+  }
+
+  private static List<LootTable> sort(Map<LootTable,Boolean> tables)
+  {
+    List<LootTable> ret=new ArrayList<LootTable>(tables.keySet());
+    Collections.sort(ret,new IdentifiableComparator<LootTable>());
+    return ret;
+  }
+}
@@ -0,0 +1,109 @@
+package delta.games.lotro.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import delta.common.utils.text.EndOfLine;
+import delta.games.lotro.utils.Interner;
+import delta.games.lotro.utils.StringInterner;
+
+/**
+ * Shared interners, used to load lore data.
+ * <p>
+ * Lore parsers use them to share repeated strings (icons, keys, labels).
+ * Only immutable values are interned: shared instances are never modified.
+ * Value objects such as money amounts or usage requirements are mutable, so they are not shared.
+ * Interners are cleared once loading is done (see {@link #clear()}).
+ * @author DAM
+ */
+public final class LoreInterners
+{
+  private static final Interner<String> STRINGS=new StringInterner("strings");
+
+  private LoreInterners()
+  {
+    // Nothing
+  }
+
+  /**
+   * Get the strings interner.
+   * @return the strings interner.
+   */
+  public static Interner<String> getStrings()
+  {
+    return STRINGS;
+  }
+
+  /**
+   * Get the shared instance of a string.
+   * @param value Input string (may be <code>null</code>).
+   * @return the shared string.
+   */
+  public static String intern(String value)
+  {
+    return STRINGS.intern(value);
+  }
+
+  /**
+   * Get all the interners.
+   * @return a list of interners.
+   */
+  public static List<Interner<?>> getAll()
+  {
+    List<Interner<?>> ret=new ArrayList<Interner<?>>();
+    ret.add(STRINGS);
+    return ret;
+  }
+
+  /**
+   * Enable or disable all interners.
+   * @param enabled <code>true</code> to enable, <code>false</code> to disable.
+   */
+  public static void setEnabled(boolean enabled)
+  {
+    for(Interner<?> interner : getAll())
+    {
+      interner.setEnabled(enabled);
+    }
+  }
+
+  /**
+   * Get the estimated heap size of the duplicates released by all interners.
+   * @return A size in bytes.
+   */
+  public static long getSavedBytes()
+  {
+    long ret=0;
+    for(Interner<?> interner : getAll())
+    {
+      ret+=interner.getSavedBytes();
+    }
+    return ret;
+  }
+
+  /**
+   * Get a report of the interners usage.
+   * @return a displayable string.
+   */
+  public static String dump()
+  {
+    StringBuilder sb=new StringBuilder("Interners:");
+    for(Interner<?> interner : getAll())
+    {
+      sb.append(EndOfLine.NATIVE_EOL).append("  ").append(interner);
+    }
+    sb.append(EndOfLine.NATIVE_EOL).append("  Estimated heap saving: ").append(getSavedBytes()/1024).append("kB");
+    return sb.toString();
+  }
+
+  /**
+   * Release the values of all interners, once loading is done.
+   */
+  public static void clear()
+  {
+    for(Interner<?> interner : getAll())
+    {
+      interner.clear();
+    }
+  }
+}
@@ -105,6 +105,10 @@ public class DataFiles
    * Items file.
    */
   public static final String ITEMS="items";
+  /**
+   * Items binary snapshot file.
+   */
+  public static final String ITEMS_SNAPSHOT="itemsSnapshot";
   /**
    * Item cosmetics file.
    */
@@ -302,6 +306,10 @@ public class DataFiles
    * Landblocks.
    */
   public static final String LANDBLOCKS="landblocks";
+  /**
+   * Landblocks binary file.
+   */
+  public static final String LANDBLOCKS_BINARY="landblocksBinary";
   /**
    * Paper items.
    */
@@ -21,7 +21,7 @@ public class ServersManager
 {
   private static final Logger LOGGER=Logger.getLogger(ServersManager.class);
 
-  private static ServersManager _instance=null;
+  private static volatile ServersManager _instance;
 
   private List<ServerDescription> _cache;
   private Map<InetAddress,ServerDescription> _mapByAddress;
@@ -32,11 +32,20 @@ public class ServersManager
    */
   public static ServersManager getInstance()
   {
-    if (_instance==null)
+    ServersManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new ServersManager();
+      synchronized(ServersManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new ServersManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -1,16 +1,26 @@
 package delta.games.lotro.kinship;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import delta.games.lotro.common.id.InternalGameId;
 import delta.games.lotro.kinship.events.KinshipEvent;
 import delta.games.lotro.kinship.events.KinshipEventType;
 import delta.games.lotro.utils.events.EventsManager;
+import delta.games.lotro.utils.events.GenericEventsListener;
 
 /**
  * Manages all known kinships.
+ * <p>
+ * Kinships are indexed by name and by identifier (low 32 bits, see {@link InternalGameId#lightMatch(long, long)}).
+ * Indexes are built again when kinships are added or removed, and when a
+ * kinship summary update is broadcasted.
+ * Misses are trusted: lookups never scan. A hit on an entry that changed without
+ * notification builds the indexes again.
+ * This class is thread-safe.
  * @author DAM
  */
 public final class KinshipsManager
@@ -19,6 +29,9 @@ public final class KinshipsManager
 
   private KinshipsStorageManager _storage;
   private List<Kinship> _kinships;
+  // Indexes (null if to be built)
+  private Map<String,Kinship> _byName;
+  private Map<Long,Kinship> _byId;
 
   /**
    * Get the sole instance of this class.
@@ -37,13 +50,65 @@ public final class KinshipsManager
     _storage=new KinshipsStorageManager();
     _kinships=new ArrayList<Kinship>();
     _kinships.addAll(_storage.getAllKinships());
+    GenericEventsListener<KinshipEvent> listener=new GenericEventsListener<KinshipEvent>()
+    {
+      @Override
+      public void eventOccurred(KinshipEvent event)
+      {
+        if (event.getType()==KinshipEventType.KINSHIP_SUMMARY_UPDATED)
+        {
+          invalidateIndexes();
+        }
+      }
+    };
+    EventsManager.addListener(KinshipEvent.class,listener);
+  }
+
+  private synchronized void invalidateIndexes()
+  {
+    _byName=null;
+    _byId=null;
+  }
+
+  private void buildIndexes()
+  {
+    _byName=new HashMap<String,Kinship>();
+    _byId=new HashMap<Long,Kinship>();
+    for(Kinship kinship : _kinships)
+    {
+      index(kinship);
+    }
+  }
+
+  private void index(Kinship kinship)
+  {
+    // Keep the first kinship for a key, like a scan of the kinships would do
+    String name=kinship.getName();
+    if (!_byName.containsKey(name))
+    {
+      _byName.put(name,kinship);
+    }
+    Long id=kinship.getID();
+    if (id!=null)
+    {
+      Long key=getIdKey(id.longValue());
+      if (!_byId.containsKey(key))
+      {
+        _byId.put(key,kinship);
+      }
+    }
+  }
+
+  private static Long getIdKey(long kinshipID)
+  {
+    return Long.valueOf(kinshipID&0xFFFFFFFFL);
   }
 
   /**
    * Get a list of all managed kinships.
    * @return a list of kinships.
    */
-  public List<Kinship> getAllKinships()
+  public synchronized List<Kinship> getAllKinships()
   {
     List<Kinship> kinships=new ArrayList<Kinship>(_kinships);
     return kinships;
@@ -54,17 +119,20 @@ public final class KinshipsManager
    * @param kinshipName Kinship name.
    * @return A kinship or <code>null</code> if not found.
    */
-  public Kinship getKinshipByName(String kinshipName)
+  public synchronized Kinship getKinshipByName(String kinshipName)
   {
-    for(Kinship kinship : _kinships)
+    if (_byName==null)
     {
-      String name=kinship.getName();
-      if (Objects.equals(name,kinshipName))
-      {
-        return kinship;
-      }
+      buildIndexes();
     }
-    return null;
+    Kinship ret=_byName.get(kinshipName);
+    if ((ret!=null) && (!Objects.equals(ret.getName(),kinshipName)))
+    {
+      // Renamed without notification
+      buildIndexes();
+      ret=_byName.get(kinshipName);
+    }
+    return ret;
   }
 
   /**
@@ -72,17 +140,27 @@ public final class KinshipsManager
    * @param kinshipID Kinship ID.
    * @return A kinship or <code>null</code> if not found.
    */
-  public Kinship getKinshipByID(long kinshipID)
+  public synchronized Kinship getKinshipByID(long kinshipID)
   {
-    for(Kinship kinship : _kinships)
+    if (_byId==null)
     {
-      Long currentKinshipID=kinship.getID();
-      if ((currentKinshipID!=null) && (InternalGameId.lightMatch(currentKinshipID.longValue(),kinshipID)))
-      {
-        return kinship;
-      }
+      buildIndexes();
     }
-    return null;
+    Long key=getIdKey(kinshipID);
+    Kinship ret=_byId.get(key);
+    if ((ret!=null) && (!matches(ret,kinshipID)))
+    {
+      // Changed without notification
+      buildIndexes();
+      ret=_byId.get(key);
+    }
+    return ret;
+  }
+
+  private boolean matches(Kinship kinship, long kinshipID)
+  {
+    Long currentKinshipID=kinship.getID();
+    return ((currentKinshipID!=null) && (InternalGameId.lightMatch(currentKinshipID.longValue(),kinshipID)));
   }
 
   /**
@@ -92,10 +170,21 @@ public final class KinshipsManager
    */
   public Kinship addKinship(KinshipSummary summary)
   {
-    Kinship kinship=_storage.newKinship(summary);
+    Kinship kinship;
+    synchronized(this)
+    {
+      kinship=_storage.newKinship(summary);
+      if (kinship!=null)
+      {
+        _kinships.add(kinship);
+        if (_byName!=null)
+        {
+          index(kinship);
+        }
+      }
+    }
     if (kinship!=null)
     {
-      _kinships.add(kinship);
       // Broadcast kinship creation event...
       KinshipEvent event=new KinshipEvent(KinshipEventType.KINSHIP_ADDED,kinship);
       EventsManager.invokeEvent(event);
@@ -110,10 +199,18 @@ public final class KinshipsManager
    */
   public boolean removeKinship(Kinship kinship)
   {
-    boolean ret=_kinships.remove(kinship);
+    boolean ret;
+    synchronized(this)
+    {
+      ret=_kinships.remove(kinship);
+      if (ret)
+      {
+        _storage.removeKinship(kinship);
+        invalidateIndexes();
+      }
+    }
     if (ret)
     {
-      _storage.removeKinship(kinship);
       // Broadcast kinship deletion event...
       KinshipEvent event=new KinshipEvent(KinshipEventType.KINSHIP_REMOVED,kinship);
       EventsManager.invokeEvent(event);
@@ -4,14 +4,13 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.agents.mobs.io.xml.MobsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all mobs.
@@ -20,7 +19,7 @@ import delta.games.lotro.lore.agents.mobs.io.xml.MobsXMLParser;
 public class MobsManager
 {
   private static final MobsManager _instance=load();
-  private Map<Integer,MobDescription> _mobs;
+  private IntObjectMap<MobDescription> _mobs;
 
   /**
    * Get the reference instance of this class.
@@ -42,7 +41,7 @@ public class MobsManager
    */
   public MobsManager()
   {
-    _mobs=new HashMap<Integer,MobDescription>();
+    _mobs=new IntObjectMap<MobDescription>();
   }
 
   /**
@@ -51,7 +50,7 @@ public class MobsManager
    */
   public void addMob(MobDescription mob)
   {
-    Integer key=Integer.valueOf(mob.getIdentifier());
+    int key=mob.getIdentifier();
     _mobs.put(key,mob);
   }
 
@@ -62,7 +61,7 @@ public class MobsManager
    */
   public MobDescription getMobById(int id)
   {
-    return _mobs.get(Integer.valueOf(id));
+    return _mobs.get(id);
   }
 
   /**
@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.agents.mobs.io.xml;
 
 import java.io.File;
-import java.util.List;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -19,6 +18,8 @@ import delta.games.lotro.lore.agents.mobs.MobDescription;
 import delta.games.lotro.lore.agents.mobs.MobLoot;
 import delta.games.lotro.lore.agents.mobs.MobsManager;
 import delta.games.lotro.utils.i18n.I18nFacade;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 
 /**
  * Parser for the mobs stored in XML.
@@ -45,31 +46,18 @@ public class MobsXMLParser
    */
   public MobsManager parseXML(File source)
   {
-    MobsManager ret=null;
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final MobsManager mgr=new MobsManager();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      ret=parseMobs(root);
-    }
-    return ret;
-  }
-
-  /**
-   * Build a mobs manager from an XML tag.
-   * @param rootTag Root tag.
-   * @return A mobs manager.
-   */
-  private MobsManager parseMobs(Element rootTag)
-  {
-    MobsManager mgr=new MobsManager();
-
-    List<Element> mobTags=DOMParsingTools.getChildTags(rootTag);
-    for(Element mobTag : mobTags)
-    {
-      MobDescription mob=parseMobTag(mobTag);
-      mgr.addMob(mob);
-    }
-    return mgr;
+      @Override
+      public void handleRecord(Element mobTag)
+      {
+        MobDescription mob=parseMobTag(mobTag);
+        mgr.addMob(mob);
+      }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    return ok?mgr:null;
   }
 
   private MobDescription parseMobTag(Element mobTag)
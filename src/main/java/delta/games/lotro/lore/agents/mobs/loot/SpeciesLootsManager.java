@@ -21,7 +21,7 @@ import delta.games.lotro.lore.agents.mobs.loot.io.xml.GenericMobLootSaxParser;
  */
 public class SpeciesLootsManager
 {
-  private static SpeciesLootsManager _instance=null;
+  private static volatile SpeciesLootsManager _instance;
   private Map<Species,SpeciesLoot> _loots;
 
   /**
@@ -30,11 +30,20 @@ public class SpeciesLootsManager
    */
   public static SpeciesLootsManager getInstance()
   {
-    if (_instance==null)
+    SpeciesLootsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(SpeciesLootsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static SpeciesLootsManager load()
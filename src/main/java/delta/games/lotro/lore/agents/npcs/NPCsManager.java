@@ -4,14 +4,13 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.agents.npcs.io.xml.NPCsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all NPCs.
@@ -20,7 +19,7 @@ import delta.games.lotro.lore.agents.npcs.io.xml.NPCsXMLParser;
 public class NPCsManager
 {
   private static final NPCsManager _instance=load();
-  private Map<Integer,NpcDescription> _npcs;
+  private IntObjectMap<NpcDescription> _npcs;
 
   /**
    * Get the reference instance of this class.
@@ -42,7 +41,7 @@ public class NPCsManager
    */
   public NPCsManager()
   {
-    _npcs=new HashMap<Integer,NpcDescription>();
+    _npcs=new IntObjectMap<NpcDescription>();
   }
 
   /**
@@ -51,7 +50,7 @@ public class NPCsManager
    */
   public void addNPC(NpcDescription npc)
   {
-    Integer key=Integer.valueOf(npc.getIdentifier());
+    int key=npc.getIdentifier();
     _npcs.put(key,npc);
   }
 
@@ -62,7 +61,7 @@ public class NPCsManager
    */
   public NpcDescription getNPCById(int id)
   {
-    return _npcs.get(Integer.valueOf(id));
+    return _npcs.get(id);
   }
 
   /**
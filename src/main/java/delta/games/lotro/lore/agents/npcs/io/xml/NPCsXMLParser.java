@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.agents.npcs.io.xml;
 
 import java.io.File;
-import java.util.List;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -15,6 +14,8 @@ import delta.games.lotro.lore.agents.npcs.NPCsManager;
 import delta.games.lotro.lore.agents.npcs.NpcDescription;
 import delta.games.lotro.utils.i18n.I18nFacade;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 
 /**
  * Parser for the NPCs stored in XML.
@@ -39,31 +40,18 @@ public class NPCsXMLParser
    */
   public NPCsManager parseXML(File source)
   {
-    NPCsManager ret=null;
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final NPCsManager mgr=new NPCsManager();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      ret=parseNPCs(root);
-    }
-    return ret;
-  }
-
-  /**
-   * Build a NPCs manager from an XML tag.
-   * @param rootTag Root tag.
-   * @return A NPCs manager.
-   */
-  private NPCsManager parseNPCs(Element rootTag)
-  {
-    NPCsManager mgr=new NPCsManager();
-
-    List<Element> npcTags=DOMParsingTools.getChildTags(rootTag);
-    for(Element npcTag : npcTags)
-    {
-      NpcDescription npc=parseNPCTag(npcTag);
-      mgr.addNPC(npc);
-    }
-    return mgr;
+      @Override
+      public void handleRecord(Element npcTag)
+      {
+        NpcDescription npc=parseNPCTag(npcTag);
+        mgr.addNPC(npc);
+      }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    return ok?mgr:null;
   }
 
   private NpcDescription parseNPCTag(Element npcTag)
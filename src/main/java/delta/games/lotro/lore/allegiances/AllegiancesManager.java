@@ -3,7 +3,6 @@ package delta.games.lotro.lore.allegiances;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,6 +16,7 @@ import delta.games.lotro.common.enums.comparator.LotroEnumEntryNameComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.allegiances.io.xml.AllegianceXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for allegiances access.
@@ -26,9 +26,9 @@ public class AllegiancesManager
 {
   private static final Logger LOGGER=Logger.getLogger(AllegiancesManager.class);
 
-  private static AllegiancesManager _instance=null;
+  private static volatile AllegiancesManager _instance;
 
-  private HashMap<Integer,AllegianceDescription> _cache;
+  private IntObjectMap<AllegianceDescription> _cache;
   private Points2LevelCurvesManager _curvesManager;
 
   /**
@@ -37,11 +37,20 @@ public class AllegiancesManager
    */
   public static AllegiancesManager getInstance()
   {
-    if (_instance==null)
+    AllegiancesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(AllegiancesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -49,7 +58,7 @@ public class AllegiancesManager
    */
   public AllegiancesManager()
   {
-    _cache=new HashMap<Integer,AllegianceDescription>(1000);
+    _cache=new IntObjectMap<AllegianceDescription>(1000);
     _curvesManager=new Points2LevelCurvesManager();
   }
 
@@ -76,7 +85,7 @@ public class AllegiancesManager
    */
   public void addAllegiance(AllegianceDescription allegianceDescription)
   {
-    Integer key=Integer.valueOf(allegianceDescription.getIdentifier());
+    int key=allegianceDescription.getIdentifier();
     _cache.put(key,allegianceDescription);
   }
 
@@ -145,7 +154,7 @@ public class AllegiancesManager
   public AllegianceDescription getAllegiance(int id)
   {
     AllegianceDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -1,10 +1,9 @@
 package delta.games.lotro.lore.allegiances;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manages a set of 'points to level' curves.
@@ -12,14 +11,14 @@ import java.util.Map;
  */
 public class Points2LevelCurvesManager
 {
-  private Map<Integer,Points2LevelCurve> _curves;
+  private IntObjectMap<Points2LevelCurve> _curves;
 
   /**
    * Constructor.
    */
   public Points2LevelCurvesManager()
   {
-    _curves=new HashMap<Integer,Points2LevelCurve>();
+    _curves=new IntObjectMap<Points2LevelCurve>();
   }
 
   /**
@@ -28,8 +27,11 @@ public class Points2LevelCurvesManager
    */
   public List<Integer> getCurveIdentifiers()
   {
-    List<Integer> ret=new ArrayList<Integer>(_curves.keySet());
-    Collections.sort(ret);
+    List<Integer> ret=new ArrayList<Integer>();
+    for(int id : _curves.keys())
+    {
+      ret.add(Integer.valueOf(id));
+    }
     return ret;
   }
 
@@ -40,7 +42,7 @@ public class Points2LevelCurvesManager
    */
   public Points2LevelCurve getCurve(int id)
   {
-    return _curves.get(Integer.valueOf(id));
+    return _curves.get(id);
   }
 
   /**
@@ -49,7 +51,7 @@ public class Points2LevelCurvesManager
    */
   public void addCurve(Points2LevelCurve curve)
   {
-    Integer key=Integer.valueOf(curve.getIdentifier());
+    int key=curve.getIdentifier();
     _curves.put(key,curve);
   }
 }
@@ -1,9 +1,6 @@
 package delta.games.lotro.lore.billingGroups;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +9,8 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.billingGroups.io.xml.BillingGroupsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for billing groups access.
@@ -21,9 +20,10 @@ public class BillingGroupsManager
 {
   private static final Logger LOGGER=Logger.getLogger(BillingGroupsManager.class);
 
-  private static BillingGroupsManager _instance=null;
+  private static volatile BillingGroupsManager _instance;
 
-  private HashMap<Integer,BillingGroupDescription> _cache;
+  private IntObjectMap<BillingGroupDescription> _cache;
+  private SortedView<BillingGroupDescription> _sortedById;
 
   /**
    * Get the sole instance of this class.
@@ -31,11 +31,20 @@ public class BillingGroupsManager
    */
   public static BillingGroupsManager getInstance()
   {
-    if (_instance==null)
+    BillingGroupsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new BillingGroupsManager(true);
+      synchronized(BillingGroupsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new BillingGroupsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,8 @@ public class BillingGroupsManager
    */
   private BillingGroupsManager(boolean load)
   {
-    _cache=new HashMap<Integer,BillingGroupDescription>(100);
+    _cache=new IntObjectMap<BillingGroupDescription>(100);
+    _sortedById=new SortedView<BillingGroupDescription>(new IdentifiableComparator<BillingGroupDescription>());
     if (load)
     {
       loadAll();
@@ -57,13 +67,14 @@ public class BillingGroupsManager
   private void loadAll()
   {
     _cache.clear();
+    _sortedById.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File billingGroupsFile=cfg.getFile(DataFiles.BILLING_GROUPS);
     long now=System.currentTimeMillis();
     List<BillingGroupDescription> billingGroups=new BillingGroupsXMLParser().parseXML(billingGroupsFile);
     for(BillingGroupDescription billingGroup : billingGroups)
     {
-      _cache.put(Integer.valueOf(billingGroup.getIdentifier()),billingGroup);
+      _cache.put(billingGroup.getIdentifier(),billingGroup);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -72,14 +83,17 @@ public class BillingGroupsManager
 
   /**
    * Get a list of all billing groups, sorted by identifier.
-   * @return A list of billing groups.
+   * @return An immutable list of billing groups.
    */
   public List<BillingGroupDescription> getAll()
   {
-    ArrayList<BillingGroupDescription> billingGroups=new ArrayList<BillingGroupDescription>();
-    billingGroups.addAll(_cache.values());
-    Collections.sort(billingGroups,new IdentifiableComparator<BillingGroupDescription>());
-    return billingGroups;
+    List<BillingGroupDescription> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
+    return ret;
   }
 
   /**
@@ -90,7 +104,7 @@ public class BillingGroupsManager
   public BillingGroupDescription getBillingGroupDescription(int id)
   {
     BillingGroupDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
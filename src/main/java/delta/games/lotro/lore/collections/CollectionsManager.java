@@ -3,7 +3,6 @@ package delta.games.lotro.lore.collections;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -16,6 +15,7 @@ import delta.games.lotro.common.enums.comparator.LotroEnumEntryNameComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.collections.io.xml.CollectionsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for collections access.
@@ -25,9 +25,9 @@ public class CollectionsManager
 {
   private static final Logger LOGGER=Logger.getLogger(CollectionsManager.class);
 
-  private static CollectionsManager _instance=null;
+  private static volatile CollectionsManager _instance;
 
-  private HashMap<Integer,CollectionDescription> _cache;
+  private IntObjectMap<CollectionDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -35,11 +35,20 @@ public class CollectionsManager
    */
   public static CollectionsManager getInstance()
   {
-    if (_instance==null)
+    CollectionsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new CollectionsManager();
+      synchronized(CollectionsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new CollectionsManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -47,7 +56,7 @@ public class CollectionsManager
    */
   private CollectionsManager()
   {
-    _cache=new HashMap<Integer,CollectionDescription>(100);
+    _cache=new IntObjectMap<CollectionDescription>(100);
     loadAll();
   }
 
@@ -63,7 +72,7 @@ public class CollectionsManager
     List<CollectionDescription> collections=new CollectionsXMLParser().parseCollectionsFile(collectionsFile);
     for(CollectionDescription collection : collections)
     {
-      _cache.put(Integer.valueOf(collection.getIdentifier()),collection);
+      _cache.put(collection.getIdentifier(),collection);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -89,7 +98,7 @@ public class CollectionsManager
    */
   public CollectionDescription getCollection(int id)
   {
-    CollectionDescription ret=_cache.get(Integer.valueOf(id));
+    CollectionDescription ret=_cache.get(id);
     return ret;
   }
 
@@ -2,7 +2,6 @@ package delta.games.lotro.lore.collections.mounts;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -15,6 +14,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.common.enums.MountType;
 import delta.games.lotro.common.enums.SkillCharacteristicSubCategory;
 import delta.games.lotro.common.enums.comparator.LotroEnumEntryNameComparator;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for mounts access.
@@ -24,9 +24,9 @@ public class MountsManager
 {
   private static final Logger LOGGER=Logger.getLogger(MountsManager.class);
 
-  private static MountsManager _instance=null;
+  private static volatile MountsManager _instance;
 
-  private HashMap<Integer,MountDescription> _cache;
+  private IntObjectMap<MountDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -34,11 +34,20 @@ public class MountsManager
    */
   public static MountsManager getInstance()
   {
-    if (_instance==null)
+    MountsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new MountsManager(true);
+      synchronized(MountsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new MountsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -47,7 +56,7 @@ public class MountsManager
    */
   private MountsManager(boolean load)
   {
-    _cache=new HashMap<Integer,MountDescription>(100);
+    _cache=new IntObjectMap<MountDescription>(100);
     if (load)
     {
       loadAll();
@@ -67,7 +76,7 @@ public class MountsManager
       if (skill instanceof MountDescription)
       {
         MountDescription mount=(MountDescription)skill;
-        _cache.put(Integer.valueOf(mount.getIdentifier()),mount);
+        _cache.put(mount.getIdentifier(),mount);
       }
     }
     long now2=System.currentTimeMillis();
@@ -95,7 +104,7 @@ public class MountsManager
   public MountDescription getMount(int id)
   {
     MountDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
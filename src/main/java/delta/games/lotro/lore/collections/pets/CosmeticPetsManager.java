@@ -2,7 +2,6 @@ package delta.games.lotro.lore.collections.pets;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -10,6 +9,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.character.skills.SkillDescription;
 import delta.games.lotro.character.skills.SkillsManager;
 import delta.games.lotro.common.IdentifiableComparator;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for cosmetic pets access.
@@ -19,9 +19,9 @@ public class CosmeticPetsManager
 {
   private static final Logger LOGGER=Logger.getLogger(CosmeticPetsManager.class);
 
-  private static CosmeticPetsManager _instance=null;
+  private static volatile CosmeticPetsManager _instance;
 
-  private HashMap<Integer,CosmeticPetDescription> _cache;
+  private IntObjectMap<CosmeticPetDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -29,11 +29,20 @@ public class CosmeticPetsManager
    */
   public static CosmeticPetsManager getInstance()
   {
-    if (_instance==null)
+    CosmeticPetsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new CosmeticPetsManager(true);
+      synchronized(CosmeticPetsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new CosmeticPetsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -42,7 +51,7 @@ public class CosmeticPetsManager
    */
   private CosmeticPetsManager(boolean load)
   {
-    _cache=new HashMap<Integer,CosmeticPetDescription>(100);
+    _cache=new IntObjectMap<CosmeticPetDescription>(100);
     if (load)
     {
       loadAll();
@@ -62,7 +71,7 @@ public class CosmeticPetsManager
       if (skill instanceof CosmeticPetDescription)
       {
         CosmeticPetDescription pet=(CosmeticPetDescription)skill;
-        _cache.put(Integer.valueOf(pet.getIdentifier()),pet);
+        _cache.put(pet.getIdentifier(),pet);
       }
     }
     long now2=System.currentTimeMillis();
@@ -90,7 +99,7 @@ public class CosmeticPetsManager
   public CosmeticPetDescription getPet(int id)
   {
     CosmeticPetDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -16,7 +16,7 @@ public class CraftingSystem
 {
   private static final Logger LOGGER=Logger.getLogger(CraftingSystem.class);
 
-  private static CraftingSystem _instance=null;
+  private static volatile CraftingSystem _instance;
 
   private CraftingData _data;
 
@@ -26,11 +26,20 @@ public class CraftingSystem
    */
   public static CraftingSystem getInstance()
   {
-    if (_instance==null)
+    CraftingSystem ret=_instance;
+    if (ret==null)
     {
-      _instance=new CraftingSystem();
+      synchronized(CraftingSystem.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new CraftingSystem();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
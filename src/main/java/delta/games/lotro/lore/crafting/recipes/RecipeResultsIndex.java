@@ -0,0 +1,88 @@
+package delta.games.lotro.lore.crafting.recipes;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Reverse index: from item identifiers to the recipes that produce them,
+ * as regular or critical result.
+ * <p>
+ * It is frozen once built: the returned lists are immutable, so lookups do not allocate.
+ * @author DAM
+ */
+public class RecipeResultsIndex
+{
+  private IntObjectMap<List<Recipe>> _recipesByItem;
+
+  /**
+   * Constructor.
+   * @param recipes Recipes to index, sorted by identifier.
+   */
+  public RecipeResultsIndex(Collection<Recipe> recipes)
+  {
+    _recipesByItem=new IntObjectMap<List<Recipe>>();
+    for(Recipe recipe : recipes)
+    {
+      for(RecipeVersion version : recipe.getVersions())
+      {
+        addResult(recipe,version.getRegular());
+        addResult(recipe,version.getCritical());
+      }
+    }
+    RecipesIndex.freeze(_recipesByItem);
+  }
+
+  private void addResult(Recipe recipe, CraftingResult result)
+  {
+    if (result!=null)
+    {
+      RecipesIndex.addItem(_recipesByItem,result.getItem(),recipe);
+    }
+  }
+
+  /**
+   * Get the recipes that produce an item.
+   * @param itemId Item identifier.
+   * @return A possibly empty, but never <code>null</code>, list of recipes, sorted by identifier.
+   */
+  public List<Recipe> getRecipes(int itemId)
+  {
+    List<Recipe> ret=_recipesByItem.get(itemId);
+    if (ret==null)
+    {
+      return Collections.emptyList();
+    }
+    return ret;
+  }
+
+  /**
+   * Indicates if an item can be crafted.
+   * @param itemId Item identifier.
+   * @return <code>true</code> if it can, <code>false</code> otherwise.
+   */
+  public boolean isCraftable(int itemId)
+  {
+    return _recipesByItem.containsKey(itemId);
+  }
+
+  /**
+   * Get the identifiers of the items that can be crafted.
+   * @return A sorted array of item identifiers.
+   */
+  public int[] getItemIds()
+  {
+    return _recipesByItem.keys();
+  }
+
+  /**
+   * Get the number of indexed items.
+   * @return an items count.
+   */
+  public int getItemsCount()
+  {
+    return _recipesByItem.size();
+  }
+}
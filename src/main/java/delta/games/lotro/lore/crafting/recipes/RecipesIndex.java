@@ -0,0 +1,252 @@
+package delta.games.lotro.lore.crafting.recipes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Frozen index of recipes.
+ * <p>
+ * It is built once from the loaded recipes, then only read:
+ * all the returned lists are immutable and pre-sorted, so lookups do not allocate.
+ * Indexes:
+ * <ul>
+ * <li>profession and tier, sorted by profession/tier/category/name,
+ * <li>result item (regular or critical),
+ * <li>ingredient item (mandatory or optional),
+ * <li>recipe scroll item.
+ * </ul>
+ * Item indexes give recipes sorted by identifier.
+ * @author DAM
+ */
+public class RecipesIndex
+{
+  private IntObjectMap<ProfessionRecipes> _byProfession;
+  private RecipeResultsIndex _results;
+  private IntObjectMap<List<Recipe>> _byIngredient;
+  private IntObjectMap<List<Recipe>> _byScroll;
+
+  /**
+   * Constructor.
+   * @param recipes Recipes to index, sorted by identifier.
+   */
+  public RecipesIndex(Collection<Recipe> recipes)
+  {
+    _byProfession=new IntObjectMap<ProfessionRecipes>();
+    _results=new RecipeResultsIndex(recipes);
+    _byIngredient=new IntObjectMap<List<Recipe>>();
+    _byScroll=new IntObjectMap<List<Recipe>>();
+    for(Recipe recipe : recipes)
+    {
+      indexProfession(recipe);
+      for(RecipeVersion version : recipe.getVersions())
+      {
+        for(Ingredient ingredient : version.getIngredients())
+        {
+          addItem(_byIngredient,ingredient.getItem(),recipe);
+        }
+      }
+      addItem(_byScroll,recipe.getRecipeScroll(),recipe);
+    }
+    // Freeze
+    Comparator<Recipe> comparator=RecipeUtils.buildRecipeComparator();
+    for(ProfessionRecipes professionRecipes : _byProfession.values())
+    {
+      professionRecipes.freeze(comparator);
+    }
+    freeze(_byIngredient);
+    freeze(_byScroll);
+  }
+
+  private void indexProfession(Recipe recipe)
+  {
+    if (recipe.getProfession()==null)
+    {
+      return;
+    }
+    int professionId=recipe.getProfession().getIdentifier();
+    ProfessionRecipes professionRecipes=_byProfession.get(professionId);
+    if (professionRecipes==null)
+    {
+      professionRecipes=new ProfessionRecipes();
+      _byProfession.put(professionId,professionRecipes);
+    }
+    professionRecipes.add(recipe);
+  }
+
+  /**
+   * Add a recipe to an index by item.
+   * @param map Index to update.
+   * @param item Item to use (may be <code>null</code>).
+   * @param recipe Recipe to add. Recipes shall be added by increasing identifier.
+   */
+  static void addItem(IntObjectMap<List<Recipe>> map, Item item, Recipe recipe)
+  {
+    if (item==null)
+    {
+      return;
+    }
+    int itemId=item.getIdentifier();
+    List<Recipe> recipes=map.get(itemId);
+    if (recipes==null)
+    {
+      recipes=new ArrayList<Recipe>(1);
+      map.put(itemId,recipes);
+    }
+    // Recipes come in order, so a duplicate can only be the last one
+    if ((recipes.isEmpty()) || (recipes.get(recipes.size()-1)!=recipe))
+    {
+      recipes.add(recipe);
+    }
+  }
+
+  /**
+   * Freeze an index by item: its lists are replaced by immutable copies.
+   * @param map Index to freeze.
+   */
+  static void freeze(IntObjectMap<List<Recipe>> map)
+  {
+    for(int key : map.keys())
+    {
+      map.put(key,Collections.unmodifiableList(new ArrayList<Recipe>(map.get(key))));
+    }
+  }
+
+  /**
+   * Get the tiers of a profession.
+   * @param professionId Profession identifier.
+   * @return An immutable list of tiers, sorted.
+   */
+  public List<Integer> getTiers(int professionId)
+  {
+    ProfessionRecipes professionRecipes=_byProfession.get(professionId);
+    if (professionRecipes==null)
+    {
+      return Collections.emptyList();
+    }
+    return professionRecipes._tiers;
+  }
+
+  /**
+   * Get the recipes of a profession.
+   * @param professionId Profession identifier.
+   * @return An immutable list of recipes, sorted by tier/category/name.
+   */
+  public List<Recipe> getRecipes(int professionId)
+  {
+    ProfessionRecipes professionRecipes=_byProfession.get(professionId);
+    if (professionRecipes==null)
+    {
+      return Collections.emptyList();
+    }
+    return professionRecipes._all;
+  }
+
+  /**
+   * Get the recipes of a profession and tier.
+   * @param professionId Profession identifier.
+   * @param tier Tier.
+   * @return An immutable list of recipes, sorted by category/name.
+   */
+  public List<Recipe> getRecipes(int professionId, int tier)
+  {
+    ProfessionRecipes professionRecipes=_byProfession.get(professionId);
+    List<Recipe> ret=(professionRecipes!=null)?professionRecipes._byTier.get(tier):null;
+    if (ret==null)
+    {
+      return Collections.emptyList();
+    }
+    return ret;
+  }
+
+  /**
+   * Get the index by result item.
+   * @return the results index.
+   */
+  public RecipeResultsIndex getResultsIndex()
+  {
+    return _results;
+  }
+
+  /**
+   * Get the recipes that use an item as ingredient.
+   * @param itemId Item identifier.
+   * @return An immutable list of recipes, sorted by identifier.
+   */
+  public List<Recipe> getRecipesUsingIngredient(int itemId)
+  {
+    List<Recipe> ret=_byIngredient.get(itemId);
+    if (ret==null)
+    {
+      return Collections.emptyList();
+    }
+    return ret;
+  }
+
+  /**
+   * Get the recipes provided by a recipe scroll.
+   * @param itemId Identifier of the scroll item.
+   * @return An immutable list of recipes, sorted by identifier.
+   */
+  public List<Recipe> getRecipesForScroll(int itemId)
+  {
+    List<Recipe> ret=_byScroll.get(itemId);
+    if (ret==null)
+    {
+      return Collections.emptyList();
+    }
+    return ret;
+  }
+
+  /**
+   * Recipes of a single profession.
+   */
+  private static class ProfessionRecipes
+  {
+    private List<Integer> _tiers;
+    private IntObjectMap<List<Recipe>> _byTier;
+    private List<Recipe> _all;
+
+    private ProfessionRecipes()
+    {
+      _byTier=new IntObjectMap<List<Recipe>>();
+      _all=new ArrayList<Recipe>();
+    }
+
+    private void add(Recipe recipe)
+    {
+      int tier=recipe.getTier();
+      List<Recipe> recipes=_byTier.get(tier);
+      if (recipes==null)
+      {
+        recipes=new ArrayList<Recipe>();
+        _byTier.put(tier,recipes);
+      }
+      recipes.add(recipe);
+      _all.add(recipe);
+    }
+
+    private void freeze(Comparator<Recipe> comparator)
+    {
+      // Keys are given in ascending order
+      int[] tiers=_byTier.keys();
+      List<Integer> tiersList=new ArrayList<Integer>(tiers.length);
+      for(int tier : tiers)
+      {
+        tiersList.add(Integer.valueOf(tier));
+        List<Recipe> recipes=new ArrayList<Recipe>(_byTier.get(tier));
+        Collections.sort(recipes,comparator);
+        _byTier.put(tier,Collections.unmodifiableList(recipes));
+      }
+      _tiers=Collections.unmodifiableList(tiersList);
+      List<Recipe> all=new ArrayList<Recipe>(_all);
+      Collections.sort(all,comparator);
+      _all=Collections.unmodifiableList(all);
+    }
+  }
+}
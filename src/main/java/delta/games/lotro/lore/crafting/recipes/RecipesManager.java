@@ -2,17 +2,19 @@ package delta.games.lotro.lore.crafting.recipes;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.common.IdentifiableComparator;
+import delta.games.lotro.common.comparators.NamedComparator;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.crafting.Profession;
 import delta.games.lotro.lore.crafting.recipes.io.xml.RecipeXMLParser;
 import delta.games.lotro.lore.crafting.recipes.io.xml.RecipeXMLWriter;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for recipes access.
@@ -20,10 +22,14 @@ import delta.games.lotro.lore.crafting.recipes.io.xml.RecipeXMLWriter;
  */
 public final class RecipesManager
 {
-  private static RecipesManager _instance=null;
+  private static volatile RecipesManager _instance;
 
-  private Map<Integer,Map<Integer,List<Recipe>>> _recipes;
-  private Map<Integer,Recipe> _recipesById;
+  private IntObjectMap<Recipe> _recipesById;
+  private SortedView<Recipe> _sortedById;
+  private SortedView<Recipe> _sortedByName;
+  private volatile RecipesIndex _index;
+  // Guarded by this manager
+  private int _indexGeneration;
 
   /**
    * Get the sole instance of this class.
@@ -31,11 +37,20 @@ public final class RecipesManager
    */
   public static RecipesManager getInstance()
   {
-    if (_instance==null)
+    RecipesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new RecipesManager(true);
+      synchronized(RecipesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new RecipesManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,8 +59,9 @@ public final class RecipesManager
    */
   public RecipesManager(boolean load)
   {
-    _recipes=new HashMap<Integer,Map<Integer,List<Recipe>>>();
-    _recipesById=new HashMap<Integer,Recipe>();
+    _recipesById=new IntObjectMap<Recipe>();
+    _sortedById=new SortedView<Recipe>(new IdentifiableComparator<Recipe>());
+    _sortedByName=new SortedView<Recipe>(new NamedComparator());
     if (load)
     {
       loadAllRecipes();
@@ -61,42 +77,22 @@ public final class RecipesManager
   /**
    * Get the managed tiers for a profession.
    * @param profession Profession to use.
-   * @return the managed tiers.
+   * @return An immutable list of the managed tiers, sorted.
    */
   public List<Integer> getTiers(Profession profession)
   {
-    List<Integer> ret=new ArrayList<Integer>();
-    Integer key=Integer.valueOf(profession.getIdentifier());
-    Map<Integer,List<Recipe>> tierMap=_recipes.get(key);
-    if (tierMap!=null)
-    {
-      ret.addAll(tierMap.keySet());
-    }
-    Collections.sort(ret);
-    return ret;
+    return getIndex().getTiers(profession.getIdentifier());
   }
 
   /**
    * Get the managed recipes for a profession and a tier.
    * @param profession Profession to use.
    * @param tier Tier to use.
-   * @return the managed recipes.
+   * @return An immutable list of the managed recipes, sorted by category/name.
    */
   public List<Recipe> getRecipes(Profession profession, int tier)
   {
-    List<Recipe> ret=new ArrayList<Recipe>();
-    Integer key=Integer.valueOf(profession.getIdentifier());
-    Map<Integer,List<Recipe>> tierMap=_recipes.get(key);
-    if (tierMap!=null)
-    {
-      List<Recipe> recipes=tierMap.get(Integer.valueOf(tier));
-      if (recipes!=null)
-      {
-        ret.addAll(recipes);
-      }
-    }
-    RecipeUtils.sort(ret);
-    return ret;
+    return getIndex().getRecipes(profession.getIdentifier(),tier);
   }
 
   /**
@@ -107,7 +103,10 @@ public final class RecipesManager
   {
     RecipeXMLParser parser=new RecipeXMLParser();
     List<Recipe> recipes=parser.loadRecipes(inputFile);
-    _recipes.clear();
+    _recipesById.clear();
+    _sortedById.invalidate();
+    _sortedByName.invalidate();
+    invalidateIndex();
     for(Recipe recipe : recipes)
     {
       registerRecipe(recipe);
@@ -120,25 +119,17 @@ public final class RecipesManager
    */
   public void registerRecipe(Recipe recipe)
   {
-    // Register in profession/tier map
-    Profession profession=recipe.getProfession();
-    Integer key=Integer.valueOf(profession.getIdentifier());
-    Map<Integer,List<Recipe>> recipesForProfession=_recipes.get(key);
-    if (recipesForProfession==null)
-    {
-      recipesForProfession=new HashMap<Integer,List<Recipe>>();
-      _recipes.put(key,recipesForProfession);
-    }
-    Integer tier=Integer.valueOf(recipe.getTier());
-    List<Recipe> recipesForTier=recipesForProfession.get(tier);
-    if (recipesForTier==null)
-    {
-      recipesForTier=new ArrayList<Recipe>();
-      recipesForProfession.put(tier,recipesForTier);
-    }
-    recipesForTier.add(recipe);
-    // Register in id map
-    _recipesById.put(Integer.valueOf(recipe.getIdentifier()),recipe);
+    _recipesById.put(recipe.getIdentifier(),recipe);
+    _sortedById.invalidate();
+    _sortedByName.invalidate();
+    invalidateIndex();
+    ReferencesIndex.invalidateAll();
+  }
+
+  private synchronized void invalidateIndex()
+  {
+    _indexGeneration++;
+    _index=null;
   }
 
   /**
@@ -148,27 +139,80 @@ public final class RecipesManager
    */
   public Recipe getRecipeById(int recipeId)
   {
-    return _recipesById.get(Integer.valueOf(recipeId));
+    return _recipesById.get(recipeId);
   }
 
   /**
-   * Get all recipes.
-   * @return a list of all recipes.
+   * Get all recipes, sorted by identifier.
+   * @return An immutable list of all recipes.
    */
   public List<Recipe> getAll()
   {
-    List<Recipe> ret=new ArrayList<Recipe>();
-    for(Map.Entry<Integer,Map<Integer,List<Recipe>>> professionEntry : _recipes.entrySet())
+    List<Recipe> ret=_sortedById.get();
+    if (ret==null)
     {
-      Map<Integer,List<Recipe>> recipesForProfession=professionEntry.getValue();
-      for(Map.Entry<Integer,List<Recipe>> tierEntry : recipesForProfession.entrySet())
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_recipesById.values());
+    }
+    return ret;
+  }
+
+  /**
+   * Get all recipes, sorted by name.
+   * @return An immutable list of all recipes.
+   */
+  public List<Recipe> getAllSortedByName()
+  {
+    List<Recipe> ret=_sortedByName.get();
+    if (ret==null)
+    {
+      int generation=_sortedByName.getGeneration();
+      ret=_sortedByName.build(generation,getAll());
+    }
+    return ret;
+  }
+
+  /**
+   * Get the frozen index of the managed recipes.
+   * It is built on first use, and rebuilt after a recipe is registered.
+   * @return the recipes index.
+   */
+  public RecipesIndex getIndex()
+  {
+    RecipesIndex ret=_index;
+    if (ret==null)
+    {
+      int generation;
+      synchronized(this)
+      {
+        ret=_index;
+        generation=_indexGeneration;
+      }
+      if (ret==null)
       {
-        ret.addAll(tierEntry.getValue());
+        ret=new RecipesIndex(getAll());
+        synchronized(this)
+        {
+          // Not shared if a recipe was registered during the build
+          if (generation==_indexGeneration)
+          {
+            _index=ret;
+          }
+        }
       }
     }
     return ret;
   }
 
+  /**
+   * Get the reverse index from result items to recipes.
+   * @return the results index.
+   */
+  public RecipeResultsIndex getResultsIndex()
+  {
+    return getIndex().getResultsIndex();
+  }
+
   /**
    * Get the number of recipes.
    * @return the number of recipes.
@@ -185,7 +229,7 @@ public final class RecipesManager
    */
   public boolean writeToFile(File toFile)
   {
-    List<Recipe> recipes=getAll();
+    List<Recipe> recipes=new ArrayList<Recipe>(getAll());
     RecipeUtils.sort(recipes);
     RecipeXMLWriter writer=new RecipeXMLWriter();
     return writer.write(toFile,recipes,EncodingNames.UTF_8);
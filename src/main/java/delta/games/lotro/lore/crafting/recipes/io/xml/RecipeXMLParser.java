@@ -23,6 +23,8 @@ import delta.games.lotro.lore.crafting.recipes.RecipeVersion;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
 import delta.games.lotro.utils.i18n.I18nFacade;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 
 /**
  * Parser for quest descriptions stored in XML.
@@ -67,16 +69,25 @@ public class RecipeXMLParser
    */
   public List<Recipe> loadRecipes(File source)
   {
-    List<Recipe> recipes=new ArrayList<Recipe>();
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final List<Recipe> recipes=new ArrayList<Recipe>();
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      List<Element> recipeTags=DOMParsingTools.getChildTagsByName(root,RecipeXMLConstants.RECIPE_TAG);
-      for(Element recipeTag : recipeTags)
+      @Override
+      public void handleRecord(Element recipeTag)
       {
-        Recipe recipe=parseRecipe(recipeTag);
-        recipes.add(recipe);
+        if (RecipeXMLConstants.RECIPE_TAG.equals(recipeTag.getTagName()))
+        {
+          Recipe recipe=parseRecipe(recipeTag);
+          recipes.add(recipe);
+        }
       }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    if (!ok)
+    {
+      // Partially loaded recipes are not kept
+      LOGGER.warn("Could not load recipes from: "+source);
+      recipes.clear();
     }
     return recipes;
   }
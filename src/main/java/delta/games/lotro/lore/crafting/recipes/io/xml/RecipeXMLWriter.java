@@ -18,6 +18,8 @@ import delta.games.lotro.lore.crafting.recipes.IngredientPack;
 import delta.games.lotro.lore.crafting.recipes.Recipe;
 import delta.games.lotro.lore.crafting.recipes.RecipeVersion;
 import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 
 /**
  * Writes LOTRO recipes to XML files.
@@ -55,21 +57,16 @@ public class RecipeXMLWriter
    */
   public boolean write(File outFile, final List<Recipe> recipes, String encoding)
   {
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<Recipe> recordWriter=new XMLRecordWriter<Recipe>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, Recipe recipe) throws Exception
       {
-        hd.startElement("","",RecipeXMLConstants.RECIPES_TAG,new AttributesImpl());
-        for(Recipe recipe : recipes)
-        {
-          write(hd,recipe);
-        }
-        hd.endElement("","",RecipeXMLConstants.RECIPES_TAG);
+        write(hd,recipe);
       }
     };
-    return helper.write(outFile,encoding,writer);
+    ShardedXMLFileWriter<Recipe> writer=new ShardedXMLFileWriter<Recipe>(RecipeXMLConstants.RECIPES_TAG,recordWriter);
+    return writer.write(outFile,encoding,recipes);
   }
 
   private void write(TransformerHandler hd, Recipe recipe) throws SAXException
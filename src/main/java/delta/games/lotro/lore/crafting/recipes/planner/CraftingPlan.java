@@ -0,0 +1,180 @@
+package delta.games.lotro.lore.crafting.recipes.planner;
+
+import java.util.List;
+
+import delta.common.utils.text.EndOfLine;
+
+/**
+ * Crafting plan: raw materials and crafts needed to get some items.
+ * <p>
+ * Quantities are expected values: crafts that may give a critical result
+ * yield fractional counts.
+ * Instances are immutable.
+ * @author DAM
+ */
+public final class CraftingPlan
+{
+  private int _itemId;
+  private int _quantity;
+  SparseQuantities _materials;
+  SparseQuantities _crafts;
+
+  CraftingPlan(int itemId, int quantity, SparseQuantities materials, SparseQuantities crafts)
+  {
+    _itemId=itemId;
+    _quantity=quantity;
+    _materials=materials;
+    _crafts=crafts;
+  }
+
+  /**
+   * Get the identifier of the target item.
+   * @return an item identifier, or 0 for a merged plan.
+   */
+  public int getItemId()
+  {
+    return _itemId;
+  }
+
+  /**
+   * Get the wanted quantity of the target item.
+   * @return a quantity.
+   */
+  public int getQuantity()
+  {
+    return _quantity;
+  }
+
+  /**
+   * Get the number of distinct raw materials.
+   * @return a materials count.
+   */
+  public int getMaterialsCount()
+  {
+    return _materials._ids.length;
+  }
+
+  /**
+   * Get the item identifier of a raw material.
+   * @param index Index of the material, starting at 0.
+   * @return an item identifier.
+   */
+  public int getMaterialItemId(int index)
+  {
+    return _materials._ids[index];
+  }
+
+  /**
+   * Get the quantity of a raw material.
+   * @param index Index of the material, starting at 0.
+   * @return an expected quantity.
+   */
+  public double getMaterialQuantity(int index)
+  {
+    return _materials._quantities[index];
+  }
+
+  /**
+   * Get the needed quantity of an item, as raw material.
+   * @param itemId Item identifier.
+   * @return an expected quantity, 0 if not needed.
+   */
+  public double getMaterialQuantityForItem(int itemId)
+  {
+    return _materials.get(itemId);
+  }
+
+  /**
+   * Get the number of distinct recipes to craft.
+   * @return a recipes count.
+   */
+  public int getCraftsCount()
+  {
+    return _crafts._ids.length;
+  }
+
+  /**
+   * Get the identifier of a recipe to craft.
+   * @param index Index of the recipe, starting at 0.
+   * @return a recipe identifier.
+   */
+  public int getCraftRecipeId(int index)
+  {
+    return _crafts._ids[index];
+  }
+
+  /**
+   * Get the number of crafts of a recipe.
+   * @param index Index of the recipe, starting at 0.
+   * @return an expected crafts count.
+   */
+  public double getCraftCount(int index)
+  {
+    return _crafts._quantities[index];
+  }
+
+  /**
+   * Get the number of crafts of a recipe.
+   * @param recipeId Recipe identifier.
+   * @return an expected crafts count, 0 if not crafted.
+   */
+  public double getCraftCountForRecipe(int recipeId)
+  {
+    return _crafts.get(recipeId);
+  }
+
+  CraftingPlan scale(int quantity)
+  {
+    return new CraftingPlan(_itemId,quantity,_materials.scale(quantity),_crafts.scale(quantity));
+  }
+
+  /**
+   * Merge some plans into a single one.
+   * @param plans Plans to merge.
+   * @return A plan that gives the totals of the given plans.
+   */
+  public static CraftingPlan merge(List<CraftingPlan> plans)
+  {
+    int count=plans.size();
+    SparseQuantities[] materials=new SparseQuantities[count];
+    SparseQuantities[] crafts=new SparseQuantities[count];
+    double[] factors=new double[count];
+    for(int i=0;i<count;i++)
+    {
+      CraftingPlan plan=plans.get(i);
+      materials[i]=plan._materials;
+      crafts[i]=plan._crafts;
+      factors[i]=1;
+    }
+    SparseQuantities totalMaterials=SparseQuantities.combine(materials,factors,count);
+    SparseQuantities totalCrafts=SparseQuantities.combine(crafts,factors,count);
+    return new CraftingPlan(0,0,totalMaterials,totalCrafts);
+  }
+
+  /**
+   * Dump the contents of this object.
+   * @return a displayable string.
+   */
+  public String dump()
+  {
+    StringBuilder sb=new StringBuilder();
+    sb.append("Item ID=").append(_itemId).append(", quantity=").append(_quantity).append(EndOfLine.NATIVE_EOL);
+    sb.append("Materials:").append(EndOfLine.NATIVE_EOL);
+    for(int i=0;i<getMaterialsCount();i++)
+    {
+      sb.append('\t').append(getMaterialItemId(i)).append(": ").append(getMaterialQuantity(i)).append(EndOfLine.NATIVE_EOL);
+    }
+    sb.append("Crafts:").append(EndOfLine.NATIVE_EOL);
+    for(int i=0;i<getCraftsCount();i++)
+    {
+      sb.append('\t').append(getCraftRecipeId(i)).append(": ").append(getCraftCount(i)).append(EndOfLine.NATIVE_EOL);
+    }
+    return sb.toString().trim();
+  }
+
+  @Override
+  public String toString()
+  {
+    return dump();
+  }
+}
@@ -0,0 +1,428 @@
+package delta.games.lotro.lore.crafting.recipes.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.lore.crafting.recipes.CraftingResult;
+import delta.games.lotro.lore.crafting.recipes.Ingredient;
+import delta.games.lotro.lore.crafting.recipes.IngredientPack;
+import delta.games.lotro.lore.crafting.recipes.Recipe;
+import delta.games.lotro.lore.crafting.recipes.RecipeResultsIndex;
+import delta.games.lotro.lore.crafting.recipes.RecipeVersion;
+import delta.games.lotro.lore.crafting.recipes.RecipesManager;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Crafting planner: expands the ingredients of target items down to raw materials.
+ * <p>
+ * An item is crafted if a recipe produces it, otherwise it is a raw material.
+ * When several recipes produce an item, reusable recipes are preferred, then
+ * the best expected yield, then the lowest recipe identifier.
+ * The plan of a single item is memoized, so shared intermediate items are expanded only once.
+ * Plans for other quantities are derived by scaling.
+ * <p>
+ * Options:
+ * <ul>
+ * <li>critical results: the expected yield of a craft accounts for the critical chance,
+ * <li>optional ingredients: they are used, and add their critical chance bonus,
+ * <li>ingredient packs: a pack replaces the mandatory ingredients of several crafts.
+ * </ul>
+ * Recipes that produce an item from itself (directly or not) are cut: the item is
+ * then a raw material. The plans of the items of a cycle are not memoized, since they
+ * depend on the item of the cycle that was expanded first.
+ * Options are set at construction. Memoized plans are bound to the results index they
+ * were built from: they are dropped when the recipes manager builds a new index.
+ * This class is thread-safe.
+ * @author DAM
+ */
+public class CraftingPlanner
+{
+  private static final Logger LOGGER=Logger.getLogger(CraftingPlanner.class);
+
+  private RecipesManager _recipesMgr;
+  private boolean _useCriticals;
+  private boolean _useOptionalIngredients;
+  private boolean _useIngredientPacks;
+  private volatile PlansCache _plans;
+  private int _threads;
+
+  /**
+   * Constructor.
+   * Critical results are used, optional ingredients and ingredient packs are not.
+   * @param recipesMgr Recipes manager.
+   */
+  public CraftingPlanner(RecipesManager recipesMgr)
+  {
+    this(recipesMgr,true,false,false);
+  }
+
+  /**
+   * Constructor.
+   * @param recipesMgr Recipes manager.
+   * @param useCriticals Indicates if critical results are taken into account.
+   * @param useOptionalIngredients Indicates if optional ingredients are used.
+   * @param useIngredientPacks Indicates if ingredient packs are used, when available.
+   */
+  public CraftingPlanner(RecipesManager recipesMgr, boolean useCriticals, boolean useOptionalIngredients, boolean useIngredientPacks)
+  {
+    _recipesMgr=recipesMgr;
+    _useCriticals=useCriticals;
+    _useOptionalIngredients=useOptionalIngredients;
+    _useIngredientPacks=useIngredientPacks;
+    _plans=null;
+    _threads=Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Set the number of threads to use.
+   * @param threads Threads count.
+   */
+  public void setThreads(int threads)
+  {
+    _threads=Math.max(1,threads);
+  }
+
+  /**
+   * Get the number of memoized item plans, for the current recipes.
+   * @return a plans count.
+   */
+  public int getMemoizedPlansCount()
+  {
+    PlansCache plans=_plans;
+    if ((plans==null) || (plans._index!=_recipesMgr.getResultsIndex()))
+    {
+      return 0;
+    }
+    return plans._unitPlans.size();
+  }
+
+  private PlansCache getPlans()
+  {
+    RecipeResultsIndex index=_recipesMgr.getResultsIndex();
+    PlansCache ret=_plans;
+    if ((ret==null) || (ret._index!=index))
+    {
+      synchronized(this)
+      {
+        ret=_plans;
+        if ((ret==null) || (ret._index!=index))
+        {
+          ret=new PlansCache(index);
+          _plans=ret;
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Build the plan to get some items.
+   * @param itemId Identifier of the target item.
+   * @param quantity Wanted quantity.
+   * @return a plan.
+   */
+  public CraftingPlan plan(int itemId, int quantity)
+  {
+    return getUnitPlan(getPlans(),itemId,new Expansion()).scale(quantity);
+  }
+
+  /**
+   * Build the plans for some targets, in parallel.
+   * @param itemIds Identifiers of the target items.
+   * @param quantities Wanted quantities, in the order of the items.
+   * @return A list of plans, in the order of the targets.
+   * @throws IllegalStateException if a target could not be planned.
+   */
+  public List<CraftingPlan> planAll(final int[] itemIds, final int[] quantities)
+  {
+    long now=System.currentTimeMillis();
+    final PlansCache plans=getPlans();
+    final int nbTargets=itemIds.length;
+    final CraftingPlan[] results=new CraftingPlan[nbTargets];
+    final int nbThreads=Math.max(1,Math.min(nbTargets,_threads));
+    ExecutorService executor=Executors.newFixedThreadPool(nbThreads);
+    List<Future<Void>> futures=new ArrayList<Future<Void>>();
+    try
+    {
+      for(int i=0;i<nbThreads;i++)
+      {
+        final int first=i;
+        Callable<Void> task=new Callable<Void>()
+        {
+          @Override
+          public Void call()
+          {
+            Expansion expansion=new Expansion();
+            for(int target=first;target<nbTargets;target+=nbThreads)
+            {
+              results[target]=getUnitPlan(plans,itemIds[target],expansion).scale(quantities[target]);
+            }
+            return null;
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      for(Future<Void> future : futures)
+      {
+        waitFor(future);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+    List<CraftingPlan> ret=new ArrayList<CraftingPlan>(Arrays.asList(results));
+    long now2=System.currentTimeMillis();
+    LOGGER.info("Planned "+ret.size()+" crafting targets ("+plans._unitPlans.size()+" memoized items) in "+(now2-now)+"ms.");
+    return ret;
+  }
+
+  private static void waitFor(Future<Void> future)
+  {
+    try
+    {
+      future.get();
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while planning crafts",ie);
+    }
+    catch(ExecutionException ee)
+    {
+      throw new IllegalStateException("Error when planning crafts",ee.getCause());
+    }
+  }
+
+  private CraftingPlan getUnitPlan(PlansCache plans, int itemId, Expansion expansion)
+  {
+    Integer key=Integer.valueOf(itemId);
+    CraftingPlan ret=plans._unitPlans.get(key);
+    if (ret!=null)
+    {
+      return ret;
+    }
+    int cutDepth=expansion.indexOf(itemId);
+    if (cutDepth>=0)
+    {
+      // Cycle: use the item as raw material
+      expansion._lowestCut=Math.min(expansion._lowestCut,cutDepth);
+      return rawMaterial(itemId);
+    }
+    int depth=expansion._size;
+    int previousCut=expansion._lowestCut;
+    expansion._lowestCut=Integer.MAX_VALUE;
+    expansion.push(itemId);
+    ret=buildUnitPlan(plans,itemId,expansion);
+    expansion._size--;
+    int lowestCut=expansion._lowestCut;
+    expansion._lowestCut=Math.min(previousCut,lowestCut);
+    if (lowestCut<=depth)
+    {
+      // This item belongs to a cycle
+      return ret;
+    }
+    // Another thread may have planned the same item: keep the first one
+    CraftingPlan previous=plans._unitPlans.putIfAbsent(key,ret);
+    return (previous!=null)?previous:ret;
+  }
+
+  private CraftingPlan rawMaterial(int itemId)
+  {
+    return new CraftingPlan(itemId,1,SparseQuantities.single(itemId,1),SparseQuantities.EMPTY);
+  }
+
+  private CraftingPlan buildUnitPlan(PlansCache plans, int itemId, Expansion expansion)
+  {
+    // Find the best recipe
+    Recipe bestRecipe=null;
+    RecipeVersion bestVersion=null;
+    double bestYield=0;
+    for(Recipe recipe : plans._index.getRecipes(itemId))
+    {
+      for(RecipeVersion version : recipe.getVersions())
+      {
+        double yield=getExpectedYield(version,itemId);
+        if (yield<=0)
+        {
+          continue;
+        }
+        boolean better;
+        if (bestRecipe==null)
+        {
+          better=true;
+        }
+        else if (bestRecipe.isOneTimeUse()!=recipe.isOneTimeUse())
+        {
+          better=!recipe.isOneTimeUse();
+        }
+        else
+        {
+          better=(yield>bestYield);
+        }
+        if (better)
+        {
+          bestRecipe=recipe;
+          bestVersion=version;
+          bestYield=yield;
+        }
+      }
+    }
+    if (bestRecipe==null)
+    {
+      return rawMaterial(itemId);
+    }
+    // Expand the ingredients of a single craft
+    List<Ingredient> ingredients=bestVersion.getIngredients();
+    int maxParts=ingredients.size()+1;
+    SparseQuantities[] materials=new SparseQuantities[maxParts];
+    SparseQuantities[] crafts=new SparseQuantities[maxParts+1];
+    double[] factors=new double[maxParts+1];
+    int nbParts=0;
+    IngredientPack pack=_useIngredientPacks?bestRecipe.getIngredientPack():null;
+    boolean usePack=((pack!=null) && (pack.getItem()!=null) && (pack.getCount()>0));
+    if (usePack)
+    {
+      // A pack is a raw material that provides the mandatory ingredients of several crafts
+      materials[nbParts]=SparseQuantities.single(pack.getItem().getIdentifier(),1);
+      crafts[nbParts]=SparseQuantities.EMPTY;
+      factors[nbParts]=1.0/pack.getCount();
+      nbParts++;
+    }
+    for(Ingredient ingredient : ingredients)
+    {
+      Item item=ingredient.getItem();
+      if ((item==null) || (ingredient.getQuantity()<=0))
+      {
+        continue;
+      }
+      boolean optional=ingredient.isOptional();
+      if ((optional) && (!_useOptionalIngredients))
+      {
+        continue;
+      }
+      if ((!optional) && (usePack))
+      {
+        continue;
+      }
+      CraftingPlan ingredientPlan=getUnitPlan(plans,item.getIdentifier(),expansion);
+      materials[nbParts]=ingredientPlan._materials;
+      crafts[nbParts]=ingredientPlan._crafts;
+      factors[nbParts]=ingredient.getQuantity();
+      nbParts++;
+    }
+    // Scale to a single item
+    double craftsPerItem=1/bestYield;
+    for(int i=0;i<nbParts;i++)
+    {
+      factors[i]*=craftsPerItem;
+    }
+    SparseQuantities materialsPerItem=SparseQuantities.combine(materials,factors,nbParts);
+    crafts[nbParts]=SparseQuantities.single(bestRecipe.getIdentifier(),1);
+    factors[nbParts]=craftsPerItem;
+    SparseQuantities craftsPerItemVector=SparseQuantities.combine(crafts,factors,nbParts+1);
+    return new CraftingPlan(itemId,1,materialsPerItem,craftsPerItemVector);
+  }
+
+  /**
+   * Get the expected quantity of an item given by a single craft.
+   * @param version Recipe version.
+   * @param itemId Item identifier.
+   * @return an expected quantity.
+   */
+  private double getExpectedYield(RecipeVersion version, int itemId)
+  {
+    CraftingResult regular=version.getRegular();
+    CraftingResult critical=version.getCritical();
+    double criticalChance=(critical!=null)?getCriticalChance(version):0;
+    double ret=0;
+    if ((regular!=null) && (regular.getItem()!=null) && (regular.getItem().getIdentifier()==itemId))
+    {
+      ret+=(1-criticalChance)*regular.getQuantity();
+    }
+    if ((critical!=null) && (critical.getItem()!=null) && (critical.getItem().getIdentifier()==itemId))
+    {
+      ret+=criticalChance*critical.getQuantity();
+    }
+    return ret;
+  }
+
+  private double getCriticalChance(RecipeVersion version)
+  {
+    if (!_useCriticals)
+    {
+      return 0;
+    }
+    Integer base=version.getBaseCriticalChance();
+    int percentage=(base!=null)?base.intValue():0;
+    if (_useOptionalIngredients)
+    {
+      for(Ingredient ingredient : version.getIngredients())
+      {
+        Integer bonus=ingredient.getCriticalChanceBonus();
+        if ((ingredient.isOptional()) && (bonus!=null))
+        {
+          percentage+=bonus.intValue();
+        }
+      }
+    }
+    return Math.max(0,Math.min(100,percentage))/100.0;
+  }
+
+  /**
+   * Memoized plans of single items, built from a results index.
+   */
+  private static class PlansCache
+  {
+    private RecipeResultsIndex _index;
+    private ConcurrentHashMap<Integer,CraftingPlan> _unitPlans;
+
+    private PlansCache(RecipeResultsIndex index)
+    {
+      _index=index;
+      _unitPlans=new ConcurrentHashMap<Integer,CraftingPlan>();
+    }
+  }
+
+  /**
+   * Items being expanded by a thread, from the target down to the current item.
+   */
+  private static class Expansion
+  {
+    private int[] _items=new int[16];
+    private int _size=0;
+    // Lowest depth of the items cut in the current expansion
+    private int _lowestCut=Integer.MAX_VALUE;
+
+    private int indexOf(int itemId)
+    {
+      for(int i=0;i<_size;i++)
+      {
+        if (_items[i]==itemId)
+        {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void push(int itemId)
+    {
+      if (_size==_items.length)
+      {
+        _items=Arrays.copyOf(_items,_size*2);
+      }
+      _items[_size]=itemId;
+      _size++;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package delta.games.lotro.lore.crafting.recipes.planner;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse vector of quantities, indexed by identifier.
+ * Identifiers are sorted.
+ * @author DAM
+ */
+final class SparseQuantities
+{
+  static final SparseQuantities EMPTY=new SparseQuantities(new int[0],new double[0]);
+
+  final int[] _ids;
+  final double[] _quantities;
+
+  SparseQuantities(int[] ids, double[] quantities)
+  {
+    _ids=ids;
+    _quantities=quantities;
+  }
+
+  static SparseQuantities single(int id, double quantity)
+  {
+    return new SparseQuantities(new int[] {id},new double[] {quantity});
+  }
+
+  double get(int id)
+  {
+    int index=Arrays.binarySearch(_ids,id);
+    return (index>=0)?_quantities[index]:0;
+  }
+
+  /**
+   * Build a linear combination of some vectors.
+   * @param parts Vectors to combine.
+   * @param factors Factor of each vector.
+   * @param count Number of vectors to use.
+   * @return the sum of the given vectors, weighted by their factors.
+   */
+  static SparseQuantities combine(SparseQuantities[] parts, double[] factors, int count)
+  {
+    if (count==0)
+    {
+      return EMPTY;
+    }
+    // Sorted union of the identifiers
+    int total=0;
+    for(int i=0;i<count;i++)
+    {
+      total+=parts[i]._ids.length;
+    }
+    int[] all=new int[total];
+    int offset=0;
+    for(int i=0;i<count;i++)
+    {
+      int[] ids=parts[i]._ids;
+      System.arraycopy(ids,0,all,offset,ids.length);
+      offset+=ids.length;
+    }
+    Arrays.sort(all);
+    int size=0;
+    for(int i=0;i<total;i++)
+    {
+      if ((size==0) || (all[i]!=all[size-1]))
+      {
+        all[size++]=all[i];
+      }
+    }
+    int[] ids=Arrays.copyOf(all,size);
+    double[] quantities=new double[size];
+    for(int i=0;i<count;i++)
+    {
+      double factor=factors[i];
+      int[] partIds=parts[i]._ids;
+      double[] partQuantities=parts[i]._quantities;
+      // Both arrays are sorted: merge walk
+      int k=0;
+      for(int j=0;j<partIds.length;j++)
+      {
+        while (ids[k]!=partIds[j])
+        {
+          k++;
+        }
+        quantities[k]+=factor*partQuantities[j];
+      }
+    }
+    return new SparseQuantities(ids,quantities);
+  }
+
+  SparseQuantities scale(double factor)
+  {
+    double[] quantities=new double[_quantities.length];
+    for(int i=0;i<quantities.length;i++)
+    {
+      quantities[i]=_quantities[i]*factor;
+    }
+    return new SparseQuantities(_ids,quantities);
+  }
+}
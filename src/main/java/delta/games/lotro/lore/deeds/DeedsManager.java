@@ -12,6 +12,8 @@ import delta.games.lotro.common.rewards.RewardsExplorer;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.deeds.io.xml.DeedsSaxParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for deeds access.
@@ -24,7 +26,8 @@ public final class DeedsManager
   private static DeedsManager _instance=new DeedsManager();
 
   private List<DeedDescription> _deeds;
-  private Map<Integer,DeedDescription> _deedsMapById;
+  private SortedView<DeedDescription> _allDeeds;
+  private IntObjectMap<DeedDescription> _deedsMapById;
   private Map<String,DeedDescription> _deedsMapByKey;
 
   /**
@@ -42,7 +45,8 @@ public final class DeedsManager
   private DeedsManager()
   {
     _deeds=new ArrayList<DeedDescription>();
-    _deedsMapById=new HashMap<Integer,DeedDescription>();
+    _allDeeds=new SortedView<DeedDescription>(null);
+    _deedsMapById=new IntObjectMap<DeedDescription>();
     _deedsMapByKey=new HashMap<String,DeedDescription>();
     loadAll();
   }
@@ -59,7 +63,7 @@ public final class DeedsManager
     _deeds.addAll(deeds);
     for(DeedDescription deed : _deeds)
     {
-      _deedsMapById.put(Integer.valueOf(deed.getIdentifier()),deed);
+      _deedsMapById.put(deed.getIdentifier(),deed);
       String key=deed.getKey();
       if (key!=null)
       {
@@ -74,11 +78,16 @@ public final class DeedsManager
 
   /**
    * Get a list of all deeds.
-   * @return A list of all deeds.
+   * @return An immutable list of all deeds.
    */
   public List<DeedDescription> getAll()
   {
-    List<DeedDescription> ret=new ArrayList<DeedDescription>(_deeds);
+    List<DeedDescription> ret=_allDeeds.get();
+    if (ret==null)
+    {
+      int generation=_allDeeds.getGeneration();
+      ret=_allDeeds.build(generation,_deeds);
+    }
     return ret;
   }
 
@@ -105,7 +114,7 @@ public final class DeedsManager
    */
   public DeedDescription getDeed(int id)
   {
-    DeedDescription ret=_deedsMapById.get(Integer.valueOf(id));
+    DeedDescription ret=_deedsMapById.get(id);
     return ret;
   }
 
@@ -7,7 +7,6 @@ import javax.xml.transform.sax.TransformerHandler;
 
 import org.xml.sax.helpers.AttributesImpl;
 
-import delta.common.utils.io.xml.XmlFileWriterHelper;
 import delta.common.utils.io.xml.XmlWriter;
 import delta.games.lotro.common.ChallengeLevel;
 import delta.games.lotro.common.enums.DeedCategory;
@@ -19,6 +18,8 @@ import delta.games.lotro.lore.quests.io.xml.AchievableXMLConstants;
 import delta.games.lotro.lore.quests.io.xml.AchievableXMLWriter;
 import delta.games.lotro.lore.quests.objectives.io.xml.ObjectivesXMLWriter;
 import delta.games.lotro.lore.webStore.WebStoreItem;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 
 /**
  * Writes LOTRO deeds to XML files.
@@ -35,21 +36,16 @@ public class DeedXMLWriter extends AchievableXMLWriter
    */
   public boolean writeDeeds(File outFile, final List<DeedDescription> deeds, String encoding)
   {
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<DeedDescription> recordWriter=new XMLRecordWriter<DeedDescription>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, DeedDescription deed) throws Exception
       {
-        hd.startElement("","",DeedXMLConstants.DEEDS_TAG,new AttributesImpl());
-        for(DeedDescription deed : deeds)
-        {
-          writeDeed(hd,deed);
-        }
-        hd.endElement("","",DeedXMLConstants.DEEDS_TAG);
+        writeDeed(hd,deed);
       }
     };
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    boolean ret=helper.write(outFile,encoding,writer);
+    ShardedXMLFileWriter<DeedDescription> writer=new ShardedXMLFileWriter<DeedDescription>(DeedXMLConstants.DEEDS_TAG,recordWriter);
+    boolean ret=writer.write(outFile,encoding,deeds);
     return ret;
   }
 
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.emotes;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +11,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.emotes.io.xml.EmoteXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for emotes access.
@@ -21,9 +21,9 @@ public class EmotesManager
 {
   private static final Logger LOGGER=Logger.getLogger(EmotesManager.class);
 
-  private static EmotesManager _instance=null;
+  private static volatile EmotesManager _instance;
 
-  private HashMap<Integer,EmoteDescription> _cache;
+  private IntObjectMap<EmoteDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -31,11 +31,20 @@ public class EmotesManager
    */
   public static EmotesManager getInstance()
   {
-    if (_instance==null)
+    EmotesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new EmotesManager(true);
+      synchronized(EmotesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new EmotesManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,7 @@ public class EmotesManager
    */
   private EmotesManager(boolean load)
   {
-    _cache=new HashMap<Integer,EmoteDescription>(100);
+    _cache=new IntObjectMap<EmoteDescription>(100);
     if (load)
     {
       loadAll();
@@ -63,7 +72,7 @@ public class EmotesManager
     List<EmoteDescription> emotes=new EmoteXMLParser().parseXML(emotesFile);
     for(EmoteDescription emote : emotes)
     {
-      _cache.put(Integer.valueOf(emote.getIdentifier()),emote);
+      _cache.put(emote.getIdentifier(),emote);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -90,7 +99,7 @@ public class EmotesManager
   public EmoteDescription getEmote(int id)
   {
     EmoteDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -4,14 +4,13 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.geo.landmarks.io.xml.LandmarksXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all landmarks.
@@ -19,8 +18,8 @@ import delta.games.lotro.lore.geo.landmarks.io.xml.LandmarksXMLParser;
  */
 public class LandmarksManager
 {
-  private static LandmarksManager _instance=null;
-  private Map<Integer,LandmarkDescription> _landmarks;
+  private static volatile LandmarksManager _instance;
+  private IntObjectMap<LandmarkDescription> _landmarks;
 
   /**
    * Get the reference instance of this class.
@@ -28,11 +27,20 @@ public class LandmarksManager
    */
   public static LandmarksManager getInstance()
   {
-    if (_instance==null)
+    LandmarksManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(LandmarksManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static LandmarksManager load()
@@ -46,7 +54,7 @@ public class LandmarksManager
    */
   public LandmarksManager()
   {
-    _landmarks=new HashMap<Integer,LandmarkDescription>();
+    _landmarks=new IntObjectMap<LandmarkDescription>();
   }
 
   /**
@@ -55,7 +63,7 @@ public class LandmarksManager
    */
   public void addLandmark(LandmarkDescription landmark)
   {
-    Integer key=Integer.valueOf(landmark.getIdentifier());
+    int key=landmark.getIdentifier();
     _landmarks.put(key,landmark);
   }
 
@@ -66,7 +74,7 @@ public class LandmarksManager
    */
   public LandmarkDescription getLandmarkById(int landmarkId)
   {
-    return _landmarks.get(Integer.valueOf(landmarkId));
+    return _landmarks.get(landmarkId);
   }
 
   /**
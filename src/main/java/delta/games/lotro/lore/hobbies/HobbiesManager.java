@@ -3,7 +3,6 @@ package delta.games.lotro.lore.hobbies;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +11,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.hobbies.io.xml.HobbyDescriptionXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to hobbies.
@@ -21,9 +21,9 @@ public class HobbiesManager
 {
   private static final Logger LOGGER=Logger.getLogger(HobbiesManager.class);
 
-  private static HobbiesManager _instance=null;
+  private static volatile HobbiesManager _instance;
 
-  private HashMap<Integer,HobbyDescription> _cache;
+  private IntObjectMap<HobbyDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -31,12 +31,21 @@ public class HobbiesManager
    */
   public static HobbiesManager getInstance()
   {
-    if (_instance==null)
+    HobbiesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new HobbiesManager();
-      _instance.loadAll();
+      synchronized(HobbiesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new HobbiesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,7 @@ public class HobbiesManager
    */
   private HobbiesManager()
   {
-    _cache=new HashMap<Integer,HobbyDescription>(1);
+    _cache=new IntObjectMap<HobbyDescription>(1);
   }
 
   /**
@@ -75,7 +84,7 @@ public class HobbiesManager
    */
   public void registerHobby(HobbyDescription hobby)
   {
-    _cache.put(Integer.valueOf(hobby.getIdentifier()),hobby);
+    _cache.put(hobby.getIdentifier(),hobby);
   }
 
   /**
@@ -98,7 +107,7 @@ public class HobbiesManager
   public HobbyDescription getHobby(int id)
   {
     HobbyDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -23,7 +23,7 @@ import delta.games.lotro.lore.instances.io.xml.InstancesTreeXMLParser;
  */
 public class InstancesTree
 {
-  private static InstancesTree _instance=null;
+  private static volatile InstancesTree _instance;
   private Map<String,InstanceCategory> _categories;
 
   /**
@@ -32,11 +32,20 @@ public class InstancesTree
    */
   public static InstancesTree getInstance()
   {
-    if (_instance==null)
+    InstancesTree ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(InstancesTree.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static InstancesTree load()
@@ -4,9 +4,7 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -16,6 +14,7 @@ import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.instances.io.xml.PrivateEncountersXMLParser;
 import delta.games.lotro.lore.quests.QuestDescription;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.Proxy;
 
 /**
@@ -27,8 +26,8 @@ public class PrivateEncountersManager
   private static final Logger LOGGER=Logger.getLogger(PrivateEncountersManager.class);
 
   private static final PrivateEncountersManager _instance=load();
-  private Map<Integer,PrivateEncounter> _privateEncounters;
-  private Map<Integer,PrivateEncounter> _questToPE;
+  private IntObjectMap<PrivateEncounter> _privateEncounters;
+  private IntObjectMap<PrivateEncounter> _questToPE;
 
   /**
    * Get the reference instance of this class.
@@ -50,8 +49,8 @@ public class PrivateEncountersManager
    */
   public PrivateEncountersManager()
   {
-    _privateEncounters=new HashMap<Integer,PrivateEncounter>();
-    _questToPE=new HashMap<Integer,PrivateEncounter>();
+    _privateEncounters=new IntObjectMap<PrivateEncounter>();
+    _questToPE=new IntObjectMap<PrivateEncounter>();
   }
 
   /**
@@ -60,7 +59,7 @@ public class PrivateEncountersManager
    */
   public void addPrivateEncounter(PrivateEncounter privateEncounter)
   {
-    Integer key=Integer.valueOf(privateEncounter.getIdentifier());
+    int key=privateEncounter.getIdentifier();
     _privateEncounters.put(key,privateEncounter);
     // Quest
     Proxy<QuestDescription> parentQuest=privateEncounter.getQuests().getParentQuest();
@@ -82,7 +81,7 @@ public class PrivateEncountersManager
    */
   public PrivateEncounter getPrivateEncounterById(int id)
   {
-    return _privateEncounters.get(Integer.valueOf(id));
+    return _privateEncounters.get(id);
   }
 
   /**
@@ -92,7 +91,7 @@ public class PrivateEncountersManager
    */
   public PrivateEncounter getPrivateEncounterForQuest(int questId)
   {
-    return _questToPE.get(Integer.valueOf(questId));
+    return _questToPE.get(questId);
   }
 
   /**
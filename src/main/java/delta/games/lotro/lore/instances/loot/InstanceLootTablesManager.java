@@ -3,14 +3,13 @@ package delta.games.lotro.lore.instances.loot;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.instances.loot.io.xml.InstanceLootXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all the instance loot tables.
@@ -19,7 +18,7 @@ import delta.games.lotro.lore.instances.loot.io.xml.InstanceLootXMLParser;
 public class InstanceLootTablesManager
 {
   private static final InstanceLootTablesManager _instance=load();
-  private Map<Integer,InstanceLootsTable> _tables;
+  private IntObjectMap<InstanceLootsTable> _tables;
 
   /**
    * Get the reference instance of this class.
@@ -41,7 +40,7 @@ public class InstanceLootTablesManager
    */
   public InstanceLootTablesManager()
   {
-    _tables=new HashMap<Integer,InstanceLootsTable>();
+    _tables=new IntObjectMap<InstanceLootsTable>();
   }
 
   /**
@@ -50,7 +49,7 @@ public class InstanceLootTablesManager
    */
   public void addTable(InstanceLootsTable table)
   {
-    Integer key=Integer.valueOf(table.getIdentifier());
+    int key=table.getIdentifier();
     _tables.put(key,table);
   }
 
@@ -61,7 +60,7 @@ public class InstanceLootTablesManager
    */
   public InstanceLootsTable getTableById(int tableId)
   {
-    return _tables.get(Integer.valueOf(tableId));
+    return _tables.get(tableId);
   }
 
   /**
@@ -1,16 +1,15 @@
 package delta.games.lotro.lore.items;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.io.xml.ContainerXMLParser;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Manager for all containers.
@@ -19,7 +18,8 @@ import delta.games.lotro.lore.items.io.xml.ContainerXMLParser;
 public class ContainersManager
 {
   private static final ContainersManager _instance=load();
-  private Map<Integer,Container> _maps;
+  private IntObjectMap<Container> _maps;
+  private SortedView<Container> _sortedById;
 
   /**
    * Get the reference instance of this class.
@@ -47,7 +47,8 @@ public class ContainersManager
    */
   public ContainersManager()
   {
-    _maps=new HashMap<Integer,Container>();
+    _maps=new IntObjectMap<Container>();
+    _sortedById=new SortedView<Container>(new IdentifiableComparator<Container>());
   }
 
   /**
@@ -56,8 +57,10 @@ public class ContainersManager
    */
   public void addContainer(Container container)
   {
-    Integer key=Integer.valueOf(container.getIdentifier());
+    int key=container.getIdentifier();
     _maps.put(key,container);
+    _sortedById.invalidate();
+    ReferencesIndex.invalidateAll();
   }
 
   /**
@@ -67,17 +70,21 @@ public class ContainersManager
    */
   public Container getContainerById(int containerId)
   {
-    return _maps.get(Integer.valueOf(containerId));
+    return _maps.get(containerId);
   }
 
   /**
    * Get all containers.
-   * @return A list of containers, sorted by identifier.
+   * @return An immutable list of containers, sorted by identifier.
    */
   public List<Container> getContainers()
   {
-    List<Container> ret=new ArrayList<Container>(_maps.values());
-    Collections.sort(ret,new IdentifiableComparator<Container>());
+    List<Container> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_maps.values());
+    }
     return ret;
   }
 }
@@ -0,0 +1,67 @@
+package delta.games.lotro.lore.items;
+
+import java.util.Collections;
+import java.util.List;
+
+import delta.games.lotro.lore.items.details.GrantedElement;
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Marker for item data that was detached to a cold data source.
+ * <p>
+ * A single instance is shared by all the items of a source, so that detached items
+ * do not need a reference to their source.
+ * The granted elements of detached items are kept in memory, so that they can be
+ * indexed without loading the cold data.
+ * @author DAM
+ */
+final class DetachedItemColdData extends ItemColdData
+{
+  private ItemColdDataSource _source;
+  private IntObjectMap<List<GrantedElement<?>>> _grantedElements;
+
+  /**
+   * Constructor.
+   * @param source Cold data source.
+   */
+  DetachedItemColdData(ItemColdDataSource source)
+  {
+    _source=source;
+    _grantedElements=new IntObjectMap<List<GrantedElement<?>>>();
+  }
+
+  /**
+   * Get the cold data of an item.
+   * @param itemId Item identifier.
+   * @return the cold data of the given item or <code>null</code> if none.
+   */
+  ItemColdData getColdData(int itemId)
+  {
+    return _source.getColdData(itemId);
+  }
+
+  /**
+   * Set the granted elements of a detached item.
+   * @param itemId Item identifier.
+   * @param grantedElements Granted elements.
+   */
+  void setGrantedElements(int itemId, List<GrantedElement<?>> grantedElements)
+  {
+    _grantedElements.put(itemId,grantedElements);
+  }
+
+  /**
+   * Get the granted elements of a detached item.
+   * @param itemId Item identifier.
+   * @return A possibly empty list of granted elements.
+   */
+  List<GrantedElement<?>> getGrantedElements(int itemId)
+  {
+    List<GrantedElement<?>> ret=_grantedElements.get(itemId);
+    if (ret==null)
+    {
+      ret=Collections.emptyList();
+    }
+    return ret;
+  }
+}
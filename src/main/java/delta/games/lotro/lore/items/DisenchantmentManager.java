@@ -19,7 +19,7 @@ public class DisenchantmentManager
 {
   private static final Logger LOGGER=Logger.getLogger(DisenchantmentManager.class);
 
-  private static DisenchantmentManager _instance;
+  private static volatile DisenchantmentManager _instance;
 
   private Registry<DisenchantmentResult> _disenchantmentResults;
 
@@ -29,11 +29,20 @@ public class DisenchantmentManager
    */
   public static DisenchantmentManager getInstance()
   {
-    if (_instance==null)
+    DisenchantmentManager ret=_instance;
+    if (ret==null)
     {
-      _instance=loadDisenchantmentManager();
+      synchronized(DisenchantmentManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=loadDisenchantmentManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
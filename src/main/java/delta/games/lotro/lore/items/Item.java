@@ -1,5 +1,9 @@
 package delta.games.lotro.lore.items;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.log4j.Logger;
 
 import delta.common.utils.NumericTools;
@@ -15,6 +19,7 @@ import delta.games.lotro.common.money.Money;
 import delta.games.lotro.common.requirements.UsageRequirement;
 import delta.games.lotro.common.stats.StatsProvider;
 import delta.games.lotro.common.utils.valueTables.QualityBasedValuesTable;
+import delta.games.lotro.lore.items.details.GrantedElement;
 import delta.games.lotro.lore.items.details.ItemDetail;
 import delta.games.lotro.lore.items.details.ItemDetailsManager;
 import delta.games.lotro.lore.items.effects.ItemEffectsManager;
@@ -31,6 +36,11 @@ public class Item implements Interactable,ItemProvider
 {
   private static final Logger LOGGER=Logger.getLogger(Item.class);
 
+  /**
+   * Stored value for absent integer properties.
+   */
+  private static final int NO_VALUE=Integer.MIN_VALUE;
+
   // Item identifier
   private int _identifier;
   // Icon name: iconID-backgroundIconID
@@ -45,8 +55,8 @@ public class Item implements Interactable,ItemProvider
   private String _name;
   // Item class. Yields the category name.
   private ItemClass _itemClass;
-  // Tier
-  private Integer _tier;
+  // Tier (NO_VALUE if none)
+  private int _tier;
   // Equipment category
   private EquipmentCategory _equipmentCategory;
   // Item binding: "Bind on Acquire", ...
@@ -58,33 +68,25 @@ public class Item implements Interactable,ItemProvider
   private StatsProvider _statsProvider;
   // Essences
   private EssencesSlotsSetup _essenceSlots;
-  // Durability
-  private Integer _durability;
+  // Durability (NO_VALUE if none)
+  private int _durability;
   // Sturdiness (may be null)
   private ItemSturdiness _sturdiness;
-  // Item level (may be null)
-  private Integer _itemLevel;
-  // Item level offset (may be null)
-  private Integer _itemLevelOffset;
+  // Item level (NO_VALUE if none)
+  private int _itemLevel;
+  // Item level offset (NO_VALUE if none)
+  private int _itemLevelOffset;
 
   // Requirements:
   private UsageRequirement _requirements;
-  // Full description (may be empty but not <code>null</code>)
-  private String _description;
   // Value
   private QualityBasedValuesTable _value;
-  // Stacking information
-  private Integer _stackMax;
+  // Stacking information (NO_VALUE if not stackable)
+  private int _stackMax;
   // Quality
   private ItemQuality _quality;
-  // Scaling
-  private Munging _munging;
-  // Spellcraft
-  private ItemSpellcraft _spellcraft;
-  // Other details
-  private ItemDetailsManager _details;
-  // Effects
-  private ItemEffectsManager _effects;
+  // Rarely used data: description, scaling, spellcraft, details, effects (may be null or detached)
+  private ItemColdData _coldData;
 
   /**
    * Constructor.
@@ -98,24 +100,31 @@ public class Item implements Interactable,ItemProvider
     _equipmentLocation=null;
     _name="";
     _itemClass=null;
+    _tier=NO_VALUE;
     _binding=null;
     _unique=false;
     _stats=new BasicStatsSet();
     _statsProvider=null;
     _essenceSlots=null;
-    _durability=null;
+    _durability=NO_VALUE;
     _sturdiness=null;
     _requirements=new UsageRequirement();
-    _itemLevel=null;
-    _itemLevelOffset=null;
-    _description="";
+    _itemLevel=NO_VALUE;
+    _itemLevelOffset=NO_VALUE;
     _value=null;
-    _stackMax=null;
+    _stackMax=NO_VALUE;
     _quality=null;
-    _munging=null;
-    _spellcraft=null;
-    _details=null;
-    _effects=null;
+    _coldData=null;
+  }
+
+  private static Integer toInteger(int value)
+  {
+    return (value!=NO_VALUE)?Integer.valueOf(value):null;
+  }
+
+  private static int fromInteger(Integer value)
+  {
+    return (value!=null)?value.intValue():NO_VALUE;
   }
 
   @Override
@@ -300,7 +309,7 @@ public class Item implements Interactable,ItemProvider
    */
   public Integer getTier()
   {
-    return _tier;
+    return toInteger(_tier);
   }
 
   /**
@@ -309,7 +318,7 @@ public class Item implements Interactable,ItemProvider
    */
   public void setTier(Integer tier)
   {
-    _tier=tier;
+    _tier=fromInteger(tier);
   }
 
   /**
@@ -450,7 +459,7 @@ public class Item implements Interactable,ItemProvider
    */
   public Integer getDurability()
   {
-    return _durability;
+    return toInteger(_durability);
   }
 
   /**
@@ -459,7 +468,7 @@ public class Item implements Interactable,ItemProvider
    */
   public void setDurability(Integer durability)
   {
-    _durability=durability;
+    _durability=fromInteger(durability);
   }
 
   /**
@@ -524,7 +533,7 @@ public class Item implements Interactable,ItemProvider
    */
   public final Integer getItemLevel()
   {
-    return _itemLevel;
+    return toInteger(_itemLevel);
   }
 
   /**
@@ -533,7 +542,7 @@ public class Item implements Interactable,ItemProvider
    */
   public void setItemLevel(Integer itemLevel)
   {
-    _itemLevel=itemLevel;
+    _itemLevel=fromInteger(itemLevel);
   }
 
   /**
@@ -542,7 +551,7 @@ public class Item implements Interactable,ItemProvider
    */
   public Integer getItemLevelOffset()
   {
-    return _itemLevelOffset;
+    return toInteger(_itemLevelOffset);
   }
 
   /**
@@ -551,15 +560,15 @@ public class Item implements Interactable,ItemProvider
    */
   public Integer getItemLevelForStats()
   {
-    if (_itemLevelOffset!=null)
+    if (_itemLevelOffset!=NO_VALUE)
     {
-      if (_itemLevel!=null)
+      if (_itemLevel!=NO_VALUE)
       {
-        return Integer.valueOf(_itemLevel.intValue()+_itemLevelOffset.intValue());
+        return Integer.valueOf(_itemLevel+_itemLevelOffset);
       }
-      return _itemLevelOffset;
+      return Integer.valueOf(_itemLevelOffset);
     }
-    return _itemLevel;
+    return toInteger(_itemLevel);
   }
 
   /**
@@ -568,7 +577,7 @@ public class Item implements Interactable,ItemProvider
    */
   public void setItemLevelOffset(Integer itemLevelOffset)
   {
-    _itemLevelOffset=itemLevelOffset;
+    _itemLevelOffset=fromInteger(itemLevelOffset);
   }
 
   /**
@@ -607,7 +616,8 @@ public class Item implements Interactable,ItemProvider
    */
   public String getDescription()
   {
-    return _description;
+    ItemColdData coldData=getColdData();
+    return (coldData!=null)?coldData.getDescription():"";
   }
 
   /**
@@ -617,7 +627,10 @@ public class Item implements Interactable,ItemProvider
   public void setDescription(String description)
   {
     if (description==null) description="";
-    _description=description;
+    if ((description.length()>0) || (getColdData()!=null))
+    {
+      getWritableColdData().setDescription(description);
+    }
   }
 
   /**
@@ -635,9 +648,9 @@ public class Item implements Interactable,ItemProvider
    */
   public Money getValueAsMoney()
   {
-    if (_itemLevel!=null)
+    if (_itemLevel!=NO_VALUE)
     {
-      return getValue(_itemLevel.intValue());
+      return getValue(_itemLevel);
     }
     return null;
   }
@@ -681,7 +694,7 @@ public class Item implements Interactable,ItemProvider
    */
   public Integer getStackMax()
   {
-    return _stackMax;
+    return toInteger(_stackMax);
   }
 
   /**
@@ -691,7 +704,7 @@ public class Item implements Interactable,ItemProvider
    */
   public void setStackMax(Integer stackMax)
   {
-    _stackMax=stackMax;
+    _stackMax=fromInteger(stackMax);
   }
 
   /**
@@ -718,7 +731,7 @@ public class Item implements Interactable,ItemProvider
    */
   public boolean isScalable()
   {
-    return (_munging!=null);
+    return (getMunging()!=null);
   }
 
   /**
@@ -727,7 +740,8 @@ public class Item implements Interactable,ItemProvider
    */
   public Munging getMunging()
   {
-    return _munging;
+    ItemColdData coldData=getColdData();
+    return (coldData!=null)?coldData.getMunging():null;
   }
 
   /**
@@ -736,7 +750,10 @@ public class Item implements Interactable,ItemProvider
    */
   public void setMunging(Munging munging)
   {
-    _munging=munging;
+    if ((munging!=null) || (getColdData()!=null))
+    {
+      getWritableColdData().setMunging(munging);
+    }
   }
 
   /**
@@ -745,7 +762,8 @@ public class Item implements Interactable,ItemProvider
    */
   public ItemSpellcraft getSpellcraft()
   {
-    return _spellcraft;
+    ItemColdData coldData=getColdData();
+    return (coldData!=null)?coldData.getSpellcraft():null;
   }
 
   /**
@@ -754,7 +772,10 @@ public class Item implements Interactable,ItemProvider
    */
   public void setSpellcraft(ItemSpellcraft spellcraft)
   {
-    _spellcraft=spellcraft;
+    if ((spellcraft!=null) || (getColdData()!=null))
+    {
+      getWritableColdData().setSpellcraft(spellcraft);
+    }
   }
 
   /**
@@ -763,7 +784,33 @@ public class Item implements Interactable,ItemProvider
    */
   public ItemDetailsManager getDetails()
   {
-    return _details;
+    ItemColdData coldData=getColdData();
+    return (coldData!=null)?coldData.getDetails():null;
+  }
+
+  /**
+   * Get the elements granted by this item (traits, skills, emotes...).
+   * Unlike {@link #getDetails()}, this does not load the cold data of detached items.
+   * @return A possibly empty list of granted elements. Shall not be modified.
+   */
+  public List<GrantedElement<?>> getGrantedElements()
+  {
+    ItemColdData coldData=_coldData;
+    if (coldData instanceof DetachedItemColdData)
+    {
+      return ((DetachedItemColdData)coldData).getGrantedElements(_identifier);
+    }
+    ItemDetailsManager details=(coldData!=null)?coldData.getDetails():null;
+    if (details==null)
+    {
+      return Collections.emptyList();
+    }
+    List<GrantedElement<?>> ret=new ArrayList<GrantedElement<?>>();
+    for(GrantedElement<?> granted : details.getItemDetails(GrantedElement.class))
+    {
+      ret.add(granted);
+    }
+    return ret;
   }
 
   /**
@@ -772,7 +819,61 @@ public class Item implements Interactable,ItemProvider
    */
   public ItemEffectsManager getEffects()
   {
-    return _effects;
+    ItemColdData coldData=getColdData();
+    return (coldData!=null)?coldData.getEffects():null;
+  }
+
+  /**
+   * Remove the rarely used data of this item (description, scaling, spellcraft, details, effects).
+   * @return the removed data, or <code>null</code> if none.
+   */
+  public ItemColdData detachColdData()
+  {
+    ItemColdData ret=getColdData();
+    _coldData=null;
+    return ((ret!=null) && (!ret.isEmpty()))?ret:null;
+  }
+
+  /**
+   * Detach the rarely used data of this item to a cold data source.
+   * This data will then be fetched from the cold data source, on access.
+   * @param detached Marker of the cold data source to use.
+   * @return <code>true</code> if some data was detached, <code>false</code> if this item has no such data.
+   */
+  boolean detachColdData(DetachedItemColdData detached)
+  {
+    List<GrantedElement<?>> grantedElements=getGrantedElements();
+    boolean ret=(detachColdData()!=null);
+    if (ret)
+    {
+      _coldData=detached;
+      if (!grantedElements.isEmpty())
+      {
+        detached.setGrantedElements(_identifier,grantedElements);
+      }
+    }
+    return ret;
+  }
+
+  private ItemColdData getColdData()
+  {
+    ItemColdData ret=_coldData;
+    if (ret instanceof DetachedItemColdData)
+    {
+      ret=((DetachedItemColdData)ret).getColdData(_identifier);
+    }
+    return ret;
+  }
+
+  private ItemColdData getWritableColdData()
+  {
+    ItemColdData ret=getColdData();
+    if (ret==null)
+    {
+      ret=new ItemColdData();
+    }
+    _coldData=ret;
+    return ret;
   }
 
   /**
@@ -818,7 +919,7 @@ public class Item implements Interactable,ItemProvider
       sb.append(_itemClass.getLabel());
       sb.append(')');
     }
-    if (_durability!=null)
+    if (_durability!=NO_VALUE)
     {
       sb.append(" (Durability=");
       sb.append(_durability);
@@ -852,13 +953,13 @@ public class Item implements Interactable,ItemProvider
       sb.append(_requirements);
       sb.append(')');
     }
-    if (_itemLevel!=null)
+    if (_itemLevel!=NO_VALUE)
     {
       sb.append(" (Item level=");
       sb.append(_itemLevel);
       sb.append(')');
     }
-    if (_itemLevelOffset!=null)
+    if (_itemLevelOffset!=NO_VALUE)
     {
       sb.append(" (Item level offset=");
       sb.append(_itemLevelOffset);
@@ -870,29 +971,32 @@ public class Item implements Interactable,ItemProvider
       sb.append(_value);
       sb.append(')');
     }
-    if (_stackMax!=null)
+    if (_stackMax!=NO_VALUE)
     {
       sb.append(" (Stacks=");
       sb.append(_stackMax);
       sb.append(')');
     }
-    if (_munging!=null)
+    Munging munging=getMunging();
+    if (munging!=null)
     {
       sb.append(" (Munging=");
-      sb.append(_munging);
+      sb.append(munging);
       sb.append(')');
     }
-    if (_spellcraft!=null)
+    ItemSpellcraft spellcraft=getSpellcraft();
+    if (spellcraft!=null)
     {
       sb.append(" (Spellcraft=");
-      sb.append(_spellcraft);
+      sb.append(spellcraft);
       sb.append(')');
     }
     sb.append(EndOfLine.NATIVE_EOL);
     // Description
-    if ((_description!=null) && (_description.length()>0))
+    String description=getDescription();
+    if (description.length()>0)
     {
-      sb.append(_description).append(EndOfLine.NATIVE_EOL);
+      sb.append(description).append(EndOfLine.NATIVE_EOL);
     }
     // Stats
     sb.append("Stats: ").append(_stats).append(EndOfLine.NATIVE_EOL);
@@ -902,7 +1006,7 @@ public class Item implements Interactable,ItemProvider
   @Override
   public String toString()
   {
-    return _identifier+": "+_name+" ("+_itemLevel+")";
+    return _identifier+": "+_name+" ("+getItemLevel()+")";
   }
 
   /**
@@ -912,11 +1016,12 @@ public class Item implements Interactable,ItemProvider
    */
   public static void addDetail(Item item, ItemDetail detail)
   {
-    ItemDetailsManager mgr=item.getDetails();
+    ItemColdData coldData=item.getWritableColdData();
+    ItemDetailsManager mgr=coldData.getDetails();
     if (mgr==null)
     {
       mgr=new ItemDetailsManager();
-      item._details=mgr;
+      coldData.setDetails(mgr);
     }
     mgr.addItemDetail(detail);
   }
@@ -933,7 +1038,7 @@ public class Item implements Interactable,ItemProvider
     if (mgr==null)
     {
       mgr=new ItemEffectsManager();
-      item._effects=mgr;
+      item.getWritableColdData().setEffects(mgr);
     }
     mgr.addEffect(type,effect);
   }
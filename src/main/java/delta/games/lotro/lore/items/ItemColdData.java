@@ -0,0 +1,138 @@
+package delta.games.lotro.lore.items;
+
+import delta.games.lotro.lore.items.details.ItemDetailsManager;
+import delta.games.lotro.lore.items.effects.ItemEffectsManager;
+import delta.games.lotro.lore.items.scaling.ItemSpellcraft;
+import delta.games.lotro.lore.items.scaling.Munging;
+
+/**
+ * Rarely used item data.
+ * <p>
+ * Kept apart from the item, so that it can be released and loaded again on demand.
+ * @author DAM
+ */
+public class ItemColdData
+{
+  // Full description (may be empty but not <code>null</code>)
+  private String _description;
+  // Scaling
+  private Munging _munging;
+  // Spellcraft
+  private ItemSpellcraft _spellcraft;
+  // Other details
+  private ItemDetailsManager _details;
+  // Effects
+  private ItemEffectsManager _effects;
+
+  /**
+   * Constructor.
+   */
+  public ItemColdData()
+  {
+    _description="";
+    _munging=null;
+    _spellcraft=null;
+    _details=null;
+    _effects=null;
+  }
+
+  /**
+   * Get the description.
+   * @return a description (may be empty but not <code>null</code>).
+   */
+  public String getDescription()
+  {
+    return _description;
+  }
+
+  /**
+   * Set the description.
+   * @param description the description to set.
+   */
+  public void setDescription(String description)
+  {
+    if (description==null) description="";
+    _description=description;
+  }
+
+  /**
+   * Get munging data.
+   * @return some munging data or <code>null</code> if none.
+   */
+  public Munging getMunging()
+  {
+    return _munging;
+  }
+
+  /**
+   * Set munging data.
+   * @param munging Munging data.
+   */
+  public void setMunging(Munging munging)
+  {
+    _munging=munging;
+  }
+
+  /**
+   * Get spellcraft data.
+   * @return some spellcraft data or <code>null</code> if none.
+   */
+  public ItemSpellcraft getSpellcraft()
+  {
+    return _spellcraft;
+  }
+
+  /**
+   * Set spellcraft data.
+   * @param spellcraft Spellcraft data.
+   */
+  public void setSpellcraft(ItemSpellcraft spellcraft)
+  {
+    _spellcraft=spellcraft;
+  }
+
+  /**
+   * Get the details manager.
+   * @return a details manager or <code>null</code> if no details.
+   */
+  public ItemDetailsManager getDetails()
+  {
+    return _details;
+  }
+
+  /**
+   * Set the details manager.
+   * @param details Details manager to set.
+   */
+  public void setDetails(ItemDetailsManager details)
+  {
+    _details=details;
+  }
+
+  /**
+   * Get the effects manager.
+   * @return an effects manager or <code>null</code> if no effects.
+   */
+  public ItemEffectsManager getEffects()
+  {
+    return _effects;
+  }
+
+  /**
+   * Set the effects manager.
+   * @param effects Effects manager to set.
+   */
+  public void setEffects(ItemEffectsManager effects)
+  {
+    _effects=effects;
+  }
+
+  /**
+   * Indicates if this data is empty or not.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public boolean isEmpty()
+  {
+    return ((_description.length()==0) && (_munging==null) && (_spellcraft==null) && (_details==null) && (_effects==null));
+  }
+}
@@ -0,0 +1,15 @@
+package delta.games.lotro.lore.items;
+
+/**
+ * Source of rarely used item data.
+ * @author DAM
+ */
+public interface ItemColdDataSource
+{
+  /**
+   * Get the rarely used data of an item.
+   * @param itemId Item identifier.
+   * @return Some data or <code>null</code> if none.
+   */
+  ItemColdData getColdData(int itemId);
+}
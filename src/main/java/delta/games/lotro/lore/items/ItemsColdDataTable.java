@@ -0,0 +1,63 @@
+package delta.games.lotro.lore.items;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import delta.games.lotro.lore.items.io.xml.ItemColdDataXMLReader;
+
+/**
+ * Side table for rarely used item data.
+ * <p>
+ * The data of an item is read from the items XML file on access,
+ * and kept in a small cache of the most recently used items.
+ * @author DAM
+ */
+public class ItemsColdDataTable implements ItemColdDataSource
+{
+  private static final int CACHE_SIZE=256;
+
+  private ItemColdDataXMLReader _reader;
+  private DetachedItemColdData _detached;
+  private Map<Integer,ItemColdData> _cache;
+
+  /**
+   * Constructor.
+   * @param itemsFile Items XML file.
+   */
+  public ItemsColdDataTable(File itemsFile)
+  {
+    _reader=new ItemColdDataXMLReader(itemsFile);
+    _detached=new DetachedItemColdData(this);
+    _cache=new LinkedHashMap<Integer,ItemColdData>(CACHE_SIZE,0.75f,true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer,ItemColdData> eldest)
+      {
+        return size()>CACHE_SIZE;
+      }
+    };
+  }
+
+  /**
+   * Detach the rarely used data of an item to this table.
+   * @param item Item to use.
+   */
+  public void detach(Item item)
+  {
+    item.detachColdData(_detached);
+  }
+
+  @Override
+  public synchronized ItemColdData getColdData(int itemId)
+  {
+    Integer key=Integer.valueOf(itemId);
+    ItemColdData ret=_cache.get(key);
+    if ((ret==null) && (!_cache.containsKey(key)))
+    {
+      ret=_reader.read(itemId);
+      _cache.put(key,ret);
+    }
+    return ret;
+  }
+}
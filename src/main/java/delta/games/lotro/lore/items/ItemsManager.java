@@ -1,9 +1,7 @@
 package delta.games.lotro.lore.items;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -14,6 +12,9 @@ import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.comparators.ItemNameComparator;
 import delta.games.lotro.lore.items.io.xml.ItemSaxParser;
 import delta.games.lotro.lore.items.sort.ItemsSorter;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
+import delta.games.lotro.utils.io.binary.SAXSnapshotReader;
 
 /**
  * Facade for items access.
@@ -23,10 +24,12 @@ public class ItemsManager
 {
   private static final Logger LOGGER=Logger.getLogger(ItemsManager.class);
 
-  private static ItemsManager _instance=null;
+  private static volatile ItemsManager _instance;
 
   private ItemsSorter _sorter;
-  private HashMap<Integer,Item> _cache;
+  private IntObjectMap<Item> _cache;
+  private SortedView<Item> _sortedById;
+  private SortedView<Item> _sortedByName;
 
   /**
    * Get the sole instance of this class.
@@ -34,11 +37,20 @@ public class ItemsManager
    */
   public static ItemsManager getInstance()
   {
-    if (_instance==null)
+    ItemsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new ItemsManager(true);
+      synchronized(ItemsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new ItemsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -47,7 +59,9 @@ public class ItemsManager
    */
   private ItemsManager(boolean load)
   {
-    _cache=new HashMap<Integer,Item>(1000);
+    _cache=new IntObjectMap<Item>(1000);
+    _sortedById=new SortedView<Item>(new IdentifiableComparator<Item>());
+    _sortedByName=new SortedView<Item>(new ItemNameComparator());
     _sorter=new ItemsSorter();
     if (load)
     {
@@ -74,13 +88,31 @@ public class ItemsManager
   private void loadAllItems()
   {
     _cache.clear();
+    _sortedById.invalidate();
+    _sortedByName.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File itemsFile=cfg.getFile(DataFiles.ITEMS);
+    File snapshotFile=cfg.getFile(DataFiles.ITEMS_SNAPSHOT);
     long now=System.currentTimeMillis();
-    List<Item> items=ItemSaxParser.parseItemsFile(itemsFile);
+    // Rarely used data is read on demand
+    ItemsColdDataTable coldDataTable=new ItemsColdDataTable(itemsFile);
+    List<Item> items=null;
+    if ((snapshotFile!=null) && (SAXSnapshotReader.isUpToDate(snapshotFile,itemsFile)))
+    {
+      items=ItemSaxParser.parseItemsSnapshot(snapshotFile,coldDataTable);
+      if (items==null)
+      {
+        LOGGER.warn("Could not use items snapshot "+snapshotFile+". Falling back to XML.");
+      }
+    }
+    if (items==null)
+    {
+      // The snapshot is built by ItemsSnapshotBuilder, never while loading
+      items=ItemSaxParser.parseItemsFile(itemsFile,coldDataTable);
+    }
     for(Item item : items)
     {
-      _cache.put(Integer.valueOf(item.getIdentifier()),item);
+      _cache.put(item.getIdentifier(),item);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -89,14 +121,32 @@ public class ItemsManager
 
   /**
    * Get a list of all items, sorted by identifier.
-   * @return A list of items.
+   * @return An immutable list of items.
    */
   public List<Item> getAllItems()
   {
-    ArrayList<Item> items=new ArrayList<Item>();
-    items.addAll(_cache.values());
-    Collections.sort(items,new IdentifiableComparator<Item>());
-    return items;
+    List<Item> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
+    return ret;
+  }
+
+  /**
+   * Get a list of all items, sorted by name (then by identifier).
+   * @return An immutable list of items.
+   */
+  public List<Item> getAllItemsSortedByName()
+  {
+    List<Item> ret=_sortedByName.get();
+    if (ret==null)
+    {
+      int generation=_sortedByName.getGeneration();
+      ret=_sortedByName.build(generation,getAllItems());
+    }
+    return ret;
   }
 
   /**
@@ -107,7 +157,7 @@ public class ItemsManager
   public Item getItem(int id)
   {
     Item ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
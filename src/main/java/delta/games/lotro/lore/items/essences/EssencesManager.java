@@ -2,7 +2,6 @@ package delta.games.lotro.lore.items.essences;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import delta.games.lotro.common.IdentifiableComparator;
@@ -10,6 +9,7 @@ import delta.games.lotro.common.comparators.NamedComparator;
 import delta.games.lotro.common.enums.SocketType;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all known essences.
@@ -17,9 +17,9 @@ import delta.games.lotro.lore.items.ItemsManager;
  */
 public class EssencesManager
 {
-  private static EssencesManager _instance=null;
+  private static volatile EssencesManager _instance;
 
-  private HashMap<Integer,Essence> _cache;
+  private IntObjectMap<Essence> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -27,12 +27,21 @@ public class EssencesManager
    */
   public static EssencesManager getInstance()
   {
-    if (_instance==null)
+    EssencesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new EssencesManager();
-      _instance.loadAll();
+      synchronized(EssencesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new EssencesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -40,7 +49,7 @@ public class EssencesManager
    */
   public EssencesManager()
   {
-    _cache=new HashMap<Integer,Essence>(100);
+    _cache=new IntObjectMap<Essence>(100);
   }
 
   /**
@@ -65,7 +74,7 @@ public class EssencesManager
    */
   private void registerEssence(Essence essence)
   {
-    _cache.put(Integer.valueOf(essence.getIdentifier()),essence);
+    _cache.put(essence.getIdentifier(),essence);
   }
 
   /**
@@ -75,7 +84,7 @@ public class EssencesManager
    */
   public Essence getEssence(int id)
   {
-    return _cache.get(Integer.valueOf(id));
+    return _cache.get(id);
   }
 
   /**
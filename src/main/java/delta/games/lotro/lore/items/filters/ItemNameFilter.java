@@ -27,8 +27,7 @@ public class ItemNameFilter implements ItemFilter
    */
   public ItemNameFilter(String pattern)
   {
-    _filter=new StringFilter("",MatchType.CONTAINS,true);
-    _pattern=pattern;
+    setPattern(pattern);
   }
 
   /**
@@ -63,6 +63,15 @@ public class ItemRequiredClassFilter implements ItemFilter
     _class=clazz;
   }
 
+  /**
+   * Indicates if items without class requirement are rejected.
+   * @return <code>true</code> if they are, <code>false</code> otherwise.
+   */
+  public boolean isStrict()
+  {
+    return _strict;
+  }
+
   @Override
   public boolean accept(Item item)
   {
@@ -0,0 +1,266 @@
+package delta.games.lotro.lore.items.filters.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import delta.common.utils.collections.filters.CompoundFilter;
+import delta.common.utils.collections.filters.Filter;
+import delta.common.utils.collections.filters.Operator;
+import delta.games.lotro.character.classes.AbstractClassDescription;
+import delta.games.lotro.common.stats.StatDescription;
+import delta.games.lotro.lore.items.EquipmentLocation;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.filters.ItemClassFilter;
+import delta.games.lotro.lore.items.filters.ItemEquipmentLocationFilter;
+import delta.games.lotro.lore.items.filters.ItemLevelFilter;
+import delta.games.lotro.lore.items.filters.ItemNameFilter;
+import delta.games.lotro.lore.items.filters.ItemQualityFilter;
+import delta.games.lotro.lore.items.filters.ItemRequiredClassFilter;
+import delta.games.lotro.lore.items.filters.ItemStatFilter;
+import delta.games.lotro.lore.items.filters.TierFilter;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.AllNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.AndNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.BitmapNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.NameNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.OrNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.PlanNode;
+import delta.games.lotro.lore.items.filters.engine.ItemFilterPlan.PredicateNode;
+
+/**
+ * Item filter engine: compiles item filters into plans that use the indexes of a set of items.
+ * <p>
+ * Supported filters:
+ * <ul>
+ * <li>compound filters ('and' and 'or' operators),
+ * <li>equipment location, item class, quality, tier, item level, stats and required class filters,
+ * that use the bitmaps of the index,
+ * <li>name filters, that match the lower-cased names of the candidate items.
+ * </ul>
+ * Other filters are evaluated as predicates, on the remaining candidates only.
+ * Compiling is cheap: compile again after a filter is changed.
+ * @author DAM
+ */
+public class ItemFilterEngine
+{
+  private ItemsFilterIndex _index;
+
+  /**
+   * Constructor.
+   * @param items Items to filter.
+   */
+  public ItemFilterEngine(List<Item> items)
+  {
+    _index=new ItemsFilterIndex(items);
+  }
+
+  /**
+   * Get the items index.
+   * @return the items index.
+   */
+  public ItemsFilterIndex getIndex()
+  {
+    return _index;
+  }
+
+  /**
+   * Filter the items.
+   * @param filter Filter to use.
+   * @return A list of the selected items, in the order of the index.
+   */
+  public List<Item> filter(Filter<Item> filter)
+  {
+    return compile(filter).execute();
+  }
+
+  /**
+   * Compile a filter.
+   * @param filter Filter to compile (may be <code>null</code> to select all items).
+   * @return a plan.
+   */
+  public ItemFilterPlan compile(Filter<Item> filter)
+  {
+    PlanNode root=(filter!=null)?compileNode(filter):AllNode.INSTANCE;
+    return new ItemFilterPlan(_index,root);
+  }
+
+  private PlanNode compileNode(Filter<Item> filter)
+  {
+    if (filter instanceof CompoundFilter)
+    {
+      return compileCompound((CompoundFilter<Item>)filter);
+    }
+    if (filter instanceof ItemEquipmentLocationFilter)
+    {
+      return compileLocation((ItemEquipmentLocationFilter)filter);
+    }
+    if (filter instanceof ItemClassFilter)
+    {
+      ItemClassFilter classFilter=(ItemClassFilter)filter;
+      if (classFilter.getItemClass()==null)
+      {
+        return AllNode.INSTANCE;
+      }
+      return bitmap("class",_index.byClass(classFilter.getItemClass()));
+    }
+    if (filter instanceof ItemQualityFilter)
+    {
+      ItemQualityFilter qualityFilter=(ItemQualityFilter)filter;
+      if (qualityFilter.getQuality()==null)
+      {
+        return AllNode.INSTANCE;
+      }
+      return bitmap("quality",_index.byQuality(qualityFilter.getQuality()));
+    }
+    if (filter instanceof TierFilter)
+    {
+      Integer tier=((TierFilter)filter).getTier();
+      if (tier==null)
+      {
+        return AllNode.INSTANCE;
+      }
+      return bitmap("tier",_index.byTier(tier.intValue()));
+    }
+    if (filter instanceof ItemLevelFilter)
+    {
+      return compileLevel((ItemLevelFilter)filter);
+    }
+    if (filter instanceof ItemStatFilter)
+    {
+      return compileStats((ItemStatFilter)filter);
+    }
+    if (filter instanceof ItemRequiredClassFilter)
+    {
+      return compileRequiredClass((ItemRequiredClassFilter)filter);
+    }
+    if (filter instanceof ItemNameFilter)
+    {
+      // An empty pattern still rejects the items without name
+      String pattern=((ItemNameFilter)filter).getPattern();
+      return new NameNode((pattern!=null)?pattern:"");
+    }
+    return new PredicateNode(filter);
+  }
+
+  private PlanNode compileCompound(CompoundFilter<Item> filter)
+  {
+    Operator operator=filter.getOperator();
+    if ((operator!=Operator.AND) && (operator!=Operator.OR))
+    {
+      return new PredicateNode(filter);
+    }
+    boolean and=(operator==Operator.AND);
+    List<PlanNode> children=new ArrayList<PlanNode>();
+    for(Filter<Item> childFilter : filter.getFilters())
+    {
+      PlanNode child=compileNode(childFilter);
+      if (child==AllNode.INSTANCE)
+      {
+        if (!and)
+        {
+          // 'or' with a child that accepts all
+          return AllNode.INSTANCE;
+        }
+        continue;
+      }
+      children.add(child);
+    }
+    if (children.isEmpty())
+    {
+      return AllNode.INSTANCE;
+    }
+    if (children.size()==1)
+    {
+      return children.get(0);
+    }
+    return and?new AndNode(children):new OrNode(children);
+  }
+
+  private PlanNode compileLocation(ItemEquipmentLocationFilter filter)
+  {
+    Set<EquipmentLocation> locations=filter.getSelectedLocations();
+    BitSet bits=new BitSet();
+    for(EquipmentLocation location : locations)
+    {
+      BitSet locationBits=_index.byLocation(location);
+      if (locationBits!=null)
+      {
+        bits.or(locationBits);
+      }
+    }
+    return new BitmapNode("location",bits);
+  }
+
+  private PlanNode compileLevel(ItemLevelFilter filter)
+  {
+    Integer min=filter.getMinItemLevel();
+    Integer max=filter.getMaxItemLevel();
+    if ((min==null) && (max==null))
+    {
+      return AllNode.INSTANCE;
+    }
+    int minValue=(min!=null)?min.intValue():Integer.MIN_VALUE;
+    int maxValue=(max!=null)?max.intValue():Integer.MAX_VALUE;
+    BitSet bits=_index.byLevelRange(minValue,maxValue);
+    // Items without item level are accepted
+    bits.or(_index.noLevel());
+    return new BitmapNode("level",bits);
+  }
+
+  private PlanNode compileStats(ItemStatFilter filter)
+  {
+    BitSet bits=null;
+    for(int i=0;i<filter.getNbItems();i++)
+    {
+      StatDescription stat=filter.getStat(i);
+      if (stat==null)
+      {
+        continue;
+      }
+      BitSet statBits=_index.byStat(stat);
+      if (bits==null)
+      {
+        bits=(statBits!=null)?(BitSet)statBits.clone():new BitSet();
+      }
+      else if (statBits!=null)
+      {
+        bits.and(statBits);
+      }
+      else
+      {
+        bits.clear();
+      }
+    }
+    if (bits==null)
+    {
+      return AllNode.INSTANCE;
+    }
+    return new BitmapNode("stats",bits);
+  }
+
+  private PlanNode compileRequiredClass(ItemRequiredClassFilter filter)
+  {
+    AbstractClassDescription characterClass=filter.getCharacterClass();
+    if ((!filter.isEnabled()) || (characterClass==null))
+    {
+      return AllNode.INSTANCE;
+    }
+    BitSet bits=new BitSet();
+    BitSet classBits=_index.byAllowedClass(characterClass);
+    if (classBits!=null)
+    {
+      bits.or(classBits);
+    }
+    if (!filter.isStrict())
+    {
+      bits.or(_index.noClassRequirement());
+    }
+    return new BitmapNode("requiredClass",bits);
+  }
+
+  private static PlanNode bitmap(String label, BitSet bits)
+  {
+    return new BitmapNode(label,(bits!=null)?bits:new BitSet());
+  }
+}
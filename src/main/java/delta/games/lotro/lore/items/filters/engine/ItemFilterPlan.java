@@ -0,0 +1,357 @@
+package delta.games.lotro.lore.items.filters.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import delta.common.utils.collections.filters.Filter;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Compiled item filter: a tree of set operations on the bitmaps of an items index.
+ * <p>
+ * Each node narrows a set of candidate items. 'And' nodes evaluate their cheapest
+ * children first, so that predicates run on as few items as possible.
+ * 'Or' nodes evaluate each child on the candidates not matched yet.
+ * A plan reflects the settings of the filters when it was compiled.
+ * @author DAM
+ */
+public final class ItemFilterPlan
+{
+  private ItemsFilterIndex _index;
+  private PlanNode _root;
+
+  ItemFilterPlan(ItemsFilterIndex index, PlanNode root)
+  {
+    _index=index;
+    _root=root;
+  }
+
+  /**
+   * Execute this plan.
+   * @return A new bitmap of the positions of the selected items in the index.
+   */
+  public BitSet executeBits()
+  {
+    BitSet candidates=(BitSet)_index.all().clone();
+    return _root.evaluate(_index,candidates);
+  }
+
+  /**
+   * Execute this plan.
+   * @return A list of the selected items, in the order of the index.
+   */
+  public List<Item> execute()
+  {
+    BitSet bits=executeBits();
+    List<Item> items=_index.getItems();
+    List<Item> ret=new ArrayList<Item>(bits.cardinality());
+    for(int index=bits.nextSetBit(0);index>=0;index=bits.nextSetBit(index+1))
+    {
+      ret.add(items.get(index));
+    }
+    return ret;
+  }
+
+  /**
+   * Count the selected items.
+   * @return an items count.
+   */
+  public int count()
+  {
+    return executeBits().cardinality();
+  }
+
+  /**
+   * Get a displayable description of this plan.
+   * @return a plan description.
+   */
+  public String describe()
+  {
+    StringBuilder sb=new StringBuilder();
+    _root.describe(sb);
+    return sb.toString();
+  }
+
+  @Override
+  public String toString()
+  {
+    return describe();
+  }
+
+  /**
+   * Base class for plan nodes.
+   */
+  abstract static class PlanNode
+  {
+    /**
+     * Cost of a node: cheap nodes are evaluated first.
+     * @return a relative cost.
+     */
+    abstract int getCost();
+
+    /**
+     * Evaluate this node.
+     * @param index Items index.
+     * @param candidates Candidate items. May be modified.
+     * @return the accepted candidates.
+     */
+    abstract BitSet evaluate(ItemsFilterIndex index, BitSet candidates);
+
+    abstract void describe(StringBuilder sb);
+  }
+
+  /**
+   * Accepts all the candidates.
+   */
+  static final class AllNode extends PlanNode
+  {
+    static final AllNode INSTANCE=new AllNode();
+
+    @Override
+    int getCost()
+    {
+      return 0;
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      return candidates;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      sb.append("ALL");
+    }
+  }
+
+  /**
+   * Intersects the candidates with a precomputed bitmap.
+   */
+  static final class BitmapNode extends PlanNode
+  {
+    private String _label;
+    private BitSet _bits;
+
+    BitmapNode(String label, BitSet bits)
+    {
+      _label=label;
+      _bits=bits;
+    }
+
+    @Override
+    int getCost()
+    {
+      return 1;
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      candidates.and(_bits);
+      return candidates;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      sb.append(_label).append('[').append(_bits.cardinality()).append(']');
+    }
+  }
+
+  /**
+   * Matches the lower-cased names of the candidates with a pattern.
+   */
+  static final class NameNode extends PlanNode
+  {
+    private String _pattern;
+
+    NameNode(String pattern)
+    {
+      _pattern=pattern.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    int getCost()
+    {
+      return 10;
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      for(int i=candidates.nextSetBit(0);i>=0;i=candidates.nextSetBit(i+1))
+      {
+        String name=index.lowerCaseName(i);
+        if ((name==null) || (name.indexOf(_pattern)<0))
+        {
+          candidates.clear(i);
+        }
+      }
+      return candidates;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      sb.append("name~\"").append(_pattern).append('"');
+    }
+  }
+
+  /**
+   * Calls a filter on each candidate.
+   */
+  static final class PredicateNode extends PlanNode
+  {
+    private Filter<Item> _filter;
+
+    PredicateNode(Filter<Item> filter)
+    {
+      _filter=filter;
+    }
+
+    @Override
+    int getCost()
+    {
+      return 100;
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      List<Item> items=index.getItems();
+      for(int i=candidates.nextSetBit(0);i>=0;i=candidates.nextSetBit(i+1))
+      {
+        if (!_filter.accept(items.get(i)))
+        {
+          candidates.clear(i);
+        }
+      }
+      return candidates;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      sb.append("predicate(").append(_filter.getClass().getSimpleName()).append(')');
+    }
+  }
+
+  /**
+   * Base class for nodes with children.
+   */
+  abstract static class CompoundNode extends PlanNode
+  {
+    protected List<PlanNode> _children;
+
+    CompoundNode(List<PlanNode> children)
+    {
+      _children=new ArrayList<PlanNode>(children);
+      Collections.sort(_children,new Comparator<PlanNode>()
+      {
+        @Override
+        public int compare(PlanNode node1, PlanNode node2)
+        {
+          return Integer.compare(node1.getCost(),node2.getCost());
+        }
+      });
+    }
+
+    @Override
+    int getCost()
+    {
+      int ret=0;
+      for(PlanNode child : _children)
+      {
+        ret=Math.max(ret,child.getCost());
+      }
+      return ret;
+    }
+
+    void describe(StringBuilder sb, String operator)
+    {
+      sb.append(operator).append('(');
+      for(int i=0;i<_children.size();i++)
+      {
+        if (i>0)
+        {
+          sb.append(", ");
+        }
+        _children.get(i).describe(sb);
+      }
+      sb.append(')');
+    }
+  }
+
+  /**
+   * Accepts the candidates accepted by all the children.
+   */
+  static final class AndNode extends CompoundNode
+  {
+    AndNode(List<PlanNode> children)
+    {
+      super(children);
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      BitSet ret=candidates;
+      for(PlanNode child : _children)
+      {
+        if (ret.isEmpty())
+        {
+          break;
+        }
+        ret=child.evaluate(index,ret);
+      }
+      return ret;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      describe(sb,"AND");
+    }
+  }
+
+  /**
+   * Accepts the candidates accepted by at least one child.
+   */
+  static final class OrNode extends CompoundNode
+  {
+    OrNode(List<PlanNode> children)
+    {
+      super(children);
+    }
+
+    @Override
+    BitSet evaluate(ItemsFilterIndex index, BitSet candidates)
+    {
+      BitSet ret=new BitSet();
+      BitSet remaining=candidates;
+      for(PlanNode child : _children)
+      {
+        if (remaining.isEmpty())
+        {
+          break;
+        }
+        BitSet accepted=child.evaluate(index,(BitSet)remaining.clone());
+        ret.or(accepted);
+        remaining.andNot(accepted);
+      }
+      return ret;
+    }
+
+    @Override
+    void describe(StringBuilder sb)
+    {
+      describe(sb,"OR");
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package delta.games.lotro.lore.items.filters.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import delta.games.lotro.character.classes.AbstractClassDescription;
+import delta.games.lotro.character.stats.BasicStatsSet;
+import delta.games.lotro.common.enums.ItemClass;
+import delta.games.lotro.common.requirements.ClassRequirement;
+import delta.games.lotro.common.requirements.UsageRequirement;
+import delta.games.lotro.common.stats.StatDescription;
+import delta.games.lotro.lore.items.EquipmentLocation;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemQuality;
+import delta.games.lotro.utils.IntObjectMap;
+
+/**
+ * Precomputed indexes on a set of items, for the item filter engine.
+ * <p>
+ * Items are numbered by their position in the indexed list.
+ * Most indexes are bitmaps of these positions, one per value:
+ * equipment location, item class, quality, tier, stat, allowed class.
+ * Item levels are a posting list sorted by level, for range queries.
+ * Names are kept lower-cased, for predicate matching.
+ * Instances are immutable once built.
+ * @author DAM
+ */
+public class ItemsFilterIndex
+{
+  private List<Item> _items;
+  private BitSet _all;
+  private Map<EquipmentLocation,BitSet> _byLocation;
+  private Map<ItemClass,BitSet> _byClass;
+  private Map<ItemQuality,BitSet> _byQuality;
+  private IntObjectMap<BitSet> _byTier;
+  private BitSet _noTier;
+  private int[] _sortedLevels;
+  private int[] _itemsByLevel;
+  private BitSet _noLevel;
+  private Map<StatDescription,BitSet> _byStat;
+  private Map<AbstractClassDescription,BitSet> _byAllowedClass;
+  private BitSet _noClassRequirement;
+  private String[] _lowerCaseNames;
+
+  /**
+   * Constructor.
+   * @param items Items to index.
+   */
+  public ItemsFilterIndex(List<Item> items)
+  {
+    _items=Collections.unmodifiableList(new ArrayList<Item>(items));
+    int nbItems=_items.size();
+    _all=new BitSet(nbItems);
+    _all.set(0,nbItems);
+    _byLocation=new HashMap<EquipmentLocation,BitSet>();
+    _byClass=new HashMap<ItemClass,BitSet>();
+    _byQuality=new HashMap<ItemQuality,BitSet>();
+    _byTier=new IntObjectMap<BitSet>();
+    _noTier=new BitSet(nbItems);
+    _noLevel=new BitSet(nbItems);
+    _byStat=new HashMap<StatDescription,BitSet>();
+    _byAllowedClass=new HashMap<AbstractClassDescription,BitSet>();
+    _noClassRequirement=new BitSet(nbItems);
+    _lowerCaseNames=new String[nbItems];
+    long[] levelsAndItems=new long[nbItems];
+    int nbLevels=0;
+    for(int index=0;index<nbItems;index++)
+    {
+      Item item=_items.get(index);
+      set(_byLocation,item.getEquipmentLocation(),index);
+      set(_byClass,item.getItemClass(),index);
+      set(_byQuality,item.getQuality(),index);
+      Integer tier=item.getTier();
+      if (tier!=null)
+      {
+        BitSet bits=_byTier.get(tier.intValue());
+        if (bits==null)
+        {
+          bits=new BitSet();
+          _byTier.put(tier.intValue(),bits);
+        }
+        bits.set(index);
+      }
+      else
+      {
+        _noTier.set(index);
+      }
+      Integer itemLevel=item.getItemLevel();
+      if (itemLevel!=null)
+      {
+        // Level in the high bits, position in the low bits: sorting sorts by level
+        levelsAndItems[nbLevels++]=(((long)itemLevel.intValue())<<32)|index;
+      }
+      else
+      {
+        _noLevel.set(index);
+      }
+      BasicStatsSet stats=item.getStats();
+      if (stats!=null)
+      {
+        for(StatDescription stat : stats.getStats())
+        {
+          set(_byStat,stat,index);
+        }
+      }
+      indexClassRequirement(item,index);
+      String name=item.getName();
+      _lowerCaseNames[index]=(name!=null)?name.toLowerCase(Locale.ROOT):null;
+    }
+    Arrays.sort(levelsAndItems,0,nbLevels);
+    _sortedLevels=new int[nbLevels];
+    _itemsByLevel=new int[nbLevels];
+    for(int i=0;i<nbLevels;i++)
+    {
+      _sortedLevels[i]=(int)(levelsAndItems[i]>>32);
+      _itemsByLevel[i]=(int)levelsAndItems[i];
+    }
+  }
+
+  private void indexClassRequirement(Item item, int index)
+  {
+    UsageRequirement requirements=item.getUsageRequirements();
+    ClassRequirement classRequirement=(requirements!=null)?requirements.getClassRequirement():null;
+    if (classRequirement==null)
+    {
+      _noClassRequirement.set(index);
+      return;
+    }
+    for(AbstractClassDescription allowedClass : classRequirement.getAllowedClasses())
+    {
+      set(_byAllowedClass,allowedClass,index);
+    }
+  }
+
+  private static <K> void set(Map<K,BitSet> map, K key, int index)
+  {
+    BitSet bits=map.get(key);
+    if (bits==null)
+    {
+      bits=new BitSet();
+      map.put(key,bits);
+    }
+    bits.set(index);
+  }
+
+  /**
+   * Get the indexed items.
+   * @return An immutable list of items.
+   */
+  public List<Item> getItems()
+  {
+    return _items;
+  }
+
+  /**
+   * Get the number of indexed items.
+   * @return an items count.
+   */
+  public int getItemsCount()
+  {
+    return _items.size();
+  }
+
+  BitSet all()
+  {
+    return _all;
+  }
+
+  BitSet byLocation(EquipmentLocation location)
+  {
+    return _byLocation.get(location);
+  }
+
+  BitSet byClass(ItemClass itemClass)
+  {
+    return _byClass.get(itemClass);
+  }
+
+  BitSet byQuality(ItemQuality quality)
+  {
+    return _byQuality.get(quality);
+  }
+
+  BitSet byTier(int tier)
+  {
+    return _byTier.get(tier);
+  }
+
+  BitSet noTier()
+  {
+    return _noTier;
+  }
+
+  BitSet byStat(StatDescription stat)
+  {
+    return _byStat.get(stat);
+  }
+
+  BitSet byAllowedClass(AbstractClassDescription characterClass)
+  {
+    return _byAllowedClass.get(characterClass);
+  }
+
+  BitSet noClassRequirement()
+  {
+    return _noClassRequirement;
+  }
+
+  /**
+   * Get the items that have an item level in the given range.
+   * @param min Minimum level (inclusive).
+   * @param max Maximum level (inclusive).
+   * @return A new bitmap of item positions.
+   */
+  BitSet byLevelRange(int min, int max)
+  {
+    BitSet ret=new BitSet(_items.size());
+    if (min>max)
+    {
+      return ret;
+    }
+    for(int i=lowerBound(min);(i<_sortedLevels.length) && (_sortedLevels[i]<=max);i++)
+    {
+      ret.set(_itemsByLevel[i]);
+    }
+    return ret;
+  }
+
+  private int lowerBound(int level)
+  {
+    int low=0;
+    int high=_sortedLevels.length;
+    while (low<high)
+    {
+      int middle=(low+high)>>>1;
+      if (_sortedLevels[middle]<level)
+      {
+        low=middle+1;
+      }
+      else
+      {
+        high=middle;
+      }
+    }
+    return low;
+  }
+
+  BitSet noLevel()
+  {
+    return _noLevel;
+  }
+
+  String lowerCaseName(int index)
+  {
+    return _lowerCaseNames[index];
+  }
+}
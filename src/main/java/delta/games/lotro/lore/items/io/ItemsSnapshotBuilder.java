@@ -0,0 +1,48 @@
+package delta.games.lotro.lore.items.io;
+
+import java.io.File;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.items.io.xml.ItemSaxParser;
+
+/**
+ * Build step for the binary snapshot of the items XML file.
+ * The snapshot is a replay of the SAX events of the XML file (see {@link ItemSaxParser}).
+ * The snapshot is used by the items manager if it is up to date,
+ * but it is never written while loading items.
+ * @author DAM
+ */
+public class ItemsSnapshotBuilder
+{
+  private static final Logger LOGGER=Logger.getLogger(ItemsSnapshotBuilder.class);
+
+  /**
+   * Build the items snapshot.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean doIt()
+  {
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    File itemsFile=cfg.getFile(DataFiles.ITEMS);
+    File snapshotFile=cfg.getFile(DataFiles.ITEMS_SNAPSHOT);
+    long start=System.currentTimeMillis();
+    boolean ok=ItemSaxParser.buildItemsSnapshot(itemsFile,snapshotFile);
+    if (ok)
+    {
+      LOGGER.info("Built items snapshot "+snapshotFile+" in "+(System.currentTimeMillis()-start)+"ms.");
+    }
+    return ok;
+  }
+
+  /**
+   * Main method for this tool.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new ItemsSnapshotBuilder().doIt();
+  }
+}
@@ -0,0 +1,312 @@
+package delta.games.lotro.lore.items.io.xml;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.log4j.Logger;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import delta.common.utils.NumericTools;
+import delta.common.utils.i18n.SingleLocaleLabelsManager;
+import delta.games.lotro.character.stats.base.io.xml.BasicStatsSetXMLConstants;
+import delta.games.lotro.common.stats.io.xml.StatsProviderXMLConstants;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemColdData;
+import delta.games.lotro.lore.items.details.io.xml.ItemDetailsSaxParser;
+import delta.games.lotro.lore.items.effects.io.xml.ItemEffectsXMLConstants;
+import delta.games.lotro.lore.items.effects.io.xml.ItemEffectsXmlIO;
+import delta.games.lotro.lore.items.scaling.ItemSpellcraft;
+import delta.games.lotro.lore.items.scaling.Munging;
+import delta.games.lotro.utils.i18n.I18nFacade;
+import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+
+/**
+ * Reader for the rarely used data of items (description, scaling, spellcraft, details, effects),
+ * directly from the items XML file.
+ * <p>
+ * On first use, the file is scanned to build an index of the byte offsets of the items, keyed by item identifier.
+ * Then, each read decodes the element of a single item, and only its rarely used data.
+ * Nothing is interned.
+ * @author DAM
+ */
+public class ItemColdDataXMLReader
+{
+  private static final Logger LOGGER=Logger.getLogger(ItemColdDataXMLReader.class);
+
+  private static final byte[] ITEM_START=("<"+ItemXMLConstants.ITEM_TAG).getBytes(StandardCharsets.UTF_8);
+  private static final byte[] KEY_START=(ItemXMLConstants.ITEM_KEY_ATTR+"=\"").getBytes(StandardCharsets.UTF_8);
+
+  private File _file;
+  // Sorted (item identifier<<32 | index in _offsets)
+  private long[] _index;
+  // Offsets of the item elements, in file order, then end offset of the last item
+  private long[] _offsets;
+  private SAXParser _parser;
+  private ColdDataHandler _handler;
+
+  /**
+   * Constructor.
+   * @param file Items XML file.
+   */
+  public ItemColdDataXMLReader(File file)
+  {
+    _file=file;
+  }
+
+  /**
+   * Read the rarely used data of an item.
+   * @param itemId Item identifier.
+   * @return the read data, or <code>null</code> if none or if it could not be read.
+   */
+  public synchronized ItemColdData read(int itemId)
+  {
+    try
+    {
+      if (_index==null)
+      {
+        buildIndex();
+        SAXParserFactory factory=SAXParserFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        _parser=factory.newSAXParser();
+        _handler=new ColdDataHandler();
+      }
+      int position=find(itemId);
+      if (position<0)
+      {
+        return null;
+      }
+      byte[] element=readBytes(_offsets[position],_offsets[position+1]);
+      _handler._coldData=null;
+      _parser.parse(new ByteArrayInputStream(element),_handler);
+      _parser.reset();
+      return _handler._coldData;
+    }
+    catch(Exception e)
+    {
+      LOGGER.warn("Could not read data of item "+itemId+" from "+_file,e);
+      _parser=null;
+      _index=null;
+    }
+    return null;
+  }
+
+  private int find(int itemId)
+  {
+    long key=((long)itemId)<<32;
+    int index=Arrays.binarySearch(_index,key);
+    if (index<0)
+    {
+      index=-(index+1);
+    }
+    if ((index<_index.length) && ((int)(_index[index]>>>32)==itemId))
+    {
+      return (int)(_index[index]&0xFFFFFFFFL);
+    }
+    return -1;
+  }
+
+  private byte[] readBytes(long from, long to) throws IOException
+  {
+    byte[] ret=new byte[(int)(to-from)];
+    RandomAccessFile file=new RandomAccessFile(_file,"r");
+    try
+    {
+      file.seek(from);
+      file.readFully(ret);
+    }
+    finally
+    {
+      file.close();
+    }
+    return ret;
+  }
+
+  private void buildIndex() throws IOException
+  {
+    long start=System.currentTimeMillis();
+    long[] keys=new long[1024];
+    long[] offsets=new long[1024];
+    int nbItems=0;
+    long lastEndTag=0;
+    InputStream in=new BufferedInputStream(new FileInputStream(_file),64*1024);
+    try
+    {
+      byte[] buffer=new byte[64*1024];
+      long position=0;
+      long itemStart=0;
+      // Number of matched bytes of the item start tag
+      int itemMatch=0;
+      // Number of matched bytes of the identifier attribute (-1 if not in an item tag)
+      int keyMatch=-1;
+      int id=0;
+      int previous=0;
+      int read;
+      while ((read=in.read(buffer))>0)
+      {
+        for(int i=0;i<read;i++,position++)
+        {
+          int b=buffer[i];
+          if ((b=='/') && (previous=='<'))
+          {
+            lastEndTag=position-1;
+          }
+          if (keyMatch==KEY_START.length)
+          {
+            // Item identifier
+            if (b=='"')
+            {
+              if (nbItems+1>=keys.length)
+              {
+                keys=Arrays.copyOf(keys,keys.length*2);
+                offsets=Arrays.copyOf(offsets,offsets.length*2);
+              }
+              keys[nbItems]=(((long)id)<<32)|nbItems;
+              offsets[nbItems]=itemStart;
+              nbItems++;
+              keyMatch=-1;
+            }
+            else
+            {
+              id=id*10+(b-'0');
+            }
+          }
+          else if (keyMatch>=0)
+          {
+            // In an item tag, looking for the identifier attribute
+            if (b=='>')
+            {
+              keyMatch=-1;
+            }
+            else if ((b==KEY_START[keyMatch]) && ((keyMatch>0) || (Character.isWhitespace(previous))))
+            {
+              keyMatch++;
+              id=0;
+            }
+            else
+            {
+              keyMatch=0;
+            }
+          }
+          else if (itemMatch==ITEM_START.length)
+          {
+            itemMatch=0;
+            if (Character.isWhitespace(b))
+            {
+              itemStart=position-ITEM_START.length;
+              keyMatch=0;
+            }
+          }
+          else if (b==ITEM_START[itemMatch])
+          {
+            itemMatch++;
+          }
+          else
+          {
+            itemMatch=(b==ITEM_START[0])?1:0;
+          }
+          previous=b;
+        }
+      }
+    }
+    finally
+    {
+      in.close();
+    }
+    // End of the last item: end tag of the root element
+    offsets[nbItems]=lastEndTag;
+    _offsets=Arrays.copyOf(offsets,nbItems+1);
+    long[] index=Arrays.copyOf(keys,nbItems);
+    Arrays.sort(index);
+    _index=index;
+    LOGGER.info("Indexed "+nbItems+" items in "+(System.currentTimeMillis()-start)+"ms.");
+  }
+
+  /**
+   * Parse the rarely used data in the attributes of an item tag.
+   * @param item Item to update.
+   * @param attributes Attributes of the item tag.
+   * @param i18n Labels manager for items.
+   */
+  static void parseColdDataAttributes(Item item, Attributes attributes, SingleLocaleLabelsManager i18n)
+  {
+    // Full description (not interned: mostly unique, and detached as cold data)
+    String description=attributes.getValue(ItemXMLConstants.ITEM_DESCRIPTION_ATTR);
+    description=I18nRuntimeUtils.getLabel(i18n,description);
+    item.setDescription(description);
+    // Munging
+    String mungingStr=attributes.getValue(ItemXMLConstants.ITEM_SCALING_ATTR);
+    if (mungingStr!=null)
+    {
+      Munging munging=Munging.fromString(mungingStr);
+      item.setMunging(munging);
+    }
+    // Spellcraft
+    String spellcraftStr=attributes.getValue(ItemXMLConstants.ITEM_SPELLCRAFT_ATTR);
+    if (spellcraftStr!=null)
+    {
+      ItemSpellcraft spellcraft=ItemSpellcraft.fromString(spellcraftStr);
+      item.setSpellcraft(spellcraft);
+    }
+  }
+
+  /**
+   * SAX handler for the rarely used data of a single item.
+   * Stats are ignored.
+   */
+  private static class ColdDataHandler extends DefaultHandler
+  {
+    private ItemDetailsSaxParser _detailsParser;
+    private SingleLocaleLabelsManager _i18n;
+    private Item _item;
+    private ItemColdData _coldData;
+
+    private ColdDataHandler()
+    {
+      _detailsParser=new ItemDetailsSaxParser();
+      _i18n=I18nFacade.getLabelsMgr("items");
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qualifiedName, Attributes attributes) throws SAXException
+    {
+      if (ItemXMLConstants.ITEM_TAG.equals(qualifiedName))
+      {
+        _item=new Item();
+        String idStr=attributes.getValue(ItemXMLConstants.ITEM_KEY_ATTR);
+        _item.setIdentifier(NumericTools.parseInt(idStr,-1));
+        parseColdDataAttributes(_item,attributes,_i18n);
+      }
+      else if (ItemEffectsXMLConstants.EFFECT_TAG.equals(qualifiedName))
+      {
+        ItemEffectsXmlIO.readItemEffect(attributes,_item);
+      }
+      else if ((!BasicStatsSetXMLConstants.STAT_TAG.equals(qualifiedName)) &&
+          (!StatsProviderXMLConstants.SPECIAL_EFFECT_TAG.equals(qualifiedName)))
+      {
+        _detailsParser.startElement(_item,qualifiedName,attributes);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qualifiedName)
+    {
+      if (ItemXMLConstants.ITEM_TAG.equals(qualifiedName))
+      {
+        _coldData=_item.detachColdData();
+        _item=null;
+      }
+    }
+  }
+}
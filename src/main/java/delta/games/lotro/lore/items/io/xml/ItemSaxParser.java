@@ -33,6 +33,7 @@ import delta.games.lotro.common.stats.StatProvider;
 import delta.games.lotro.common.stats.StatsProvider;
 import delta.games.lotro.common.stats.StatsRegistry;
 import delta.games.lotro.common.stats.io.xml.StatsProviderXMLConstants;
+import delta.games.lotro.common.utils.LoreInterners;
 import delta.games.lotro.common.utils.valueTables.QualityBasedValuesTable;
 import delta.games.lotro.lore.items.Armour;
 import delta.games.lotro.lore.items.ArmourType;
@@ -45,6 +46,7 @@ import delta.games.lotro.lore.items.ItemFactory;
 import delta.games.lotro.lore.items.ItemQuality;
 import delta.games.lotro.lore.items.ItemSturdiness;
 import delta.games.lotro.lore.items.ItemUtils;
+import delta.games.lotro.lore.items.ItemsColdDataTable;
 import delta.games.lotro.lore.items.Weapon;
 import delta.games.lotro.lore.items.WeaponType;
 import delta.games.lotro.lore.items.carryalls.CarryAll;
@@ -58,13 +60,13 @@ import delta.games.lotro.lore.items.legendary.LegendaryAttrs;
 import delta.games.lotro.lore.items.legendary2.Legendary2;
 import delta.games.lotro.lore.items.legendary2.LegendaryAttributes2Manager;
 import delta.games.lotro.lore.items.legendary2.LegendaryAttrs2;
-import delta.games.lotro.lore.items.scaling.ItemSpellcraft;
-import delta.games.lotro.lore.items.scaling.Munging;
 import delta.games.lotro.lore.items.weapons.DPSTables;
 import delta.games.lotro.lore.items.weapons.WeaponSpeedEntry;
 import delta.games.lotro.lore.items.weapons.WeaponSpeedsManager;
 import delta.games.lotro.utils.i18n.I18nFacade;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
+import delta.games.lotro.utils.io.binary.SAXSnapshotReader;
+import delta.games.lotro.utils.io.binary.SAXSnapshotWriter;
 import delta.games.lotro.utils.maths.Progression;
 
 /**
@@ -83,9 +85,11 @@ public final class ItemSaxParser extends DefaultHandler
   private LotroEnum<SocketType> _socketTypeEnum;
   private ItemDetailsSaxParser _detailsParser;
   private SingleLocaleLabelsManager _i18n;
+  private ItemsColdDataTable _coldDataTable;
 
-  private ItemSaxParser()
+  private ItemSaxParser(ItemsColdDataTable coldDataTable)
   {
+    _coldDataTable=coldDataTable;
     _parsedItems=new ArrayList<Item>();
     _itemClassEnum=LotroEnumsRegistry.getInstance().get(ItemClass.class);
     _equipmentCategoryEnum=LotroEnumsRegistry.getInstance().get(EquipmentCategory.class);
@@ -101,16 +105,22 @@ public final class ItemSaxParser extends DefaultHandler
    * @return List of parsed items.
    */
   public static List<Item> parseItemsFile(File source)
+  {
+    return parseItemsFile(source,null);
+  }
+
+  /**
+   * Parse the XML file.
+   * @param source Source file.
+   * @param coldDataTable Table to detach the rarely used data of items to (<code>null</code> to keep it in items).
+   * @return List of parsed items.
+   */
+  public static List<Item> parseItemsFile(File source, ItemsColdDataTable coldDataTable)
   {
     try
     {
-      ItemSaxParser handler=new ItemSaxParser();
-      // Use the default (non-validating) parser
-      SAXParserFactory factory=SAXParserFactory.newInstance();
-      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-      SAXParser saxParser=factory.newSAXParser();
-      saxParser.parse(source,handler);
-      saxParser.reset();
+      ItemSaxParser handler=new ItemSaxParser(coldDataTable);
+      parse(source,handler);
       return handler._parsedItems;
     }
     catch (Exception e)
@@ -120,6 +130,72 @@ public final class ItemSaxParser extends DefaultHandler
     return new ArrayList<Item>();
   }
 
+  /**
+   * Build a binary snapshot of the items XML file.
+   * The snapshot records the SAX events of the XML file, not the decoded items:
+   * it saves the XML parsing, but items are still decoded from the recorded strings on load.
+   * This is an explicit build step: loading items never writes the snapshot.
+   * @param source Source file.
+   * @param snapshotFile Snapshot file to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean buildItemsSnapshot(File source, File snapshotFile)
+  {
+    SAXSnapshotWriter recorder=null;
+    try
+    {
+      recorder=new SAXSnapshotWriter(null,snapshotFile);
+      parse(source,recorder);
+      return recorder.write(source);
+    }
+    catch (Exception e)
+    {
+      LOGGER.error("Error when building items snapshot from "+source,e);
+    }
+    finally
+    {
+      if (recorder!=null)
+      {
+        recorder.dispose();
+      }
+    }
+    return false;
+  }
+
+  private static void parse(File source, DefaultHandler handler) throws Exception
+  {
+    // Use the default (non-validating) parser
+    SAXParserFactory factory=SAXParserFactory.newInstance();
+    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    SAXParser saxParser=factory.newSAXParser();
+    saxParser.parse(source,handler);
+    saxParser.reset();
+  }
+
+  /**
+   * Load items from a binary snapshot of the items XML file.
+   * @param snapshotFile Snapshot file.
+   * @return List of loaded items or <code>null</code> if the snapshot could not be used.
+   */
+  public static List<Item> parseItemsSnapshot(File snapshotFile)
+  {
+    return parseItemsSnapshot(snapshotFile,null);
+  }
+
+  /**
+   * Load items from a binary snapshot of the items XML file.
+   * The recorded SAX events are replayed into this parser.
+   * @param snapshotFile Snapshot file.
+   * @param coldDataTable Table to detach the rarely used data of items to (<code>null</code> to keep it in items).
+   * @return List of loaded items or <code>null</code> if the snapshot could not be used.
+   */
+  public static List<Item> parseItemsSnapshot(File snapshotFile, ItemsColdDataTable coldDataTable)
+  {
+    ItemSaxParser handler=new ItemSaxParser(coldDataTable);
+    boolean ok=SAXSnapshotReader.replay(snapshotFile,handler);
+    return ok?handler._parsedItems:null;
+  }
+
   @Override
   public void startElement(String uri, String localName, String qualifiedName, Attributes attributes) throws SAXException
   {
@@ -186,7 +262,7 @@ public final class ItemSaxParser extends DefaultHandler
     else if (StatsProviderXMLConstants.SPECIAL_EFFECT_TAG.equals(qualifiedName))
     {
       String label=attributes.getValue(StatsProviderXMLConstants.SPECIAL_EFFECT_LABEL_ATTR);
-      label=I18nRuntimeUtils.getLabel(_i18n,label);
+      label=LoreInterners.intern(I18nRuntimeUtils.getLabel(_i18n,label));
       SpecialEffect specialEffect=new SpecialEffect(label);
       StatsProvider statsProvider=_currentItem.getStatsProvider();
       if (statsProvider==null)
@@ -218,17 +294,17 @@ public final class ItemSaxParser extends DefaultHandler
     _currentItem.setIdentifier(id);
     // Icon
     String icon=attributes.getValue(ItemXMLConstants.ITEM_ICON_ATTR);
-    _currentItem.setIcon(icon);
+    _currentItem.setIcon(LoreInterners.intern(icon));
     // Set identifier
     String setId=attributes.getValue(ItemXMLConstants.ITEM_SET_ID_ATTR);
-    _currentItem.setSetKey(setId);
+    _currentItem.setSetKey(LoreInterners.intern(setId));
     // Name
     String name=_i18n.getLabel(String.valueOf(id));
     if (name==null)
     {
       name=attributes.getValue(ItemXMLConstants.ITEM_NAME_ATTR);
     }
-    _currentItem.setName(name);
+    _currentItem.setName(LoreInterners.intern(name));
     // Item level
     String itemLevel=attributes.getValue(ItemXMLConstants.ITEM_LEVEL_ATTR);
     if (itemLevel!=null)
@@ -306,10 +382,8 @@ public final class ItemSaxParser extends DefaultHandler
     _currentItem.setQuality(quality);
     // Requirements
     UsageRequirementsXMLParser.parseRequirements(_currentItem.getUsageRequirements(),attributes);
-    // Full description
-    String description=attributes.getValue(ItemXMLConstants.ITEM_DESCRIPTION_ATTR);
-    description=I18nRuntimeUtils.getLabel(_i18n,description);
-    _currentItem.setDescription(description);
+    // Description, munging, spellcraft
+    ItemColdDataXMLReader.parseColdDataAttributes(_currentItem,attributes,_i18n);
     // Value table
     String valueTableIdStr=attributes.getValue(ItemXMLConstants.ITEM_VALUE_TABLE_ID_ATTR);
     if (valueTableIdStr!=null)
@@ -331,20 +405,6 @@ public final class ItemSaxParser extends DefaultHandler
       EssencesSlotsSetup setup=EssencesSlotsSetup.fromPersistenceString(essenceSlots);
       _currentItem.setEssenceSlots(setup);
     }
-    // Munging
-    String mungingStr=attributes.getValue(ItemXMLConstants.ITEM_SCALING_ATTR);
-    if (mungingStr!=null)
-    {
-      Munging munging=Munging.fromString(mungingStr);
-      _currentItem.setMunging(munging);
-    }
-    // Spellcraft
-    String spellcraftStr=attributes.getValue(ItemXMLConstants.ITEM_SPELLCRAFT_ATTR);
-    if (spellcraftStr!=null)
-    {
-      ItemSpellcraft spellcraft=ItemSpellcraft.fromString(spellcraftStr);
-      _currentItem.setSpellcraft(spellcraft);
-    }
     return id;
   }
 
@@ -427,7 +487,7 @@ public final class ItemSaxParser extends DefaultHandler
       statProvider.setOperator(operator);
       // Description override
       String descriptionOverride=attributes.getValue(BasicStatsSetXMLConstants.STAT_DESCRIPTION_OVERRIDE_ATTR);
-      descriptionOverride=I18nRuntimeUtils.getLabel(_i18n,descriptionOverride);
+      descriptionOverride=LoreInterners.intern(I18nRuntimeUtils.getLabel(_i18n,descriptionOverride));
       statProvider.setDescriptionOverride(descriptionOverride);
       StatsProvider statsProvider=_currentItem.getStatsProvider();
       if (statsProvider==null)
@@ -524,6 +584,10 @@ public final class ItemSaxParser extends DefaultHandler
     {
       ItemUtils.finalizeItemStats(_currentItem);
       _currentItem.setStatsFromStatsProvider();
+      if (_coldDataTable!=null)
+      {
+        _coldDataTable.detach(_currentItem);
+      }
       _parsedItems.add(_currentItem);
       _currentItem=null;
     }
@@ -9,7 +9,6 @@ import javax.xml.transform.sax.TransformerHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.AttributesImpl;
 
-import delta.common.utils.io.xml.XmlFileWriterHelper;
 import delta.common.utils.io.xml.XmlWriter;
 import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.common.IdentifiableComparator;
@@ -41,6 +40,8 @@ import delta.games.lotro.lore.items.legendary.LegendaryAttrs;
 import delta.games.lotro.lore.items.scaling.ItemSpellcraft;
 import delta.games.lotro.lore.items.scaling.Munging;
 import delta.games.lotro.lore.items.weapons.WeaponSpeedEntry;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 
 /**
  * Writes LOTRO items to XML files.
@@ -81,21 +82,16 @@ public class ItemXMLWriter
    */
   private boolean writeItems(File outFile, final List<Item> items, String encoding)
   {
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<Item> recordWriter=new XMLRecordWriter<Item>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, Item item) throws Exception
       {
-        hd.startElement("","",ItemXMLConstants.ITEMS_TAG,new AttributesImpl());
-        for(Item item : items)
-        {
-          write(hd,item);
-        }
-        hd.endElement("","",ItemXMLConstants.ITEMS_TAG);
+        write(hd,item);
       }
     };
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    boolean ret=helper.write(outFile,encoding,writer);
+    ShardedXMLFileWriter<Item> writer=new ShardedXMLFileWriter<Item>(ItemXMLConstants.ITEMS_TAG,recordWriter);
+    boolean ret=writer.write(outFile,encoding,items);
     return ret;
   }
 
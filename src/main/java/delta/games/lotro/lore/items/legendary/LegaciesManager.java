@@ -3,7 +3,6 @@ package delta.games.lotro.lore.items.legendary;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -18,6 +17,7 @@ import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.EquipmentLocation;
 import delta.games.lotro.lore.items.legendary.imbued.ImbuedLegacy;
 import delta.games.lotro.lore.items.legendary.io.xml.LegacyXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.i18n.I18nFacade;
 
 /**
@@ -28,9 +28,9 @@ public class LegaciesManager
 {
   private static final Logger LOGGER=Logger.getLogger(LegaciesManager.class);
 
-  private static LegaciesManager _instance=null;
+  private static volatile LegaciesManager _instance;
 
-  private HashMap<Integer,ImbuedLegacy> _cache;
+  private IntObjectMap<ImbuedLegacy> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -38,12 +38,21 @@ public class LegaciesManager
    */
   public static LegaciesManager getInstance()
   {
-    if (_instance==null)
+    LegaciesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new LegaciesManager();
-      _instance.loadAll();
+      synchronized(LegaciesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LegaciesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -51,7 +60,7 @@ public class LegaciesManager
    */
   public LegaciesManager()
   {
-    _cache=new HashMap<Integer,ImbuedLegacy>(100);
+    _cache=new IntObjectMap<ImbuedLegacy>(100);
   }
 
   /**
@@ -80,7 +89,7 @@ public class LegaciesManager
    */
   public void registerLegacy(ImbuedLegacy legacy)
   {
-    _cache.put(Integer.valueOf(legacy.getIdentifier()),legacy);
+    _cache.put(legacy.getIdentifier(),legacy);
   }
 
   /**
@@ -131,7 +140,7 @@ public class LegaciesManager
   public ImbuedLegacy getLegacy(int id)
   {
     ImbuedLegacy ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
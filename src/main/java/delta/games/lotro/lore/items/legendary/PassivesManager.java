@@ -3,7 +3,6 @@ package delta.games.lotro.lore.items.legendary;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -17,6 +16,7 @@ import delta.games.lotro.lore.items.legendary.passives.PassivesGroup;
 import delta.games.lotro.lore.items.legendary.passives.PassivesGroupsManager;
 import delta.games.lotro.lore.items.legendary.passives.io.xml.PassivesXMLParser;
 import delta.games.lotro.lore.items.legendary.passives.io.xml.PassivesGroupsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.i18n.I18nFacade;
 
 /**
@@ -27,9 +27,9 @@ public class PassivesManager
 {
   private static final Logger LOGGER=Logger.getLogger(PassivesManager.class);
 
-  private static PassivesManager _instance=null;
+  private static volatile PassivesManager _instance;
 
-  private HashMap<Integer,Passive> _cache;
+  private IntObjectMap<Passive> _cache;
   private PassivesGroupsManager _passivesUsage;
 
   /**
@@ -38,12 +38,21 @@ public class PassivesManager
    */
   public static PassivesManager getInstance()
   {
-    if (_instance==null)
+    PassivesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new PassivesManager();
-      _instance.loadData();
+      synchronized(PassivesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new PassivesManager();
+          ret.loadData();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -51,7 +60,7 @@ public class PassivesManager
    */
   public PassivesManager()
   {
-    _cache=new HashMap<Integer,Passive>(100);
+    _cache=new IntObjectMap<Passive>(100);
     _passivesUsage=new PassivesGroupsManager();
   }
 
@@ -107,7 +116,7 @@ public class PassivesManager
    */
   public void registerPassive(Passive passive)
   {
-    _cache.put(Integer.valueOf(passive.getIdentifier()),passive);
+    _cache.put(passive.getIdentifier(),passive);
   }
 
   /**
@@ -130,7 +139,7 @@ public class PassivesManager
   public Passive getPassive(int id)
   {
     Passive ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
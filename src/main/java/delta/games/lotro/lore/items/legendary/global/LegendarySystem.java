@@ -32,7 +32,7 @@ public class LegendarySystem
 {
   private static final Logger LOGGER=Logger.getLogger(LegendarySystem.class);
 
-  private static LegendarySystem _instance=null;
+  private static volatile LegendarySystem _instance;
 
   private LegendaryData _data;
 
@@ -42,11 +42,20 @@ public class LegendarySystem
    */
   public static LegendarySystem getInstance()
   {
-    if (_instance==null)
+    LegendarySystem ret=_instance;
+    if (ret==null)
     {
-      _instance=new LegendarySystem();
+      synchronized(LegendarySystem.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LegendarySystem();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
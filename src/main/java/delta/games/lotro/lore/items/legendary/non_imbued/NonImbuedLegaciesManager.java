@@ -24,6 +24,7 @@ import delta.games.lotro.lore.items.EquipmentLocation;
 import delta.games.lotro.lore.items.EquipmentLocations;
 import delta.games.lotro.lore.items.legendary.AbstractLegacy;
 import delta.games.lotro.lore.items.legendary.io.xml.LegacyXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 import delta.games.lotro.utils.i18n.I18nFacade;
 
 /**
@@ -34,10 +35,10 @@ public class NonImbuedLegaciesManager
 {
   private static final Logger LOGGER=Logger.getLogger(NonImbuedLegaciesManager.class);
 
-  private static NonImbuedLegaciesManager _instance=null;
+  private static volatile NonImbuedLegaciesManager _instance;
 
   private Map<StatDescription,TieredNonImbuedLegacy> _tieredLegacies;
-  private Map<Integer,DefaultNonImbuedLegacy> _defaultLegacies;
+  private IntObjectMap<DefaultNonImbuedLegacy> _defaultLegacies;
 
   /**
    * Get the sole instance of this class.
@@ -45,12 +46,21 @@ public class NonImbuedLegaciesManager
    */
   public static NonImbuedLegaciesManager getInstance()
   {
-    if (_instance==null)
+    NonImbuedLegaciesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new NonImbuedLegaciesManager();
-      _instance.loadAll();
+      synchronized(NonImbuedLegaciesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new NonImbuedLegaciesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -59,7 +69,7 @@ public class NonImbuedLegaciesManager
   public NonImbuedLegaciesManager()
   {
     _tieredLegacies=new HashMap<StatDescription,TieredNonImbuedLegacy>();
-    _defaultLegacies=new HashMap<Integer,DefaultNonImbuedLegacy>();
+    _defaultLegacies=new IntObjectMap<DefaultNonImbuedLegacy>();
   }
 
   /**
@@ -105,8 +115,7 @@ public class NonImbuedLegaciesManager
   public void addDefaultLegacy(DefaultNonImbuedLegacy legacy)
   {
     int effectID=legacy.getEffectID();
-    Integer identifier=Integer.valueOf(effectID);
-    _defaultLegacies.put(identifier,legacy);
+    _defaultLegacies.put(effectID,legacy);
   }
 
   /**
@@ -163,7 +172,7 @@ public class NonImbuedLegaciesManager
    */
   public DefaultNonImbuedLegacy getDefaultLegacy(int identifier)
   {
-    return _defaultLegacies.get(Integer.valueOf(identifier));
+    return _defaultLegacies.get(identifier);
   }
 
   /**
@@ -172,15 +181,7 @@ public class NonImbuedLegaciesManager
    */
   public List<DefaultNonImbuedLegacy> getDefaultLegacies()
   {
-    List<DefaultNonImbuedLegacy> ret=new ArrayList<DefaultNonImbuedLegacy>();
-    List<Integer> ids=new ArrayList<Integer>(_defaultLegacies.keySet());
-    Collections.sort(ids);
-    for(Integer id : ids)
-    {
-      DefaultNonImbuedLegacy legacy=_defaultLegacies.get(id);
-      ret.add(legacy);
-    }
-    return ret;
+    return _defaultLegacies.values();
   }
 
   /**
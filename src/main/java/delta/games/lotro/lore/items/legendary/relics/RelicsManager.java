@@ -22,7 +22,7 @@ import delta.games.lotro.lore.items.legendary.relics.io.xml.RelicXMLWriter;
  */
 public class RelicsManager
 {
-  private static RelicsManager _instance;
+  private static volatile RelicsManager _instance;
 
   private HashMap<RunicTier,RelicsCategory> _categories;
 
@@ -32,12 +32,21 @@ public class RelicsManager
    */
   public static RelicsManager getInstance()
   {
-    if (_instance==null)
+    RelicsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new RelicsManager();
-      _instance.loadAll();
+      synchronized(RelicsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new RelicsManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.items.legendary.titles;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +11,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.legendary.titles.io.xml.LegendaryTitleXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to legendary titles.
@@ -21,9 +21,9 @@ public class LegendaryTitlesManager
 {
   private static final Logger LOGGER=Logger.getLogger(LegendaryTitlesManager.class);
 
-  private static LegendaryTitlesManager _instance=null;
+  private static volatile LegendaryTitlesManager _instance;
 
-  private HashMap<Integer,LegendaryTitle> _cache;
+  private IntObjectMap<LegendaryTitle> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -31,12 +31,21 @@ public class LegendaryTitlesManager
    */
   public static LegendaryTitlesManager getInstance()
   {
-    if (_instance==null)
+    LegendaryTitlesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new LegendaryTitlesManager();
-      _instance.loadAll();
+      synchronized(LegendaryTitlesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LegendaryTitlesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,7 @@ public class LegendaryTitlesManager
    */
   public LegendaryTitlesManager()
   {
-    _cache=new HashMap<Integer,LegendaryTitle>(100);
+    _cache=new IntObjectMap<LegendaryTitle>(100);
   }
 
   /**
@@ -72,7 +81,7 @@ public class LegendaryTitlesManager
    */
   public void registerLegendaryTitle(LegendaryTitle legendaryTitle)
   {
-    _cache.put(Integer.valueOf(legendaryTitle.getIdentifier()),legendaryTitle);
+    _cache.put(legendaryTitle.getIdentifier(),legendaryTitle);
   }
 
   /**
@@ -95,7 +104,7 @@ public class LegendaryTitlesManager
   public LegendaryTitle getLegendaryTitle(int id)
   {
     LegendaryTitle ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
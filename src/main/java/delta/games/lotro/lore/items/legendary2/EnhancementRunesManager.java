@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.items.legendary2;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -9,6 +8,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.legendary2.io.xml.EnhancementRunesXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all known enhancement runes.
@@ -18,9 +18,9 @@ public class EnhancementRunesManager
 {
   private static final Logger LOGGER=Logger.getLogger(EnhancementRunesManager.class);
 
-  private static EnhancementRunesManager _instance=null;
+  private static volatile EnhancementRunesManager _instance;
 
-  private HashMap<Integer,EnhancementRune> _cache;
+  private IntObjectMap<EnhancementRune> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -28,12 +28,21 @@ public class EnhancementRunesManager
    */
   public static EnhancementRunesManager getInstance()
   {
-    if (_instance==null)
+    EnhancementRunesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new EnhancementRunesManager();
-      _instance.loadAll();
+      synchronized(EnhancementRunesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new EnhancementRunesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -41,7 +50,7 @@ public class EnhancementRunesManager
    */
   public EnhancementRunesManager()
   {
-    _cache=new HashMap<Integer,EnhancementRune>(100);
+    _cache=new IntObjectMap<EnhancementRune>(100);
   }
 
   /**
@@ -69,7 +78,7 @@ public class EnhancementRunesManager
    */
   private void registerEnhancementRune(EnhancementRune rune)
   {
-    _cache.put(Integer.valueOf(rune.getIdentifier()),rune);
+    _cache.put(rune.getIdentifier(),rune);
   }
 
   /**
@@ -79,6 +88,6 @@ public class EnhancementRunesManager
    */
   public EnhancementRune getEnhancementRune(int id)
   {
-    return _cache.get(Integer.valueOf(id));
+    return _cache.get(id);
   }
 }
@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.items.legendary2;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -9,6 +8,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.legendary2.io.xml.LegendaryAttrs2XMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to legendary attributes (reloaded).
@@ -18,9 +18,9 @@ public class LegendaryAttributes2Manager
 {
   private static final Logger LOGGER=Logger.getLogger(LegendaryAttributes2Manager.class);
 
-  private static LegendaryAttributes2Manager _instance=null;
+  private static volatile LegendaryAttributes2Manager _instance;
 
-  private HashMap<Integer,LegendaryAttrs2> _cache;
+  private IntObjectMap<LegendaryAttrs2> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -28,12 +28,21 @@ public class LegendaryAttributes2Manager
    */
   public static LegendaryAttributes2Manager getInstance()
   {
-    if (_instance==null)
+    LegendaryAttributes2Manager ret=_instance;
+    if (ret==null)
     {
-      _instance=new LegendaryAttributes2Manager();
-      _instance.loadAll();
+      synchronized(LegendaryAttributes2Manager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LegendaryAttributes2Manager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -41,7 +50,7 @@ public class LegendaryAttributes2Manager
    */
   public LegendaryAttributes2Manager()
   {
-    _cache=new HashMap<Integer,LegendaryAttrs2>(100);
+    _cache=new IntObjectMap<LegendaryAttrs2>(100);
   }
 
   /**
@@ -69,7 +78,7 @@ public class LegendaryAttributes2Manager
    */
   public void register(LegendaryAttrs2 legendaryAttributes)
   {
-    _cache.put(Integer.valueOf(legendaryAttributes.getIdentifier()),legendaryAttributes);
+    _cache.put(legendaryAttributes.getIdentifier(),legendaryAttributes);
   }
 
   /**
@@ -79,7 +88,7 @@ public class LegendaryAttributes2Manager
    */
   public LegendaryAttrs2 getLegendaryAttributes(int id)
   {
-    LegendaryAttrs2 ret=_cache.get(Integer.valueOf(id));
+    LegendaryAttrs2 ret=_cache.get(id);
     return ret;
   }
 }
@@ -2,7 +2,6 @@ package delta.games.lotro.lore.items.legendary2;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -11,6 +10,7 @@ import delta.games.lotro.common.enums.SocketType;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.legendary2.io.xml.TraceriesXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all known traceries.
@@ -20,9 +20,9 @@ public class TraceriesManager
 {
   private static final Logger LOGGER=Logger.getLogger(TraceriesManager.class);
 
-  private static TraceriesManager _instance=null;
+  private static volatile TraceriesManager _instance;
 
-  private HashMap<Integer,Tracery> _cache;
+  private IntObjectMap<Tracery> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -30,12 +30,21 @@ public class TraceriesManager
    */
   public static TraceriesManager getInstance()
   {
-    if (_instance==null)
+    TraceriesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new TraceriesManager();
-      _instance.loadAll();
+      synchronized(TraceriesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new TraceriesManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -43,7 +52,7 @@ public class TraceriesManager
    */
   public TraceriesManager()
   {
-    _cache=new HashMap<Integer,Tracery>(100);
+    _cache=new IntObjectMap<Tracery>(100);
   }
 
   /**
@@ -71,7 +80,7 @@ public class TraceriesManager
    */
   private void registerTracery(Tracery tracery)
   {
-    _cache.put(Integer.valueOf(tracery.getIdentifier()),tracery);
+    _cache.put(tracery.getIdentifier(),tracery);
   }
 
   /**
@@ -81,7 +90,7 @@ public class TraceriesManager
    */
   public Tracery getTracery(int id)
   {
-    return _cache.get(Integer.valueOf(id));
+    return _cache.get(id);
   }
 
   /**
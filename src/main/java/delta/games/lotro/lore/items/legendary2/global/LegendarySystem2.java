@@ -17,7 +17,7 @@ public class LegendarySystem2
 {
   private static final Logger LOGGER=Logger.getLogger(LegendarySystem2.class);
 
-  private static LegendarySystem2 _instance=null;
+  private static volatile LegendarySystem2 _instance;
 
   private LegendaryData2 _data;
 
@@ -27,11 +27,20 @@ public class LegendarySystem2
    */
   public static LegendarySystem2 getInstance()
   {
-    if (_instance==null)
+    LegendarySystem2 ret=_instance;
+    if (ret==null)
     {
-      _instance=new LegendarySystem2();
+      synchronized(LegendarySystem2.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new LegendarySystem2();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.items.paper;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,6 +16,7 @@ import delta.games.lotro.common.enums.comparator.LotroEnumEntryNameComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.paper.io.xml.PaperItemsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for paper items access.
@@ -26,9 +26,9 @@ public class PaperItemsManager
 {
   private static final Logger LOGGER=Logger.getLogger(PaperItemsManager.class);
 
-  private static PaperItemsManager _instance=null;
+  private static volatile PaperItemsManager _instance;
 
-  private HashMap<Integer,PaperItem> _cache;
+  private IntObjectMap<PaperItem> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -36,11 +36,20 @@ public class PaperItemsManager
    */
   public static PaperItemsManager getInstance()
   {
-    if (_instance==null)
+    PaperItemsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new PaperItemsManager(true);
+      synchronized(PaperItemsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new PaperItemsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -49,7 +58,7 @@ public class PaperItemsManager
    */
   private PaperItemsManager(boolean load)
   {
-    _cache=new HashMap<Integer,PaperItem>(100);
+    _cache=new IntObjectMap<PaperItem>(100);
     if (load)
     {
       loadAll();
@@ -68,7 +77,7 @@ public class PaperItemsManager
     List<PaperItem> paperItems=new PaperItemsXMLParser().parsepaperItemsFile(paperItemsFile);
     for(PaperItem paperItem : paperItems)
     {
-      _cache.put(Integer.valueOf(paperItem.getIdentifier()),paperItem);
+      _cache.put(paperItem.getIdentifier(),paperItem);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -114,7 +123,7 @@ public class PaperItemsManager
   public PaperItem getPaperItem(int id)
   {
     PaperItem ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
@@ -2,15 +2,15 @@ package delta.games.lotro.lore.items.sets;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.items.sets.io.xml.ItemsSetXMLParser;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for access to item sets.
@@ -20,7 +20,8 @@ public final class ItemsSetsManager
 {
   private static ItemsSetsManager _instance=new ItemsSetsManager();
 
-  private Map<Integer,ItemsSet> _setsById;
+  private IntObjectMap<ItemsSet> _setsById;
+  private SortedView<ItemsSet> _sortedById;
 
   /**
    * Get the sole instance of this class.
@@ -36,7 +37,8 @@ public final class ItemsSetsManager
    */
   public ItemsSetsManager()
   {
-    _setsById=new HashMap<Integer,ItemsSet>();
+    _setsById=new IntObjectMap<ItemsSet>();
+    _sortedById=new SortedView<ItemsSet>(new IdentifiableComparator<ItemsSet>());
     loadAll();
   }
 
@@ -66,7 +68,9 @@ public final class ItemsSetsManager
    */
   public void registerSet(ItemsSet set)
   {
-    _setsById.put(Integer.valueOf(set.getIdentifier()),set);
+    _setsById.put(set.getIdentifier(),set);
+    _sortedById.invalidate();
+    ReferencesIndex.invalidateAll();
   }
 
   /**
@@ -76,18 +80,21 @@ public final class ItemsSetsManager
    */
   public ItemsSet getSetById(int setId)
   {
-    return _setsById.get(Integer.valueOf(setId));
+    return _setsById.get(setId);
   }
 
   /**
    * Get all sets.
-   * @return a list of all sets.
+   * @return An immutable list of all sets.
    */
   public List<ItemsSet> getAll()
   {
-    List<ItemsSet> ret=new ArrayList<ItemsSet>();
-    ret.addAll(_setsById.values());
-    Collections.sort(ret,new IdentifiableComparator<ItemsSet>());
+    List<ItemsSet> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_setsById.values());
+    }
     return ret;
   }
 
@@ -12,7 +12,7 @@ import delta.games.lotro.config.LotroCoreConfig;
  */
 public class DPSTables
 {
-  private static ValueTablesManager _instance=null;
+  private static volatile ValueTablesManager _instance;
 
   /**
    * Get the DPS tables manager.
@@ -20,11 +20,20 @@ public class DPSTables
    */
   public static ValueTablesManager getDPSTablesManager()
   {
-    if (_instance==null)
+    ValueTablesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=buildDPSTablesManager();
+      synchronized(DPSTables.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=buildDPSTablesManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static ValueTablesManager buildDPSTablesManager()
@@ -19,7 +19,7 @@ import delta.games.lotro.lore.items.weapons.io.xml.WeaponDamageXMLParser;
  */
 public class WeaponDamageManager
 {
-  private static WeaponDamageManager _instance=null;
+  private static volatile WeaponDamageManager _instance;
   private Map<WeaponType,Float> _typeToVariance;
 
   /**
@@ -28,11 +28,20 @@ public class WeaponDamageManager
    */
   public static WeaponDamageManager getWeaponDamageManager()
   {
-    if (_instance==null)
+    WeaponDamageManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(WeaponDamageManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -13,7 +13,7 @@ import delta.games.lotro.lore.items.weapons.io.xml.WeaponSpeedTablesXMLParser;
  */
 public class WeaponSpeedsManager
 {
-  private static WeaponSpeedsManager _instance=null;
+  private static volatile WeaponSpeedsManager _instance;
   private WeaponSpeedTables _tables;
 
   /**
@@ -22,11 +22,20 @@ public class WeaponSpeedsManager
    */
   public static WeaponSpeedsManager getWeaponSpeedsManager()
   {
-    if (_instance==null)
+    WeaponSpeedsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new WeaponSpeedsManager();
+      synchronized(WeaponSpeedsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new WeaponSpeedsManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private WeaponSpeedsManager()
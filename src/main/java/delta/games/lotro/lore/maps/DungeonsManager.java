@@ -4,14 +4,13 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.maps.io.xml.DungeonXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all dungeons.
@@ -19,8 +18,8 @@ import delta.games.lotro.lore.maps.io.xml.DungeonXMLParser;
  */
 public class DungeonsManager
 {
-  private static DungeonsManager _instance=null;
-  private Map<Integer,Dungeon> _dungeons;
+  private static volatile DungeonsManager _instance;
+  private IntObjectMap<Dungeon> _dungeons;
 
   /**
    * Get the reference instance of this class.
@@ -28,11 +27,20 @@ public class DungeonsManager
    */
   public static DungeonsManager getInstance()
   {
-    if (_instance==null)
+    DungeonsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(DungeonsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static DungeonsManager load()
@@ -46,7 +54,7 @@ public class DungeonsManager
    */
   public DungeonsManager()
   {
-    _dungeons=new HashMap<Integer,Dungeon>();
+    _dungeons=new IntObjectMap<Dungeon>();
   }
 
   /**
@@ -55,7 +63,7 @@ public class DungeonsManager
    */
   public void addDungeon(Dungeon dungeon)
   {
-    Integer key=Integer.valueOf(dungeon.getIdentifier());
+    int key=dungeon.getIdentifier();
     _dungeons.put(key,dungeon);
   }
 
@@ -66,7 +74,7 @@ public class DungeonsManager
    */
   public Dungeon getDungeonById(int dungeonId)
   {
-    return _dungeons.get(Integer.valueOf(dungeonId));
+    return _dungeons.get(dungeonId);
   }
 
   /**
@@ -4,9 +4,7 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -14,6 +12,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.maps.io.xml.GeoAreasXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all geographic areas.
@@ -22,10 +21,10 @@ import delta.games.lotro.lore.maps.io.xml.GeoAreasXMLParser;
 public class GeoAreasManager
 {
   private static final Logger LOGGER=Logger.getLogger(GeoAreasManager.class);
-  private static GeoAreasManager _instance=null;
-  private Map<Integer,Region> _regions;
-  private Map<Integer,Territory> _territories;
-  private Map<Integer,Area> _areas;
+  private static volatile GeoAreasManager _instance;
+  private IntObjectMap<Region> _regions;
+  private IntObjectMap<Territory> _territories;
+  private IntObjectMap<Area> _areas;
 
   /**
    * Get the reference instance of this class.
@@ -33,11 +32,20 @@ public class GeoAreasManager
    */
   public static GeoAreasManager getInstance()
   {
-    if (_instance==null)
+    GeoAreasManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(GeoAreasManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static GeoAreasManager load()
@@ -51,9 +59,9 @@ public class GeoAreasManager
    */
   public GeoAreasManager()
   {
-    _regions=new HashMap<Integer,Region>();
-    _territories=new HashMap<Integer,Territory>();
-    _areas=new HashMap<Integer,Area>();
+    _regions=new IntObjectMap<Region>();
+    _territories=new IntObjectMap<Territory>();
+    _areas=new IntObjectMap<Area>();
   }
 
   /**
@@ -62,7 +70,7 @@ public class GeoAreasManager
    */
   public void addRegion(Region region)
   {
-    Integer key=Integer.valueOf(region.getIdentifier());
+    int key=region.getIdentifier();
     _regions.put(key,region);
   }
 
@@ -73,7 +81,7 @@ public class GeoAreasManager
    */
   public Region getRegionById(int regionId)
   {
-    return _regions.get(Integer.valueOf(regionId));
+    return _regions.get(regionId);
   }
 
   /**
@@ -111,7 +119,7 @@ public class GeoAreasManager
    */
   public void addTerritory(Territory territory)
   {
-    Integer key=Integer.valueOf(territory.getIdentifier());
+    int key=territory.getIdentifier();
     _territories.put(key,territory);
   }
 
@@ -122,7 +130,7 @@ public class GeoAreasManager
    */
   public Territory getTerritoryById(int territoryId)
   {
-    return _territories.get(Integer.valueOf(territoryId));
+    return _territories.get(territoryId);
   }
 
   /**
@@ -162,7 +170,7 @@ public class GeoAreasManager
    */
   public void addArea(Area area)
   {
-    Integer key=Integer.valueOf(area.getIdentifier());
+    int key=area.getIdentifier();
     _areas.put(key,area);
   }
 
@@ -173,7 +181,7 @@ public class GeoAreasManager
    */
   public Area getAreaById(int areaId)
   {
-    return _areas.get(Integer.valueOf(areaId));
+    return _areas.get(areaId);
   }
 
   /**
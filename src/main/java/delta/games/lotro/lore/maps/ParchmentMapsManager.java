@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +13,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.maps.io.xml.ParchmentMapsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for all parchment maps.
@@ -23,8 +23,8 @@ public class ParchmentMapsManager
 {
   private static final Logger LOGGER=Logger.getLogger(ParchmentMapsManager.class);
 
-  private static ParchmentMapsManager _instance=null;
-  private Map<Integer,ParchmentMap> _maps;
+  private static volatile ParchmentMapsManager _instance;
+  private IntObjectMap<ParchmentMap> _maps;
 
   /**
    * Get the reference instance of this class.
@@ -32,11 +32,20 @@ public class ParchmentMapsManager
    */
   public static ParchmentMapsManager getInstance()
   {
-    if (_instance==null)
+    ParchmentMapsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(ParchmentMapsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static ParchmentMapsManager load()
@@ -50,7 +59,7 @@ public class ParchmentMapsManager
    */
   public ParchmentMapsManager()
   {
-    _maps=new HashMap<Integer,ParchmentMap>();
+    _maps=new IntObjectMap<ParchmentMap>();
   }
 
   /**
@@ -59,7 +68,7 @@ public class ParchmentMapsManager
    */
   public void addParchmentMap(ParchmentMap map)
   {
-    Integer key=Integer.valueOf(map.getIdentifier());
+    int key=map.getIdentifier();
     _maps.put(key,map);
   }
 
@@ -70,7 +79,7 @@ public class ParchmentMapsManager
    */
   public ParchmentMap getMapById(int mapId)
   {
-    return _maps.get(Integer.valueOf(mapId));
+    return _maps.get(mapId);
   }
 
   /**
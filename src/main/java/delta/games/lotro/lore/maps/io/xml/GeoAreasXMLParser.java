@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.maps.io.xml;
 
 import java.io.File;
-import java.util.List;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -13,6 +12,8 @@ import delta.games.lotro.lore.maps.GeoAreasManager;
 import delta.games.lotro.lore.maps.Region;
 import delta.games.lotro.lore.maps.Territory;
 import delta.games.lotro.utils.i18n.I18nFacade;
+import delta.games.lotro.utils.io.xml.StreamingXMLParser;
+import delta.games.lotro.utils.io.xml.XMLRecordHandler;
 
 /**
  * Parser for the geographic areas stored in XML.
@@ -37,45 +38,34 @@ public class GeoAreasXMLParser
    */
   public GeoAreasManager parseXML(File source)
   {
-    GeoAreasManager ret=null;
-    Element root=DOMParsingTools.parse(source);
-    if (root!=null)
+    final GeoAreasManager mgr=new GeoAreasManager();
+    // Regions, then territories, then areas (as written by the writer):
+    // each record only refers to records found before it
+    XMLRecordHandler handler=new XMLRecordHandler()
     {
-      ret=parseGeoAreas(root);
-    }
-    return ret;
-  }
-
-  /**
-   * Build a geographic areas manager from an XML tag.
-   * @param rootTag Root tag.
-   * @return A geographic areas manager.
-   */
-  private GeoAreasManager parseGeoAreas(Element rootTag)
-  {
-    GeoAreasManager mgr=new GeoAreasManager();
-    // Regions
-    List<Element> regionTags=DOMParsingTools.getChildTagsByName(rootTag,GeoAreasXMLConstants.REGION_TAG);
-    for(Element regionTag : regionTags)
-    {
-      Region region=parseRegion(regionTag);
-      mgr.addRegion(region);
-    }
-    // Territories
-    List<Element> territoryTags=DOMParsingTools.getChildTagsByName(rootTag,GeoAreasXMLConstants.TERRITORY_TAG);
-    for(Element territoryTag : territoryTags)
-    {
-      Territory territory=parseTerritory(mgr,territoryTag);
-      mgr.addTerritory(territory);
-    }
-    // Areas
-    List<Element> areaTags=DOMParsingTools.getChildTagsByName(rootTag,GeoAreasXMLConstants.AREA_TAG);
-    for(Element areaTag : areaTags)
-    {
-      Area area=parseArea(mgr,areaTag);
-      mgr.addArea(area);
-    }
-    return mgr;
+      @Override
+      public void handleRecord(Element tag)
+      {
+        String tagName=tag.getTagName();
+        if (GeoAreasXMLConstants.REGION_TAG.equals(tagName))
+        {
+          Region region=parseRegion(tag);
+          mgr.addRegion(region);
+        }
+        else if (GeoAreasXMLConstants.TERRITORY_TAG.equals(tagName))
+        {
+          Territory territory=parseTerritory(mgr,tag);
+          mgr.addTerritory(territory);
+        }
+        else if (GeoAreasXMLConstants.AREA_TAG.equals(tagName))
+        {
+          Area area=parseArea(mgr,tag);
+          mgr.addArea(area);
+        }
+      }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(source,handler);
+    return ok?mgr:null;
   }
 
   private Region parseRegion(Element regionTag)
@@ -0,0 +1,173 @@
+package delta.games.lotro.lore.maps.landblocks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import delta.common.utils.math.geometry.Vector3D;
+
+/**
+ * Spatial index of the cells of a landblock (3D k-d tree).
+ * <p>
+ * The tree is stored in arrays: the median of each range is the node,
+ * and the two halves of the range are its children.
+ * Nearest cell queries do not allocate.
+ * @author DAM
+ */
+final class CellsIndex
+{
+  private Cell[] _cells;
+  private float[] _x;
+  private float[] _y;
+  private float[] _z;
+  // Rank of each cell in the source order, used to resolve ties
+  private int[] _ranks;
+
+  /**
+   * Constructor.
+   * @param cells Cells to index, in their reference order.
+   * Cells that have no position are ignored.
+   */
+  CellsIndex(List<Cell> cells)
+  {
+    List<RankedCell> ranked=new ArrayList<RankedCell>();
+    int rank=0;
+    for(Cell cell : cells)
+    {
+      if (cell.getPosition()!=null)
+      {
+        ranked.add(new RankedCell(cell,rank));
+      }
+      rank++;
+    }
+    build(ranked,0,ranked.size(),0);
+    int size=ranked.size();
+    _cells=new Cell[size];
+    _x=new float[size];
+    _y=new float[size];
+    _z=new float[size];
+    _ranks=new int[size];
+    for(int i=0;i<size;i++)
+    {
+      RankedCell rankedCell=ranked.get(i);
+      Vector3D position=rankedCell._cell.getPosition();
+      _cells[i]=rankedCell._cell;
+      _x[i]=position.getX();
+      _y[i]=position.getY();
+      _z[i]=position.getZ();
+      _ranks[i]=rankedCell._rank;
+    }
+  }
+
+  private static void build(List<RankedCell> cells, int from, int to, final int axis)
+  {
+    if (to-from<=1)
+    {
+      return;
+    }
+    Comparator<RankedCell> comparator=new Comparator<RankedCell>()
+    {
+      @Override
+      public int compare(RankedCell c1, RankedCell c2)
+      {
+        return Float.compare(getCoordinate(c1._cell.getPosition(),axis),getCoordinate(c2._cell.getPosition(),axis));
+      }
+    };
+    Collections.sort(cells.subList(from,to),comparator);
+    int middle=(from+to)>>>1;
+    int nextAxis=(axis+1)%3;
+    build(cells,from,middle,nextAxis);
+    build(cells,middle+1,to,nextAxis);
+  }
+
+  private static float getCoordinate(Vector3D position, int axis)
+  {
+    if (axis==0) return position.getX();
+    if (axis==1) return position.getY();
+    return position.getZ();
+  }
+
+  /**
+   * Find the nearest cell of a position.
+   * When several cells are at the same distance, the first one in the reference order is used.
+   * @param x X coordinate.
+   * @param y Y coordinate.
+   * @param z Z coordinate.
+   * @return A cell or <code>null</code> if none.
+   */
+  Cell getNearestCell(float x, float y, float z)
+  {
+    int best=search(0,_cells.length,0,x,y,z,-1);
+    return (best>=0)?_cells[best]:null;
+  }
+
+  private int search(int from, int to, int axis, float x, float y, float z, int best)
+  {
+    if (from>=to)
+    {
+      return best;
+    }
+    int middle=(from+to)>>>1;
+    int ret=best;
+    float value=getDistance(middle,x,y,z);
+    if (value<Float.MAX_VALUE)
+    {
+      if (ret<0)
+      {
+        ret=middle;
+      }
+      else
+      {
+        float bestValue=getDistance(ret,x,y,z);
+        if ((value<bestValue) || ((value==bestValue) && (_ranks[middle]<_ranks[ret])))
+        {
+          ret=middle;
+        }
+      }
+    }
+    float delta;
+    if (axis==0) delta=x-_x[middle];
+    else if (axis==1) delta=y-_y[middle];
+    else delta=z-_z[middle];
+    int nextAxis=(axis+1)%3;
+    // Search the side of the position first, then the other side if it may contain a better cell
+    if (delta<0)
+    {
+      ret=search(from,middle,nextAxis,x,y,z,ret);
+      if ((ret<0) || (delta*delta<=getDistance(ret,x,y,z)))
+      {
+        ret=search(middle+1,to,nextAxis,x,y,z,ret);
+      }
+    }
+    else
+    {
+      ret=search(middle+1,to,nextAxis,x,y,z,ret);
+      if ((ret<0) || (delta*delta<=getDistance(ret,x,y,z)))
+      {
+        ret=search(from,middle,nextAxis,x,y,z,ret);
+      }
+    }
+    return ret;
+  }
+
+  private float getDistance(int index, float x, float y, float z)
+  {
+    float dx=Math.abs(x-_x[index]);
+    float dy=Math.abs(y-_y[index]);
+    float dz=Math.abs(z-_z[index]);
+    return dx*dx+dy*dy+dz*dz;
+  }
+
+  private static class RankedCell
+  {
+    private Cell _cell;
+    private int _rank;
+
+    private RankedCell(Cell cell, int rank)
+    {
+      _cell=cell;
+      _rank=rank;
+    }
+  }
+}
@@ -1,14 +1,13 @@
 package delta.games.lotro.lore.maps.landblocks;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
 import delta.common.utils.math.geometry.Vector3D;
 import delta.games.lotro.lore.geo.BlockReference;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Landblock.
@@ -21,10 +20,14 @@ public class Landblock
   private static final Logger LOGGER=Logger.getLogger(Landblock.class);
 
   private BlockReference _id;
-  private Map<Integer,Cell> _cells;
+  private IntObjectMap<Cell> _cells;
   private Integer _parentDungeon;
   private Integer _parentArea;
   private float _centerHeight;
+  // Indicates if at least one cell has a dungeon
+  private boolean _hasCellDungeon;
+  // Spatial index of cells (built on first use)
+  private volatile CellsIndex _cellsIndex;
 
   /**
    * Constructor.
@@ -33,7 +36,7 @@ public class Landblock
   public Landblock(BlockReference id)
   {
     _id=id;
-    _cells=new HashMap<Integer,Cell>();
+    _cells=new IntObjectMap<Cell>();
   }
 
   /**
@@ -51,7 +54,12 @@ public class Landblock
    */
   public void addCell(Cell cell)
   {
-    _cells.put(Integer.valueOf(cell.getIndex()),cell);
+    _cells.put(cell.getIndex(),cell);
+    if (cell.getDungeonId()!=null)
+    {
+      _hasCellDungeon=true;
+    }
+    _cellsIndex=null;
   }
 
   /**
@@ -61,7 +69,7 @@ public class Landblock
    */
   public Cell getCell(int cellIndex)
   {
-    Cell cell=_cells.get(Integer.valueOf(cellIndex));
+    Cell cell=_cells.get(cellIndex);
     return cell;
   }
 
@@ -72,7 +80,7 @@ public class Landblock
    */
   public Integer getCellDungeon(int cellIndex)
   {
-    Cell cell=_cells.get(Integer.valueOf(cellIndex));
+    Cell cell=_cells.get(cellIndex);
     if (cell!=null)
     {
       return cell.getDungeonId();
@@ -86,7 +94,13 @@ public class Landblock
    */
   public List<Integer> getCellIndexes()
   {
-    return new ArrayList<Integer>(_cells.keySet());
+    int[] keys=_cells.keys();
+    List<Integer> ret=new ArrayList<Integer>(keys.length);
+    for(int key : keys)
+    {
+      ret.add(Integer.valueOf(key));
+    }
+    return ret;
   }
 
   /**
@@ -169,17 +183,31 @@ public class Landblock
    */
   public Integer getParentData(int cell, Vector3D position)
   {
-    Integer ret=null;
+    int ret=getParentData(cell,position.getX(),position.getY(),position.getZ());
+    return (ret!=0)?Integer.valueOf(ret):null;
+  }
+
+  /**
+   * Get the parent zone identifier, without allocation.
+   * @param cell Cell index to use.
+   * @param x X coordinate of the point to check.
+   * @param y Y coordinate of the point to check.
+   * @param z Z coordinate of the point to check.
+   * @return A parent zone identifier or <code>0</code>.
+   */
+  public int getParentData(int cell, float x, float y, float z)
+  {
+    int ret=0;
 
     if (cell>0)
     {
       // Dungeon
-      ret=getCellDungeon(cell);
-      if (ret==null)
+      ret=toInt(getCellDungeon(cell));
+      if (ret==0)
       {
-        ret=getParentDungeon();
+        ret=toInt(_parentDungeon);
       }
-      if (ret==null)
+      if (ret==0)
       {
         if (LOGGER.isDebugEnabled())
         {
@@ -190,59 +218,54 @@ public class Landblock
     else if (cell==0)
     {
       // Landscape
-      ret=getParentArea();
+      ret=toInt(_parentArea);
     }
     else // Cell not set, cell=-1 (entities)
     {
       boolean hasDungeon=hasDungeon();
-      if ((hasDungeon) && (position.getZ()<_centerHeight))
+      if ((hasDungeon) && (z<_centerHeight))
       {
         // In dungeon
         int nbCells=_cells.size();
         if (nbCells>0)
         {
-          Cell nearestCell=getNearestCell(position);
+          Cell nearestCell=getCellsIndex().getNearestCell(x,y,z);
           if (nearestCell!=null)
           {
-            ret=nearestCell.getDungeonId();
+            ret=toInt(nearestCell.getDungeonId());
           }
-          if (ret==null)
+          if (ret==0)
           {
-            ret=getParentDungeon();
+            ret=toInt(_parentDungeon);
           }
         }
       }
     }
     // Default
-    if (ret==null)
+    if (ret==0)
     {
-      ret=getParentArea();
+      ret=toInt(_parentArea);
     }
     return ret;
   }
 
+  private static int toInt(Integer value)
+  {
+    return (value!=null)?value.intValue():0;
+  }
+
   private boolean hasDungeon()
   {
-    if (_parentDungeon!=null) return true;
-    return (!getDungeonsFromCells().isEmpty());
+    return ((_parentDungeon!=null) || (_hasCellDungeon));
   }
 
-  private Cell getNearestCell(Vector3D position)
+  private CellsIndex getCellsIndex()
   {
-    Cell ret=null;
-    float min=Float.MAX_VALUE;
-    for(Cell cell : _cells.values())
+    CellsIndex ret=_cellsIndex;
+    if (ret==null)
     {
-      Vector3D cellPosition=cell.getPosition();
-      float dx=Math.abs(position.getX()-cellPosition.getX());
-      float dy=Math.abs(position.getY()-cellPosition.getY());
-      float dz=Math.abs(position.getZ()-cellPosition.getZ());
-      float value=dx*dx+dy*dy+dz*dz;
-      if (value<min)
-      {
-        ret=cell;
-        min=value;
-      }
+      ret=new CellsIndex(_cells.values());
+      _cellsIndex=ret;
     }
     return ret;
   }
@@ -261,7 +284,7 @@ public class Landblock
     }
     if (_cells.size()>0)
     {
-      sb.append(", cells=").append(_cells);
+      sb.append(", cells=").append(_cells.values());
     }
     return sb.toString();
   }
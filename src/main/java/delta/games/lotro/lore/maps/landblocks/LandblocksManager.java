@@ -1,10 +1,8 @@
 package delta.games.lotro.lore.maps.landblocks;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -12,21 +10,44 @@ import delta.common.utils.math.geometry.Vector3D;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.geo.BlockReference;
+import delta.games.lotro.lore.maps.landblocks.io.binary.LandblocksBinaryFile;
 import delta.games.lotro.lore.maps.landblocks.io.xml.LandblocksXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Manager for landblocks.
  * <ul>
  * <li>Gives the parent zone for positions.
  * </ul>
+ * Landblocks are indexed by a packed integer key: region, block X and block Y
+ * (block coordinates are in the 0-255 range).
+ * <p>
+ * When backed by a landblocks binary file, the landblocks of a region are loaded
+ * on first use, and unloaded when the region was not used for a while.
+ * Added landblocks are always kept in memory.
+ * <p>
+ * Lookups do not lock: the landblocks index and the loaded regions are immutable
+ * snapshots, replaced (under the lock of this manager) when landblocks are added
+ * or when regions are loaded or unloaded.
  * @author DAM
  */
 public class LandblocksManager
 {
   private static final Logger LOGGER=Logger.getLogger(LandblocksManager.class);
 
-  private static LandblocksManager _instance=null;
-  private Map<String,Landblock> _index;
+  /**
+   * Default delay before an unused region is unloaded (milliseconds).
+   */
+  public static final long DEFAULT_IDLE_DELAY=60*1000;
+
+  private static volatile LandblocksManager _instance;
+  // Copy-on-write
+  private volatile IntObjectMap<Landblock> _index;
+  // Paged landblocks (null if not backed by a binary file)
+  private LandblocksBinaryFile _file;
+  // Copy-on-write
+  private volatile IntObjectMap<RegionPage> _pages;
+  private volatile long _idleDelay;
 
   /**
    * Get the reference instance of this class.
@@ -34,16 +55,37 @@ public class LandblocksManager
    */
   public static LandblocksManager getInstance()
   {
-    if (_instance==null)
+    LandblocksManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(LandblocksManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static LandblocksManager load()
   {
-    File from=LotroCoreConfig.getInstance().getFile(DataFiles.LANDBLOCKS);
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    File from=cfg.getFile(DataFiles.LANDBLOCKS);
+    File binaryFile=cfg.getFile(DataFiles.LANDBLOCKS_BINARY);
+    if ((binaryFile!=null) && (LandblocksBinaryFile.isUpToDate(binaryFile,from)))
+    {
+      LandblocksBinaryFile file=LandblocksBinaryFile.open(binaryFile);
+      if (file!=null)
+      {
+        return new LandblocksManager(file);
+      }
+      LOGGER.warn("Could not use landblocks file "+binaryFile+". Falling back to XML.");
+    }
+    // The binary file is built by LandblocksBinaryBuilder, never while loading
     return new LandblocksXMLParser().parseXML(from);
   }
 
@@ -52,21 +94,70 @@ public class LandblocksManager
    */
   public LandblocksManager()
   {
-    _index=new HashMap<String,Landblock>();
+    this(null);
   }
 
-  private String getKey(int region, int blockX, int blockY)
+  /**
+   * Constructor.
+   * @param file Landblocks binary file to use (may be <code>null</code>).
+   */
+  public LandblocksManager(LandblocksBinaryFile file)
   {
-    return region+"#"+blockX+"#"+blockY;
+    _index=new IntObjectMap<Landblock>();
+    _file=file;
+    _pages=new IntObjectMap<RegionPage>();
+    _idleDelay=DEFAULT_IDLE_DELAY;
+  }
+
+  /**
+   * Set the delay before an unused region is unloaded.
+   * @param idleDelay Delay to set (milliseconds).
+   */
+  public void setIdleDelay(long idleDelay)
+  {
+    _idleDelay=idleDelay;
+  }
+
+  /**
+   * Get the packed key of a landblock.
+   * @param region Region.
+   * @param blockX Block X.
+   * @param blockY Block Y.
+   * @return A key or <code>-1</code> if the given values are out of range.
+   */
+  public static int getKey(int region, int blockX, int blockY)
+  {
+    if ((region<0) || (region>0x7FFF) || (blockX<0) || (blockX>0xFF) || (blockY<0) || (blockY>0xFF))
+    {
+      return -1;
+    }
+    return (region<<16)|(blockX<<8)|blockY;
   }
 
   /**
    * Get the managed landblocks.
+   * Regions read from the binary file are cached, as for landblock lookups.
    * @return a list of landblocks.
    */
   public List<Landblock> getLandblocks()
   {
-    return new ArrayList<Landblock>(_index.values());
+    IntObjectMap<Landblock> index=_index;
+    List<Landblock> ret=index.values();
+    if (_file!=null)
+    {
+      for(int region : _file.getRegions())
+      {
+        RegionPage page=getRegionPage(region);
+        for(int key : page._landblocks.keys())
+        {
+          if (!index.containsKey(key))
+          {
+            ret.add(page.get(key));
+          }
+        }
+      }
+    }
+    return ret;
   }
 
   /**
@@ -78,9 +169,104 @@ public class LandblocksManager
    */
   public Landblock getLandblock(int region, int blockX, int blockY)
   {
-    String key=getKey(region,blockX,blockY);
-    Landblock data=_index.get(key);
-    return data;
+    int key=getKey(region,blockX,blockY);
+    return (key>=0)?getLandblock(key):null;
+  }
+
+  private Landblock getLandblock(int key)
+  {
+    Landblock ret=_index.get(key);
+    if ((ret==null) && (_file!=null))
+    {
+      ret=getRegionPage(key>>>16).get(key);
+    }
+    return ret;
+  }
+
+  private RegionPage getRegionPage(int region)
+  {
+    RegionPage ret=_pages.get(region);
+    if (ret==null)
+    {
+      ret=loadRegionPage(region);
+    }
+    // Only written when needed: lookups do not contend on the page
+    if (!ret._used)
+    {
+      ret._used=true;
+    }
+    return ret;
+  }
+
+  private synchronized RegionPage loadRegionPage(int region)
+  {
+    RegionPage ret=_pages.get(region);
+    if (ret==null)
+    {
+      long now=System.currentTimeMillis();
+      evictIdleRegions(now);
+      ret=new RegionPage(_file.loadRegion(region),now);
+      IntObjectMap<RegionPage> pages=copy(_pages);
+      pages.put(region,ret);
+      _pages=pages;
+      LOGGER.debug("Loaded region "+region+": "+ret._landblocks.size()+" landblocks");
+    }
+    return ret;
+  }
+
+  /**
+   * Unload the regions that were not used for a while.
+   * @return the number of unloaded regions.
+   */
+  public synchronized int evictIdleRegions()
+  {
+    return evictIdleRegions(System.currentTimeMillis());
+  }
+
+  /**
+   * Unload the regions that were not used for the idle delay.
+   * A region used since the previous check is considered as used now,
+   * so a region is never unloaded before the idle delay.
+   * @param now Current time.
+   * @return the number of unloaded regions.
+   */
+  private int evictIdleRegions(long now)
+  {
+    IntObjectMap<RegionPage> pages=_pages;
+    IntObjectMap<RegionPage> newPages=null;
+    for(int region : pages.keys())
+    {
+      RegionPage page=pages.get(region);
+      if (page._used)
+      {
+        page._used=false;
+        page._lastUse=now;
+      }
+      if (now-page._lastUse>=_idleDelay)
+      {
+        if (newPages==null)
+        {
+          newPages=copy(pages);
+        }
+        newPages.remove(region);
+        LOGGER.debug("Unloaded region "+region);
+      }
+    }
+    if (newPages==null)
+    {
+      return 0;
+    }
+    _pages=newPages;
+    return pages.size()-newPages.size();
+  }
+
+  /**
+   * Get the number of regions currently loaded from the binary file.
+   * @return a regions count.
+   */
+  public int getLoadedRegionsCount()
+  {
+    return _pages.size();
   }
 
   /**
@@ -89,9 +275,40 @@ public class LandblocksManager
    */
   public void addLandblock(Landblock landblock)
   {
-    BlockReference blockId=landblock.getBlockId();
-    String key=getKey(blockId.getRegion(),blockId.getBlockX(),blockId.getBlockY());
-    _index.put(key,landblock);
+    addLandblocks(Collections.singletonList(landblock));
+  }
+
+  /**
+   * Add some landblocks.
+   * @param landblocks Landblocks to add.
+   */
+  public synchronized void addLandblocks(List<Landblock> landblocks)
+  {
+    IntObjectMap<Landblock> index=copy(_index);
+    for(Landblock landblock : landblocks)
+    {
+      BlockReference blockId=landblock.getBlockId();
+      int key=getKey(blockId.getRegion(),blockId.getBlockX(),blockId.getBlockY());
+      if (key>=0)
+      {
+        index.put(key,landblock);
+      }
+      else
+      {
+        LOGGER.warn("Landblock out of range: "+blockId);
+      }
+    }
+    _index=index;
+  }
+
+  private static <T> IntObjectMap<T> copy(IntObjectMap<T> map)
+  {
+    IntObjectMap<T> ret=new IntObjectMap<T>(map.size()+1);
+    for(int key : map.keys())
+    {
+      ret.put(key,map.get(key));
+    }
+    return ret;
   }
 
   /**
@@ -117,4 +334,87 @@ public class LandblocksManager
     }
     return ret;
   }
+
+  /**
+   * Get the parent zones (area or dungeon) for a series of positions.
+   * All arrays are indexed by position index.
+   * @param regions Regions.
+   * @param blockXs Block X values.
+   * @param blockYs Block Y values.
+   * @param cells Cells.
+   * @param xs X coordinates.
+   * @param ys Y coordinates.
+   * @param zs Z coordinates.
+   * @param storage Storage for the parent zone identifiers (<code>0</code> if not found).
+   * @return the number of positions that have a parent zone.
+   */
+  public int resolveParentZones(int[] regions, int[] blockXs, int[] blockYs, int[] cells,
+      float[] xs, float[] ys, float[] zs, int[] storage)
+  {
+    int nbPositions=storage.length;
+    int nbResolved=0;
+    int nbMissingLandblocks=0;
+    // Consecutive positions often are in the same landblock
+    int lastKey=-1;
+    Landblock lastLandblock=null;
+    for(int i=0;i<nbPositions;i++)
+    {
+      int key=getKey(regions[i],blockXs[i],blockYs[i]);
+      Landblock landblock=lastLandblock;
+      if ((key!=lastKey) || (key<0))
+      {
+        landblock=(key>=0)?getLandblock(key):null;
+        lastKey=key;
+        lastLandblock=landblock;
+      }
+      int zone=0;
+      if (landblock!=null)
+      {
+        zone=landblock.getParentData(cells[i],xs[i],ys[i],zs[i]);
+      }
+      else
+      {
+        nbMissingLandblocks++;
+      }
+      storage[i]=zone;
+      if (zone!=0)
+      {
+        nbResolved++;
+      }
+    }
+    if (nbMissingLandblocks>0)
+    {
+      LOGGER.warn("No parent data for "+nbMissingLandblocks+" position(s) out of "+nbPositions);
+    }
+    return nbResolved;
+  }
+
+  /**
+   * Landblocks of a region, loaded from the binary file.
+   */
+  private static class RegionPage
+  {
+    private IntObjectMap<Landblock> _landblocks;
+    // Set by lookups, cleared when checking idle regions
+    private volatile boolean _used;
+    // Time of the last check that found this region used (guarded by the manager lock)
+    private long _lastUse;
+
+    private RegionPage(List<Landblock> landblocks, long now)
+    {
+      _used=true;
+      _lastUse=now;
+      _landblocks=new IntObjectMap<Landblock>();
+      for(Landblock landblock : landblocks)
+      {
+        BlockReference blockId=landblock.getBlockId();
+        _landblocks.put(getKey(blockId.getRegion(),blockId.getBlockX(),blockId.getBlockY()),landblock);
+      }
+    }
+
+    private Landblock get(int key)
+    {
+      return _landblocks.get(key);
+    }
+  }
 }
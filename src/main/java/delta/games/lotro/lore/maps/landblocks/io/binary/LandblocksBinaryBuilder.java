@@ -0,0 +1,53 @@
+package delta.games.lotro.lore.maps.landblocks.io.binary;
+
+import java.io.File;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.maps.landblocks.LandblocksManager;
+import delta.games.lotro.lore.maps.landblocks.io.xml.LandblocksXMLParser;
+
+/**
+ * Build step for the landblocks binary file.
+ * The binary file is used by the landblocks manager if it is up to date,
+ * but it is never written while loading landblocks.
+ * @author DAM
+ */
+public class LandblocksBinaryBuilder
+{
+  private static final Logger LOGGER=Logger.getLogger(LandblocksBinaryBuilder.class);
+
+  /**
+   * Build the landblocks binary file.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean doIt()
+  {
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    File from=cfg.getFile(DataFiles.LANDBLOCKS);
+    File binaryFile=cfg.getFile(DataFiles.LANDBLOCKS_BINARY);
+    LandblocksManager landblocks=new LandblocksXMLParser().parseXML(from);
+    if (landblocks==null)
+    {
+      LOGGER.warn("Could not load landblocks from "+from);
+      return false;
+    }
+    boolean ok=LandblocksBinaryWriter.write(from,binaryFile,landblocks.getLandblocks());
+    if (ok)
+    {
+      LOGGER.info("Built landblocks file "+binaryFile);
+    }
+    return ok;
+  }
+
+  /**
+   * Main method for this tool.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new LandblocksBinaryBuilder().doIt();
+  }
+}
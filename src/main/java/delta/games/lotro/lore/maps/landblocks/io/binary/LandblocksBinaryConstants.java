@@ -0,0 +1,49 @@
+package delta.games.lotro.lore.maps.landblocks.io.binary;
+
+/**
+ * Constants for the landblocks binary files.
+ * <p>
+ * File layout:
+ * <ul>
+ * <li>header: magic, format version, length and timestamp of the source file, number of regions,
+ * <li>regions directory: for each region, its identifier, the offset and size of its data and its landblocks count,
+ * <li>regions data: the landblocks of each region, sorted by block X then block Y.
+ * </ul>
+ * Landblock record: block X and block Y (unsigned bytes), flags, area ID and dungeon ID (if set),
+ * center height, cells count, then the cells.
+ * <br>
+ * Cell record: index, flags, dungeon ID (if set), position (if set).
+ * @author DAM
+ */
+public class LandblocksBinaryConstants
+{
+  /**
+   * Magic number at the start of each landblocks file ('LCLB').
+   */
+  public static final int MAGIC=0x4C434C42;
+  /**
+   * Version of the file format.
+   */
+  public static final int FORMAT_VERSION=1;
+  /**
+   * Header size: magic, version, source length, source timestamp, regions count.
+   */
+  public static final int HEADER_SIZE=4+4+8+8+4;
+  /**
+   * Size of a region entry in the regions directory: region, offset, size, landblocks count.
+   */
+  public static final int REGION_ENTRY_SIZE=4+4+4+4;
+
+  /**
+   * Flag: area ID is set.
+   */
+  public static final byte HAS_AREA=1;
+  /**
+   * Flag: dungeon ID is set.
+   */
+  public static final byte HAS_DUNGEON=2;
+  /**
+   * Flag: position is set.
+   */
+  public static final byte HAS_POSITION=4;
+}
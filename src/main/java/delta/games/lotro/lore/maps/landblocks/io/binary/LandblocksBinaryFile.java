@@ -0,0 +1,263 @@
+package delta.games.lotro.lore.maps.landblocks.io.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import delta.common.utils.math.geometry.Vector3D;
+import delta.games.lotro.lore.geo.BlockReference;
+import delta.games.lotro.lore.maps.landblocks.Cell;
+import delta.games.lotro.lore.maps.landblocks.Landblock;
+import delta.games.lotro.utils.io.binary.BinaryIoUtils;
+
+/**
+ * Memory-mapped landblocks binary file.
+ * <p>
+ * Only the regions directory is read when the file is opened.
+ * The landblocks of a region are decoded on demand, each time they are requested.
+ * Instances of this class can be used by several threads.
+ * @author DAM
+ */
+public class LandblocksBinaryFile
+{
+  private static final Logger LOGGER=Logger.getLogger(LandblocksBinaryFile.class);
+
+  private File _file;
+  private MappedByteBuffer _buffer;
+  private int[] _regions;
+  private int[] _offsets;
+  private int[] _sizes;
+  private int[] _counts;
+
+  private LandblocksBinaryFile(File file, MappedByteBuffer buffer)
+  {
+    _file=file;
+    _buffer=buffer;
+  }
+
+  /**
+   * Indicates if a landblocks file is up to date with regards to its source file.
+   * @param file Landblocks binary file.
+   * @param source Source XML file.
+   * @return <code>true</code> if the binary file exists and was built from the current source file, <code>false</code> otherwise.
+   */
+  public static boolean isUpToDate(File file, File source)
+  {
+    if ((!file.isFile()) || (file.length()<LandblocksBinaryConstants.HEADER_SIZE))
+    {
+      return false;
+    }
+    boolean ret=false;
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(file,"r");
+      int magic=in.readInt();
+      int version=in.readInt();
+      long sourceLength=in.readLong();
+      long sourceTimestamp=in.readLong();
+      ret=((magic==LandblocksBinaryConstants.MAGIC) && (version==LandblocksBinaryConstants.FORMAT_VERSION)
+          && (sourceLength==source.length()) && (sourceTimestamp==source.lastModified()));
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read landblocks file header: "+file,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ret;
+  }
+
+  /**
+   * Open a landblocks binary file.
+   * @param file File to open.
+   * @return the opened file or <code>null</code> if it could not be opened.
+   */
+  public static LandblocksBinaryFile open(File file)
+  {
+    LandblocksBinaryFile ret=null;
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(file,"r");
+      FileChannel channel=in.getChannel();
+      // The mapping stays valid after the channel is closed
+      MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+      LandblocksBinaryFile binaryFile=new LandblocksBinaryFile(file,buffer);
+      if (binaryFile.readDirectory())
+      {
+        ret=binaryFile;
+      }
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not open landblocks file: "+file,ioe);
+    }
+    catch(BufferUnderflowException bue)
+    {
+      LOGGER.warn("Truncated landblocks file: "+file,bue);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ret;
+  }
+
+  private boolean readDirectory()
+  {
+    ByteBuffer buffer=_buffer.duplicate();
+    int magic=buffer.getInt();
+    int version=buffer.getInt();
+    if ((magic!=LandblocksBinaryConstants.MAGIC) || (version!=LandblocksBinaryConstants.FORMAT_VERSION))
+    {
+      LOGGER.warn("Bad landblocks file format: "+_file);
+      return false;
+    }
+    buffer.getLong(); // Source length
+    buffer.getLong(); // Source timestamp
+    int nbRegions=buffer.getInt();
+    _regions=new int[nbRegions];
+    _offsets=new int[nbRegions];
+    _sizes=new int[nbRegions];
+    _counts=new int[nbRegions];
+    for(int i=0;i<nbRegions;i++)
+    {
+      _regions[i]=buffer.getInt();
+      _offsets[i]=buffer.getInt();
+      _sizes[i]=buffer.getInt();
+      _counts[i]=buffer.getInt();
+      if (_offsets[i]+_sizes[i]>buffer.limit())
+      {
+        LOGGER.warn("Truncated landblocks file: "+_file);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the regions stored in this file.
+   * @return An array of region identifiers.
+   */
+  public int[] getRegions()
+  {
+    return _regions.clone();
+  }
+
+  /**
+   * Get the number of landblocks of a region.
+   * @param region Region to use.
+   * @return A landblocks count (<code>0</code> if the region is not stored).
+   */
+  public int getLandblocksCount(int region)
+  {
+    int index=getRegionIndex(region);
+    return (index>=0)?_counts[index]:0;
+  }
+
+  private int getRegionIndex(int region)
+  {
+    for(int i=0;i<_regions.length;i++)
+    {
+      if (_regions[i]==region)
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Load the landblocks of a region.
+   * @param region Region to load.
+   * @return A possibly empty list of new landblocks, sorted by block X then block Y.
+   */
+  public List<Landblock> loadRegion(int region)
+  {
+    int index=getRegionIndex(region);
+    if (index<0)
+    {
+      return new ArrayList<Landblock>();
+    }
+    int count=_counts[index];
+    List<Landblock> ret=new ArrayList<Landblock>(count);
+    // Each call uses its own view of the mapped data
+    ByteBuffer buffer=_buffer.duplicate();
+    buffer.position(_offsets[index]);
+    buffer.limit(_offsets[index]+_sizes[index]);
+    try
+    {
+      for(int i=0;i<count;i++)
+      {
+        ret.add(readLandblock(buffer,region));
+      }
+    }
+    catch(BufferUnderflowException bue)
+    {
+      LOGGER.warn("Truncated region "+region+" in landblocks file: "+_file,bue);
+    }
+    return ret;
+  }
+
+  private Landblock readLandblock(ByteBuffer buffer, int region)
+  {
+    int blockX=buffer.get()&0xFF;
+    int blockY=buffer.get()&0xFF;
+    Landblock ret=new Landblock(new BlockReference(region,blockX,blockY));
+    byte flags=buffer.get();
+    if ((flags&LandblocksBinaryConstants.HAS_AREA)!=0)
+    {
+      ret.setParentArea(buffer.getInt());
+    }
+    if ((flags&LandblocksBinaryConstants.HAS_DUNGEON)!=0)
+    {
+      ret.setParentDungeon(buffer.getInt());
+    }
+    ret.setCenterHeight(buffer.getFloat());
+    int nbCells=buffer.getInt();
+    for(int i=0;i<nbCells;i++)
+    {
+      ret.addCell(readCell(buffer));
+    }
+    return ret;
+  }
+
+  private Cell readCell(ByteBuffer buffer)
+  {
+    int index=buffer.getInt();
+    byte flags=buffer.get();
+    Integer dungeonId=null;
+    if ((flags&LandblocksBinaryConstants.HAS_DUNGEON)!=0)
+    {
+      dungeonId=Integer.valueOf(buffer.getInt());
+    }
+    Cell ret=new Cell(index,dungeonId);
+    if ((flags&LandblocksBinaryConstants.HAS_POSITION)!=0)
+    {
+      float x=buffer.getFloat();
+      float y=buffer.getFloat();
+      float z=buffer.getFloat();
+      Vector3D position=new Vector3D();
+      position.set(x,y,z);
+      ret.setPosition(position);
+    }
+    return ret;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "Landblocks file: "+_file;
+  }
+}
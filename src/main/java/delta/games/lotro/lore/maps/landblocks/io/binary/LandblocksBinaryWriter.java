@@ -0,0 +1,163 @@
+package delta.games.lotro.lore.maps.landblocks.io.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import delta.common.utils.math.geometry.Vector3D;
+import delta.games.lotro.lore.geo.BlockReference;
+import delta.games.lotro.lore.maps.landblocks.Cell;
+import delta.games.lotro.lore.maps.landblocks.Landblock;
+import delta.games.lotro.lore.maps.landblocks.comparators.LandblockIdComparator;
+import delta.games.lotro.utils.io.binary.BinaryIoUtils;
+
+/**
+ * Writes landblocks to binary files.
+ * @author DAM
+ */
+public class LandblocksBinaryWriter
+{
+  private static final Logger LOGGER=Logger.getLogger(LandblocksBinaryWriter.class);
+
+  /**
+   * Write a landblocks binary file.
+   * The file is written to a temporary file first, then renamed.
+   * @param source Source XML file (used for staleness checks).
+   * @param toFile Binary file to write.
+   * @param landblocks Landblocks to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean write(File source, File toFile, List<Landblock> landblocks)
+  {
+    List<Landblock> sorted=new ArrayList<Landblock>(landblocks);
+    Collections.sort(sorted,new LandblockIdComparator());
+    File parentDir=toFile.getAbsoluteFile().getParentFile();
+    if ((parentDir!=null) && (!parentDir.exists()))
+    {
+      parentDir.mkdirs();
+    }
+    File tmpFile=new File(toFile.getPath()+".tmp");
+    boolean ok=false;
+    DataOutputStream out=null;
+    try
+    {
+      // Regions data
+      List<Integer> regions=new ArrayList<Integer>();
+      List<Integer> counts=new ArrayList<Integer>();
+      List<byte[]> regionsData=new ArrayList<byte[]>();
+      int index=0;
+      int nbLandblocks=sorted.size();
+      while (index<nbLandblocks)
+      {
+        int region=sorted.get(index).getBlockId().getRegion();
+        ByteArrayOutputStream bytes=new ByteArrayOutputStream(64*1024);
+        DataOutputStream regionOut=new DataOutputStream(bytes);
+        int count=0;
+        while ((index<nbLandblocks) && (sorted.get(index).getBlockId().getRegion()==region))
+        {
+          writeLandblock(regionOut,sorted.get(index));
+          index++;
+          count++;
+        }
+        regionOut.flush();
+        regions.add(Integer.valueOf(region));
+        counts.add(Integer.valueOf(count));
+        regionsData.add(bytes.toByteArray());
+      }
+      out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile),64*1024));
+      // Header
+      out.writeInt(LandblocksBinaryConstants.MAGIC);
+      out.writeInt(LandblocksBinaryConstants.FORMAT_VERSION);
+      out.writeLong(source.length());
+      out.writeLong(source.lastModified());
+      int nbRegions=regions.size();
+      out.writeInt(nbRegions);
+      // Regions directory
+      int offset=LandblocksBinaryConstants.HEADER_SIZE+nbRegions*LandblocksBinaryConstants.REGION_ENTRY_SIZE;
+      for(int i=0;i<nbRegions;i++)
+      {
+        int size=regionsData.get(i).length;
+        out.writeInt(regions.get(i).intValue());
+        out.writeInt(offset);
+        out.writeInt(size);
+        out.writeInt(counts.get(i).intValue());
+        offset+=size;
+      }
+      // Regions data
+      for(byte[] regionData : regionsData)
+      {
+        out.write(regionData);
+      }
+      out.close();
+      out=null;
+      toFile.delete();
+      ok=tmpFile.renameTo(toFile);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write landblocks file: "+toFile,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(out);
+      if (!ok)
+      {
+        tmpFile.delete();
+      }
+    }
+    return ok;
+  }
+
+  private static void writeLandblock(DataOutputStream out, Landblock landblock) throws IOException
+  {
+    BlockReference blockId=landblock.getBlockId();
+    out.writeByte(blockId.getBlockX());
+    out.writeByte(blockId.getBlockY());
+    Integer areaId=landblock.getParentArea();
+    Integer dungeonId=landblock.getParentDungeon();
+    int flags=0;
+    if (areaId!=null) flags|=LandblocksBinaryConstants.HAS_AREA;
+    if (dungeonId!=null) flags|=LandblocksBinaryConstants.HAS_DUNGEON;
+    out.writeByte(flags);
+    if (areaId!=null) out.writeInt(areaId.intValue());
+    if (dungeonId!=null) out.writeInt(dungeonId.intValue());
+    out.writeFloat(landblock.getCenterHeight());
+    // Cells
+    List<Integer> cellIndexes=landblock.getCellIndexes();
+    out.writeInt(cellIndexes.size());
+    for(Integer cellIndex : cellIndexes)
+    {
+      Cell cell=landblock.getCell(cellIndex.intValue());
+      writeCell(out,cell);
+    }
+  }
+
+  private static void writeCell(DataOutputStream out, Cell cell) throws IOException
+  {
+    out.writeInt(cell.getIndex());
+    Integer dungeonId=cell.getDungeonId();
+    Vector3D position=cell.getPosition();
+    int flags=0;
+    if (dungeonId!=null) flags|=LandblocksBinaryConstants.HAS_DUNGEON;
+    if (position!=null) flags|=LandblocksBinaryConstants.HAS_POSITION;
+    out.writeByte(flags);
+    if (dungeonId!=null)
+    {
+      out.writeInt(dungeonId.intValue());
+    }
+    if (position!=null)
+    {
+      out.writeFloat(position.getX());
+      out.writeFloat(position.getY());
+      out.writeFloat(position.getZ());
+    }
+  }
+}
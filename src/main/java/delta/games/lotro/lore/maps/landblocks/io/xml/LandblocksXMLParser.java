@@ -1,6 +1,8 @@
 package delta.games.lotro.lore.maps.landblocks.io.xml;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.xml.sax.Attributes;
 
@@ -20,6 +22,8 @@ import delta.games.lotro.lore.maps.landblocks.LandblocksManager;
 public class LandblocksXMLParser extends SAXParserValve<LandblocksManager>
 {
   private Landblock _landblock;
+  private List<Landblock> _landblocks=new ArrayList<Landblock>();
+
   /**
    * Parse the XML file.
    * @param source Source file.
@@ -29,6 +33,12 @@ public class LandblocksXMLParser extends SAXParserValve<LandblocksManager>
   {
     SAXParserEngine<LandblocksManager> engine=new SAXParserEngine<>(this);
     LandblocksManager ret=SAXParsingTools.parseFile(source,engine);
+    if (ret!=null)
+    {
+      // Added at once: the manager index is copied on each addition
+      ret.addLandblocks(_landblocks);
+    }
+    _landblocks.clear();
     _landblock=null;
     return ret;
   }
@@ -44,7 +54,7 @@ public class LandblocksXMLParser extends SAXParserValve<LandblocksManager>
       int blockY=SAXParsingTools.getIntAttribute(attrs,LandblocksXMLConstants.BLOCK_Y_ATTR,0);
       BlockReference blockId=new BlockReference(region,blockX,blockY);
       _landblock=new Landblock(blockId);
-      getResult().addLandblock(_landblock);
+      _landblocks.add(_landblock);
       // Area ID
       int areaId=SAXParsingTools.getIntAttribute(attrs,LandblocksXMLConstants.AREA_ID_ATTR,0);
       if (areaId!=0)
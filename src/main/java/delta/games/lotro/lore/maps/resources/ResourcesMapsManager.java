@@ -19,7 +19,7 @@ import delta.games.lotro.lore.maps.resources.io.xml.ResourcesMapsXMLParser;
  */
 public class ResourcesMapsManager
 {
-  private static ResourcesMapsManager _instance=null;
+  private static volatile ResourcesMapsManager _instance;
   private Map<String,ResourcesMapDescriptor> _maps;
 
   /**
@@ -28,11 +28,20 @@ public class ResourcesMapsManager
    */
   public static ResourcesMapsManager getInstance()
   {
-    if (_instance==null)
+    ResourcesMapsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(ResourcesMapsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   private static ResourcesMapsManager load()
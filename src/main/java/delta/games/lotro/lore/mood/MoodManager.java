@@ -1,7 +1,6 @@
 package delta.games.lotro.lore.mood;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -9,6 +8,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.mood.io.xml.MoodXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Mood manager.
@@ -18,9 +18,9 @@ public class MoodManager
 {
   private static final Logger LOGGER=Logger.getLogger(MoodManager.class);
 
-  private static MoodManager _instance=null;
+  private static volatile MoodManager _instance;
 
-  private HashMap<Integer,MoodEntry> _cache;
+  private IntObjectMap<MoodEntry> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -28,11 +28,20 @@ public class MoodManager
    */
   public static MoodManager getInstance()
   {
-    if (_instance==null)
+    MoodManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new MoodManager(true);
+      synchronized(MoodManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new MoodManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -41,7 +50,7 @@ public class MoodManager
    */
   private MoodManager(boolean load)
   {
-    _cache=new HashMap<Integer,MoodEntry>(10);
+    _cache=new IntObjectMap<MoodEntry>(10);
     if (load)
     {
       loadAll();
@@ -60,7 +69,7 @@ public class MoodManager
     List<MoodEntry> moods=new MoodXMLParser().parseXML(titlesFile);
     for(MoodEntry mood : moods)
     {
-      _cache.put(Integer.valueOf(mood.getLevel()),mood);
+      _cache.put(mood.getLevel(),mood);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -74,7 +83,7 @@ public class MoodManager
    */
   public float getMoraleModifier(int level)
   {
-    MoodEntry entry=_cache.get(Integer.valueOf(level));
+    MoodEntry entry=_cache.get(level);
     if (entry!=null)
     {
       return entry.getMoraleModifier();
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.perks;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +11,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.perks.io.xml.PerkDescriptionXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for access to perks.
@@ -21,9 +21,9 @@ public class PerksManager
 {
   private static final Logger LOGGER=Logger.getLogger(PerksManager.class);
 
-  private static PerksManager _instance=null;
+  private static volatile PerksManager _instance;
 
-  private HashMap<Integer,PerkDescription> _cache;
+  private IntObjectMap<PerkDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -31,12 +31,21 @@ public class PerksManager
    */
   public static PerksManager getInstance()
   {
-    if (_instance==null)
+    PerksManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new PerksManager();
-      _instance.loadAll();
+      synchronized(PerksManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new PerksManager();
+          ret.loadAll();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,7 @@ public class PerksManager
    */
   private PerksManager()
   {
-    _cache=new HashMap<Integer,PerkDescription>(1);
+    _cache=new IntObjectMap<PerkDescription>(1);
   }
 
   /**
@@ -75,7 +84,7 @@ public class PerksManager
    */
   public void registerPerk(PerkDescription perk)
   {
-    _cache.put(Integer.valueOf(perk.getIdentifier()),perk);
+    _cache.put(perk.getIdentifier(),perk);
   }
 
   /**
@@ -97,6 +106,6 @@ public class PerksManager
    */
   public PerkDescription getPerk(int id)
   {
-    return _cache.get(Integer.valueOf(id));
+    return _cache.get(id);
   }
 }
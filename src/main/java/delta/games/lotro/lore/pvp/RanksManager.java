@@ -17,7 +17,7 @@ import delta.games.lotro.lore.pvp.io.xml.PVPDataXMLParser;
  */
 public class RanksManager
 {
-  private static RanksManager _instance=null;
+  private static volatile RanksManager _instance;
 
   private Map<String,RankScale> _scales;
 
@@ -27,11 +27,20 @@ public class RanksManager
    */
   public static RanksManager getInstance()
   {
-    if (_instance==null)
+    RanksManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new RanksManager(true);
+      synchronized(RanksManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new RanksManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -26,7 +26,7 @@ public class AchievableProxiesResolver
 {
   private static final Logger LOGGER=Logger.getLogger(AchievableProxiesResolver.class);
 
-  private static AchievableProxiesResolver _instance=null;
+  private static volatile AchievableProxiesResolver _instance;
   private HashMap<Integer,Achievable> _mapByKey;
 
   private AchievableProxiesResolver()
@@ -42,11 +42,20 @@ public class AchievableProxiesResolver
    */
   public static AchievableProxiesResolver getInstance()
   {
-    if (_instance==null)
+    AchievableProxiesResolver ret=_instance;
+    if (ret==null)
     {
-      _instance=new AchievableProxiesResolver();
+      synchronized(AchievableProxiesResolver.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new AchievableProxiesResolver();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.quests;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -11,12 +10,15 @@ import java.util.Set;
 import org.apache.log4j.Logger;
 
 import delta.games.lotro.common.IdentifiableComparator;
+import delta.games.lotro.common.comparators.NamedComparator;
 import delta.games.lotro.common.enums.QuestCategory;
 import delta.games.lotro.common.enums.comparator.LotroEnumEntryNameComparator;
 import delta.games.lotro.common.rewards.RewardsExplorer;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.quests.io.xml.QuestsSaxParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for quests access.
@@ -26,9 +28,11 @@ public final class QuestsManager
 {
   private static final Logger LOGGER=Logger.getLogger(QuestsManager.class);
 
-  private static QuestsManager _instance=null;
+  private static volatile QuestsManager _instance;
 
-  private HashMap<Integer,QuestDescription> _cache;
+  private IntObjectMap<QuestDescription> _cache;
+  private SortedView<QuestDescription> _sortedById;
+  private SortedView<QuestDescription> _sortedByName;
 
   /**
    * Get the sole instance of this class.
@@ -36,11 +40,20 @@ public final class QuestsManager
    */
   public static QuestsManager getInstance()
   {
-    if (_instance==null)
+    QuestsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new QuestsManager();
+      synchronized(QuestsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new QuestsManager();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -48,7 +61,9 @@ public final class QuestsManager
    */
   private QuestsManager()
   {
-    _cache=new HashMap<Integer,QuestDescription>(1000);
+    _cache=new IntObjectMap<QuestDescription>(1000);
+    _sortedById=new SortedView<QuestDescription>(new IdentifiableComparator<QuestDescription>());
+    _sortedByName=new SortedView<QuestDescription>(new NamedComparator());
     loadAll();
   }
 
@@ -59,13 +74,15 @@ public final class QuestsManager
   private void loadAll()
   {
     _cache.clear();
+    _sortedById.invalidate();
+    _sortedByName.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File questsFile=cfg.getFile(DataFiles.QUESTS);
     long now=System.currentTimeMillis();
     List<QuestDescription> quests=QuestsSaxParser.parseQuestsFile(questsFile);
     for(QuestDescription quest : quests)
     {
-      _cache.put(Integer.valueOf(quest.getIdentifier()),quest);
+      _cache.put(quest.getIdentifier(),quest);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -74,14 +91,32 @@ public final class QuestsManager
 
   /**
    * Get a list of all quests, sorted by identifier.
-   * @return A list of quests.
+   * @return An immutable list of quests.
    */
   public List<QuestDescription> getAll()
   {
-    ArrayList<QuestDescription> quests=new ArrayList<QuestDescription>();
-    quests.addAll(_cache.values());
-    Collections.sort(quests,new IdentifiableComparator<QuestDescription>());
-    return quests;
+    List<QuestDescription> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
+    return ret;
+  }
+
+  /**
+   * Get a list of all quests, sorted by name.
+   * @return An immutable list of quests.
+   */
+  public List<QuestDescription> getAllSortedByName()
+  {
+    List<QuestDescription> ret=_sortedByName.get();
+    if (ret==null)
+    {
+      int generation=_sortedByName.getGeneration();
+      ret=_sortedByName.build(generation,getAll());
+    }
+    return ret;
   }
 
   /**
@@ -108,7 +143,7 @@ public final class QuestsManager
   public QuestDescription getQuest(int id)
   {
     QuestDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
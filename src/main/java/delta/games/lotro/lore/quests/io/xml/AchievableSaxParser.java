@@ -5,6 +5,7 @@ import org.xml.sax.Attributes;
 import delta.common.utils.i18n.SingleLocaleLabelsManager;
 import delta.common.utils.xml.SAXParsingTools;
 import delta.games.lotro.common.ChallengeLevel;
+import delta.games.lotro.common.utils.LoreInterners;
 import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.utils.i18n.I18nRuntimeUtils;
 
@@ -27,10 +28,10 @@ public class AchievableSaxParser
     achievable.setIdentifier(id);
     // Name
     String name=i18n.getLabel(String.valueOf(id));
-    achievable.setName(name);
+    achievable.setName(LoreInterners.intern(name));
     // Raw name
     String rawName=SAXParsingTools.getStringAttribute(attrs,AchievableXMLConstants.RAW_NAME_ATTR,null);
-    rawName=I18nRuntimeUtils.getLabel(i18n,rawName);
+    rawName=LoreInterners.intern(I18nRuntimeUtils.getLabel(i18n,rawName));
     achievable.setRawName(rawName);
     // Challenge level
     int challengeLevel=SAXParsingTools.getIntAttribute(attrs,AchievableXMLConstants.LEVEL_ATTR,0);
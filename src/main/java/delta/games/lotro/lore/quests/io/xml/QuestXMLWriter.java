@@ -8,7 +8,6 @@ import javax.xml.transform.sax.TransformerHandler;
 
 import org.xml.sax.helpers.AttributesImpl;
 
-import delta.common.utils.io.xml.XmlFileWriterHelper;
 import delta.common.utils.io.xml.XmlWriter;
 import delta.common.utils.text.EncodingNames;
 import delta.games.lotro.common.ChallengeLevel;
@@ -28,6 +27,8 @@ import delta.games.lotro.lore.quests.objectives.io.xml.DialogsXMLWriter;
 import delta.games.lotro.lore.quests.objectives.io.xml.ObjectivesXMLWriter;
 import delta.games.lotro.lore.webStore.WebStoreItem;
 import delta.games.lotro.utils.Proxy;
+import delta.games.lotro.utils.io.xml.ShardedXMLFileWriter;
+import delta.games.lotro.utils.io.xml.XMLRecordWriter;
 
 /**
  * Writes LOTRO quests to XML files.
@@ -58,21 +59,16 @@ public class QuestXMLWriter extends AchievableXMLWriter
    */
   public boolean writeQuests(File outFile, final List<QuestDescription> quests, String encoding)
   {
-    XmlWriter writer=new XmlWriter()
+    XMLRecordWriter<QuestDescription> recordWriter=new XMLRecordWriter<QuestDescription>()
     {
       @Override
-      public void writeXml(TransformerHandler hd) throws Exception
+      public void writeRecord(TransformerHandler hd, QuestDescription quest) throws Exception
       {
-        hd.startElement("","",QuestXMLConstants.QUESTS_TAG,new AttributesImpl());
-        for(QuestDescription quest : quests)
-        {
-          writeQuest(hd,quest);
-        }
-        hd.endElement("","",QuestXMLConstants.QUESTS_TAG);
+        writeQuest(hd,quest);
       }
     };
-    XmlFileWriterHelper helper=new XmlFileWriterHelper();
-    boolean ret=helper.write(outFile,encoding,writer);
+    ShardedXMLFileWriter<QuestDescription> writer=new ShardedXMLFileWriter<QuestDescription>(QuestXMLConstants.QUESTS_TAG,recordWriter);
+    boolean ret=writer.write(outFile,encoding,quests);
     return ret;
   }
 
@@ -22,6 +22,7 @@ import delta.games.lotro.common.requirements.io.xml.QuestsRequirementsXMLConstan
 import delta.games.lotro.common.requirements.io.xml.UsageRequirementsXMLParser;
 import delta.games.lotro.common.rewards.io.xml.RewardsSaxXMLParser;
 import delta.games.lotro.common.rewards.io.xml.RewardsXMLConstants;
+import delta.games.lotro.common.utils.LoreInterners;
 import delta.games.lotro.lore.deeds.io.xml.DeedsSaxParser;
 import delta.games.lotro.lore.maps.MapDescription;
 import delta.games.lotro.lore.maps.io.xml.MapDescriptionXMLConstants;
@@ -118,7 +119,7 @@ public final class QuestsSaxParser extends SAXParserValve<List<QuestDescription>
       }
       // Quest arc
       String arc=SAXParsingTools.getStringAttribute(attrs,QuestXMLConstants.QUEST_ARC_ATTR,"");
-      arc=_i18n.getLabel(arc);
+      arc=LoreInterners.intern(_i18n.getLabel(arc));
       q.setQuestArc(arc);
       // Size
       String sizeStr=SAXParsingTools.getStringAttribute(attrs,QuestXMLConstants.QUEST_SIZE_ATTR,null);
@@ -19,7 +19,7 @@ public class RelicMeldingRecipesManager
 {
   private static final Logger LOGGER=Logger.getLogger(RelicMeldingRecipesManager.class);
 
-  private static RelicMeldingRecipesManager _instance;
+  private static volatile RelicMeldingRecipesManager _instance;
 
   private Registry<RelicMeldingRecipe> _meldingRecipes;
 
@@ -29,11 +29,20 @@ public class RelicMeldingRecipesManager
    */
   public static RelicMeldingRecipesManager getInstance()
   {
-    if (_instance==null)
+    RelicMeldingRecipesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(RelicMeldingRecipesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -8,6 +8,7 @@ import java.util.List;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.reputation.io.xml.FactionsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Factions registry.
@@ -15,9 +16,9 @@ import delta.games.lotro.lore.reputation.io.xml.FactionsXMLParser;
  */
 public final class FactionsRegistry
 {
-  private static FactionsRegistry _instance;
+  private static volatile FactionsRegistry _instance;
 
-  private HashMap<Integer,Faction> _registryById;
+  private IntObjectMap<Faction> _registryById;
   private HashMap<String,Faction> _registryByKey;
   private List<String> _categories;
   private HashMap<String,List<Faction>> _factionsByCategory;
@@ -30,14 +31,20 @@ public final class FactionsRegistry
    */
   public static FactionsRegistry getInstance()
   {
-    synchronized(FactionsRegistry.class)
+    FactionsRegistry ret=_instance;
+    if (ret==null)
     {
-      if (_instance==null)
+      synchronized(FactionsRegistry.class)
       {
-        _instance=loadRegistry();
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=loadRegistry();
+          _instance=ret;
+        }
       }
     }
-    return _instance;
+    return ret;
   }
 
   private static FactionsRegistry loadRegistry()
@@ -58,7 +65,7 @@ public final class FactionsRegistry
    */
   public FactionsRegistry()
   {
-    _registryById=new HashMap<Integer,Faction>();
+    _registryById=new IntObjectMap<Faction>();
     _registryByKey=new HashMap<String,Faction>();
     _categories=new ArrayList<String>();
     _factionsByCategory=new HashMap<String,List<Faction>>();
@@ -89,7 +96,7 @@ public final class FactionsRegistry
     int id=faction.getIdentifier();
     if (id!=0)
     {
-      _registryById.put(Integer.valueOf(id),faction);
+      _registryById.put(id,faction);
       _registryByKey.put(String.valueOf(id),faction);
     }
     // Map by key
@@ -156,7 +163,7 @@ public final class FactionsRegistry
    */
   public Faction getById(int identifier)
   {
-    return _registryById.get(Integer.valueOf(identifier));
+    return _registryById.get(identifier);
   }
 
   /**
@@ -3,9 +3,7 @@ package delta.games.lotro.lore.rewardsTrack;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -13,6 +11,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.rewardsTrack.io.xml.RewardsTracksXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Rewards tracks manager.
@@ -22,9 +21,9 @@ public class RewardsTracksManager
 {
   private static final Logger LOGGER=Logger.getLogger(RewardsTracksManager.class);
 
-  private static RewardsTracksManager _instance=null;
+  private static volatile RewardsTracksManager _instance;
 
-  private Map<Integer,RewardsTrack> _tracks;
+  private IntObjectMap<RewardsTrack> _tracks;
 
   /**
    * Get the sole instance of this class.
@@ -32,11 +31,20 @@ public class RewardsTracksManager
    */
   public static RewardsTracksManager getInstance()
   {
-    if (_instance==null)
+    RewardsTracksManager ret=_instance;
+    if (ret==null)
     {
-      _instance=load();
+      synchronized(RewardsTracksManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=load();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +52,7 @@ public class RewardsTracksManager
    */
   public RewardsTracksManager()
   {
-    _tracks=new HashMap<Integer,RewardsTrack>();
+    _tracks=new IntObjectMap<RewardsTrack>();
   }
 
   /**
@@ -75,7 +83,7 @@ public class RewardsTracksManager
    */
   public void registerRewardsTrack(RewardsTrack rewardsTrack)
   {
-    Integer key=Integer.valueOf(rewardsTrack.getIdentifier());
+    int key=rewardsTrack.getIdentifier();
     _tracks.put(key,rewardsTrack);
   }
 
@@ -86,7 +94,7 @@ public class RewardsTracksManager
    */
   public RewardsTrack getRewardsTrack(int rewardsTrackID)
   {
-    return _tracks.get(Integer.valueOf(rewardsTrackID));
+    return _tracks.get(rewardsTrackID);
   }
 
   /**
@@ -9,6 +9,7 @@ import org.apache.log4j.Logger;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.tasks.io.xml.TasksXMLParser;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
 
 /**
  * Tasks registry.
@@ -18,7 +19,7 @@ public class TasksRegistry
 {
   private static final Logger LOGGER=Logger.getLogger(TasksRegistry.class);
 
-  private static TasksRegistry _instance=null;
+  private static volatile TasksRegistry _instance;
 
   private List<Task> _tasks;
 
@@ -28,11 +29,20 @@ public class TasksRegistry
    */
   public static TasksRegistry getInstance()
   {
-    if (_instance==null)
+    TasksRegistry ret=_instance;
+    if (ret==null)
     {
-      _instance=new TasksRegistry(true);
+      synchronized(TasksRegistry.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new TasksRegistry(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -74,6 +84,7 @@ public class TasksRegistry
   public void addTask(Task task)
   {
     _tasks.add(task);
+    ReferencesIndex.invalidateAll();
   }
 
   /**
@@ -3,7 +3,6 @@ package delta.games.lotro.lore.titles;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -14,6 +13,7 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.titles.io.xml.TitleXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Facade for titles access.
@@ -23,9 +23,9 @@ public class TitlesManager
 {
   private static final Logger LOGGER=Logger.getLogger(TitlesManager.class);
 
-  private static TitlesManager _instance=null;
+  private static volatile TitlesManager _instance;
 
-  private HashMap<Integer,TitleDescription> _cache;
+  private IntObjectMap<TitleDescription> _cache;
 
   /**
    * Get the sole instance of this class.
@@ -33,11 +33,20 @@ public class TitlesManager
    */
   public static TitlesManager getInstance()
   {
-    if (_instance==null)
+    TitlesManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new TitlesManager(true);
+      synchronized(TitlesManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new TitlesManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -46,7 +55,7 @@ public class TitlesManager
    */
   private TitlesManager(boolean load)
   {
-    _cache=new HashMap<Integer,TitleDescription>(1000);
+    _cache=new IntObjectMap<TitleDescription>(1000);
     if (load)
     {
       loadAll();
@@ -65,7 +74,7 @@ public class TitlesManager
     List<TitleDescription> titles=new TitleXMLParser().parseXML(titlesFile);
     for(TitleDescription title : titles)
     {
-      _cache.put(Integer.valueOf(title.getIdentifier()),title);
+      _cache.put(title.getIdentifier(),title);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -92,7 +101,7 @@ public class TitlesManager
   public TitleDescription getTitle(int id)
   {
     TitleDescription ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 
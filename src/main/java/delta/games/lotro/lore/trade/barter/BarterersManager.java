@@ -1,9 +1,6 @@
 package delta.games.lotro.lore.trade.barter;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +9,8 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.trade.barter.io.xml.BarterXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for barterers access.
@@ -21,9 +20,10 @@ public class BarterersManager
 {
   private static final Logger LOGGER=Logger.getLogger(BarterersManager.class);
 
-  private static BarterersManager _instance=null;
+  private static volatile BarterersManager _instance;
 
-  private HashMap<Integer,BarterNpc> _cache;
+  private IntObjectMap<BarterNpc> _cache;
+  private SortedView<BarterNpc> _sortedById;
 
   /**
    * Get the sole instance of this class.
@@ -31,11 +31,20 @@ public class BarterersManager
    */
   public static BarterersManager getInstance()
   {
-    if (_instance==null)
+    BarterersManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new BarterersManager(true);
+      synchronized(BarterersManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new BarterersManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,8 @@ public class BarterersManager
    */
   private BarterersManager(boolean load)
   {
-    _cache=new HashMap<Integer,BarterNpc>(100);
+    _cache=new IntObjectMap<BarterNpc>(100);
+    _sortedById=new SortedView<BarterNpc>(new IdentifiableComparator<BarterNpc>());
     if (load)
     {
       loadAll();
@@ -57,13 +67,14 @@ public class BarterersManager
   private void loadAll()
   {
     _cache.clear();
+    _sortedById.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File barterersFile=cfg.getFile(DataFiles.BARTERS);
     long now=System.currentTimeMillis();
     List<BarterNpc> barterers=new BarterXMLParser().parseXML(barterersFile);
     for(BarterNpc barterer : barterers)
     {
-      _cache.put(Integer.valueOf(barterer.getIdentifier()),barterer);
+      _cache.put(barterer.getIdentifier(),barterer);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -72,14 +83,17 @@ public class BarterersManager
 
   /**
    * Get a list of all barterers, sorted by identifier.
-   * @return A list of barterers.
+   * @return An immutable list of barterers.
    */
   public List<BarterNpc> getAll()
   {
-    ArrayList<BarterNpc> barterers=new ArrayList<BarterNpc>();
-    barterers.addAll(_cache.values());
-    Collections.sort(barterers,new IdentifiableComparator<BarterNpc>());
-    return barterers;
+    List<BarterNpc> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
+    return ret;
   }
 
   /**
@@ -90,7 +104,7 @@ public class BarterersManager
   public BarterNpc getBarterer(int id)
   {
     BarterNpc ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
@@ -2,11 +2,10 @@ package delta.games.lotro.lore.travels;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
+import delta.games.lotro.utils.IntObjectMap;
 
 /**
  * Travels manager.
@@ -14,16 +13,16 @@ import delta.games.lotro.common.IdentifiableComparator;
  */
 public class TravelsManager
 {
-  private Map<Integer,TravelNode> _nodes;
-  private Map<Integer,TravelDestination> _destinations;
+  private IntObjectMap<TravelNode> _nodes;
+  private IntObjectMap<TravelDestination> _destinations;
 
   /**
    * Constructor.
    */
   public TravelsManager()
   {
-    _nodes=new HashMap<Integer,TravelNode>();
-    _destinations=new HashMap<Integer,TravelDestination>();
+    _nodes=new IntObjectMap<TravelNode>();
+    _destinations=new IntObjectMap<TravelDestination>();
   }
 
   /**
@@ -33,7 +32,7 @@ public class TravelsManager
    */
   public TravelDestination getDestination(int destinationId)
   {
-    return _destinations.get(Integer.valueOf(destinationId));
+    return _destinations.get(destinationId);
   }
 
   /**
@@ -42,7 +41,7 @@ public class TravelsManager
    */
   public void addDestination(TravelDestination destination)
   {
-    Integer key=Integer.valueOf(destination.getIdentifier());
+    int key=destination.getIdentifier();
     _destinations.put(key,destination);
   }
 
@@ -53,7 +52,7 @@ public class TravelsManager
    */
   public TravelNode getNode(int nodeId)
   {
-    return _nodes.get(Integer.valueOf(nodeId));
+    return _nodes.get(nodeId);
   }
 
   /**
@@ -73,7 +72,7 @@ public class TravelsManager
    */
   public void addNode(TravelNode node)
   {
-    Integer key=Integer.valueOf(node.getIdentifier());
+    int key=node.getIdentifier();
     _nodes.put(key,node);
   }
 }
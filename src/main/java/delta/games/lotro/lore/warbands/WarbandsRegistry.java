@@ -16,7 +16,7 @@ import delta.games.lotro.lore.warbands.io.xml.WarbandsRegistryXMLParser;
  */
 public class WarbandsRegistry
 {
-  private static WarbandsRegistry _registry=null;
+  private static volatile WarbandsRegistry _registry;
   private HashMap<String,WarbandDefinition> _mapByName;
 
   /**
@@ -33,14 +33,23 @@ public class WarbandsRegistry
    */
   public static WarbandsRegistry getWarbandsRegistry()
   {
-    if (_registry==null)
+    WarbandsRegistry ret=_registry;
+    if (ret==null)
     {
-      LotroCoreConfig cfg=LotroCoreConfig.getInstance();
-      File warbandsFile=cfg.getFile(DataFiles.WARBANDS);
-      WarbandsRegistryXMLParser parser=new WarbandsRegistryXMLParser();
-      _registry=parser.parseXML(warbandsFile);
+      synchronized(WarbandsRegistry.class)
+      {
+        ret=_registry;
+        if (ret==null)
+        {
+          LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+          File warbandsFile=cfg.getFile(DataFiles.WARBANDS);
+          WarbandsRegistryXMLParser parser=new WarbandsRegistryXMLParser();
+          ret=parser.parseXML(warbandsFile);
+          _registry=ret;
+        }
+      }
     }
-    return _registry;
+    return ret;
   }
 
   /**
@@ -1,9 +1,6 @@
 package delta.games.lotro.lore.webStore;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -12,6 +9,8 @@ import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.webStore.io.xml.WebStoreItemsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Facade for web store items access.
@@ -21,9 +20,10 @@ public class WebStoreItemsManager
 {
   private static final Logger LOGGER=Logger.getLogger(WebStoreItemsManager.class);
 
-  private static WebStoreItemsManager _instance=null;
+  private static volatile WebStoreItemsManager _instance;
 
-  private HashMap<Integer,WebStoreItem> _cache;
+  private IntObjectMap<WebStoreItem> _cache;
+  private SortedView<WebStoreItem> _sortedById;
 
   /**
    * Get the sole instance of this class.
@@ -31,11 +31,20 @@ public class WebStoreItemsManager
    */
   public static WebStoreItemsManager getInstance()
   {
-    if (_instance==null)
+    WebStoreItemsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new WebStoreItemsManager(true);
+      synchronized(WebStoreItemsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new WebStoreItemsManager(true);
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -44,7 +53,8 @@ public class WebStoreItemsManager
    */
   private WebStoreItemsManager(boolean load)
   {
-    _cache=new HashMap<Integer,WebStoreItem>(100);
+    _cache=new IntObjectMap<WebStoreItem>(100);
+    _sortedById=new SortedView<WebStoreItem>(new IdentifiableComparator<WebStoreItem>());
     if (load)
     {
       loadAll();
@@ -57,13 +67,14 @@ public class WebStoreItemsManager
   private void loadAll()
   {
     _cache.clear();
+    _sortedById.invalidate();
     LotroCoreConfig cfg=LotroCoreConfig.getInstance();
     File webStoreItemsFile=cfg.getFile(DataFiles.WEB_STORE_ITEMS);
     long now=System.currentTimeMillis();
     List<WebStoreItem> webStoreItems=new WebStoreItemsXMLParser().parseXML(webStoreItemsFile);
     for(WebStoreItem webStoreItem : webStoreItems)
     {
-      _cache.put(Integer.valueOf(webStoreItem.getIdentifier()),webStoreItem);
+      _cache.put(webStoreItem.getIdentifier(),webStoreItem);
     }
     long now2=System.currentTimeMillis();
     long duration=now2-now;
@@ -72,13 +83,16 @@ public class WebStoreItemsManager
 
   /**
    * Get a list of all web store items, sorted by identifier.
-   * @return A list of web store items.
+   * @return An immutable list of web store items.
    */
   public List<WebStoreItem> getAll()
   {
-    ArrayList<WebStoreItem> ret=new ArrayList<WebStoreItem>();
-    ret.addAll(_cache.values());
-    Collections.sort(ret,new IdentifiableComparator<WebStoreItem>());
+    List<WebStoreItem> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_cache.values());
+    }
     return ret;
   }
 
@@ -90,7 +104,7 @@ public class WebStoreItemsManager
   public WebStoreItem getWebStoreItem(int id)
   {
     WebStoreItem ret=null;
-    ret=_cache.get(Integer.valueOf(id));
+    ret=_cache.get(id);
     return ret;
   }
 }
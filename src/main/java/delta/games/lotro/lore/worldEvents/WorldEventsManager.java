@@ -1,16 +1,14 @@
 package delta.games.lotro.lore.worldEvents;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.IdentifiableComparator;
 import delta.games.lotro.config.DataFiles;
 import delta.games.lotro.config.LotroCoreConfig;
 import delta.games.lotro.lore.worldEvents.io.xml.WorldEventsXMLParser;
+import delta.games.lotro.utils.IntObjectMap;
+import delta.games.lotro.utils.SortedView;
 
 /**
  * Manager for world events.
@@ -18,9 +16,10 @@ import delta.games.lotro.lore.worldEvents.io.xml.WorldEventsXMLParser;
  */
 public class WorldEventsManager
 {
-  private static WorldEventsManager _instance;
+  private static volatile WorldEventsManager _instance;
 
-  private Map<Integer,WorldEvent> _mapByID;
+  private IntObjectMap<WorldEvent> _mapByID;
+  private SortedView<WorldEvent> _sortedById;
 
   /**
    * Get the sole instance of this class.
@@ -28,12 +27,21 @@ public class WorldEventsManager
    */
   public static final WorldEventsManager getInstance()
   {
-    if (_instance==null)
+    WorldEventsManager ret=_instance;
+    if (ret==null)
     {
-      _instance=new WorldEventsManager();
-      _instance.resolve();
+      synchronized(WorldEventsManager.class)
+      {
+        ret=_instance;
+        if (ret==null)
+        {
+          ret=new WorldEventsManager();
+          ret.resolve();
+          _instance=ret;
+        }
+      }
     }
-    return _instance;
+    return ret;
   }
 
   /**
@@ -41,18 +49,23 @@ public class WorldEventsManager
    */
   private WorldEventsManager()
   {
-    _mapByID=new HashMap<Integer,WorldEvent>();
+    _mapByID=new IntObjectMap<WorldEvent>();
+    _sortedById=new SortedView<WorldEvent>(new IdentifiableComparator<WorldEvent>());
     loadAll();
   }
 
   /**
    * Get all world events.
-   * @return A list of world events, sorted by their identifier.
+   * @return An immutable list of world events, sorted by their identifier.
    */
   public List<WorldEvent> getAll()
   {
-    List<WorldEvent> ret=new ArrayList<WorldEvent>(_mapByID.values());
-    Collections.sort(ret,new IdentifiableComparator<WorldEvent>());
+    List<WorldEvent> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_mapByID.values());
+    }
     return ret;
   }
 
@@ -63,13 +76,13 @@ public class WorldEventsManager
     for(WorldEvent worldEvent : worldEvents)
     {
       int id=worldEvent.getIdentifier();
-      _mapByID.put(Integer.valueOf(id),worldEvent);
+      _mapByID.put(id,worldEvent);
     }
   }
 
   private void resolve()
   {
-    WorldEventsResolver resolver=new WorldEventsResolver();
+    WorldEventsResolver resolver=new WorldEventsResolver(this);
     for(WorldEvent event : _mapByID.values())
     {
       resolver.resolve(event);
@@ -83,6 +96,6 @@ public class WorldEventsManager
    */
   public WorldEvent getWorldEvent(int worldEventID)
   {
-    return _mapByID.get(Integer.valueOf(worldEventID));
+    return _mapByID.get(worldEventID);
   }
 }
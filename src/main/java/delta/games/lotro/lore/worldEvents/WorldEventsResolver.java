@@ -14,10 +14,11 @@ public class WorldEventsResolver
 
   /**
    * Constructor.
+   * @param manager World events manager to use.
    */
-  public WorldEventsResolver()
+  public WorldEventsResolver(WorldEventsManager manager)
   {
-    _resolver=new WorldEventConditionsResolver();
+    _resolver=new WorldEventConditionsResolver(manager);
   }
 
   /**
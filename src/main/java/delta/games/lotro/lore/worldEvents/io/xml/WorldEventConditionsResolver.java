@@ -17,6 +17,25 @@ import delta.games.lotro.utils.Proxy;
 public class WorldEventConditionsResolver
 {
   private WorldEventConditionsRenderer _renderer=new WorldEventConditionsRenderer();
+  private WorldEventsManager _manager;
+
+  /**
+   * Constructor.
+   * World events are searched in the world events manager.
+   */
+  public WorldEventConditionsResolver()
+  {
+    this(null);
+  }
+
+  /**
+   * Constructor.
+   * @param manager World events manager to use (<code>null</code> to use the sole instance).
+   */
+  public WorldEventConditionsResolver(WorldEventsManager manager)
+  {
+    _manager=manager;
+  }
 
   /**
    * Resolve a single world event condition.
@@ -54,7 +73,7 @@ public class WorldEventConditionsResolver
     {
       return;
     }
-    WorldEventsManager mgr=WorldEventsManager.getInstance();
+    WorldEventsManager mgr=(_manager!=null)?_manager:WorldEventsManager.getInstance();
     WorldEvent worldEvent=mgr.getWorldEvent(proxy.getId());
     if (worldEvent!=null)
     {
@@ -0,0 +1,167 @@
+package delta.games.lotro.lore.xrefs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Inverted index of references: targeted identifier to references.
+ * <p>
+ * The index is made of sections, each built from a single kind of source.
+ * Sections are built in parallel, then the index is read-only.
+ * <p>
+ * Indexes are built from the lore managers. When managed data changes,
+ * {@link #invalidateAll()} shall be called so that indexes are re-built on next use
+ * (see {@link #getGeneration()}).
+ * @author DAM
+ * @param <E> Role type.
+ */
+public class ReferencesIndex<E extends Enum<?>>
+{
+  private static final Logger LOGGER=Logger.getLogger(ReferencesIndex.class);
+
+  private static final AtomicInteger _generation=new AtomicInteger();
+
+  private List<Map<Integer,List<Reference<?,E>>>> _sections;
+
+  private ReferencesIndex(List<Map<Integer,List<Reference<?,E>>>> sections)
+  {
+    _sections=sections;
+  }
+
+  /**
+   * Get the current generation of the indexed data.
+   * An index built from a previous generation is obsolete.
+   * @return a generation number.
+   */
+  public static int getGeneration()
+  {
+    return _generation.get();
+  }
+
+  /**
+   * Invalidate all the references indexes.
+   * To be called when some indexed data is changed.
+   */
+  public static void invalidateAll()
+  {
+    _generation.incrementAndGet();
+  }
+
+  /**
+   * Build an index.
+   * @param builders Section builders, in the order of the sections to build.
+   * @return the new index.
+   * @throws IllegalStateException if a section could not be built.
+   */
+  public static <E extends Enum<?>> ReferencesIndex<E> build(List<ReferencesSectionBuilder<E>> builders)
+  {
+    long now=System.currentTimeMillis();
+    int nbThreads=Math.min(builders.size(),Runtime.getRuntime().availableProcessors());
+    if (nbThreads<=1)
+    {
+      for(ReferencesSectionBuilder<E> builder : builders)
+      {
+        builder.build();
+      }
+    }
+    else
+    {
+      buildInParallel(builders,nbThreads);
+    }
+    List<Map<Integer,List<Reference<?,E>>>> sections=new ArrayList<Map<Integer,List<Reference<?,E>>>>();
+    for(ReferencesSectionBuilder<E> builder : builders)
+    {
+      sections.add(builder.getReferences());
+    }
+    long now2=System.currentTimeMillis();
+    LOGGER.info("Built references index with "+sections.size()+" sections in "+(now2-now)+"ms.");
+    return new ReferencesIndex<E>(sections);
+  }
+
+  private static <E extends Enum<?>> void buildInParallel(List<ReferencesSectionBuilder<E>> builders, int nbThreads)
+  {
+    ExecutorService executor=Executors.newFixedThreadPool(nbThreads);
+    List<Future<?>> futures=new ArrayList<Future<?>>();
+    try
+    {
+      for(final ReferencesSectionBuilder<E> builder : builders)
+      {
+        Callable<Void> task=new Callable<Void>()
+        {
+          @Override
+          public Void call()
+          {
+            builder.build();
+            return null;
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      for(Future<?> future : futures)
+      {
+        waitFor(future);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void waitFor(Future<?> future)
+  {
+    try
+    {
+      future.get();
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building references index section",ie);
+    }
+    catch(ExecutionException ee)
+    {
+      throw new IllegalStateException("Error when building references index section",ee.getCause());
+    }
+  }
+
+  /**
+   * Get the references to an element, in a single section.
+   * @param section Section index.
+   * @param id Identifier of the targeted element.
+   * @param storage Storage for the found references.
+   */
+  public void getReferences(int section, int id, List<Reference<?,E>> storage)
+  {
+    List<Reference<?,E>> references=_sections.get(section).get(Integer.valueOf(id));
+    if (references!=null)
+    {
+      storage.addAll(references);
+    }
+  }
+
+  /**
+   * Get the references to an element, in all sections.
+   * @param id Identifier of the targeted element.
+   * @return A possibly empty list of references, in sections order.
+   */
+  public List<Reference<?,E>> getReferences(int id)
+  {
+    List<Reference<?,E>> ret=new ArrayList<Reference<?,E>>();
+    int nbSections=_sections.size();
+    for(int i=0;i<nbSections;i++)
+    {
+      getReferences(i,id,ret);
+    }
+    return ret;
+  }
+}
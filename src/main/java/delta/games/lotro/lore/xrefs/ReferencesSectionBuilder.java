@@ -0,0 +1,58 @@
+package delta.games.lotro.lore.xrefs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a section of a references index.
+ * <p>
+ * A section scans a single kind of source (recipes, quests, vendors...)
+ * and records the references it finds, for each targeted identifier.
+ * @author DAM
+ * @param <E> Role type.
+ */
+public abstract class ReferencesSectionBuilder<E extends Enum<?>>
+{
+  private Map<Integer,List<Reference<?,E>>> _references;
+
+  /**
+   * Constructor.
+   */
+  protected ReferencesSectionBuilder()
+  {
+    _references=new HashMap<Integer,List<Reference<?,E>>>();
+  }
+
+  /**
+   * Scan the sources of this section.
+   */
+  public abstract void build();
+
+  /**
+   * Add a reference.
+   * @param id Identifier of the targeted element.
+   * @param reference Reference to add.
+   */
+  public void addReference(int id, Reference<?,E> reference)
+  {
+    Integer key=Integer.valueOf(id);
+    List<Reference<?,E>> references=_references.get(key);
+    if (references==null)
+    {
+      references=new ArrayList<Reference<?,E>>(1);
+      _references.put(key,references);
+    }
+    references.add(reference);
+  }
+
+  /**
+   * Get the built references.
+   * @return a map of references lists, indexed by targeted identifier.
+   */
+  Map<Integer,List<Reference<?,E>>> getReferences()
+  {
+    return _references;
+  }
+}
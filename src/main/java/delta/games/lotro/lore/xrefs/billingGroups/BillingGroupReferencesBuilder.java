@@ -6,7 +6,6 @@ import java.util.List;
 import delta.games.lotro.common.enums.BillingGroup;
 import delta.games.lotro.common.rewards.BillingTokenReward;
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.lore.deeds.DeedDescription;
 import delta.games.lotro.lore.deeds.DeedsManager;
@@ -14,21 +13,39 @@ import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to billing groups.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class BillingGroupReferencesBuilder
 {
-  private List<Reference<?,BillingGroupRole>> _storage;
+  private static ReferencesIndex<BillingGroupRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public BillingGroupReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,BillingGroupRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<BillingGroupRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -38,38 +55,43 @@ public class BillingGroupReferencesBuilder
    */
   public List<Reference<?,BillingGroupRole>> inspectBillingGroup(int billingGroupID)
   {
-    _storage.clear();
-    findInRewards(billingGroupID);
-    List<Reference<?,BillingGroupRole>> ret=new ArrayList<Reference<?,BillingGroupRole>>(_storage);
-    _storage.clear();
-    return ret;
+    return getIndex().getReferences(billingGroupID);
   }
 
-  private void findInRewards(int billingGroupID)
+  private static ReferencesIndex<BillingGroupRole> buildIndex()
   {
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    List<ReferencesSectionBuilder<BillingGroupRole>> sections=new ArrayList<ReferencesSectionBuilder<BillingGroupRole>>();
     // Quests
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
+    sections.add(new ReferencesSectionBuilder<BillingGroupRole>()
     {
-      findInRewards(quest,quest.getRewards(),billingGroupID);
-    }
+      @Override
+      public void build()
+      {
+        for(QuestDescription quest : quests)
+        {
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
+        }
+      }
+    });
     // Deeds
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
+    sections.add(new ReferencesSectionBuilder<BillingGroupRole>()
     {
-      findInRewards(deed,deed.getRewards(),billingGroupID);
-    }
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int billingGroupID)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,billingGroupID);
+      @Override
+      public void build()
+      {
+        for(DeedDescription deed : deeds)
+        {
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int billingGroupID)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<BillingGroupRole> section)
   {
     for(RewardElement element : elements)
     {
@@ -77,16 +99,13 @@ public class BillingGroupReferencesBuilder
       {
         BillingTokenReward billingTokenReward=(BillingTokenReward)element;
         BillingGroup billingGroup=billingTokenReward.getBillingGroup();
-        if (billingGroup.getCode()==billingGroupID)
-        {
-          BillingGroupRole role=BillingGroupRole.REGULAR_REWARD;
-          _storage.add(new Reference<Achievable,BillingGroupRole>(context,role));
-        }
+        BillingGroupRole role=BillingGroupRole.REGULAR_REWARD;
+        section.addReference(billingGroup.getCode(),new Reference<Achievable,BillingGroupRole>(context,role));
       }
       else if (element instanceof SelectableRewardElement)
       {
         SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),billingGroupID);
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
@@ -6,7 +6,6 @@ import java.util.List;
 import delta.games.lotro.common.Identifiable;
 import delta.games.lotro.common.rewards.EmoteReward;
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.lore.deeds.DeedDescription;
 import delta.games.lotro.lore.deeds.DeedsManager;
@@ -14,26 +13,43 @@ import delta.games.lotro.lore.emotes.EmoteDescription;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
 import delta.games.lotro.lore.items.details.GrantedElement;
-import delta.games.lotro.lore.items.details.ItemDetailsManager;
 import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to emotes.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class EmoteReferencesBuilder
 {
-  private List<Reference<?,EmoteRole>> _storage;
+  private static ReferencesIndex<EmoteRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public EmoteReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,EmoteRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<EmoteRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -43,39 +59,56 @@ public class EmoteReferencesBuilder
    */
   public List<Reference<?,EmoteRole>> inspectEmote(int emoteID)
   {
-    _storage.clear();
-    findInRewards(emoteID);
-    findInItems(emoteID);
-    List<Reference<?,EmoteRole>> ret=new ArrayList<Reference<?,EmoteRole>>(_storage);
-    _storage.clear();
-    return ret;
+    return getIndex().getReferences(emoteID);
   }
 
-  private void findInRewards(int emoteID)
+  private static ReferencesIndex<EmoteRole> buildIndex()
   {
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    final List<Item> items=ItemsManager.getInstance().getAllItems();
+    List<ReferencesSectionBuilder<EmoteRole>> sections=new ArrayList<ReferencesSectionBuilder<EmoteRole>>();
     // Quests
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
+    sections.add(new ReferencesSectionBuilder<EmoteRole>()
     {
-      findInRewards(quest,quest.getRewards(),emoteID);
-    }
+      @Override
+      public void build()
+      {
+        for(QuestDescription quest : quests)
+        {
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
+        }
+      }
+    });
     // Deeds
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
+    sections.add(new ReferencesSectionBuilder<EmoteRole>()
     {
-      findInRewards(deed,deed.getRewards(),emoteID);
-    }
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int emoteID)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,emoteID);
+      @Override
+      public void build()
+      {
+        for(DeedDescription deed : deeds)
+        {
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
+        }
+      }
+    });
+    // Items
+    sections.add(new ReferencesSectionBuilder<EmoteRole>()
+    {
+      @Override
+      public void build()
+      {
+        for(Item item : items)
+        {
+          indexItem(item,this);
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int emoteID)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<EmoteRole> section)
   {
     for(RewardElement element : elements)
     {
@@ -83,41 +116,26 @@ public class EmoteReferencesBuilder
       {
         EmoteReward emoteReward=(EmoteReward)element;
         int emoteRewardID=emoteReward.getEmote().getIdentifier();
-        if (emoteRewardID==emoteID)
-        {
-          EmoteRole role=EmoteRole.REGULAR_REWARD;
-          _storage.add(new Reference<Achievable,EmoteRole>(context,role));
-        }
+        EmoteRole role=EmoteRole.REGULAR_REWARD;
+        section.addReference(emoteRewardID,new Reference<Achievable,EmoteRole>(context,role));
       }
       else if (element instanceof SelectableRewardElement)
       {
         SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),emoteID);
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
 
-  private void findInItems(int emoteID)
+  private static void indexItem(Item item, ReferencesSectionBuilder<EmoteRole> section)
   {
-    for(Item item : ItemsManager.getInstance().getAllItems())
+    for(GrantedElement<?> element : item.getGrantedElements())
     {
-      ItemDetailsManager detailsMgr=item.getDetails();
-      if (detailsMgr==null)
+      Identifiable identifiable=element.getGrantedElement();
+      if (identifiable instanceof EmoteDescription)
       {
-        continue;
-      }
-      for(GrantedElement<?> element : detailsMgr.getItemDetails(GrantedElement.class))
-      {
-        Identifiable identifiable=element.getGrantedElement();
-        if (identifiable instanceof EmoteDescription)
-        {
-          if (identifiable.getIdentifier()==emoteID)
-          {
-            _storage.add(new Reference<Item,EmoteRole>(item,EmoteRole.GRANTED_BY_ITEM));
-          }
-        }
+        section.addReference(identifiable.getIdentifier(),new Reference<Item,EmoteRole>(item,EmoteRole.GRANTED_BY_ITEM));
       }
     }
   }
-
 }
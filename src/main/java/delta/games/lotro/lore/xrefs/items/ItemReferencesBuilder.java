@@ -2,14 +2,16 @@ package delta.games.lotro.lore.xrefs.items;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import delta.games.lotro.common.comparators.NamedComparator;
 import delta.games.lotro.common.rewards.ItemReward;
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.lore.crafting.recipes.CraftingResult;
 import delta.games.lotro.lore.crafting.recipes.Ingredient;
@@ -31,7 +33,7 @@ import delta.games.lotro.lore.items.sets.ItemsSetsManager;
 import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
-import delta.games.lotro.lore.relics.melding.MeldingOutput;
+import delta.games.lotro.lore.relics.melding.RelicMeldingOutputEntry;
 import delta.games.lotro.lore.relics.melding.RelicMeldingRecipe;
 import delta.games.lotro.lore.relics.melding.RelicMeldingRecipesManager;
 import delta.games.lotro.lore.tasks.Task;
@@ -48,21 +50,52 @@ import delta.games.lotro.lore.trade.vendor.VendorsManager;
 import delta.games.lotro.lore.webStore.WebStoreItem;
 import delta.games.lotro.lore.webStore.WebStoreItemsManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
+import delta.games.lotro.utils.IntSet;
 
 /**
  * Finds references to items.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class ItemReferencesBuilder
 {
-  private List<Reference<?,ItemRole>> _storage;
+  // Index sections
+  private static final int RECIPES=0;
+  private static final int QUESTS=1;
+  private static final int TASKS=2;
+  private static final int DEEDS=3;
+  private static final int BARTERERS=4;
+  private static final int VENDORS=5;
+  private static final int SETS=6;
+  private static final int CONTAINERS=7;
+  private static final int MELDING_RECIPES=8;
+  private static final int WEB_STORE_ITEMS=9;
+
+  private static ReferencesIndex<ItemRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public ItemReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,ItemRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<ItemRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -72,291 +105,298 @@ public class ItemReferencesBuilder
    */
   public List<Reference<?,ItemRole>> inspectItem(int itemId)
   {
-    _storage.clear();
-    findInRecipes(itemId);
-    findInQuestRewards(itemId);
-    findInTaskQuests(itemId);
-    findInDeedRewards(itemId);
-    findInBarterers(itemId);
-    findInVendors(itemId);
-    findInSets(itemId);
-    findInContainers(itemId);
-    findInMeldingRecipes(itemId);
-    findSameCosmetics(itemId);
-    findInWebStoreItems(itemId);
-    List<Reference<?,ItemRole>> ret=new ArrayList<Reference<?,ItemRole>>(_storage);
-    _storage.clear();
-    return ret;
-  }
-
-  private void findInRecipes(int itemId)
-  {
-    RecipesManager recipesManager=RecipesManager.getInstance();
-    List<Recipe> recipes=recipesManager.getAll();
-    for(Recipe recipe : recipes)
+    ReferencesIndex<ItemRole> index=getIndex();
+    List<Reference<?,ItemRole>> ret=new ArrayList<Reference<?,ItemRole>>();
+    for(int section=RECIPES;section<=MELDING_RECIPES;section++)
     {
-      findInRecipe(recipe, itemId);
+      index.getReferences(section,itemId,ret);
     }
+    findSameCosmetics(itemId,ret);
+    index.getReferences(WEB_STORE_ITEMS,itemId,ret);
+    return ret;
   }
 
-  private void findInRecipe(Recipe recipe, int itemId)
+  private static ReferencesIndex<ItemRole> buildIndex()
   {
-    Set<ItemRole> roles=new HashSet<ItemRole>();
-    for(RecipeVersion version : recipe.getVersions())
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<Recipe> recipes=RecipesManager.getInstance().getAll();
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<Task> tasks=TasksRegistry.getInstance().getTasks();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    final List<BarterNpc> barterers=BarterersManager.getInstance().getAll();
+    final List<VendorNpc> vendors=VendorsManager.getInstance().getAll();
+    final List<ItemsSet> sets=ItemsSetsManager.getInstance().getAll();
+    final List<Container> containers=ContainersManager.getInstance().getContainers();
+    final List<RelicMeldingRecipe> meldingRecipes=RelicMeldingRecipesManager.getInstance().getMeldingRecipes().getItems();
+    final List<WebStoreItem> webStoreItems=WebStoreItemsManager.getInstance().getAll();
+    List<ReferencesSectionBuilder<ItemRole>> sections=new ArrayList<ReferencesSectionBuilder<ItemRole>>();
+    // Recipes
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      // Ingredient?
-      List<Ingredient> ingredients=version.getIngredients();
-      for(Ingredient ingredient : ingredients)
+      @Override
+      public void build()
       {
-        Item ingredientItem=ingredient.getItem();
-        if ((ingredientItem!=null) && (ingredientItem.getIdentifier()==itemId))
+        for(Recipe recipe : recipes)
         {
-          ItemRole role=ingredient.isOptional()?ItemRole.RECIPE_CRITICAL_INGREDIENT:ItemRole.RECIPE_INGREDIENT;
-          roles.add(role);
-          break;
+          indexRecipe(recipe,this);
         }
       }
-      // Result
-      findInRecipeResult(version,itemId,roles);
-      // Recipe item
-      Item recipeItem=recipe.getRecipeScroll();
-      if (recipeItem!=null)
+    });
+    // Quests
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
+    {
+      @Override
+      public void build()
       {
-        int recipeItemId=recipeItem.getIdentifier();
-        if (recipeItemId==itemId)
+        for(QuestDescription quest : quests)
         {
-          roles.add(ItemRole.RECIPE_PROVIDES_RECIPE);
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
         }
       }
-    }
-    if (!roles.isEmpty())
+    });
+    // Tasks
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      _storage.add(new Reference<Recipe,ItemRole>(recipe,roles));
-    }
-  }
-
-  private void findInRecipeResult(RecipeVersion version, int itemId, Set<ItemRole> roles)
-  {
-    CraftingResult regularResult=version.getRegular();
-    Item regularResultItem=regularResult.getItem();
-    if (regularResultItem!=null)
-    {
-      int regularResultId=regularResultItem.getIdentifier();
-      if (regularResultId==itemId)
+      @Override
+      public void build()
       {
-        roles.add(ItemRole.RECIPE_RESULT);
+        for(Task task : tasks)
+        {
+          Item item=task.getItem();
+          if (item!=null)
+          {
+            addReference(item.getIdentifier(),new Reference<Task,ItemRole>(task,ItemRole.TASK_ITEM));
+          }
+        }
       }
-    }
-    CraftingResult criticalResult=version.getCritical();
-    if (criticalResult!=null)
+    });
+    // Deeds
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      Item criticalResultItem=criticalResult.getItem();
-      if (criticalResultItem!=null)
+      @Override
+      public void build()
       {
-        int criticalResultId=criticalResultItem.getIdentifier();
-        if (criticalResultId==itemId)
+        for(DeedDescription deed : deeds)
         {
-          roles.add(ItemRole.RECIPE_CRITICAL_RESULT);
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
         }
       }
-    }
-  }
-
-  private void findInQuestRewards(int itemId)
-  {
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
-    {
-      findInQuest(quest, itemId);
-    }
-  }
-
-  private void findInQuest(QuestDescription quest, int itemId)
-  {
-    findInRewards(quest,quest.getRewards(),itemId);
-  }
-
-  private void findInTaskQuests(int itemId)
-  {
-    TasksRegistry tasksRegistry=TasksRegistry.getInstance();
-    List<Task> tasks=tasksRegistry.getTasks();
-    for(Task task : tasks)
+    });
+    // Barterers
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      findInTask(task, itemId);
-    }
-  }
-
-  private void findInTask(Task task, int itemId)
-  {
-    Item item=task.getItem();
-    if ((item!=null) && (item.getIdentifier()==itemId))
+      @Override
+      public void build()
+      {
+        for(BarterNpc barterer : barterers)
+        {
+          indexBarterer(barterer,this);
+        }
+      }
+    });
+    // Vendors
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      _storage.add(new Reference<Task,ItemRole>(task,ItemRole.TASK_ITEM));
-    }
-  }
-
-  private void findInDeedRewards(int itemId)
-  {
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
+      @Override
+      public void build()
+      {
+        for(VendorNpc vendor : vendors)
+        {
+          for(SellList sellList : vendor.getSellLists())
+          {
+            for(Item entry : sellList.getItems())
+            {
+              addReference(entry.getIdentifier(),new Reference<VendorNpc,ItemRole>(vendor,ItemRole.VENDOR_SOLD_BY));
+            }
+          }
+        }
+      }
+    });
+    // Sets
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      findInDeed(deed, itemId);
-    }
-  }
-
-  private void findInDeed(DeedDescription deed, int itemId)
-  {
-    findInRewards(deed,deed.getRewards(),itemId);
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int itemId)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,itemId);
-  }
-
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int itemId)
-  {
-    for(RewardElement element : elements)
+      @Override
+      public void build()
+      {
+        for(ItemsSet itemsSet : sets)
+        {
+          IntSet memberIds=new IntSet();
+          for(Item member : itemsSet.getMembers())
+          {
+            memberIds.add(member.getIdentifier());
+          }
+          for(int memberId : memberIds.toArray())
+          {
+            addReference(memberId,new Reference<ItemsSet,ItemRole>(itemsSet,ItemRole.SET_MEMBER_OF_SET));
+          }
+        }
+      }
+    });
+    // Containers
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      if (element instanceof ItemReward)
+      @Override
+      public void build()
       {
-        ItemReward itemReward=(ItemReward)element;
-        int itemRewardId=itemReward.getItem().getIdentifier();
-        if (itemRewardId==itemId)
+        for(Container container : containers)
         {
-          ItemRole role=(context instanceof QuestDescription)?ItemRole.QUEST_REWARD:ItemRole.DEED_REWARD;
-          _storage.add(new Reference<Achievable,ItemRole>(context,role));
+          if (container instanceof ItemsContainer)
+          {
+            ItemsContainer itemsContainer=(ItemsContainer)container;
+            LootTables lootTables=itemsContainer.getLootTables();
+            for(Integer itemId : lootTables.getItemIds())
+            {
+              addReference(itemId.intValue(),new Reference<ItemsContainer,ItemRole>(itemsContainer,ItemRole.CONTAINED_IN));
+            }
+          }
         }
       }
-      else if (element instanceof SelectableRewardElement)
+    });
+    // Melding recipes
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
+    {
+      @Override
+      public void build()
       {
-        SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),itemId);
+        for(RelicMeldingRecipe recipe : meldingRecipes)
+        {
+          IntSet resultIds=new IntSet();
+          for(RelicMeldingOutputEntry entry : recipe.getOutput().getPossibleOutputs())
+          {
+            Item item=entry.getItem();
+            if (item!=null)
+            {
+              resultIds.add(item.getIdentifier());
+            }
+          }
+          for(int resultId : resultIds.toArray())
+          {
+            addReference(resultId,new Reference<RelicMeldingRecipe,ItemRole>(recipe,ItemRole.RECIPE_RESULT));
+          }
+        }
       }
-    }
-  }
-
-  private void findInBarterers(int itemId)
-  {
-    BarterersManager barterersManager=BarterersManager.getInstance();
-    List<BarterNpc> barterers=barterersManager.getAll();
-    for(BarterNpc barterer : barterers)
+    });
+    // Web store items
+    sections.add(new ReferencesSectionBuilder<ItemRole>()
     {
-      findInBarter(barterer, itemId);
-    }
+      @Override
+      public void build()
+      {
+        for(WebStoreItem webStoreItem : webStoreItems)
+        {
+          addReference(webStoreItem.getItemID(),new Reference<WebStoreItem,ItemRole>(webStoreItem,ItemRole.WEB_STORE_ITEM));
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInBarter(BarterNpc barterer, int itemId)
+  private static void indexRecipe(Recipe recipe, ReferencesSectionBuilder<ItemRole> section)
   {
-    Set<ItemRole> roles=new HashSet<ItemRole>();
-    List<BarterProfile> profiles=barterer.getBarterProfiles();
-    for(BarterProfile profile : profiles)
+    Map<Integer,Set<ItemRole>> rolesByItem=new LinkedHashMap<Integer,Set<ItemRole>>();
+    for(RecipeVersion version : recipe.getVersions())
     {
-      List<BarterEntry> entries=profile.getEntries();
-      for(BarterEntry entry : entries)
+      // Ingredients: only the first occurrence of an item is used
+      Map<Integer,ItemRole> ingredientRoles=new HashMap<Integer,ItemRole>();
+      for(Ingredient ingredient : version.getIngredients())
       {
-        BarterEntryElement toReceive=entry.getElementToReceive();
-        if (toReceive instanceof ItemBarterEntryElement)
+        Item ingredientItem=ingredient.getItem();
+        if (ingredientItem!=null)
         {
-          ItemBarterEntryElement itemToReceive=(ItemBarterEntryElement)toReceive;
-          int itemToReceiveId=itemToReceive.getItem().getIdentifier();
-          if (itemToReceiveId==itemId)
+          Integer key=Integer.valueOf(ingredientItem.getIdentifier());
+          if (!ingredientRoles.containsKey(key))
           {
-            roles.add(ItemRole.BARTERER_GIVEN);
+            ItemRole role=ingredient.isOptional()?ItemRole.RECIPE_CRITICAL_INGREDIENT:ItemRole.RECIPE_INGREDIENT;
+            ingredientRoles.put(key,role);
+            addRole(rolesByItem,key.intValue(),role);
           }
         }
-        for(ItemBarterEntryElement toGive : entry.getElementsToGive())
+      }
+      // Results
+      Item regularResultItem=version.getRegular().getItem();
+      if (regularResultItem!=null)
+      {
+        addRole(rolesByItem,regularResultItem.getIdentifier(),ItemRole.RECIPE_RESULT);
+      }
+      CraftingResult criticalResult=version.getCritical();
+      if (criticalResult!=null)
+      {
+        Item criticalResultItem=criticalResult.getItem();
+        if (criticalResultItem!=null)
         {
-          int itemToGiveId=toGive.getItem().getIdentifier();
-          if (itemToGiveId==itemId)
-          {
-            roles.add(ItemRole.BARTERER_RECEIVED);
-          }
+          addRole(rolesByItem,criticalResultItem.getIdentifier(),ItemRole.RECIPE_CRITICAL_RESULT);
         }
       }
+      // Recipe item
+      Item recipeItem=recipe.getRecipeScroll();
+      if (recipeItem!=null)
+      {
+        addRole(rolesByItem,recipeItem.getIdentifier(),ItemRole.RECIPE_PROVIDES_RECIPE);
+      }
     }
-    if (!roles.isEmpty())
+    for(Map.Entry<Integer,Set<ItemRole>> entry : rolesByItem.entrySet())
     {
-      _storage.add(new Reference<BarterNpc,ItemRole>(barterer,roles));
+      section.addReference(entry.getKey().intValue(),new Reference<Recipe,ItemRole>(recipe,entry.getValue()));
     }
   }
 
-  private void findInVendors(int itemId)
+  private static void addRole(Map<Integer,Set<ItemRole>> rolesByItem, int itemId, ItemRole role)
   {
-    VendorsManager vendorsManager=VendorsManager.getInstance();
-    List<VendorNpc> vendors=vendorsManager.getAll();
-    for(VendorNpc vendor : vendors)
+    Integer key=Integer.valueOf(itemId);
+    Set<ItemRole> roles=rolesByItem.get(key);
+    if (roles==null)
     {
-      findInVendor(vendor, itemId);
+      roles=new HashSet<ItemRole>();
+      rolesByItem.put(key,roles);
     }
+    roles.add(role);
   }
 
-  private void findInVendor(VendorNpc vendor, int itemId)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<ItemRole> section)
   {
-    List<SellList> sellLists=vendor.getSellLists();
-    for(SellList sellList : sellLists)
+    for(RewardElement element : elements)
     {
-      List<Item> entries=sellList.getItems();
-      for(Item entry : entries)
+      if (element instanceof ItemReward)
       {
-        int itemToGetId=entry.getIdentifier();
-        if (itemToGetId==itemId)
-        {
-          _storage.add(new Reference<VendorNpc,ItemRole>(vendor,ItemRole.VENDOR_SOLD_BY));
-        }
+        ItemReward itemReward=(ItemReward)element;
+        int itemRewardId=itemReward.getItem().getIdentifier();
+        ItemRole role=(context instanceof QuestDescription)?ItemRole.QUEST_REWARD:ItemRole.DEED_REWARD;
+        section.addReference(itemRewardId,new Reference<Achievable,ItemRole>(context,role));
       }
-    }
-  }
-
-  private void findInSets(int itemId)
-  {
-    ItemsSetsManager itemsSetsManager=ItemsSetsManager.getInstance();
-    for(ItemsSet itemsSet : itemsSetsManager.getAll())
-    {
-      if (itemsSet.hasMember(itemId))
+      else if (element instanceof SelectableRewardElement)
       {
-        _storage.add(new Reference<ItemsSet,ItemRole>(itemsSet,ItemRole.SET_MEMBER_OF_SET));
+        SelectableRewardElement selectableReward=(SelectableRewardElement)element;
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
 
-  private void findInContainers(int itemId)
+  private static void indexBarterer(BarterNpc barterer, ReferencesSectionBuilder<ItemRole> section)
   {
-    ContainersManager containersMgr=ContainersManager.getInstance();
-    List<Container> containers=containersMgr.getContainers();
-    for(Container container : containers)
+    Map<Integer,Set<ItemRole>> rolesByItem=new LinkedHashMap<Integer,Set<ItemRole>>();
+    for(BarterProfile profile : barterer.getBarterProfiles())
     {
-      if (container instanceof ItemsContainer)
+      for(BarterEntry entry : profile.getEntries())
       {
-        ItemsContainer itemsContainer=(ItemsContainer)container;
-        LootTables lootTables=itemsContainer.getLootTables();
-        boolean found=lootTables.contains(itemId);
-        if (found)
+        BarterEntryElement toReceive=entry.getElementToReceive();
+        if (toReceive instanceof ItemBarterEntryElement)
         {
-          _storage.add(new Reference<ItemsContainer,ItemRole>(itemsContainer,ItemRole.CONTAINED_IN));
+          ItemBarterEntryElement itemToReceive=(ItemBarterEntryElement)toReceive;
+          addRole(rolesByItem,itemToReceive.getItem().getIdentifier(),ItemRole.BARTERER_GIVEN);
+        }
+        for(ItemBarterEntryElement toGive : entry.getElementsToGive())
+        {
+          addRole(rolesByItem,toGive.getItem().getIdentifier(),ItemRole.BARTERER_RECEIVED);
         }
       }
     }
-  }
-
-  private void findInMeldingRecipes(int itemId)
-  {
-    RelicMeldingRecipesManager recipesMgr=RelicMeldingRecipesManager.getInstance();
-    List<RelicMeldingRecipe> recipes=recipesMgr.getMeldingRecipes().getItems();
-    for(RelicMeldingRecipe recipe : recipes)
+    for(Map.Entry<Integer,Set<ItemRole>> entry : rolesByItem.entrySet())
     {
-      MeldingOutput output=recipe.getOutput();
-      if (output.isResultItem(itemId))
-      {
-        _storage.add(new Reference<RelicMeldingRecipe,ItemRole>(recipe,ItemRole.RECIPE_RESULT));
-      }
+      section.addReference(entry.getKey().intValue(),new Reference<BarterNpc,ItemRole>(barterer,entry.getValue()));
     }
   }
 
-  private void findSameCosmetics(int itemID)
+  private void findSameCosmetics(int itemID, List<Reference<?,ItemRole>> storage)
   {
     ItemCosmeticsManager mgr=ItemCosmeticsManager.getInstance();
     ItemCosmetics cosmeticsMgr=mgr.getData();
@@ -382,22 +422,9 @@ public class ItemReferencesBuilder
       {
         for(Item sameCosmeticItem : sameCosmeticItems)
         {
-          _storage.add(new Reference<Item,ItemRole>(sameCosmeticItem,ItemRole.SAME_COSMETICS));
+          storage.add(new Reference<Item,ItemRole>(sameCosmeticItem,ItemRole.SAME_COSMETICS));
         }
       }
     }
   }
-
-  private void findInWebStoreItems(int itemId)
-  {
-    WebStoreItemsManager webStoreItemsMgr=WebStoreItemsManager.getInstance();
-    for(WebStoreItem webStoreItem : webStoreItemsMgr.getAll())
-    {
-      int webStoreItemId=webStoreItem.getItemID();
-      if (webStoreItemId==itemId)
-      {
-        _storage.add(new Reference<WebStoreItem,ItemRole>(webStoreItem,ItemRole.WEB_STORE_ITEM));
-      }
-    }
-  }
 }
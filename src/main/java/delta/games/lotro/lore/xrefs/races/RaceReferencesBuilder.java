@@ -6,22 +6,41 @@ import java.util.List;
 import delta.games.lotro.character.classes.ClassDescription;
 import delta.games.lotro.character.classes.ClassesManager;
 import delta.games.lotro.character.races.RaceDescription;
+import delta.games.lotro.character.races.RacesManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to races.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class RaceReferencesBuilder
 {
-  private List<Reference<?,RaceRole>> _storage;
+  private static ReferencesIndex<RaceRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public RaceReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,RaceRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<RaceRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -31,19 +50,30 @@ public class RaceReferencesBuilder
    */
   public List<Reference<?,RaceRole>> inspectRace(RaceDescription race)
   {
-    _storage.clear();
-    findInRaces(race);
-    List<Reference<?,RaceRole>> ret=new ArrayList<Reference<?,RaceRole>>(_storage);
-    _storage.clear();
-    return ret;
+    return getIndex().getReferences(race.getIdentifier());
   }
 
-  private void findInRaces(RaceDescription race)
+  private static ReferencesIndex<RaceRole> buildIndex()
   {
-    for(String classKey : race.getAllowedClasses())
+    final List<RaceDescription> races=RacesManager.getInstance().getAll();
+    final ClassesManager classesMgr=ClassesManager.getInstance();
+    List<ReferencesSectionBuilder<RaceRole>> sections=new ArrayList<ReferencesSectionBuilder<RaceRole>>();
+    // Classes
+    sections.add(new ReferencesSectionBuilder<RaceRole>()
     {
-      ClassDescription characterClass=ClassesManager.getInstance().getCharacterClassByKey(classKey);
-      _storage.add(new Reference<ClassDescription,RaceRole>(characterClass,RaceRole.CLASS_RACE));
-    }
+      @Override
+      public void build()
+      {
+        for(RaceDescription race : races)
+        {
+          for(String classKey : race.getAllowedClasses())
+          {
+            ClassDescription characterClass=classesMgr.getCharacterClassByKey(classKey);
+            addReference(race.getIdentifier(),new Reference<ClassDescription,RaceRole>(characterClass,RaceRole.CLASS_RACE));
+          }
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 }
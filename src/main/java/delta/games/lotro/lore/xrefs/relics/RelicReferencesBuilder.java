@@ -1,40 +1,60 @@
 package delta.games.lotro.lore.xrefs.relics;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import delta.games.lotro.common.rewards.RelicReward;
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.lore.deeds.DeedDescription;
 import delta.games.lotro.lore.deeds.DeedsManager;
 import delta.games.lotro.lore.items.Container;
 import delta.games.lotro.lore.items.ContainersManager;
+import delta.games.lotro.lore.items.legendary.relics.Relic;
 import delta.games.lotro.lore.items.legendary.relics.RelicsContainer;
 import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
-import delta.games.lotro.lore.relics.melding.MeldingInput;
-import delta.games.lotro.lore.relics.melding.MeldingOutput;
+import delta.games.lotro.lore.relics.CountedRelic;
+import delta.games.lotro.lore.relics.melding.RelicMeldingOutputEntry;
 import delta.games.lotro.lore.relics.melding.RelicMeldingRecipe;
 import delta.games.lotro.lore.relics.melding.RelicMeldingRecipesManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to relics.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class RelicReferencesBuilder
 {
-  private List<Reference<?,RelicRole>> _storage;
+  private static ReferencesIndex<RelicRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public RelicReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,RelicRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<RelicRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -44,90 +64,102 @@ public class RelicReferencesBuilder
    */
   public List<Reference<?,RelicRole>> inspectItem(int relicId)
   {
-    _storage.clear();
-    findInQuestRewards(relicId);
-    findInDeedRewards(relicId);
-    findInContainers(relicId);
-    findInMeldingRecipes(relicId);
-    List<Reference<?,RelicRole>> ret=new ArrayList<Reference<?,RelicRole>>(_storage);
-    _storage.clear();
-    return ret;
+    return getIndex().getReferences(relicId);
   }
 
-  private void findInMeldingRecipes(int relicId)
+  private static ReferencesIndex<RelicRole> buildIndex()
   {
-    RelicMeldingRecipesManager recipesMgr=RelicMeldingRecipesManager.getInstance();
-    List<RelicMeldingRecipe> recipes=recipesMgr.getMeldingRecipes().getItems();
-    for(RelicMeldingRecipe recipe : recipes)
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    final List<Container> containers=ContainersManager.getInstance().getContainers();
+    final List<RelicMeldingRecipe> meldingRecipes=RelicMeldingRecipesManager.getInstance().getMeldingRecipes().getItems();
+    List<ReferencesSectionBuilder<RelicRole>> sections=new ArrayList<ReferencesSectionBuilder<RelicRole>>();
+    // Quests
+    sections.add(new ReferencesSectionBuilder<RelicRole>()
+    {
+      @Override
+      public void build()
+      {
+        for(QuestDescription quest : quests)
+        {
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
+        }
+      }
+    });
+    // Deeds
+    sections.add(new ReferencesSectionBuilder<RelicRole>()
     {
-      MeldingInput input=recipe.getInput();
-      if (input.isNeededRelic(relicId))
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<RelicMeldingRecipe,RelicRole>(recipe,RelicRole.RECIPE_INGREDIENT));
+        for(DeedDescription deed : deeds)
+        {
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
+        }
       }
-      MeldingOutput output=recipe.getOutput();
-      if (output.isResultRelic(relicId))
+    });
+    // Containers
+    sections.add(new ReferencesSectionBuilder<RelicRole>()
+    {
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<RelicMeldingRecipe,RelicRole>(recipe,RelicRole.RECIPE_RESULT));
+        for(Container container : containers)
+        {
+          if (container instanceof RelicsContainer)
+          {
+            RelicsContainer relicsContainer=(RelicsContainer)container;
+            for(Integer relicId : relicsContainer.getRelicds())
+            {
+              addReference(relicId.intValue(),new Reference<RelicsContainer,RelicRole>(relicsContainer,RelicRole.CONTAINED_IN));
+            }
+          }
+        }
       }
-    }
-  }
-
-  private void findInContainers(int relicId)
-  {
-    ContainersManager containersMgr=ContainersManager.getInstance();
-    List<Container> containers=containersMgr.getContainers();
-    for(Container container : containers)
+    });
+    // Melding recipes
+    sections.add(new ReferencesSectionBuilder<RelicRole>()
     {
-      if (container instanceof RelicsContainer)
+      @Override
+      public void build()
       {
-        RelicsContainer relicsContainer=(RelicsContainer)container;
-        boolean found=relicsContainer.contains(relicId);
-        if (found)
+        for(RelicMeldingRecipe recipe : meldingRecipes)
         {
-          _storage.add(new Reference<RelicsContainer,RelicRole>(relicsContainer,RelicRole.CONTAINED_IN));
+          indexMeldingRecipe(recipe,this);
         }
       }
-    }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInQuestRewards(int relicId)
+  private static void indexMeldingRecipe(RelicMeldingRecipe recipe, ReferencesSectionBuilder<RelicRole> section)
   {
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
+    Set<Integer> neededRelicIds=new LinkedHashSet<Integer>();
+    for(CountedRelic neededRelic : recipe.getInput().getNeededRelics())
     {
-      findInQuest(quest,relicId);
+      neededRelicIds.add(Integer.valueOf(neededRelic.getRelic().getIdentifier()));
     }
-  }
-
-  private void findInQuest(QuestDescription quest, int relicId)
-  {
-    findInRewards(quest,quest.getRewards(),relicId);
-  }
-
-  private void findInDeedRewards(int relicId)
-  {
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
+    Set<Integer> resultRelicIds=new LinkedHashSet<Integer>();
+    for(RelicMeldingOutputEntry entry : recipe.getOutput().getPossibleOutputs())
     {
-      findInDeed(deed,relicId);
+      Relic relic=entry.getRelic();
+      if (relic!=null)
+      {
+        resultRelicIds.add(Integer.valueOf(relic.getIdentifier()));
+      }
+    }
+    for(Integer relicId : neededRelicIds)
+    {
+      section.addReference(relicId.intValue(),new Reference<RelicMeldingRecipe,RelicRole>(recipe,RelicRole.RECIPE_INGREDIENT));
+    }
+    for(Integer relicId : resultRelicIds)
+    {
+      section.addReference(relicId.intValue(),new Reference<RelicMeldingRecipe,RelicRole>(recipe,RelicRole.RECIPE_RESULT));
     }
   }
 
-  private void findInDeed(DeedDescription deed, int itemId)
-  {
-    findInRewards(deed,deed.getRewards(),itemId);
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int relicId)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,relicId);
-  }
-
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int relicId)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<RelicRole> section)
   {
     for(RewardElement element : elements)
     {
@@ -135,16 +167,13 @@ public class RelicReferencesBuilder
       {
         RelicReward itemReward=(RelicReward)element;
         int relicRewardId=itemReward.getRelic().getIdentifier();
-        if (relicRewardId==relicId)
-        {
-          RelicRole role=(context instanceof QuestDescription)?RelicRole.QUEST_REWARD:RelicRole.DEED_REWARD;
-          _storage.add(new Reference<Achievable,RelicRole>(context,role));
-        }
+        RelicRole role=(context instanceof QuestDescription)?RelicRole.QUEST_REWARD:RelicRole.DEED_REWARD;
+        section.addReference(relicRewardId,new Reference<Achievable,RelicRole>(context,role));
       }
       else if (element instanceof SelectableRewardElement)
       {
         SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),relicId);
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
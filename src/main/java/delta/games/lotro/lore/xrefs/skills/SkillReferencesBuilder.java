@@ -13,23 +13,40 @@ import delta.games.lotro.common.Identifiable;
 import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
 import delta.games.lotro.lore.items.details.GrantedElement;
-import delta.games.lotro.lore.items.details.ItemDetailsManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to skills.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class SkillReferencesBuilder
 {
-  private List<Reference<?,SkillRole>> _storage;
+  private static ReferencesIndex<SkillRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public SkillReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,SkillRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<SkillRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -39,70 +56,70 @@ public class SkillReferencesBuilder
    */
   public List<Reference<?,SkillRole>> inspectSkill(int skillID)
   {
-    _storage.clear();
-    findInClasses(skillID);
-    findInItems(skillID);
-    findInTraits(skillID);
-    List<Reference<?,SkillRole>> ret=new ArrayList<Reference<?,SkillRole>>(_storage);
-    _storage.clear();
-    return ret;
-  }
-
-  private void findInClasses(int skillID)
-  {
-    for(AbstractClassDescription classDescription : ClassesManager.getInstance().getAllClasses())
-    {
-      findInClass(classDescription, skillID);
-    }
+    return getIndex().getReferences(skillID);
   }
 
-  private void findInClass(AbstractClassDescription classDescription, int skillID)
+  private static ReferencesIndex<SkillRole> buildIndex()
   {
-    List<ClassSkill> classSkills=classDescription.getSkills();
-    for(ClassSkill classSkill : classSkills)
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<AbstractClassDescription> classes=ClassesManager.getInstance().getAllClasses();
+    final List<Item> items=ItemsManager.getInstance().getAllItems();
+    final List<TraitDescription> traits=TraitsManager.getInstance().getAll();
+    List<ReferencesSectionBuilder<SkillRole>> sections=new ArrayList<ReferencesSectionBuilder<SkillRole>>();
+    // Classes
+    sections.add(new ReferencesSectionBuilder<SkillRole>()
     {
-      SkillDescription skill=classSkill.getSkill();
-      if (skill.getIdentifier()==skillID)
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<AbstractClassDescription,SkillRole>(classDescription,SkillRole.CLASS_SKILL));
+        for(AbstractClassDescription classDescription : classes)
+        {
+          for(ClassSkill classSkill : classDescription.getSkills())
+          {
+            SkillDescription skill=classSkill.getSkill();
+            addReference(skill.getIdentifier(),new Reference<AbstractClassDescription,SkillRole>(classDescription,SkillRole.CLASS_SKILL));
+          }
+        }
       }
-    }
-  }
-
-  private void findInItems(int skillID)
-  {
-    for(Item item : ItemsManager.getInstance().getAllItems())
+    });
+    // Items
+    sections.add(new ReferencesSectionBuilder<SkillRole>()
     {
-      ItemDetailsManager detailsMgr=item.getDetails();
-      if (detailsMgr==null)
+      @Override
+      public void build()
       {
-        continue;
+        for(Item item : items)
+        {
+          indexItem(item,this);
+        }
       }
-      for(GrantedElement<?> element : detailsMgr.getItemDetails(GrantedElement.class))
+    });
+    // Traits
+    sections.add(new ReferencesSectionBuilder<SkillRole>()
+    {
+      @Override
+      public void build()
       {
-        Identifiable identifiable=element.getGrantedElement();
-        if (identifiable instanceof SkillDescription)
+        for(TraitDescription trait : traits)
         {
-          if (identifiable.getIdentifier()==skillID)
+          for(SkillDescription traitSkill : trait.getSkills())
           {
-            _storage.add(new Reference<Item,SkillRole>(item,SkillRole.GRANTED_BY_ITEM));
+            addReference(traitSkill.getIdentifier(),new Reference<TraitDescription,SkillRole>(trait,SkillRole.GRANTED_BY_TRAIT));
           }
         }
       }
-    }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInTraits(int skillID)
+  private static void indexItem(Item item, ReferencesSectionBuilder<SkillRole> section)
   {
-    for(TraitDescription trait : TraitsManager.getInstance().getAll())
+    for(GrantedElement<?> element : item.getGrantedElements())
     {
-      List<SkillDescription> traitSkills=trait.getSkills();
-      for(SkillDescription traitSkill : traitSkills)
+      Identifiable identifiable=element.getGrantedElement();
+      if (identifiable instanceof SkillDescription)
       {
-        if (traitSkill.getIdentifier()==skillID)
-        {
-          _storage.add(new Reference<TraitDescription,SkillRole>(trait,SkillRole.GRANTED_BY_TRAIT));
-        }
+        section.addReference(identifiable.getIdentifier(),new Reference<Item,SkillRole>(item,SkillRole.GRANTED_BY_ITEM));
       }
     }
   }
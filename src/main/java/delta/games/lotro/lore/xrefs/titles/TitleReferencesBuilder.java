@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.common.rewards.TitleReward;
 import delta.games.lotro.lore.billingGroups.BillingGroupDescription;
@@ -16,21 +15,39 @@ import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
 import delta.games.lotro.lore.titles.TitleDescription;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to titles.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class TitleReferencesBuilder
 {
-  private List<Reference<?,TitleRole>> _storage;
+  private static ReferencesIndex<TitleRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public TitleReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,TitleRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<TitleRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -40,58 +57,59 @@ public class TitleReferencesBuilder
    */
   public List<Reference<?,TitleRole>> inspectTitle(int titleID)
   {
-    _storage.clear();
-    findInRewards(titleID);
-    findInBillingGroups(titleID);
-    List<Reference<?,TitleRole>> ret=new ArrayList<Reference<?,TitleRole>>(_storage);
-    _storage.clear();
-    return ret;
-  }
-
-  private void findInBillingGroups(int titleID)
-  {
-    for(BillingGroupDescription billingGroup : BillingGroupsManager.getInstance().getAll())
-    {
-      findInBillingGroup(billingGroup, titleID);
-    }
+    return getIndex().getReferences(titleID);
   }
 
-  private void findInBillingGroup(BillingGroupDescription billingGroup, int titleID)
+  private static ReferencesIndex<TitleRole> buildIndex()
   {
-    for(TitleDescription title : billingGroup.getAccountTitles())
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    final List<BillingGroupDescription> billingGroups=BillingGroupsManager.getInstance().getAll();
+    List<ReferencesSectionBuilder<TitleRole>> sections=new ArrayList<ReferencesSectionBuilder<TitleRole>>();
+    // Quests
+    sections.add(new ReferencesSectionBuilder<TitleRole>()
     {
-      if (title.getIdentifier()==titleID)
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<BillingGroupDescription,TitleRole>(billingGroup,TitleRole.BILLING_GROUP_REWARD));
+        for(QuestDescription quest : quests)
+        {
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
+        }
       }
-    }
-  }
-
-  private void findInRewards(int titleID)
-  {
-    // Quests
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
-    {
-      findInRewards(quest,quest.getRewards(),titleID);
-    }
+    });
     // Deeds
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
+    sections.add(new ReferencesSectionBuilder<TitleRole>()
     {
-      findInRewards(deed,deed.getRewards(),titleID);
-    }
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int titleID)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,titleID);
+      @Override
+      public void build()
+      {
+        for(DeedDescription deed : deeds)
+        {
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
+        }
+      }
+    });
+    // Billing groups
+    sections.add(new ReferencesSectionBuilder<TitleRole>()
+    {
+      @Override
+      public void build()
+      {
+        for(BillingGroupDescription billingGroup : billingGroups)
+        {
+          for(TitleDescription title : billingGroup.getAccountTitles())
+          {
+            addReference(title.getIdentifier(),new Reference<BillingGroupDescription,TitleRole>(billingGroup,TitleRole.BILLING_GROUP_REWARD));
+          }
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int titleID)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<TitleRole> section)
   {
     for(RewardElement element : elements)
     {
@@ -99,16 +117,13 @@ public class TitleReferencesBuilder
       {
         TitleReward titleReward=(TitleReward)element;
         int titleRewardID=titleReward.getTitle().getIdentifier();
-        if (titleRewardID==titleID)
-        {
-          TitleRole role=TitleRole.REGULAR_REWARD;
-          _storage.add(new Reference<Achievable,TitleRole>(context,role));
-        }
+        TitleRole role=TitleRole.REGULAR_REWARD;
+        section.addReference(titleRewardID,new Reference<Achievable,TitleRole>(context,role));
       }
       else if (element instanceof SelectableRewardElement)
       {
         SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),titleID);
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
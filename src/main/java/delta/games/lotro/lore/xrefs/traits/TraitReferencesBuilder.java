@@ -13,7 +13,6 @@ import delta.games.lotro.character.races.RaceTrait;
 import delta.games.lotro.character.races.RacesManager;
 import delta.games.lotro.character.traits.TraitDescription;
 import delta.games.lotro.common.rewards.RewardElement;
-import delta.games.lotro.common.rewards.Rewards;
 import delta.games.lotro.common.rewards.SelectableRewardElement;
 import delta.games.lotro.common.rewards.TraitReward;
 import delta.games.lotro.lore.deeds.DeedDescription;
@@ -22,26 +21,43 @@ import delta.games.lotro.lore.items.Item;
 import delta.games.lotro.lore.items.ItemsManager;
 import delta.games.lotro.lore.items.details.GrantType;
 import delta.games.lotro.lore.items.details.GrantedElement;
-import delta.games.lotro.lore.items.details.ItemDetailsManager;
 import delta.games.lotro.lore.quests.Achievable;
 import delta.games.lotro.lore.quests.QuestDescription;
 import delta.games.lotro.lore.quests.QuestsManager;
 import delta.games.lotro.lore.xrefs.Reference;
+import delta.games.lotro.lore.xrefs.ReferencesIndex;
+import delta.games.lotro.lore.xrefs.ReferencesSectionBuilder;
 
 /**
  * Finds references to traits.
+ * <p>
+ * References are taken from an inverted index, built from all the sources on first use
+ * and rebuilt when they change (see {@link ReferencesIndex#invalidateAll()}).
  * @author DAM
  */
 public class TraitReferencesBuilder
 {
-  private List<Reference<?,TraitRole>> _storage;
+  private static ReferencesIndex<TraitRole> _index=null;
+  private static int _indexGeneration;
 
   /**
    * Constructor.
    */
   public TraitReferencesBuilder()
   {
-    _storage=new ArrayList<Reference<?,TraitRole>>();
+    // Nothing!
+  }
+
+  private static synchronized ReferencesIndex<TraitRole> getIndex()
+  {
+    // Rebuild the index if the indexed data changed
+    int generation=ReferencesIndex.getGeneration();
+    if ((_index==null) || (_indexGeneration!=generation))
+    {
+      _index=buildIndex();
+      _indexGeneration=generation;
+    }
+    return _index;
   }
 
   /**
@@ -51,63 +67,103 @@ public class TraitReferencesBuilder
    */
   public List<Reference<?,TraitRole>> inspectTrait(int traitID)
   {
-    _storage.clear();
-    findInRaces(traitID);
-    findInClasses(traitID);
-    findInRewards(traitID);
-    findInItems(traitID);
-    List<Reference<?,TraitRole>> ret=new ArrayList<Reference<?,TraitRole>>(_storage);
-    _storage.clear();
-    return ret;
+    return getIndex().getReferences(traitID);
   }
 
-  private void findInRaces(int traitID)
+  private static ReferencesIndex<TraitRole> buildIndex()
   {
-    for(RaceDescription race : RacesManager.getInstance().getAll())
+    // Sources are gathered in the calling thread, then scanned in parallel
+    final List<RaceDescription> races=RacesManager.getInstance().getAll();
+    final List<AbstractClassDescription> classes=ClassesManager.getInstance().getAllClasses();
+    final List<QuestDescription> quests=QuestsManager.getInstance().getAll();
+    final List<DeedDescription> deeds=DeedsManager.getInstance().getAll();
+    final List<Item> items=ItemsManager.getInstance().getAllItems();
+    List<ReferencesSectionBuilder<TraitRole>> sections=new ArrayList<ReferencesSectionBuilder<TraitRole>>();
+    // Races
+    sections.add(new ReferencesSectionBuilder<TraitRole>()
     {
-      findInRace(race, traitID);
-    }
-  }
-
-  private void findInRace(RaceDescription race, int traitID)
-  {
-    List<RaceTrait> raceTraits=race.getTraits();
-    for(RaceTrait raceTrait : raceTraits)
+      @Override
+      public void build()
+      {
+        for(RaceDescription race : races)
+        {
+          indexRace(race,this);
+        }
+      }
+    });
+    // Classes
+    sections.add(new ReferencesSectionBuilder<TraitRole>()
     {
-      TraitDescription trait=raceTrait.getTrait();
-      if (trait.getIdentifier()==traitID)
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<RaceDescription,TraitRole>(race,TraitRole.RACE_TRAIT));
+        for(AbstractClassDescription classDescription : classes)
+        {
+          indexClass(classDescription,this);
+        }
       }
-    }
-    for(TraitDescription trait : race.getEarnableTraits())
+    });
+    // Quests
+    sections.add(new ReferencesSectionBuilder<TraitRole>()
     {
-      if (trait.getIdentifier()==traitID)
+      @Override
+      public void build()
       {
-        _storage.add(new Reference<RaceDescription,TraitRole>(race,TraitRole.RACE_TRAIT));
+        for(QuestDescription quest : quests)
+        {
+          indexRewardsElements(quest,quest.getRewards().getRewardElements(),this);
+        }
       }
-    }
+    });
+    // Deeds
+    sections.add(new ReferencesSectionBuilder<TraitRole>()
+    {
+      @Override
+      public void build()
+      {
+        for(DeedDescription deed : deeds)
+        {
+          indexRewardsElements(deed,deed.getRewards().getRewardElements(),this);
+        }
+      }
+    });
+    // Items
+    sections.add(new ReferencesSectionBuilder<TraitRole>()
+    {
+      @Override
+      public void build()
+      {
+        for(Item item : items)
+        {
+          indexItem(item,this);
+        }
+      }
+    });
+    return ReferencesIndex.build(sections);
   }
 
-  private void findInClasses(int traitID)
+  private static void indexRace(RaceDescription race, ReferencesSectionBuilder<TraitRole> section)
   {
-    for(AbstractClassDescription classDescription : ClassesManager.getInstance().getAllClasses())
+    List<RaceTrait> raceTraits=race.getTraits();
+    for(RaceTrait raceTrait : raceTraits)
+    {
+      TraitDescription trait=raceTrait.getTrait();
+      section.addReference(trait.getIdentifier(),new Reference<RaceDescription,TraitRole>(race,TraitRole.RACE_TRAIT));
+    }
+    for(TraitDescription trait : race.getEarnableTraits())
     {
-      findInClass(classDescription,traitID);
+      section.addReference(trait.getIdentifier(),new Reference<RaceDescription,TraitRole>(race,TraitRole.RACE_TRAIT));
     }
   }
 
-  private void findInClass(AbstractClassDescription classDescription, int traitID)
+  private static void indexClass(AbstractClassDescription classDescription, ReferencesSectionBuilder<TraitRole> section)
   {
     // Regular traits
     List<ClassTrait> classTraits=classDescription.getTraits();
     for(ClassTrait classTrait : classTraits)
     {
       TraitDescription trait=classTrait.getTrait();
-      if (trait.getIdentifier()==traitID)
-      {
-        _storage.add(new Reference<AbstractClassDescription,TraitRole>(classDescription,TraitRole.CLASS_TRAIT));
-      }
+      section.addReference(trait.getIdentifier(),new Reference<AbstractClassDescription,TraitRole>(classDescription,TraitRole.CLASS_TRAIT));
     }
     // Traits tree
     if (classDescription instanceof ClassDescription)
@@ -120,39 +176,12 @@ public class TraitReferencesBuilder
       }
       for(TraitDescription trait : tree.getAllTraits())
       {
-        if (trait.getIdentifier()==traitID)
-        {
-          _storage.add(new Reference<ClassDescription,TraitRole>(characterClass,TraitRole.CLASS_TRAIT));
-        }
+        section.addReference(trait.getIdentifier(),new Reference<ClassDescription,TraitRole>(characterClass,TraitRole.CLASS_TRAIT));
       }
     }
   }
 
-  private void findInRewards(int traitID)
-  {
-    // Quests
-    QuestsManager questsManager=QuestsManager.getInstance();
-    List<QuestDescription> quests=questsManager.getAll();
-    for(QuestDescription quest : quests)
-    {
-      findInRewards(quest,quest.getRewards(),traitID);
-    }
-    // Deeds
-    DeedsManager deedsManager=DeedsManager.getInstance();
-    List<DeedDescription> deeds=deedsManager.getAll();
-    for(DeedDescription deed : deeds)
-    {
-      findInRewards(deed,deed.getRewards(),traitID);
-    }
-  }
-
-  private void findInRewards(Achievable context, Rewards rewards, int traitID)
-  {
-    List<RewardElement> elements=rewards.getRewardElements();
-    findInRewardsElements(context,elements,traitID);
-  }
-
-  private void findInRewardsElements(Achievable context, List<RewardElement> elements, int traitID)
+  private static void indexRewardsElements(Achievable context, List<RewardElement> elements, ReferencesSectionBuilder<TraitRole> section)
   {
     for(RewardElement element : elements)
     {
@@ -160,41 +189,26 @@ public class TraitReferencesBuilder
       {
         TraitReward traitReward=(TraitReward)element;
         int traitRewardID=traitReward.getTrait().getIdentifier();
-        if (traitRewardID==traitID)
-        {
-          TraitRole role=TraitRole.REWARD;
-          _storage.add(new Reference<Achievable,TraitRole>(context,role));
-        }
+        TraitRole role=TraitRole.REWARD;
+        section.addReference(traitRewardID,new Reference<Achievable,TraitRole>(context,role));
       }
       else if (element instanceof SelectableRewardElement)
       {
         SelectableRewardElement selectableReward=(SelectableRewardElement)element;
-        findInRewardsElements(context,selectableReward.getElements(),traitID);
+        indexRewardsElements(context,selectableReward.getElements(),section);
       }
     }
   }
 
-  private void findInItems(int traitID)
+  private static void indexItem(Item item, ReferencesSectionBuilder<TraitRole> section)
   {
-    for(Item item : ItemsManager.getInstance().getAllItems())
+    for(GrantedElement<?> granted : item.getGrantedElements())
     {
-      ItemDetailsManager details=item.getDetails();
-      if (details==null)
-      {
-        continue;
-      }
-      for(GrantedElement<?> granted : details.getItemDetails(GrantedElement.class))
+      if (granted.getType()==GrantType.TRAIT)
       {
-        if (granted.getType()==GrantType.TRAIT)
-        {
-          TraitDescription trait=(TraitDescription)granted.getGrantedElement();
-          if (trait.getIdentifier()==traitID)
-          {
-            _storage.add(new Reference<Item,TraitRole>(item,TraitRole.ITEM_TRAIT));
-          }
-        }
+        TraitDescription trait=(TraitDescription)granted.getGrantedElement();
+        section.addReference(trait.getIdentifier(),new Reference<Item,TraitRole>(item,TraitRole.ITEM_TRAIT));
       }
     }
   }
-
 }
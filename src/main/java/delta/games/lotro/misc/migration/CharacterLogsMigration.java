@@ -0,0 +1,46 @@
+package delta.games.lotro.misc.migration;
+
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import delta.games.lotro.character.CharacterFile;
+import delta.games.lotro.character.CharactersManager;
+
+/**
+ * Migration of character logs, from the legacy XML log files to the log stores.
+ * @author DAM
+ */
+public class CharacterLogsMigration
+{
+  private static final Logger LOGGER=Logger.getLogger(CharacterLogsMigration.class);
+
+  /**
+   * Perform migration.
+   */
+  public void doIt()
+  {
+    CharactersManager charactersMgr=CharactersManager.getInstance();
+    List<CharacterFile> toons=charactersMgr.getAllToons();
+    for(CharacterFile toon : toons)
+    {
+      try
+      {
+        toon.getLogsManager().migrateXmlLog();
+      }
+      catch(Exception e)
+      {
+        LOGGER.warn("Error during log migration for character: "+toon,e);
+      }
+    }
+  }
+
+  /**
+   * Main method for this tool.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new CharacterLogsMigration().doIt();
+  }
+}
@@ -0,0 +1,53 @@
+package delta.games.lotro.utils;
+
+/**
+ * Hashing utilities for the primitive integer collections.
+ * @author DAM
+ */
+final class IntHashing
+{
+  private static final int MAX_CAPACITY=1<<30;
+
+  private IntHashing()
+  {
+    // Nothing
+  }
+
+  /**
+   * Spread the bits of a key, so that close keys do not cluster.
+   * @param key Key to hash.
+   * @return A hash code.
+   */
+  static int hash(int key)
+  {
+    int h=key*0x9E3779B9;
+    return h^(h>>>16);
+  }
+
+  /**
+   * Compute the table capacity for an expected number of entries.
+   * @param expectedSize Expected number of entries.
+   * @param minCapacity Minimum capacity.
+   * @return A power of 2.
+   */
+  static int capacityFor(int expectedSize, int minCapacity)
+  {
+    long needed=((long)expectedSize*4)/3+1;
+    int ret=minCapacity;
+    while ((ret<needed) && (ret<MAX_CAPACITY))
+    {
+      ret<<=1;
+    }
+    return ret;
+  }
+
+  /**
+   * Get the maximum number of entries for a table capacity (load factor 0.75).
+   * @param capacity Table capacity.
+   * @return An entries count.
+   */
+  static int thresholdFor(int capacity)
+  {
+    return (capacity/4)*3;
+  }
+}
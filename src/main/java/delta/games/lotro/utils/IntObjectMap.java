@@ -0,0 +1,276 @@
+package delta.games.lotro.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Map of objects, indexed by primitive integer keys.
+ * <p>
+ * Uses open addressing with linear probing on parallel arrays: lookups do not
+ * box keys nor allocate, and there is no node object per entry.
+ * <code>null</code> values are not stored: putting <code>null</code> removes the key.
+ * Keys and values are returned in ascending key order.
+ * Not thread-safe: concurrent readers are fine once the map is fully built and safely published.
+ * @param <V> Type of values.
+ * @author DAM
+ */
+public class IntObjectMap<V>
+{
+  private static final int MIN_CAPACITY=8;
+
+  private int[] _keys;
+  private Object[] _values;
+  private int _mask;
+  private int _size;
+  private int _threshold;
+
+  /**
+   * Constructor.
+   */
+  public IntObjectMap()
+  {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Constructor.
+   * @param expectedSize Expected number of entries.
+   */
+  public IntObjectMap(int expectedSize)
+  {
+    allocate(IntHashing.capacityFor(expectedSize,MIN_CAPACITY));
+  }
+
+  private void allocate(int capacity)
+  {
+    _keys=new int[capacity];
+    _values=new Object[capacity];
+    _mask=capacity-1;
+    _threshold=IntHashing.thresholdFor(capacity);
+  }
+
+  /**
+   * Get the number of entries in this map.
+   * @return an entries count.
+   */
+  public int size()
+  {
+    return _size;
+  }
+
+  /**
+   * Indicates if this map is empty.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public boolean isEmpty()
+  {
+    return _size==0;
+  }
+
+  /**
+   * Get the value associated to a key.
+   * @param key Key to search.
+   * @return A value or <code>null</code> if not found.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(int key)
+  {
+    int index=IntHashing.hash(key)&_mask;
+    while (true)
+    {
+      Object value=_values[index];
+      if (value==null)
+      {
+        return null;
+      }
+      if (_keys[index]==key)
+      {
+        return (V)value;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Indicates if this map contains the given key.
+   * @param key Key to search.
+   * @return <code>true</code> if it does, <code>false</code> otherwise.
+   */
+  public boolean containsKey(int key)
+  {
+    return get(key)!=null;
+  }
+
+  /**
+   * Associate a value to a key.
+   * @param key Key to use.
+   * @param value Value to set (<code>null</code> removes the key).
+   * @return the previous value for this key, or <code>null</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public V put(int key, V value)
+  {
+    if (value==null)
+    {
+      return remove(key);
+    }
+    int index=IntHashing.hash(key)&_mask;
+    while (true)
+    {
+      Object current=_values[index];
+      if (current==null)
+      {
+        _keys[index]=key;
+        _values[index]=value;
+        _size++;
+        if (_size>_threshold)
+        {
+          rehash(_keys.length*2);
+        }
+        return null;
+      }
+      if (_keys[index]==key)
+      {
+        _values[index]=value;
+        return (V)current;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Remove a key.
+   * @param key Key to remove.
+   * @return the removed value, or <code>null</code> if not found.
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(int key)
+  {
+    int index=IntHashing.hash(key)&_mask;
+    while (true)
+    {
+      Object value=_values[index];
+      if (value==null)
+      {
+        return null;
+      }
+      if (_keys[index]==key)
+      {
+        shiftBack(index);
+        _size--;
+        return (V)value;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Fill the hole left by a removed entry, by moving back the entries of the same probe chain.
+   * @param removedIndex Index of the removed entry.
+   */
+  private void shiftBack(int removedIndex)
+  {
+    int hole=removedIndex;
+    int index=(hole+1)&_mask;
+    while (_values[index]!=null)
+    {
+      int home=IntHashing.hash(_keys[index])&_mask;
+      // Move the entry if its home slot is not in the cyclic range ]hole,index]
+      if (((index-home)&_mask)>=((index-hole)&_mask))
+      {
+        _keys[hole]=_keys[index];
+        _values[hole]=_values[index];
+        hole=index;
+      }
+      index=(index+1)&_mask;
+    }
+    _keys[hole]=0;
+    _values[hole]=null;
+  }
+
+  private void rehash(int newCapacity)
+  {
+    int[] oldKeys=_keys;
+    Object[] oldValues=_values;
+    allocate(newCapacity);
+    for(int i=0;i<oldKeys.length;i++)
+    {
+      Object value=oldValues[i];
+      if (value!=null)
+      {
+        int index=IntHashing.hash(oldKeys[i])&_mask;
+        while (_values[index]!=null)
+        {
+          index=(index+1)&_mask;
+        }
+        _keys[index]=oldKeys[i];
+        _values[index]=value;
+      }
+    }
+  }
+
+  /**
+   * Remove all entries.
+   */
+  public void clear()
+  {
+    if (_size>0)
+    {
+      Arrays.fill(_keys,0);
+      Arrays.fill(_values,null);
+      _size=0;
+    }
+  }
+
+  /**
+   * Get all the keys of this map.
+   * @return a new array of keys, sorted in ascending order.
+   */
+  public int[] keys()
+  {
+    long[] slots=getSortedSlots();
+    int[] ret=new int[slots.length];
+    for(int i=0;i<slots.length;i++)
+    {
+      ret[i]=(int)(slots[i]>>32);
+    }
+    return ret;
+  }
+
+  /**
+   * Get all the values of this map.
+   * @return a new list of values, sorted by ascending key.
+   */
+  @SuppressWarnings("unchecked")
+  public List<V> values()
+  {
+    long[] slots=getSortedSlots();
+    List<V> ret=new ArrayList<V>(slots.length);
+    for(long slot : slots)
+    {
+      ret.add((V)_values[(int)slot]);
+    }
+    return ret;
+  }
+
+  /**
+   * Get the used slots, sorted by key.
+   * @return An array of (key in the high 32 bits, slot index in the low 32 bits).
+   */
+  private long[] getSortedSlots()
+  {
+    long[] ret=new long[_size];
+    int index=0;
+    for(int i=0;i<_values.length;i++)
+    {
+      if (_values[i]!=null)
+      {
+        ret[index]=(((long)_keys[i])<<32)|i;
+        index++;
+      }
+    }
+    Arrays.sort(ret);
+    return ret;
+  }
+}
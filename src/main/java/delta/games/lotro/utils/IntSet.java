@@ -0,0 +1,233 @@
+package delta.games.lotro.utils;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive integers.
+ * <p>
+ * Uses open addressing with linear probing on a single array: no boxing, no node object per value.
+ * Not thread-safe: concurrent readers are fine once the set is fully built and safely published.
+ * @author DAM
+ */
+public class IntSet
+{
+  private static final int MIN_CAPACITY=8;
+  // Marker for free slots. The value 0 itself is stored aside.
+  private static final int FREE=0;
+
+  private int[] _keys;
+  private int _mask;
+  private int _size;
+  private int _threshold;
+  private boolean _hasZero;
+
+  /**
+   * Constructor.
+   */
+  public IntSet()
+  {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Constructor.
+   * @param expectedSize Expected number of values.
+   */
+  public IntSet(int expectedSize)
+  {
+    allocate(IntHashing.capacityFor(expectedSize,MIN_CAPACITY));
+  }
+
+  private void allocate(int capacity)
+  {
+    _keys=new int[capacity];
+    _mask=capacity-1;
+    _threshold=IntHashing.thresholdFor(capacity);
+  }
+
+  /**
+   * Get the number of values in this set.
+   * @return a values count.
+   */
+  public int size()
+  {
+    return _size+(_hasZero?1:0);
+  }
+
+  /**
+   * Indicates if this set is empty.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public boolean isEmpty()
+  {
+    return size()==0;
+  }
+
+  /**
+   * Indicates if this set contains the given value.
+   * @param value Value to search.
+   * @return <code>true</code> if it does, <code>false</code> otherwise.
+   */
+  public boolean contains(int value)
+  {
+    if (value==FREE)
+    {
+      return _hasZero;
+    }
+    int index=IntHashing.hash(value)&_mask;
+    while (true)
+    {
+      int key=_keys[index];
+      if (key==FREE)
+      {
+        return false;
+      }
+      if (key==value)
+      {
+        return true;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Add a value.
+   * @param value Value to add.
+   * @return <code>true</code> if it was added, <code>false</code> if it was already there.
+   */
+  public boolean add(int value)
+  {
+    if (value==FREE)
+    {
+      boolean ret=!_hasZero;
+      _hasZero=true;
+      return ret;
+    }
+    int index=IntHashing.hash(value)&_mask;
+    while (true)
+    {
+      int key=_keys[index];
+      if (key==FREE)
+      {
+        _keys[index]=value;
+        _size++;
+        if (_size>_threshold)
+        {
+          rehash(_keys.length*2);
+        }
+        return true;
+      }
+      if (key==value)
+      {
+        return false;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Remove a value.
+   * @param value Value to remove.
+   * @return <code>true</code> if it was removed, <code>false</code> if it was not found.
+   */
+  public boolean remove(int value)
+  {
+    if (value==FREE)
+    {
+      boolean ret=_hasZero;
+      _hasZero=false;
+      return ret;
+    }
+    int index=IntHashing.hash(value)&_mask;
+    while (true)
+    {
+      int key=_keys[index];
+      if (key==FREE)
+      {
+        return false;
+      }
+      if (key==value)
+      {
+        shiftBack(index);
+        _size--;
+        return true;
+      }
+      index=(index+1)&_mask;
+    }
+  }
+
+  /**
+   * Fill the hole left by a removed value, by moving back the values of the same probe chain.
+   * @param removedIndex Index of the removed value.
+   */
+  private void shiftBack(int removedIndex)
+  {
+    int hole=removedIndex;
+    int index=(hole+1)&_mask;
+    while (_keys[index]!=FREE)
+    {
+      int home=IntHashing.hash(_keys[index])&_mask;
+      // Move the value if its home slot is not in the cyclic range ]hole,index]
+      if (((index-home)&_mask)>=((index-hole)&_mask))
+      {
+        _keys[hole]=_keys[index];
+        hole=index;
+      }
+      index=(index+1)&_mask;
+    }
+    _keys[hole]=FREE;
+  }
+
+  private void rehash(int newCapacity)
+  {
+    int[] oldKeys=_keys;
+    allocate(newCapacity);
+    for(int key : oldKeys)
+    {
+      if (key!=FREE)
+      {
+        int index=IntHashing.hash(key)&_mask;
+        while (_keys[index]!=FREE)
+        {
+          index=(index+1)&_mask;
+        }
+        _keys[index]=key;
+      }
+    }
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void clear()
+  {
+    Arrays.fill(_keys,FREE);
+    _size=0;
+    _hasZero=false;
+  }
+
+  /**
+   * Get all the values of this set.
+   * @return a new array of values, sorted in ascending order.
+   */
+  public int[] toArray()
+  {
+    int[] ret=new int[size()];
+    int index=0;
+    if (_hasZero)
+    {
+      ret[index]=0;
+      index++;
+    }
+    for(int key : _keys)
+    {
+      if (key!=FREE)
+      {
+        ret[index]=key;
+        index++;
+      }
+    }
+    Arrays.sort(ret);
+    return ret;
+  }
+}
@@ -0,0 +1,161 @@
+package delta.games.lotro.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canonicalizing cache: gives a single shared instance for equal values.
+ * <p>
+ * Used at load time, to share identical strings and small value objects.
+ * Shared values must not be modified.
+ * This class is thread-safe.
+ * @author DAM
+ * @param <T> Type of managed values.
+ */
+public class Interner<T>
+{
+  private String _name;
+  private ConcurrentMap<T,T> _values;
+  private volatile boolean _enabled;
+  private AtomicLong _lookups;
+  private AtomicLong _hits;
+  private AtomicLong _savedBytes;
+
+  /**
+   * Constructor.
+   * @param name Name of this interner (for statistics).
+   */
+  public Interner(String name)
+  {
+    _name=name;
+    _values=new ConcurrentHashMap<T,T>();
+    _enabled=true;
+    _lookups=new AtomicLong();
+    _hits=new AtomicLong();
+    _savedBytes=new AtomicLong();
+  }
+
+  /**
+   * Get the name of this interner.
+   * @return a name.
+   */
+  public String getName()
+  {
+    return _name;
+  }
+
+  /**
+   * Get the shared instance of a value.
+   * @param value Input value (may be <code>null</code>).
+   * @return the shared instance that equals the given value.
+   */
+  public T intern(T value)
+  {
+    if ((value==null) || (!_enabled))
+    {
+      return value;
+    }
+    _lookups.incrementAndGet();
+    T ret=_values.putIfAbsent(value,value);
+    if (ret==null)
+    {
+      return value;
+    }
+    _hits.incrementAndGet();
+    long size=getSize(value);
+    if (size>0)
+    {
+      _savedBytes.addAndGet(size);
+    }
+    return ret;
+  }
+
+  /**
+   * Estimate the heap size of a value.
+   * @param value Value to use.
+   * @return A size in bytes, or <code>0</code> if not estimated.
+   */
+  protected long getSize(T value)
+  {
+    return 0;
+  }
+
+  /**
+   * Indicates if this interner is enabled or not.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  public boolean isEnabled()
+  {
+    return _enabled;
+  }
+
+  /**
+   * Enable or disable this interner.
+   * When disabled, values are returned as is.
+   * @param enabled <code>true</code> to enable, <code>false</code> to disable.
+   */
+  public void setEnabled(boolean enabled)
+  {
+    _enabled=enabled;
+  }
+
+  /**
+   * Get the number of distinct values.
+   * @return a values count.
+   */
+  public int size()
+  {
+    return _values.size();
+  }
+
+  /**
+   * Get the number of lookups.
+   * @return a lookups count.
+   */
+  public long getLookups()
+  {
+    return _lookups.get();
+  }
+
+  /**
+   * Get the number of lookups that found a shared instance.
+   * Each of them is a duplicate instance that may be released.
+   * @return a hits count.
+   */
+  public long getHits()
+  {
+    return _hits.get();
+  }
+
+  /**
+   * Get the estimated heap size of the duplicate instances that were replaced by shared ones.
+   * These duplicates may be released.
+   * @return A size in bytes (<code>0</code> if sizes are not estimated).
+   */
+  public long getSavedBytes()
+  {
+    return _savedBytes.get();
+  }
+
+  /**
+   * Release the values of this interner.
+   * Values that are already shared stay shared.
+   */
+  public void clear()
+  {
+    _values.clear();
+  }
+
+  @Override
+  public String toString()
+  {
+    String ret=_name+": "+size()+" values, "+getHits()+"/"+getLookups()+" duplicates";
+    long savedBytes=getSavedBytes();
+    if (savedBytes>0)
+    {
+      ret=ret+", ~"+(savedBytes/1024)+"kB saved";
+    }
+    return ret;
+  }
+}
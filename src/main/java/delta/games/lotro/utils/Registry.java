@@ -1,10 +1,7 @@
 package delta.games.lotro.utils;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import delta.games.lotro.common.Identifiable;
 import delta.games.lotro.common.IdentifiableComparator;
@@ -16,14 +13,16 @@ import delta.games.lotro.common.IdentifiableComparator;
  */
 public class Registry<T extends Identifiable>
 {
-  private Map<Integer,T> _items;
+  private IntObjectMap<T> _items;
+  private SortedView<T> _sortedById;
 
   /**
    * Constructor.
    */
   public Registry()
   {
-    _items=new HashMap<Integer,T>();
+    _items=new IntObjectMap<T>();
+    _sortedById=new SortedView<T>(new IdentifiableComparator<T>());
   }
 
   /**
@@ -35,7 +34,8 @@ public class Registry<T extends Identifiable>
     if (item!=null)
     {
       int id=item.getIdentifier();
-      _items.put(Integer.valueOf(id),item);
+      _items.put(id,item);
+      _sortedById.invalidate();
     }
   }
 
@@ -46,18 +46,21 @@ public class Registry<T extends Identifiable>
    */
   public T getItem(int id)
   {
-    return _items.get(Integer.valueOf(id));
+    return _items.get(id);
   }
 
   /**
    * Get all items.
-   * @return a list of items, ordered by identifier.
+   * @return an immutable list of items, ordered by identifier.
    */
   public List<T> getItems()
   {
-    List<T> ret=new ArrayList<T>();
-    ret.addAll(_items.values());
-    Collections.sort(ret,new IdentifiableComparator<T>());
+    List<T> ret=_sortedById.get();
+    if (ret==null)
+    {
+      int generation=_sortedById.getGeneration();
+      ret=_sortedById.build(generation,_items.values());
+    }
     return ret;
   }
 
@@ -69,14 +72,13 @@ public class Registry<T extends Identifiable>
   public List<T> getItems(Class<? extends T> itemClass)
   {
     List<T> ret=new ArrayList<T>();
-    for(T item : _items.values())
+    for(T item : getItems())
     {
       if (itemClass.isAssignableFrom(item.getClass()))
       {
         ret.add(item);
       }
     }
-    Collections.sort(ret,new IdentifiableComparator<T>());
     return ret;
   }
 
@@ -0,0 +1,89 @@
+package delta.games.lotro.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lazily built, immutable, sorted view of the elements of a registry.
+ * <p>
+ * The view is built on first use, then shared by all callers until the registry
+ * changes and invalidates it.
+ * <p>
+ * Each invalidation starts a new generation. Callers get the generation before they
+ * read the elements: a view built from elements of an older generation is returned
+ * to its caller, but not shared.
+ * @param <T> Type of elements.
+ * @author DAM
+ */
+public class SortedView<T>
+{
+  private Comparator<? super T> _comparator;
+  private volatile List<T> _view;
+  // Guarded by this view
+  private int _generation;
+
+  /**
+   * Constructor.
+   * @param comparator Comparator to use, or <code>null</code> to keep the order of the source elements.
+   */
+  public SortedView(Comparator<? super T> comparator)
+  {
+    _comparator=comparator;
+  }
+
+  /**
+   * Get the view.
+   * @return An immutable sorted list, or <code>null</code> if the view is not built.
+   */
+  public List<T> get()
+  {
+    return _view;
+  }
+
+  /**
+   * Get the current generation.
+   * To be called before the elements of the view are read.
+   * @return a generation.
+   */
+  public synchronized int getGeneration()
+  {
+    return _generation;
+  }
+
+  /**
+   * Build the view.
+   * @param generation Generation of the elements (see {@link #getGeneration()}).
+   * @param elements Elements to use. Stable sort: elements that compare equal keep their order.
+   * @return An immutable sorted list.
+   */
+  public List<T> build(int generation, Collection<? extends T> elements)
+  {
+    List<T> sorted=new ArrayList<T>(elements);
+    if (_comparator!=null)
+    {
+      Collections.sort(sorted,_comparator);
+    }
+    List<T> ret=Collections.unmodifiableList(sorted);
+    synchronized(this)
+    {
+      // The elements may have changed during the build
+      if (generation==_generation)
+      {
+        _view=ret;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Invalidate the view, so that it is built again on next use.
+   */
+  public synchronized void invalidate()
+  {
+    _generation++;
+    _view=null;
+  }
+}
@@ -0,0 +1,47 @@
+package delta.games.lotro.utils;
+
+/**
+ * Interner for strings.
+ * <p>
+ * Estimates the heap released by sharing: each duplicate is a string object
+ * and its array of characters.
+ * @author DAM
+ */
+public class StringInterner extends Interner<String>
+{
+  // Object header and fields of a string
+  private static final int STRING_SIZE=24;
+  // Header of an array
+  private static final int ARRAY_HEADER_SIZE=16;
+
+  /**
+   * Constructor.
+   * @param name Name of this interner (for statistics).
+   */
+  public StringInterner(String name)
+  {
+    super(name);
+  }
+
+  @Override
+  protected long getSize(String value)
+  {
+    // Compact strings: one byte per character, unless a character needs two
+    int length=value.length();
+    int bytes=length;
+    for(int i=0;i<length;i++)
+    {
+      if (value.charAt(i)>0xFF)
+      {
+        bytes=length*2;
+        break;
+      }
+    }
+    return STRING_SIZE+align(ARRAY_HEADER_SIZE+bytes);
+  }
+
+  private static long align(int size)
+  {
+    return (size+7)&~7;
+  }
+}
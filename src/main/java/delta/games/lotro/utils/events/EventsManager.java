@@ -1,19 +1,23 @@
 package delta.games.lotro.utils.events;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.log4j.Logger;
 
 /**
  * Global manager for events and associated listeners.
+ * <p>
+ * Safe for concurrent use: listeners may be added or removed while events are invoked.
  * @author DAM
  */
 public class EventsManager
 {
   private static final Logger LOGGER=Logger.getLogger(EventsManager.class);
 
-  private static Map<String,GenericListenersManager<? extends Event>> _listeners=new HashMap<String,GenericListenersManager<? extends Event>>();
+  private static ConcurrentMap<String,GenericListenersManager<? extends Event>> _listeners=new ConcurrentHashMap<String,GenericListenersManager<? extends Event>>();
 
   /**
    * Register a new listener.
@@ -22,7 +26,11 @@ public class EventsManager
    */
   public static <T extends Event> void addListener(Class<T> clazz, GenericEventsListener<T> listener)
   {
-    getListenersManager(clazz).addListener(listener);
+    GenericListenersManager<T> listeners=getListenersManager(clazz);
+    synchronized(listeners)
+    {
+      listeners.addListener(listener);
+    }
   }
 
   /**
@@ -32,7 +40,11 @@ public class EventsManager
    */
   public static <T extends Event> void removeListener(Class<T> clazz, GenericEventsListener<T> listener)
   {
-    getListenersManager(clazz).removeListener(listener);
+    GenericListenersManager<T> listeners=getListenersManager(clazz);
+    synchronized(listeners)
+    {
+      listeners.removeListener(listener);
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -41,8 +53,12 @@ public class EventsManager
     GenericListenersManager<? extends Event> listeners=_listeners.get(clazz.getName());
     if (listeners==null)
     {
-      listeners=new GenericListenersManager<T>();
-      _listeners.put(clazz.getName(),listeners); 
+      GenericListenersManager<T> newListeners=new GenericListenersManager<T>();
+      listeners=_listeners.putIfAbsent(clazz.getName(),newListeners);
+      if (listeners==null)
+      {
+        listeners=newListeners;
+      }
     }
     return (GenericListenersManager<T>)listeners;
   }
@@ -55,7 +71,16 @@ public class EventsManager
   {
     @SuppressWarnings("unchecked")
     GenericListenersManager<T> listeners=(GenericListenersManager<T>)getListenersManager(event.getClass());
-    for(GenericEventsListener<T> listener : listeners)
+    // Snapshot of the listeners, so that they are called without holding the lock
+    List<GenericEventsListener<T>> toCall=new ArrayList<GenericEventsListener<T>>();
+    synchronized(listeners)
+    {
+      for(GenericEventsListener<T> listener : listeners)
+      {
+        toCall.add(listener);
+      }
+    }
+    for(GenericEventsListener<T> listener : toCall)
     {
       try
       {
@@ -0,0 +1,119 @@
+package delta.games.lotro.utils.io.binary;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Utility methods for binary files.
+ * <p>
+ * Variable length integers use 7 bits per byte, least significant bits first,
+ * with the high bit set on all bytes but the last one.
+ * @author DAM
+ */
+public class BinaryIoUtils
+{
+  private static final Logger LOGGER=Logger.getLogger(BinaryIoUtils.class);
+
+  /**
+   * Write a variable length integer.
+   * @param out Output stream.
+   * @param value Value to write.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static void writeVarInt(OutputStream out, int value) throws IOException
+  {
+    writeVarLong(out,value&0xFFFFFFFFL);
+  }
+
+  /**
+   * Write a variable length long.
+   * @param out Output stream.
+   * @param value Value to write.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static void writeVarLong(OutputStream out, long value) throws IOException
+  {
+    long toWrite=value;
+    while ((toWrite&~0x7FL)!=0)
+    {
+      out.write((int)((toWrite&0x7F)|0x80));
+      toWrite>>>=7;
+    }
+    out.write((int)toWrite);
+  }
+
+  /**
+   * Read a variable length long.
+   * @param in Input stream.
+   * @return the read value.
+   * @throws IOException if an I/O error occurs or if the end of stream is reached.
+   */
+  public static long readVarLong(InputStream in) throws IOException
+  {
+    long ret=0;
+    int shift=0;
+    while (true)
+    {
+      int b=in.read();
+      if (b<0)
+      {
+        throw new EOFException();
+      }
+      ret|=((long)(b&0x7F))<<shift;
+      if ((b&0x80)==0)
+      {
+        break;
+      }
+      shift+=7;
+    }
+    return ret;
+  }
+
+  /**
+   * Read a variable length integer.
+   * @param buffer Buffer to read from.
+   * @return the read value.
+   */
+  public static int readVarInt(ByteBuffer buffer)
+  {
+    int ret=0;
+    int shift=0;
+    while (true)
+    {
+      int b=buffer.get();
+      ret|=(b&0x7F)<<shift;
+      if ((b&0x80)==0)
+      {
+        break;
+      }
+      shift+=7;
+    }
+    return ret;
+  }
+
+  /**
+   * Close a stream or file, if not <code>null</code>.
+   * Errors are logged.
+   * @param closeable Stream or file to close.
+   */
+  public static void close(Closeable closeable)
+  {
+    if (closeable!=null)
+    {
+      try
+      {
+        closeable.close();
+      }
+      catch(IOException ioe)
+      {
+        LOGGER.warn("Could not close file",ioe);
+      }
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package delta.games.lotro.utils.io.binary;
+
+/**
+ * Constants for binary snapshots of SAX event streams.
+ * @author DAM
+ */
+public class SAXSnapshotConstants
+{
+  /**
+   * Magic number at the start of each snapshot file ('LCSS').
+   */
+  public static final int MAGIC=0x4C435353;
+  /**
+   * Version of the snapshot format.
+   */
+  public static final int FORMAT_VERSION=1;
+  /**
+   * Header size: magic, version, source length, source timestamp.
+   */
+  public static final int HEADER_SIZE=4+4+8+8;
+
+  /**
+   * Opcode: end of stream.
+   */
+  public static final byte END_OF_STREAM=0;
+  /**
+   * Opcode: element start.
+   */
+  public static final byte START_ELEMENT=1;
+  /**
+   * Opcode: element end.
+   */
+  public static final byte END_ELEMENT=2;
+}
@@ -0,0 +1,164 @@
+package delta.games.lotro.utils.io.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.log4j.Logger;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Replays a binary snapshot of SAX events into a SAX handler.
+ * The snapshot file is memory-mapped.
+ * @author DAM
+ */
+public class SAXSnapshotReader
+{
+  private static final Logger LOGGER=Logger.getLogger(SAXSnapshotReader.class);
+
+  /**
+   * Indicates if a snapshot file is up to date with regards to its source file.
+   * @param snapshot Snapshot file.
+   * @param source Source XML file.
+   * @return <code>true</code> if the snapshot exists and was built from the current source file, <code>false</code> otherwise.
+   */
+  public static boolean isUpToDate(File snapshot, File source)
+  {
+    if ((!snapshot.isFile()) || (snapshot.length()<SAXSnapshotConstants.HEADER_SIZE))
+    {
+      return false;
+    }
+    boolean ret=false;
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(snapshot,"r");
+      int magic=in.readInt();
+      int version=in.readInt();
+      long sourceLength=in.readLong();
+      long sourceTimestamp=in.readLong();
+      ret=((magic==SAXSnapshotConstants.MAGIC) && (version==SAXSnapshotConstants.FORMAT_VERSION)
+          && (sourceLength==source.length()) && (sourceTimestamp==source.lastModified()));
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read snapshot header: "+snapshot,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ret;
+  }
+
+  /**
+   * Replay the events of a snapshot file into a handler.
+   * @param snapshot Snapshot file.
+   * @param handler Handler to use.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public static boolean replay(File snapshot, DefaultHandler handler)
+  {
+    boolean ok=false;
+    RandomAccessFile in=null;
+    try
+    {
+      in=new RandomAccessFile(snapshot,"r");
+      FileChannel channel=in.getChannel();
+      MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+      ok=replay(buffer,handler);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not read snapshot file: "+snapshot,ioe);
+    }
+    catch(BufferUnderflowException bue)
+    {
+      LOGGER.warn("Truncated snapshot file: "+snapshot,bue);
+    }
+    catch(SAXException saxe)
+    {
+      LOGGER.warn("Error when replaying snapshot file: "+snapshot,saxe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(in);
+    }
+    return ok;
+  }
+
+  private static boolean replay(MappedByteBuffer buffer, DefaultHandler handler) throws SAXException
+  {
+    // Header
+    int magic=buffer.getInt();
+    int version=buffer.getInt();
+    if ((magic!=SAXSnapshotConstants.MAGIC) || (version!=SAXSnapshotConstants.FORMAT_VERSION))
+    {
+      return false;
+    }
+    buffer.getLong(); // Source length
+    buffer.getLong(); // Source timestamp
+    // Strings table
+    String[] strings=readStrings(buffer);
+    // Events
+    AttributesImpl attributes=new AttributesImpl();
+    handler.startDocument();
+    while (true)
+    {
+      byte opcode=buffer.get();
+      if (opcode==SAXSnapshotConstants.START_ELEMENT)
+      {
+        String tag=strings[BinaryIoUtils.readVarInt(buffer)];
+        attributes.clear();
+        int nbAttributes=BinaryIoUtils.readVarInt(buffer);
+        for(int i=0;i<nbAttributes;i++)
+        {
+          String name=strings[BinaryIoUtils.readVarInt(buffer)];
+          String value=strings[BinaryIoUtils.readVarInt(buffer)];
+          attributes.addAttribute("","",name,"CDATA",value);
+        }
+        handler.startElement("","",tag,attributes);
+      }
+      else if (opcode==SAXSnapshotConstants.END_ELEMENT)
+      {
+        String tag=strings[BinaryIoUtils.readVarInt(buffer)];
+        handler.endElement("","",tag);
+      }
+      else if (opcode==SAXSnapshotConstants.END_OF_STREAM)
+      {
+        break;
+      }
+      else
+      {
+        LOGGER.warn("Unexpected opcode in snapshot: "+opcode);
+        return false;
+      }
+    }
+    handler.endDocument();
+    return true;
+  }
+
+  private static String[] readStrings(MappedByteBuffer buffer)
+  {
+    int nbStrings=buffer.getInt();
+    String[] ret=new String[nbStrings];
+    byte[] bytes=new byte[256];
+    for(int i=0;i<nbStrings;i++)
+    {
+      int length=buffer.getInt();
+      if (length>bytes.length)
+      {
+        bytes=new byte[Math.max(length,bytes.length*2)];
+      }
+      buffer.get(bytes,0,length);
+      ret[i]=new String(bytes,0,length,StandardCharsets.UTF_8);
+    }
+    return ret;
+  }
+}
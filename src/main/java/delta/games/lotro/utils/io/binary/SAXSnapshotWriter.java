@@ -0,0 +1,192 @@
+package delta.games.lotro.utils.io.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that records the element/attribute events of a XML file
+ * into a compact binary snapshot, while forwarding them to a delegate handler.
+ * <p>
+ * Snapshot layout:
+ * <ul>
+ * <li>header: magic, format version, length and timestamp of the source file,
+ * <li>strings table: count, then for each string its UTF-8 length and bytes,
+ * <li>events: opcode, then tag index and attributes (name index, value index) as var-ints.
+ * </ul>
+ * Events are streamed to a temporary file while parsing, so that only the distinct strings
+ * are kept in memory. The snapshot file is assembled by {@link #write(File)}.
+ * Temporary files are deleted by {@link #dispose()}.
+ * @author DAM
+ */
+public class SAXSnapshotWriter extends DefaultHandler
+{
+  private static final Logger LOGGER=Logger.getLogger(SAXSnapshotWriter.class);
+
+  private DefaultHandler _delegate;
+  private File _toFile;
+  private HashMap<String,Integer> _stringIndexes;
+  private List<String> _strings;
+  private File _eventsFile;
+  private DataOutputStream _events;
+
+  /**
+   * Constructor.
+   * @param delegate Handler to forward events to (may be <code>null</code>).
+   * @param toFile Snapshot file to write.
+   * @throws IOException if the temporary events file cannot be created.
+   */
+  public SAXSnapshotWriter(DefaultHandler delegate, File toFile) throws IOException
+  {
+    _delegate=delegate;
+    _toFile=toFile;
+    _stringIndexes=new HashMap<String,Integer>();
+    _strings=new ArrayList<String>();
+    File parentDir=toFile.getAbsoluteFile().getParentFile();
+    if ((parentDir!=null) && (!parentDir.exists()))
+    {
+      parentDir.mkdirs();
+    }
+    _eventsFile=new File(toFile.getPath()+".events.tmp");
+    _events=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_eventsFile),64*1024));
+  }
+
+  @Override
+  public void startElement(String uri, String localName, String qualifiedName, Attributes attributes) throws SAXException
+  {
+    try
+    {
+      _events.write(SAXSnapshotConstants.START_ELEMENT);
+      BinaryIoUtils.writeVarInt(_events,getStringIndex(qualifiedName));
+      int nbAttributes=attributes.getLength();
+      BinaryIoUtils.writeVarInt(_events,nbAttributes);
+      for(int i=0;i<nbAttributes;i++)
+      {
+        BinaryIoUtils.writeVarInt(_events,getStringIndex(attributes.getQName(i)));
+        BinaryIoUtils.writeVarInt(_events,getStringIndex(attributes.getValue(i)));
+      }
+    }
+    catch(IOException ioe)
+    {
+      throw new SAXException("Could not write snapshot events",ioe);
+    }
+    if (_delegate!=null)
+    {
+      _delegate.startElement(uri,localName,qualifiedName,attributes);
+    }
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qualifiedName) throws SAXException
+  {
+    try
+    {
+      _events.write(SAXSnapshotConstants.END_ELEMENT);
+      BinaryIoUtils.writeVarInt(_events,getStringIndex(qualifiedName));
+    }
+    catch(IOException ioe)
+    {
+      throw new SAXException("Could not write snapshot events",ioe);
+    }
+    if (_delegate!=null)
+    {
+      _delegate.endElement(uri,localName,qualifiedName);
+    }
+  }
+
+  private int getStringIndex(String value)
+  {
+    Integer index=_stringIndexes.get(value);
+    if (index==null)
+    {
+      index=Integer.valueOf(_strings.size());
+      _strings.add(value);
+      _stringIndexes.put(value,index);
+    }
+    return index.intValue();
+  }
+
+  /**
+   * Write the snapshot file, from the recorded events.
+   * The file is written to a temporary file first, then renamed.
+   * @param source Source XML file (used for staleness checks).
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean write(File source)
+  {
+    File tmpFile=new File(_toFile.getPath()+".tmp");
+    boolean ok=false;
+    DataOutputStream out=null;
+    InputStream events=null;
+    try
+    {
+      _events.writeByte(SAXSnapshotConstants.END_OF_STREAM);
+      _events.close();
+      _events=null;
+      out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile),64*1024));
+      // Header
+      out.writeInt(SAXSnapshotConstants.MAGIC);
+      out.writeInt(SAXSnapshotConstants.FORMAT_VERSION);
+      out.writeLong(source.length());
+      out.writeLong(source.lastModified());
+      // Strings table
+      out.writeInt(_strings.size());
+      for(String value : _strings)
+      {
+        byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      // Events
+      events=new BufferedInputStream(new FileInputStream(_eventsFile),64*1024);
+      byte[] buffer=new byte[64*1024];
+      int read;
+      while ((read=events.read(buffer))>0)
+      {
+        out.write(buffer,0,read);
+      }
+      out.close();
+      out=null;
+      _toFile.delete();
+      ok=tmpFile.renameTo(_toFile);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.warn("Could not write snapshot file: "+_toFile,ioe);
+    }
+    finally
+    {
+      BinaryIoUtils.close(out);
+      BinaryIoUtils.close(events);
+      if (!ok)
+      {
+        tmpFile.delete();
+      }
+    }
+    return ok;
+  }
+
+  /**
+   * Release the resources used by this writer: close and delete the temporary events file.
+   */
+  public void dispose()
+  {
+    BinaryIoUtils.close(_events);
+    _events=null;
+    _eventsFile.delete();
+  }
+}
@@ -0,0 +1,481 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.transform.sax.TransformerHandler;
+
+import org.apache.log4j.Logger;
+import org.xml.sax.helpers.AttributesImpl;
+
+import delta.common.utils.io.xml.XmlFileWriterHelper;
+import delta.common.utils.io.xml.XmlWriter;
+
+/**
+ * Writer for XML files made of records (child tags of the root tag).
+ * <p>
+ * Records are split in contiguous shards. Each shard is written in parallel, as a complete
+ * document, with the usual XML writer. Then the shards are concatenated, without their
+ * prolog and root tag (except for the first and last shard), using file channels.
+ * Since records are serialized independently of their neighbours, the result is the same
+ * as the one of a single writer, byte for byte.
+ * <p>
+ * Small files, and encodings that are not ASCII-compatible, are written by a single writer.
+ * @author DAM
+ * @param <T> Type of records.
+ */
+public class ShardedXMLFileWriter<T>
+{
+  private static final Logger LOGGER=Logger.getLogger(ShardedXMLFileWriter.class);
+
+  /**
+   * Minimum number of records in a shard.
+   */
+  public static final int DEFAULT_MIN_SHARD_SIZE=500;
+
+  // Maximum size of the prolog and root start tag
+  private static final int HEAD_SIZE=64*1024;
+  // Maximum size of the root end tag and trailing whitespace
+  private static final int TAIL_SIZE=4*1024;
+
+  private static volatile int _defaultThreads=Runtime.getRuntime().availableProcessors();
+
+  private String _rootTag;
+  private XMLRecordWriter<T> _recordWriter;
+  private int _nbThreads;
+  private int _minShardSize;
+
+  /**
+   * Constructor.
+   * @param rootTag Root tag (without attributes).
+   * @param recordWriter Records writer.
+   */
+  public ShardedXMLFileWriter(String rootTag, XMLRecordWriter<T> recordWriter)
+  {
+    _rootTag=rootTag;
+    _recordWriter=recordWriter;
+    _nbThreads=_defaultThreads;
+    _minShardSize=DEFAULT_MIN_SHARD_SIZE;
+  }
+
+  /**
+   * Set the default number of threads, for new writers.
+   * @param nbThreads Threads count (1 to write with a single writer).
+   */
+  public static void setDefaultThreads(int nbThreads)
+  {
+    _defaultThreads=Math.max(1,nbThreads);
+  }
+
+  /**
+   * Set the number of threads to use.
+   * @param nbThreads Threads count (1 to write with a single writer).
+   */
+  public void setThreads(int nbThreads)
+  {
+    _nbThreads=Math.max(1,nbThreads);
+  }
+
+  /**
+   * Set the minimum number of records in a shard.
+   * @param minShardSize Records count (at least 1).
+   */
+  public void setMinShardSize(int minShardSize)
+  {
+    _minShardSize=Math.max(1,minShardSize);
+  }
+
+  /**
+   * Write records to a file.
+   * @param toFile Output file.
+   * @param encoding Encoding to use.
+   * @param records Records to write.
+   * @return <code>true</code> if it succeeds, <code>false</code> otherwise.
+   */
+  public boolean write(File toFile, String encoding, List<T> records)
+  {
+    int nbShards=Math.min(_nbThreads,records.size()/_minShardSize);
+    if ((nbShards>1) && (isAsciiCompatible(encoding)))
+    {
+      Boolean ok=writeShards(toFile,encoding,records,nbShards);
+      if (ok!=null)
+      {
+        return ok.booleanValue();
+      }
+      LOGGER.warn("Could not merge shards of file: "+toFile+". Using a single writer.");
+    }
+    return writeShard(toFile,encoding,records);
+  }
+
+  private boolean writeShard(File toFile, String encoding, final List<T> records)
+  {
+    XmlWriter writer=new XmlWriter()
+    {
+      @Override
+      public void writeXml(TransformerHandler hd) throws Exception
+      {
+        hd.startElement("","",_rootTag,new AttributesImpl());
+        for(T record : records)
+        {
+          _recordWriter.writeRecord(hd,record);
+        }
+        hd.endElement("","",_rootTag);
+      }
+    };
+    XmlFileWriterHelper helper=new XmlFileWriterHelper();
+    return helper.write(toFile,encoding,writer);
+  }
+
+  /**
+   * Write records using shards.
+   * @return <code>true</code> if it succeeds, <code>false</code> if writing failed,
+   * <code>null</code> if shards could not be merged.
+   */
+  private Boolean writeShards(File toFile, final String encoding, List<T> records, int nbShards)
+  {
+    int nbRecords=records.size();
+    List<File> shardFiles=new ArrayList<File>();
+    ExecutorService executor=Executors.newFixedThreadPool(nbShards);
+    try
+    {
+      List<Future<Boolean>> futures=new ArrayList<Future<Boolean>>();
+      for(int i=0;i<nbShards;i++)
+      {
+        final List<T> shardRecords=records.subList((int)(((long)nbRecords*i)/nbShards),(int)(((long)nbRecords*(i+1))/nbShards));
+        final File shardFile=new File(toFile.getPath()+".shard"+i);
+        shardFiles.add(shardFile);
+        Callable<Boolean> task=new Callable<Boolean>()
+        {
+          @Override
+          public Boolean call()
+          {
+            return Boolean.valueOf(writeShard(shardFile,encoding,shardRecords));
+          }
+        };
+        futures.add(executor.submit(task));
+      }
+      boolean ok=true;
+      for(Future<Boolean> future : futures)
+      {
+        ok&=waitFor(future);
+      }
+      if (!ok)
+      {
+        return Boolean.FALSE;
+      }
+      return merge(shardFiles,toFile);
+    }
+    finally
+    {
+      executor.shutdown();
+      for(File shardFile : shardFiles)
+      {
+        shardFile.delete();
+      }
+    }
+  }
+
+  private static boolean waitFor(Future<Boolean> future)
+  {
+    try
+    {
+      return future.get().booleanValue();
+    }
+    catch(InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted while writing XML shard",ie);
+    }
+    catch(ExecutionException ee)
+    {
+      LOGGER.error("Error when writing XML shard",ee.getCause());
+    }
+    return false;
+  }
+
+  /**
+   * Merge shard files.
+   * @return <code>true</code> if it succeeds, <code>false</code> if writing failed,
+   * <code>null</code> if shards could not be merged.
+   */
+  private Boolean merge(List<File> shardFiles, File toFile)
+  {
+    File tmpFile=new File(toFile.getPath()+".tmp");
+    FileOutputStream fos=null;
+    Boolean ret=null;
+    try
+    {
+      fos=new FileOutputStream(tmpFile);
+      FileChannel out=fos.getChannel();
+      int nbShards=shardFiles.size();
+      for(int i=0;i<nbShards;i++)
+      {
+        boolean first=(i==0);
+        boolean last=(i==nbShards-1);
+        boolean ok=copyShard(shardFiles.get(i),out,first,last);
+        if (!ok)
+        {
+          return null;
+        }
+      }
+      out.force(false);
+      ret=Boolean.TRUE;
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.error("Error when merging XML shards to file: "+toFile,ioe);
+      ret=Boolean.FALSE;
+    }
+    finally
+    {
+      close(fos);
+      if (Boolean.TRUE.equals(ret))
+      {
+        toFile.delete();
+        if (!tmpFile.renameTo(toFile))
+        {
+          LOGGER.error("Cannot rename "+tmpFile+" to "+toFile);
+          ret=Boolean.FALSE;
+        }
+      }
+      if (!Boolean.TRUE.equals(ret))
+      {
+        tmpFile.delete();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Copy a shard.
+   * @param shardFile Shard file.
+   * @param out Output channel.
+   * @param first Indicates if this is the first shard: the prolog and root start tag are kept.
+   * @param last Indicates if this is the last shard: the root end tag is kept.
+   * @return <code>true</code> if it succeeds, <code>false</code> if the shard could not be split.
+   * @throws IOException If an I/O error occurs.
+   */
+  private boolean copyShard(File shardFile, FileChannel out, boolean first, boolean last) throws IOException
+  {
+    FileInputStream fis=new FileInputStream(shardFile);
+    try
+    {
+      FileChannel in=fis.getChannel();
+      long size=in.size();
+      long from=0;
+      if (!first)
+      {
+        from=findRecordsStart(in);
+        if (from<0)
+        {
+          return false;
+        }
+      }
+      long to=size;
+      if (!last)
+      {
+        to=findRecordsEnd(in);
+        if (to<from)
+        {
+          return false;
+        }
+      }
+      transfer(in,from,to-from,out);
+      return true;
+    }
+    finally
+    {
+      close(fis);
+    }
+  }
+
+  private static void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException
+  {
+    long done=0;
+    while (done<count)
+    {
+      long transferred=in.transferTo(position+done,count-done,out);
+      if (transferred<=0)
+      {
+        throw new IOException("Could not transfer data");
+      }
+      done+=transferred;
+    }
+  }
+
+  /**
+   * Find the end of the root start tag.
+   * @param in Input channel.
+   * @return A position in file, or <code>-1</code> if not found.
+   * @throws IOException If an I/O error occurs.
+   */
+  private long findRecordsStart(FileChannel in) throws IOException
+  {
+    byte[] head=read(in,0,(int)Math.min(in.size(),HEAD_SIZE));
+    byte[] tag=("<"+_rootTag).getBytes("US-ASCII");
+    int index=indexOf(head,tag,0);
+    while (index>=0)
+    {
+      int next=index+tag.length;
+      if ((next<head.length) && (isTagNameEnd(head[next])))
+      {
+        // Skip attributes
+        byte quote=0;
+        for(int i=next;i<head.length;i++)
+        {
+          byte b=head[i];
+          if (quote!=0)
+          {
+            if (b==quote) quote=0;
+          }
+          else if ((b=='"') || (b=='\''))
+          {
+            quote=b;
+          }
+          else if (b=='>')
+          {
+            // Empty root tag: no records
+            return (head[i-1]=='/')?-1:i+1;
+          }
+        }
+        return -1;
+      }
+      index=indexOf(head,tag,index+1);
+    }
+    return -1;
+  }
+
+  /**
+   * Find the end of the last record: the start of the root end tag, whitespace excluded.
+   * @param in Input channel.
+   * @return A position in file, or <code>-1</code> if not found.
+   * @throws IOException If an I/O error occurs.
+   */
+  private long findRecordsEnd(FileChannel in) throws IOException
+  {
+    long size=in.size();
+    int tailSize=(int)Math.min(size,TAIL_SIZE);
+    long tailStart=size-tailSize;
+    byte[] tail=read(in,tailStart,tailSize);
+    byte[] tag=("</"+_rootTag).getBytes("US-ASCII");
+    int index=lastIndexOf(tail,tag);
+    if (index<0)
+    {
+      return -1;
+    }
+    while ((index>0) && (isWhitespace(tail[index-1])))
+    {
+      index--;
+    }
+    return tailStart+index;
+  }
+
+  private static byte[] read(FileChannel in, long position, int size) throws IOException
+  {
+    ByteBuffer buffer=ByteBuffer.allocate(size);
+    while (buffer.hasRemaining())
+    {
+      int read=in.read(buffer,position+buffer.position());
+      if (read<0)
+      {
+        break;
+      }
+    }
+    return Arrays.copyOf(buffer.array(),buffer.position());
+  }
+
+  private static int indexOf(byte[] data, byte[] pattern, int from)
+  {
+    int max=data.length-pattern.length;
+    for(int i=from;i<=max;i++)
+    {
+      if (matches(data,i,pattern))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int lastIndexOf(byte[] data, byte[] pattern)
+  {
+    for(int i=data.length-pattern.length;i>=0;i--)
+    {
+      if (matches(data,i,pattern))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean matches(byte[] data, int offset, byte[] pattern)
+  {
+    for(int j=0;j<pattern.length;j++)
+    {
+      if (data[offset+j]!=pattern[j])
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isTagNameEnd(byte b)
+  {
+    return (b=='>') || (b=='/') || isWhitespace(b);
+  }
+
+  private static boolean isWhitespace(byte b)
+  {
+    return (b==' ') || (b=='\t') || (b=='\r') || (b=='\n');
+  }
+
+  /**
+   * Indicates if the markup is encoded as ASCII in the given encoding.
+   * @param encoding Encoding to test.
+   * @return <code>true</code> if it is, <code>false</code> otherwise.
+   */
+  private static boolean isAsciiCompatible(String encoding)
+  {
+    try
+    {
+      String markup="<a b='\"'/> \t\r\n";
+      byte[] encoded=markup.getBytes(Charset.forName(encoding));
+      return Arrays.equals(encoded,markup.getBytes("US-ASCII"));
+    }
+    catch(Exception e)
+    {
+      return false;
+    }
+  }
+
+  private static void close(Closeable closeable)
+  {
+    if (closeable!=null)
+    {
+      try
+      {
+        closeable.close();
+      }
+      catch(IOException ioe)
+      {
+        LOGGER.warn("Cannot close file",ioe);
+      }
+    }
+  }
+}
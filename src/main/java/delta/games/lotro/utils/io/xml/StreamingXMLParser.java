@@ -0,0 +1,231 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import delta.games.lotro.utils.Interner;
+import delta.games.lotro.utils.StringInterner;
+
+/**
+ * Streaming parser for XML files made of records (child tags of the root tag).
+ * <p>
+ * The file is read with a StAX reader. Each record is built as a small DOM tree,
+ * given to a record handler, then dropped: only a single record is in memory at a time,
+ * instead of the whole document. Records can be decoded with the usual DOM accessors
+ * (see <code>DOMParsingTools</code>), so DOM parsers only have to change their file loop.
+ * <p>
+ * Tag names, attribute names and non-numeric attribute values are shared using a strings interner.
+ * Whitespace-only text is ignored.
+ * @author DAM
+ */
+public class StreamingXMLParser
+{
+  private static final Logger LOGGER=Logger.getLogger(StreamingXMLParser.class);
+
+  private static final int BUFFER_SIZE=64*1024;
+
+  private XMLInputFactory _factory;
+  private Document _document;
+  private Interner<String> _strings;
+  private int _records;
+
+  /**
+   * Constructor.
+   */
+  public StreamingXMLParser()
+  {
+    _factory=XMLInputFactory.newInstance();
+    _factory.setProperty(XMLInputFactory.SUPPORT_DTD,Boolean.FALSE);
+    _factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,Boolean.FALSE);
+    _factory.setProperty(XMLInputFactory.IS_COALESCING,Boolean.TRUE);
+    _strings=new StringInterner("XML strings");
+  }
+
+  /**
+   * Parse the records of a file.
+   * @param source Source file.
+   * @param handler Records handler.
+   * @return <code>true</code> if the whole file was parsed, <code>false</code> if an error occurred.
+   */
+  public static boolean parseRecords(File source, XMLRecordHandler handler)
+  {
+    return new StreamingXMLParser().parse(source,handler);
+  }
+
+  /**
+   * Get the number of records found by the last parsing.
+   * @return a records count.
+   */
+  public int getRecordsCount()
+  {
+    return _records;
+  }
+
+  /**
+   * Parse the records of a file.
+   * @param source Source file.
+   * @param handler Records handler.
+   * @return <code>true</code> if the whole file was parsed, <code>false</code> if an error occurred.
+   */
+  public boolean parse(File source, XMLRecordHandler handler)
+  {
+    _records=0;
+    InputStream is=null;
+    XMLStreamReader reader=null;
+    try
+    {
+      if (_document==null)
+      {
+        _document=DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+      }
+      is=new BufferedInputStream(new FileInputStream(source),BUFFER_SIZE);
+      reader=_factory.createXMLStreamReader(is);
+      parse(reader,handler);
+      return true;
+    }
+    catch(ParserConfigurationException pce)
+    {
+      LOGGER.error("Cannot build XML document",pce);
+    }
+    catch(XMLStreamException xse)
+    {
+      LOGGER.error("Error when parsing XML file: "+source,xse);
+    }
+    catch(IOException ioe)
+    {
+      LOGGER.error("Cannot read XML file: "+source,ioe);
+    }
+    finally
+    {
+      close(reader);
+      close(is);
+      _strings.clear();
+    }
+    return false;
+  }
+
+  private void parse(XMLStreamReader reader, XMLRecordHandler handler) throws XMLStreamException
+  {
+    // Depth of the current tag: 1 for the root tag, 2 for records
+    int depth=0;
+    Element current=null;
+    while (reader.hasNext())
+    {
+      int event=reader.next();
+      if (event==XMLStreamConstants.START_ELEMENT)
+      {
+        depth++;
+        if (depth>=2)
+        {
+          Element element=buildElement(reader);
+          if (current!=null)
+          {
+            current.appendChild(element);
+          }
+          current=element;
+        }
+      }
+      else if (event==XMLStreamConstants.END_ELEMENT)
+      {
+        if (depth==2)
+        {
+          Element record=current;
+          current=null;
+          _records++;
+          handler.handleRecord(record);
+        }
+        else if (depth>2)
+        {
+          Node parent=current.getParentNode();
+          current=(Element)parent;
+        }
+        depth--;
+      }
+      else if ((event==XMLStreamConstants.CHARACTERS) || (event==XMLStreamConstants.CDATA))
+      {
+        if ((current!=null) && (!reader.isWhiteSpace()))
+        {
+          current.appendChild(_document.createTextNode(reader.getText()));
+        }
+      }
+    }
+  }
+
+  private Element buildElement(XMLStreamReader reader)
+  {
+    Element ret=_document.createElement(_strings.intern(reader.getLocalName()));
+    int nbAttributes=reader.getAttributeCount();
+    for(int i=0;i<nbAttributes;i++)
+    {
+      String name=_strings.intern(reader.getAttributeLocalName(i));
+      String value=reader.getAttributeValue(i);
+      if (!isNumeric(value))
+      {
+        value=_strings.intern(value);
+      }
+      ret.setAttribute(name,value);
+    }
+    return ret;
+  }
+
+  /**
+   * Indicates if a value looks like a number.
+   * Such values are usually parsed then dropped, so they are not pooled.
+   * @param value Value to test.
+   * @return <code>true</code> if it does, <code>false</code> otherwise.
+   */
+  private static boolean isNumeric(String value)
+  {
+    if (value.length()==0)
+    {
+      return false;
+    }
+    char c=value.charAt(0);
+    return (((c>='0') && (c<='9')) || (c=='-'));
+  }
+
+  private static void close(XMLStreamReader reader)
+  {
+    if (reader!=null)
+    {
+      try
+      {
+        reader.close();
+      }
+      catch(XMLStreamException xse)
+      {
+        LOGGER.warn("Cannot close XML reader",xse);
+      }
+    }
+  }
+
+  private static void close(InputStream is)
+  {
+    if (is!=null)
+    {
+      try
+      {
+        is.close();
+      }
+      catch(IOException ioe)
+      {
+        LOGGER.warn("Cannot close input stream",ioe);
+      }
+    }
+  }
+}
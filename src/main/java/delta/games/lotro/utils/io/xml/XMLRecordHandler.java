@@ -0,0 +1,18 @@
+package delta.games.lotro.utils.io.xml;
+
+import org.w3c.dom.Element;
+
+/**
+ * Handler for the records of a XML file.
+ * A record is a child tag of the root tag.
+ * @author DAM
+ */
+public interface XMLRecordHandler
+{
+  /**
+   * Handle a record.
+   * The given tag is not attached to a document and is not used any more by the parser.
+   * @param record Record tag.
+   */
+  void handleRecord(Element record);
+}
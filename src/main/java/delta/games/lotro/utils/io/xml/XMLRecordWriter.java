@@ -0,0 +1,21 @@
+package delta.games.lotro.utils.io.xml;
+
+import javax.xml.transform.sax.TransformerHandler;
+
+/**
+ * Writer for the records of a XML file.
+ * A record is a child tag of the root tag.
+ * Implementations may be called concurrently, for different records.
+ * @author DAM
+ * @param <T> Type of records.
+ */
+public interface XMLRecordWriter<T>
+{
+  /**
+   * Write a record.
+   * @param hd Output stream.
+   * @param record Record to write.
+   * @throws Exception If an error occurs.
+   */
+  void writeRecord(TransformerHandler hd, T record) throws Exception;
+}
@@ -117,6 +117,13 @@ public class ArrayProgression extends AbstractProgression implements Progression
     return null;
   }
 
+  @Override
+  public float valueAt(int x)
+  {
+    Number value=getRawValue(x);
+    return (value!=null)?value.floatValue():Float.NaN;
+  }
+
   private static Function<String,Number> getParseFunction(String type)
   {
     if (ArrayProgressionConstants.FLOAT.equals(type)) return PARSE_FLOAT;
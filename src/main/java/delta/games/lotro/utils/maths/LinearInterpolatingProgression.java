@@ -2,12 +2,24 @@ package delta.games.lotro.utils.maths;
 
 /**
  * Progression that uses linear interpolation between control points.
+ * <p>
+ * Values for the X range of the control points are computed once,
+ * on first use, and stored in a lookup table.
  * @author DAM
  */
 public class LinearInterpolatingProgression extends AbstractProgression implements Progression
 {
+  /**
+   * Maximum size of the lookup table.
+   */
+  private static final int MAX_TABLE_SIZE=10000;
+
   private int[] _xValues;
   private float[] _yValues;
+  // Lookup table: values for X in [minX,maxX]
+  private volatile float[] _table;
+  // Indicates if Y values are non-decreasing
+  private volatile Boolean _increasing;
 
   /**
    * Constructor.
@@ -78,6 +90,8 @@ public class LinearInterpolatingProgression extends AbstractProgression implemen
   {
     _xValues[index]=x;
     _yValues[index]=y;
+    _table=null;
+    _increasing=null;
   }
 
   /**
@@ -86,44 +100,159 @@ public class LinearInterpolatingProgression extends AbstractProgression implemen
    * @return A X value or <code>null</code> if not supported.
    */
   public Float getXValue(float y)
+  {
+    float x=xValueAt(y);
+    return Float.isNaN(x)?null:Float.valueOf(x);
+  }
+
+  /**
+   * Reverse interpolation: get the X value for a given y value, without boxing.
+   * Uses a binary search on the control points if the Y values are non-decreasing.
+   * @param y Y value.
+   * @return A X value or <code>Float.NaN</code> if not supported.
+   */
+  public float xValueAt(float y)
   {
     if (y<_yValues[0])
     {
-      return null;
+      return Float.NaN;
+    }
+    int segment=isIncreasing()?findSegmentForY(y):scanSegmentForY(y);
+    if (segment<0)
+    {
+      return Float.NaN;
     }
+    int i=segment;
+    return _xValues[i]+(_xValues[i+1]-_xValues[i])*(y-_yValues[i])/(_yValues[i+1]-_yValues[i]);
+  }
+
+  /**
+   * Find the first segment that contains the given Y value.
+   * Y values are non-decreasing: find the first segment end that is not lower than Y.
+   * @param y Y value (not below the first Y value).
+   * @return A segment index or <code>-1</code>.
+   */
+  private int findSegmentForY(float y)
+  {
+    int low=0;
+    int high=_yValues.length-2;
+    int ret=-1;
+    while (low<=high)
+    {
+      int middle=(low+high)>>>1;
+      if (_yValues[middle+1]>=y)
+      {
+        ret=middle;
+        high=middle-1;
+      }
+      else
+      {
+        low=middle+1;
+      }
+    }
+    return ret;
+  }
+
+  private int scanSegmentForY(float y)
+  {
     for(int i=0;i<_yValues.length-1;i++)
     {
       if ((y>=_yValues[i]) && (y<=_yValues[i+1]))
       {
-        float result=_xValues[i]+(_xValues[i+1]-_xValues[i])*(y-_yValues[i])/(_yValues[i+1]-_yValues[i]);
-        return Float.valueOf(result);
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean isIncreasing()
+  {
+    Boolean increasing=_increasing;
+    if (increasing==null)
+    {
+      boolean ok=true;
+      for(int i=0;i<_yValues.length-1;i++)
+      {
+        if (!(_yValues[i+1]>=_yValues[i]))
+        {
+          ok=false;
+          break;
+        }
       }
+      increasing=Boolean.valueOf(ok);
+      _increasing=increasing;
     }
-    return null;
+    return increasing.booleanValue();
   }
 
   @Override
   public Float getValue(int x)
+  {
+    float value=valueAt(x);
+    return Float.isNaN(value)?null:Float.valueOf(value);
+  }
+
+  @Override
+  public float valueAt(int x)
+  {
+    int minX=_xValues[0];
+    if (x<minX)
+    {
+      return Float.NaN;
+    }
+    float[] table=getTable();
+    if (table!=null)
+    {
+      int index=x-minX;
+      if (index<table.length)
+      {
+        return table[index];
+      }
+    }
+    return computeValue(x);
+  }
+
+  private float[] getTable()
+  {
+    float[] table=_table;
+    if (table==null)
+    {
+      int size=getMaxX()-getMinX()+1;
+      if ((size<=0) || (size>MAX_TABLE_SIZE))
+      {
+        return null;
+      }
+      table=new float[size];
+      int minX=getMinX();
+      for(int i=0;i<size;i++)
+      {
+        table[i]=computeValue(minX+i);
+      }
+      _table=table;
+    }
+    return table;
+  }
+
+  private float computeValue(int x)
   {
     if (x<_xValues[0])
     {
-      return null;
+      return Float.NaN;
     }
     int maxIndex=_xValues.length-1;
     if (x>=_xValues[maxIndex])
     {
       float slope=(_yValues[maxIndex]-_yValues[maxIndex-1])/(_xValues[maxIndex]-_xValues[maxIndex-1]);
-      return Float.valueOf(_yValues[maxIndex-1]+(x-_xValues[maxIndex-1])*slope);
+      return _yValues[maxIndex-1]+(x-_xValues[maxIndex-1])*slope;
     }
     for(int i=0;i<_xValues.length-1;i++)
     {
       if ((x>=_xValues[i]) && (x<=_xValues[i+1]))
       {
-        float result=_yValues[i]+(_yValues[i+1]-_yValues[i])*(x-_xValues[i])/(_xValues[i+1]-_xValues[i]);
-        return Float.valueOf(result);
+        return _yValues[i]+(_yValues[i+1]-_yValues[i])*(x-_xValues[i])/(_xValues[i+1]-_xValues[i]);
       }
     }
-    return null;
+    return Float.NaN;
   }
 
   @Override
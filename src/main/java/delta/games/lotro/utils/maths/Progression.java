@@ -14,4 +14,11 @@ public interface Progression extends Identifiable
    * @return A Y value or <code>null</code> if not supported.
    */
   Float getValue(int x);
+
+  /**
+   * Get a Y value for a given X value, without boxing.
+   * @param x X value.
+   * @return A Y value or <code>Float.NaN</code> if not supported.
+   */
+  float valueAt(int x);
 }
@@ -0,0 +1,47 @@
+package delta.games.lotro.bootstrap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the validation of the lore datasets dependencies.
+ * @author DAM
+ */
+public class LoreWarmUpTest extends TestCase
+{
+  /**
+   * Test datasets without cycle.
+   */
+  public void testNoCycle()
+  {
+    List<LoreDataset> datasets=new ArrayList<LoreDataset>();
+    datasets.add(new LoreDataset("a"));
+    datasets.add(new LoreDataset("b","a"));
+    datasets.add(new LoreDataset("c","a","b"));
+    new LoreWarmUp(datasets,2);
+  }
+
+  /**
+   * Test that cycles are rejected.
+   */
+  public void testCycle()
+  {
+    List<LoreDataset> datasets=new ArrayList<LoreDataset>();
+    datasets.add(new LoreDataset("a"));
+    datasets.add(new LoreDataset("b","a","d"));
+    datasets.add(new LoreDataset("c","b"));
+    datasets.add(new LoreDataset("d","c"));
+    try
+    {
+      new LoreWarmUp(datasets,2);
+      Assert.fail();
+    }
+    catch(IllegalArgumentException e)
+    {
+      Assert.assertTrue(e.getMessage().contains("[b, c, d]"));
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package delta.games.lotro.bootstrap;
+
+import delta.games.lotro.LotroCore;
+
+/**
+ * Test for the warm-up of lore datasets.
+ * @author DAM
+ */
+public class MainTestLoreWarmUp
+{
+  /**
+   * Main method for this test.
+   * @param args Optional: number of loader threads.
+   */
+  public static void main(String[] args)
+  {
+    int parallelism=(args.length>0)?Integer.parseInt(args[0]):Runtime.getRuntime().availableProcessors();
+    LoadingReport report=LotroCore.warmUp(parallelism);
+    System.out.println(report.dump());
+  }
+}
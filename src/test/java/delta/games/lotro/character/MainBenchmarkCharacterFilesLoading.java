@@ -0,0 +1,115 @@
+package delta.games.lotro.character;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import delta.games.lotro.character.classes.ClassDescription;
+import delta.games.lotro.character.classes.ClassesManager;
+import delta.games.lotro.character.details.CharacterDetails;
+import delta.games.lotro.character.races.RaceDescription;
+import delta.games.lotro.character.races.RacesManager;
+import delta.games.lotro.common.id.InternalGameId;
+
+/**
+ * Benchmark: load a synthetic fleet of characters, on a single thread
+ * and with the batch loader, with a bounded cache of loaded characters.
+ * @author DAM
+ */
+public class MainBenchmarkCharacterFilesLoading
+{
+  private static final int NB_CHARACTERS=1000;
+  private static final int CACHE_SIZE=100;
+  private static final int RUNS=3;
+
+  private File _rootDir;
+
+  private MainBenchmarkCharacterFilesLoading()
+  {
+    _rootDir=new File(System.getProperty("java.io.tmpdir"),"lotro-characters-benchmark");
+  }
+
+  private void doIt()
+  {
+    List<CharacterFile> toons=buildFleet();
+    CharacterFilesCache cache=CharacterFilesCache.getInstance();
+    cache.setMaxSize(CACHE_SIZE);
+    int nbThreads=Runtime.getRuntime().availableProcessors();
+    for(int i=0;i<RUNS;i++)
+    {
+      long serialTime=load(toons,1);
+      long parallelTime=load(toons,nbThreads);
+      System.out.println("Run #"+i+": 1 thread="+serialTime+"ms, "+nbThreads+" threads="+parallelTime+"ms (cached="+cache.getSize()+")");
+    }
+  }
+
+  private long load(List<CharacterFile> toons, int nbThreads)
+  {
+    // Use new files, to start from a cold state
+    List<CharacterFile> files=new ArrayList<CharacterFile>();
+    for(CharacterFile toon : toons)
+    {
+      files.add(new CharacterFile(toon.getRootDir()));
+    }
+    CharacterFilesCache.getInstance().clear();
+    CharacterFilesBatchLoader loader=new CharacterFilesBatchLoader();
+    loader.setThreads(nbThreads);
+    loader.setLoadDetails(true);
+    loader.setLoadStash(true);
+    loader.setLoadStatus(true);
+    loader.setLoadData(true);
+    long start=System.currentTimeMillis();
+    List<CharacterFile> loaded=loader.load(files);
+    long time=System.currentTimeMillis()-start;
+    if (loaded.size()!=toons.size())
+    {
+      System.out.println("Loaded "+loaded.size()+"/"+toons.size()+" characters!");
+    }
+    return time;
+  }
+
+  private List<CharacterFile> buildFleet()
+  {
+    List<CharacterFile> ret=new ArrayList<CharacterFile>();
+    Random random=new Random(42);
+    List<ClassDescription> classes=ClassesManager.getInstance().getAllCharacterClasses();
+    List<RaceDescription> races=RacesManager.getInstance().getAll();
+    for(int i=0;i<NB_CHARACTERS;i++)
+    {
+      File toonDir=new File(_rootDir,"toon-"+i);
+      CharacterFile toon=new CharacterFile(toonDir);
+      if (!new File(toonDir,"summary.xml").exists())
+      {
+        toonDir.mkdirs();
+        CharacterSummary summary=new CharacterSummary();
+        summary.setId(new InternalGameId(0x0206000000000000L+i));
+        summary.setName("Toon"+i);
+        summary.setServer("Server"+(i%10));
+        summary.setCharacterClass(classes.get(random.nextInt(classes.size())));
+        summary.setRace(races.get(random.nextInt(races.size())));
+        summary.setLevel(1+random.nextInt(140));
+        toon.saveSummary(summary);
+        CharacterDetails details=new CharacterDetails();
+        details.setXp(random.nextInt(1000000));
+        details.setIngameTime(random.nextInt(10000000));
+        toon.saveDetails(details);
+        // Build and save default status
+        toon.getReputation();
+        toon.getLevelHistory();
+        toon.gc();
+      }
+      ret.add(toon);
+    }
+    return ret;
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkCharacterFilesLoading().doIt();
+  }
+}
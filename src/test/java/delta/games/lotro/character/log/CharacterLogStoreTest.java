@@ -0,0 +1,267 @@
+package delta.games.lotro.character.log;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import delta.games.lotro.character.log.CharacterLogItem.LogItemType;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for the character log store.
+ * @author DAM
+ */
+public class CharacterLogStoreTest extends TestCase
+{
+  private static final long DAY1=1000000L;
+  private static final long DAY2=2000000L;
+  private static final long DAY3=3000000L;
+
+  private File getStoreFile() throws Exception
+  {
+    File file=File.createTempFile("log",".bin");
+    file.delete();
+    file.deleteOnExit();
+    return file;
+  }
+
+  private CharacterLog buildLog()
+  {
+    CharacterLog log=new CharacterLog("Toon");
+    // Most recent first
+    log.addLogItem(new CharacterLogItem(DAY3,LogItemType.QUEST,"Quest 3",null));
+    log.addLogItem(new CharacterLogItem(DAY2,LogItemType.LEVELUP,"12","url?id=12"));
+    log.addLogItem(new CharacterLogItem(DAY2,LogItemType.DEED,"Deed 2",null));
+    log.addLogItem(new CharacterLogItem(DAY1,LogItemType.LEVELUP,"11",null));
+    return log;
+  }
+
+  private List<String> getLabels(List<CharacterLogItem> items)
+  {
+    List<String> ret=new ArrayList<String>();
+    for(CharacterLogItem item : items)
+    {
+      ret.add(item.getLabel());
+    }
+    return ret;
+  }
+
+  /**
+   * Test writing and reading a whole log.
+   * @throws Exception If an error occurs.
+   */
+  public void testWriteAndRead() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLog log=buildLog();
+    Assert.assertTrue(new CharacterLogStore(file).write(log));
+    CharacterLogStore store=new CharacterLogStore(file);
+    Assert.assertEquals("Toon",store.getName());
+    Assert.assertEquals(4,store.getNbItems());
+    CharacterLog loaded=store.getLog();
+    Assert.assertEquals(log.getNbItems(),loaded.getNbItems());
+    for(int i=0;i<log.getNbItems();i++)
+    {
+      Assert.assertEquals(log.getLogItem(i).toString(),loaded.getLogItem(i).toString());
+    }
+    Assert.assertEquals(log.getDates(),store.getDates());
+    Assert.assertEquals(2,store.getItemsOfDay(DAY2).size());
+    Assert.assertEquals(0,store.getItemsOfDay(DAY2+1).size());
+  }
+
+  /**
+   * Test the filtered iteration.
+   * @throws Exception If an error occurs.
+   */
+  public void testFilter() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLogStore store=new CharacterLogStore(file);
+    store.write(buildLog());
+    CharacterLogItemsFilter filter=new CharacterLogItemsFilter();
+    filter.setSelectedTypes(EnumSet.of(LogItemType.LEVELUP));
+    Assert.assertEquals("[12, 11]",getLabels(store.getItems(filter)).toString());
+    filter.setMinDate(Long.valueOf(DAY2));
+    Assert.assertEquals("[12]",getLabels(store.getItems(filter)).toString());
+    filter.setSelectedTypes(null);
+    filter.setMaxDate(Long.valueOf(DAY2));
+    Assert.assertEquals("[12, Deed 2]",getLabels(store.getItems(filter)).toString());
+    // Early stop
+    final List<CharacterLogItem> items=new ArrayList<CharacterLogItem>();
+    CharacterLogItemsHandler handler=new CharacterLogItemsHandler()
+    {
+      @Override
+      public boolean handleItem(CharacterLogItem item)
+      {
+        items.add(item);
+        return false;
+      }
+    };
+    store.iterate(null,handler);
+    Assert.assertEquals(1,items.size());
+  }
+
+  /**
+   * Test the incremental updates.
+   * @throws Exception If an error occurs.
+   */
+  public void testUpdates() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLogStore store=new CharacterLogStore(file);
+    store.write(buildLog());
+    long length=file.length();
+    List<CharacterLogItem> newItems=new ArrayList<CharacterLogItem>();
+    newItems.add(new CharacterLogItem(DAY3,LogItemType.DEED,"Deed 3",null));
+    newItems.add(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13",null));
+    Assert.assertTrue(store.appendItems(newItems));
+    Assert.assertTrue(file.length()>length);
+    List<CharacterLogItem> replacement=new ArrayList<CharacterLogItem>();
+    replacement.add(new CharacterLogItem(DAY2,LogItemType.DEED,"Deed 2b",null));
+    Assert.assertTrue(store.replaceItemsOfDate(DAY2,replacement));
+    Assert.assertTrue(store.removeItemsOfDay(DAY1));
+    String expected="[13, Quest 3, Deed 3, Deed 2b]";
+    Assert.assertEquals(expected,getLabels(store.getItems(null)).toString());
+    // Read again from the file
+    CharacterLogStore reloaded=new CharacterLogStore(file);
+    Assert.assertEquals(4,reloaded.getNbItems());
+    Assert.assertEquals(expected,getLabels(reloaded.getItems(null)).toString());
+    // Compaction
+    long beforeCompaction=file.length();
+    Assert.assertTrue(reloaded.compact());
+    Assert.assertTrue(file.length()<beforeCompaction);
+    Assert.assertEquals(expected,getLabels(new CharacterLogStore(file).getItems(null)).toString());
+  }
+
+  /**
+   * Test the recovery of a truncated store.
+   * @throws Exception If an error occurs.
+   */
+  public void testTruncatedStore() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLogStore store=new CharacterLogStore(file);
+    store.write(buildLog());
+    long length=file.length();
+    List<CharacterLogItem> newItems=new ArrayList<CharacterLogItem>();
+    newItems.add(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13",null));
+    store.appendItems(newItems);
+    RandomAccessFile raf=new RandomAccessFile(file,"rw");
+    raf.setLength(file.length()-3);
+    raf.close();
+    CharacterLogStore truncated=new CharacterLogStore(file);
+    Assert.assertEquals(4,truncated.getNbItems());
+    Assert.assertTrue(truncated.appendItems(newItems));
+    Assert.assertEquals(5,new CharacterLogStore(file).getNbItems());
+    Assert.assertTrue(file.length()>length);
+  }
+
+  /**
+   * Test the update from a whole log.
+   * @throws Exception If an error occurs.
+   */
+  public void testUpdateFromLog() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLogStore store=new CharacterLogStore(file);
+    CharacterLog log=buildLog();
+    Assert.assertTrue(store.update(log));
+    Assert.assertEquals("Toon",new CharacterLogStore(file).getName());
+    long length=file.length();
+    // Same log: nothing written
+    Assert.assertTrue(store.update(log));
+    Assert.assertEquals(length,file.length());
+    // New items, a changed date and a removed date
+    CharacterLog newLog=new CharacterLog("Toon");
+    newLog.addLogItem(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13",null));
+    newLog.addLogItem(new CharacterLogItem(DAY3,LogItemType.QUEST,"Quest 3",null));
+    newLog.addLogItem(new CharacterLogItem(DAY3,LogItemType.DEED,"Deed 3",null));
+    newLog.addLogItem(new CharacterLogItem(DAY2,LogItemType.DEED,"Deed 2b",null));
+    Assert.assertTrue(store.update(newLog));
+    String expected="[13, Quest 3, Deed 3, Deed 2b]";
+    Assert.assertEquals(expected,getLabels(new CharacterLogStore(file).getItems(null)).toString());
+  }
+
+  /**
+   * Test the update from a log that only adds items.
+   * @throws Exception If an error occurs.
+   */
+  public void testAppendOnlyUpdate() throws Exception
+  {
+    File file=getStoreFile();
+    CharacterLogStore store=new CharacterLogStore(file);
+    Assert.assertTrue(store.update(buildLog()));
+    CharacterLog newLog=buildLog();
+    newLog.addLogItem(new CharacterLogItem(DAY3,LogItemType.DEED,"Deed 3",null));
+    newLog.addLogItem(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13",null));
+    Assert.assertTrue(new CharacterLogStore(file).update(newLog));
+    String expected="[13, Quest 3, Deed 3, 12, Deed 2, 11]";
+    Assert.assertEquals(expected,getLabels(new CharacterLogStore(file).getItems(null)).toString());
+    // Last item of the most recent date changed: replaced
+    CharacterLog changedLog=new CharacterLog("Toon");
+    changedLog.addLogItem(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13b",null));
+    changedLog.addLogItem(new CharacterLogItem(DAY3,LogItemType.QUEST,"Quest 3",null));
+    changedLog.addLogItem(new CharacterLogItem(DAY3,LogItemType.DEED,"Deed 3",null));
+    changedLog.addLogItem(new CharacterLogItem(DAY2,LogItemType.LEVELUP,"12","url?id=12"));
+    changedLog.addLogItem(new CharacterLogItem(DAY2,LogItemType.DEED,"Deed 2",null));
+    changedLog.addLogItem(new CharacterLogItem(DAY1,LogItemType.LEVELUP,"11",null));
+    Assert.assertTrue(new CharacterLogStore(file).update(changedLog));
+    expected="[13b, Quest 3, Deed 3, 12, Deed 2, 11]";
+    Assert.assertEquals(expected,getLabels(new CharacterLogStore(file).getItems(null)).toString());
+  }
+
+  /**
+   * Test that a segment with a negative size ends the index.
+   * @throws Exception If an error occurs.
+   */
+  public void testNegativeSegmentSize() throws Exception
+  {
+    File file=getStoreFile();
+    new CharacterLogStore(file).write(buildLog());
+    long length=file.length();
+    RandomAccessFile raf=new RandomAccessFile(file,"rw");
+    raf.seek(length);
+    raf.writeByte(1);
+    raf.writeLong(DAY3);
+    raf.writeInt(1);
+    raf.writeInt(-17);
+    raf.close();
+    CharacterLogStore store=new CharacterLogStore(file);
+    Assert.assertEquals(4,store.getNbItems());
+    List<CharacterLogItem> newItems=new ArrayList<CharacterLogItem>();
+    newItems.add(new CharacterLogItem(DAY3+1,LogItemType.LEVELUP,"13",null));
+    Assert.assertTrue(store.appendItems(newItems));
+    Assert.assertEquals(5,new CharacterLogStore(file).getNbItems());
+  }
+
+  /**
+   * Test that a store with a bad header is not updated.
+   * @throws Exception If an error occurs.
+   */
+  public void testBadHeader() throws Exception
+  {
+    File file=getStoreFile();
+    RandomAccessFile raf=new RandomAccessFile(file,"rw");
+    raf.writeInt(0x12345678);
+    raf.writeInt(0);
+    raf.writeInt(0);
+    raf.close();
+    long length=file.length();
+    CharacterLogStore store=new CharacterLogStore(file);
+    Assert.assertEquals(0,store.getNbItems());
+    List<CharacterLogItem> newItems=new ArrayList<CharacterLogItem>();
+    newItems.add(new CharacterLogItem(DAY1,LogItemType.LEVELUP,"11",null));
+    Assert.assertFalse(store.appendItems(newItems));
+    Assert.assertFalse(store.compact());
+    Assert.assertEquals(length,file.length());
+    // A full rewrite keeps the bad file aside
+    Assert.assertTrue(store.write(buildLog()));
+    File badFile=new File(file.getPath()+".bad");
+    badFile.deleteOnExit();
+    Assert.assertEquals(length,badFile.length());
+    Assert.assertEquals(4,new CharacterLogStore(file).getNbItems());
+  }
+}
@@ -0,0 +1,120 @@
+package delta.games.lotro.character.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import delta.games.lotro.common.stats.StatDescription;
+import delta.games.lotro.common.stats.StatOperator;
+import delta.games.lotro.common.stats.StatType;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for basic stats sets.
+ * @author DAM
+ */
+public class BasicStatsSetTest extends TestCase
+{
+  private static final int NB_STATS=40;
+
+  private List<StatDescription> buildStats()
+  {
+    List<StatDescription> ret=new ArrayList<StatDescription>();
+    for(int i=0;i<NB_STATS;i++)
+    {
+      StatDescription stat=new StatDescription();
+      stat.setIdentifier(1000+i);
+      stat.setKey("STAT_"+i);
+      stat.setType(((i%2)==0)?StatType.INTEGER:StatType.FLOAT);
+      // Some stats are not registered, some share a slot
+      if (i%10!=9)
+      {
+        stat.setSlot((i%10==8)?0:i);
+      }
+      ret.add(stat);
+    }
+    return ret;
+  }
+
+  /**
+   * Test set, get and remove operations on a big set.
+   */
+  public void testSetGetRemove()
+  {
+    List<StatDescription> stats=buildStats();
+    BasicStatsSet set=new BasicStatsSet();
+    for(int i=0;i<NB_STATS;i++)
+    {
+      set.setStat(stats.get(i),i);
+    }
+    Assert.assertEquals(NB_STATS,set.getStatsCount());
+    for(int i=0;i<NB_STATS;i++)
+    {
+      StatDescription stat=stats.get(i);
+      Number expected=(stat.getType()==StatType.INTEGER)?(Number)Integer.valueOf(i):(Number)Float.valueOf(i);
+      Assert.assertEquals(expected,set.getStat(stat));
+      Assert.assertSame(stat,set.findElement(stat).getStat());
+    }
+    // Remove some stats, including some that share a slot
+    for(int i=0;i<NB_STATS;i+=4)
+    {
+      set.removeStat(stats.get(i));
+    }
+    for(int i=0;i<NB_STATS;i++)
+    {
+      StatDescription stat=stats.get(i);
+      boolean removed=((i%4)==0);
+      Assert.assertEquals(removed,set.findElement(stat)==null);
+    }
+    // Set again
+    set.setStat(stats.get(0),5);
+    Assert.assertEquals(Integer.valueOf(5),set.getStat(stats.get(0)));
+    set.clear();
+    Assert.assertEquals(0,set.getStatsCount());
+    Assert.assertNull(set.getStat(stats.get(1)));
+  }
+
+  /**
+   * Test additions.
+   */
+  public void testAdd()
+  {
+    List<StatDescription> stats=buildStats();
+    BasicStatsSet set=new BasicStatsSet();
+    BasicStatsSet toAdd=new BasicStatsSet();
+    for(int i=0;i<NB_STATS;i++)
+    {
+      set.setStat(stats.get(i),i);
+      toAdd.setStat(stats.get(i),1);
+    }
+    set.addStats(toAdd);
+    set.addStat(stats.get(0),0.4f);
+    set.addStat(stats.get(1),0.5f);
+    Assert.assertEquals(Integer.valueOf(1),set.getStat(stats.get(0)));
+    Assert.assertEquals(Float.valueOf(2.5f),set.getStat(stats.get(1)));
+    for(int i=2;i<NB_STATS;i++)
+    {
+      Assert.assertEquals(i+1,set.findElement(stats.get(i)).getIntValue());
+    }
+    // Copy
+    BasicStatsSet copy=new BasicStatsSet(set);
+    Assert.assertEquals(set,copy);
+    copy.addStat(stats.get(NB_STATS-1),1);
+    Assert.assertFalse(set.equals(copy));
+  }
+
+  /**
+   * Test multiply elements.
+   */
+  public void testMultiply()
+  {
+    StatDescription stat=buildStats().get(0);
+    StatsSetElement element=new StatsSetElement(stat,StatOperator.ADD);
+    element.setValue(10);
+    element.multiply(1.26f);
+    Assert.assertEquals(Integer.valueOf(13),element.getValue());
+    StatsSetElement factor=new StatsSetElement(stat,StatOperator.MULTIPLY);
+    factor.setValue(1.1f);
+    Assert.assertEquals(Float.valueOf(1.1f),factor.getValue());
+  }
+}
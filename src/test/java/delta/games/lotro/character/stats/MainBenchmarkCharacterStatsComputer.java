@@ -0,0 +1,86 @@
+package delta.games.lotro.character.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import delta.games.lotro.character.CharacterData;
+import delta.games.lotro.character.gear.GearSlot;
+import delta.games.lotro.character.gear.GearSlots;
+import delta.games.lotro.common.stats.StatDescription;
+
+/**
+ * Benchmark: full character stats computation and stats sets arithmetic.
+ * @author DAM
+ */
+public class MainBenchmarkCharacterStatsComputer
+{
+  private static final int RUNS=5;
+  private static final int COMPUTATIONS=200;
+  private static final int ADDITIONS=20000;
+
+  private void doIt()
+  {
+    CharacterGenerationTools tools=new CharacterGenerationTools();
+    CharacterGeneratorGiswald generator=new CharacterGeneratorGiswald(tools);
+    CharacterData c=generator.buildCharacter();
+    CharacterStatsComputer statsComputer=new CharacterStatsComputer();
+    // Warm-up: loads the data used by the computer
+    BasicStatsSet stats=statsComputer.getStats(c);
+    System.out.println("Stats: "+stats.getStatsCount());
+    for(int i=0;i<RUNS;i++)
+    {
+      measureComputation(statsComputer,c);
+      measureSession(c);
+      measureAdditions(stats);
+    }
+  }
+
+  private void measureComputation(CharacterStatsComputer statsComputer, CharacterData c)
+  {
+    long start=System.nanoTime();
+    for(int i=0;i<COMPUTATIONS;i++)
+    {
+      statsComputer.getStats(c);
+    }
+    long duration=System.nanoTime()-start;
+    System.out.println("Character stats: "+COMPUTATIONS+" computations in "+(duration/1000000)+"ms ("+(duration/(COMPUTATIONS*1000))+"us each)");
+  }
+
+  private void measureSession(CharacterData c)
+  {
+    CharacterStatsSession session=new CharacterStatsSession(c);
+    List<GearSlot> slots=GearSlots.getSlotsForStatsComputation();
+    long start=System.nanoTime();
+    for(int i=0;i<COMPUTATIONS;i++)
+    {
+      // One changed slot for each computation
+      session.gearSlotChanged(slots.get(i%slots.size()));
+      session.getStats();
+    }
+    long duration=System.nanoTime()-start;
+    System.out.println("Character stats session: "+COMPUTATIONS+" computations in "+(duration/1000000)+"ms ("+(duration/(COMPUTATIONS*1000))+"us each)");
+  }
+
+  private void measureAdditions(BasicStatsSet characterStats)
+  {
+    List<StatDescription> stats=new ArrayList<StatDescription>(characterStats.getStats());
+    BasicStatsSet total=new BasicStatsSet();
+    long start=System.nanoTime();
+    for(int i=0;i<ADDITIONS;i++)
+    {
+      total.addStats(characterStats);
+      total.addStat(stats.get(i%stats.size()),1.5f);
+    }
+    long duration=System.nanoTime()-start;
+    System.out.println("Stats sets: "+ADDITIONS+" additions of "+characterStats.getStatsCount()+" stats in "+(duration/1000000)+"ms, result has "+total.getStatsCount()+" stats");
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkCharacterStatsComputer().doIt();
+  }
+}
@@ -0,0 +1,63 @@
+package delta.games.lotro.character.stats;
+
+import delta.games.lotro.character.CharacterData;
+import delta.games.lotro.character.gear.CharacterGear;
+import delta.games.lotro.character.gear.GearSlot;
+import delta.games.lotro.character.gear.GearSlotContents;
+import delta.games.lotro.character.gear.GearSlots;
+import delta.games.lotro.common.stats.StatsEquality;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemInstance;
+
+/**
+ * Test for the character stats session: checks that the incremental computation
+ * gives the same results as the full computation.
+ * @author DAM
+ */
+public class MainTestCharacterStatsSession
+{
+  private void doIt()
+  {
+    CharacterGenerationTools tools=new CharacterGenerationTools();
+    CharacterGeneratorGiswald generator=new CharacterGeneratorGiswald(tools);
+    CharacterData c=generator.buildCharacter();
+    CharacterStatsComputer computer=new CharacterStatsComputer();
+    CharacterStatsSession session=new CharacterStatsSession(c);
+    check("Initial",computer.getStats(c),session.getStats());
+    CharacterGear gear=c.getEquipment();
+    for(GearSlot slot : GearSlots.getSlotsForStatsComputation())
+    {
+      GearSlotContents contents=gear.getSlotContents(slot,true);
+      ItemInstance<? extends Item> item=contents.getItem();
+      // Remove item
+      contents.setItem(null);
+      session.gearSlotChanged(slot);
+      check("Without "+slot,computer.getStats(c),session.getStats());
+      // Put it back
+      contents.setItem(item);
+      session.gearSlotChanged(slot);
+      check("With "+slot,computer.getStats(c),session.getStats());
+    }
+    // Same stats without changes
+    check("Again",computer.getStats(c),session.getStats());
+  }
+
+  private void check(String label, BasicStatsSet full, BasicStatsSet incremental)
+  {
+    boolean ok=StatsEquality.equals(full,incremental) && StatsEquality.equals(incremental,full);
+    System.out.println(label+": "+(ok?"OK":"DIFFERENT"));
+    if (!ok)
+    {
+      StatsEquality.checkStats(full,incremental);
+    }
+  }
+
+  /**
+   * Main method for this test.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainTestCharacterStatsSession().doIt();
+  }
+}
@@ -0,0 +1,116 @@
+package delta.games.lotro.character.stats.ratings;
+
+import delta.games.lotro.common.global.CombatSystem;
+
+/**
+ * Benchmark: all rating curves, at every level, with boxed and primitive methods.
+ * @author DAM
+ */
+public class MainBenchmarkRatingCurves
+{
+  private static final int RUNS=5;
+  private static final int MAX_LEVEL=150;
+  private static final int NB_RATINGS=200;
+  private static final double RATING_STEP=500;
+
+  private RatingsMgr _ratingsMgr;
+
+  private MainBenchmarkRatingCurves()
+  {
+    _ratingsMgr=CombatSystem.getInstance().getRatingsMgr();
+  }
+
+  private void doIt()
+  {
+    checkResults();
+    for(int i=0;i<RUNS;i++)
+    {
+      measure(false);
+      measure(true);
+    }
+  }
+
+  private void checkResults()
+  {
+    int nbDiffs=0;
+    for(RatingCurveId id : RatingCurveId.values())
+    {
+      RatingCurve curve=_ratingsMgr.getCurve(id);
+      if (curve==null)
+      {
+        continue;
+      }
+      for(int level=1;level<=MAX_LEVEL;level++)
+      {
+        for(int i=1;i<=NB_RATINGS;i++)
+        {
+          double rating=i*RATING_STEP;
+          Double boxed=curve.getPercentage(rating,level);
+          double primitive=curve.percentage(rating,level);
+          if ((boxed==null)?(!Double.isNaN(primitive)):(boxed.doubleValue()!=primitive))
+          {
+            nbDiffs++;
+          }
+        }
+        Double boxedCap=curve.getRatingForCap(level);
+        double cap=curve.ratingForCap(level);
+        if ((boxedCap==null)?(!Double.isNaN(cap)):(boxedCap.doubleValue()!=cap))
+        {
+          nbDiffs++;
+        }
+      }
+    }
+    System.out.println("Differences between boxed and primitive results: "+nbDiffs);
+  }
+
+  private void measure(boolean primitive)
+  {
+    long start=System.nanoTime();
+    long count=0;
+    double total=0;
+    for(RatingCurveId id : RatingCurveId.values())
+    {
+      RatingCurve curve=_ratingsMgr.getCurve(id);
+      if (curve==null)
+      {
+        continue;
+      }
+      for(int level=1;level<=MAX_LEVEL;level++)
+      {
+        for(int i=1;i<=NB_RATINGS;i++)
+        {
+          double rating=i*RATING_STEP;
+          if (primitive)
+          {
+            double percentage=curve.percentage(rating,level);
+            if (!Double.isNaN(percentage))
+            {
+              total+=percentage;
+            }
+          }
+          else
+          {
+            Double percentage=curve.getPercentage(rating,level);
+            if (percentage!=null)
+            {
+              total+=percentage.doubleValue();
+            }
+          }
+          count++;
+        }
+      }
+    }
+    long duration=System.nanoTime()-start;
+    String label=primitive?"Primitive":"Boxed";
+    System.out.println(label+": "+count+" percentages in "+(duration/1000000)+"ms ("+(duration/count)+"ns each), checksum="+total);
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkRatingCurves().doIt();
+  }
+}
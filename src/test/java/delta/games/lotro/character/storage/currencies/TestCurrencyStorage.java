@@ -1,5 +1,11 @@
 package delta.games.lotro.character.storage.currencies;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import delta.games.lotro.character.storage.currencies.io.binary.CurrencyStorageBinaryIo;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
@@ -229,4 +235,98 @@ public class TestCurrencyStorage extends TestCase
       Assert.assertNull(storage.getValueAtTime(START_TIME2+1));
     }
   }
+
+  /**
+   * Test range queries.
+   */
+  public void testRange()
+  {
+    CurrencyStorage storage=new CurrencyStorage();
+    storage.setValueAt(START_TIME1,VALUE1);
+    storage.setValueAt(START_TIME3,VALUE3);
+    storage.setValueAt(START_TIME2,VALUE2);
+    CurrencyStorage range=storage.getRange(START_TIME1+1,START_TIME2);
+    Assert.assertEquals(3,range.getPoints());
+    Assert.assertEquals(START_TIME1+1,range.getTime(0));
+    Assert.assertEquals(VALUE1,range.getValue(0));
+    Assert.assertEquals(VALUE3,range.getValue(1));
+    Assert.assertEquals(VALUE2,range.getValue(2));
+    range=storage.getRange(0,START_TIME1);
+    Assert.assertEquals(1,range.getPoints());
+    Assert.assertEquals(0,storage.getRange(START_TIME2+1,START_TIME1).getPoints());
+    Assert.assertEquals(1,storage.getFirstIndexFrom(START_TIME1+1));
+    Assert.assertEquals(3,storage.getFirstIndexFrom(START_TIME2+1));
+  }
+
+  /**
+   * Test down-sampling.
+   */
+  public void testDownsample()
+  {
+    CurrencyStorage storage=new CurrencyStorage();
+    storage.setValueAt(CurrencyStorage.DAY+10,10);
+    storage.setValueAt(CurrencyStorage.DAY+20,20);
+    storage.setValueAt(3*CurrencyStorage.DAY+10,30);
+    storage.setValueAt(3*CurrencyStorage.DAY+20,40);
+    storage.setValueAt(3*CurrencyStorage.DAY+30,50);
+    CurrencyStorage daily=storage.downsample(0,CurrencyStorage.DAY);
+    Assert.assertEquals(2,daily.getPoints());
+    Assert.assertEquals(CurrencyStorage.DAY,daily.getTime(0));
+    Assert.assertEquals(20,daily.getValue(0));
+    Assert.assertEquals(3*CurrencyStorage.DAY,daily.getTime(1));
+    Assert.assertEquals(50,daily.getValue(1));
+    CurrencyStorage weekly=storage.downsample(0,CurrencyStorage.WEEK);
+    Assert.assertEquals(1,weekly.getPoints());
+    Assert.assertEquals(50,weekly.getValue(0));
+  }
+
+  /**
+   * Test the sum of several storages.
+   */
+  public void testSum()
+  {
+    CurrencyStorage storage1=new CurrencyStorage();
+    storage1.setValueAt(10,1);
+    storage1.setValueAt(30,3);
+    CurrencyStorage storage2=new CurrencyStorage();
+    storage2.setValueAt(20,100);
+    storage2.setValueAt(30,200);
+    List<CurrencyStorage> storages=new ArrayList<CurrencyStorage>();
+    storages.add(storage1);
+    storages.add(storage2);
+    CurrencyStorage sum=CurrencyStorage.sum(storages);
+    Assert.assertEquals(3,sum.getPoints());
+    Assert.assertEquals(1,sum.getLastValueAt(10,0));
+    Assert.assertEquals(101,sum.getLastValueAt(25,0));
+    Assert.assertEquals(203,sum.getLastValueAt(1000,0));
+    Assert.assertEquals(-1,sum.getLastValueAt(5,-1));
+  }
+
+  /**
+   * Test the binary persistence.
+   * @throws Exception If an error occurs.
+   */
+  public void testBinaryPersistence() throws Exception
+  {
+    CurrencyStorage storage=new CurrencyStorage();
+    Random random=new Random(42);
+    long time=1500000000000L;
+    for(int i=0;i<1000;i++)
+    {
+      time+=1+random.nextInt(1000000);
+      int value=(i%100==0)?Integer.MIN_VALUE+i:random.nextInt(100000)-5000;
+      storage.setValueAt(time,value);
+    }
+    File file=File.createTempFile("currency",".bin");
+    file.deleteOnExit();
+    Assert.assertTrue(CurrencyStorageBinaryIo.write(file,storage));
+    CurrencyStorage loaded=new CurrencyStorage();
+    Assert.assertTrue(CurrencyStorageBinaryIo.read(file,loaded));
+    Assert.assertEquals(storage.getPoints(),loaded.getPoints());
+    for(int i=0;i<storage.getPoints();i++)
+    {
+      Assert.assertEquals(storage.getTime(i),loaded.getTime(i));
+      Assert.assertEquals(storage.getValue(i),loaded.getValue(i));
+    }
+  }
 }
@@ -0,0 +1,97 @@
+package delta.games.lotro.character.storage.currencies.io;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import delta.games.lotro.character.storage.currencies.Currency;
+import delta.games.lotro.character.storage.currencies.CurrencyHistory;
+import delta.games.lotro.character.storage.currencies.CurrencyStorage;
+import delta.games.lotro.character.storage.currencies.io.binary.CurrencyStorageBinaryIo;
+import delta.games.lotro.common.Scope;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test for the currency history files.
+ * @author DAM
+ */
+public class TestCurrencyHistoryFiles extends TestCase
+{
+  private static final String BASE_NAME="test";
+
+  /**
+   * Test that a truncated binary file is kept aside and never overwritten.
+   * @throws Exception if an error occurs.
+   */
+  public void testTruncatedBinaryFile() throws Exception
+  {
+    File rootDir=createRootDir();
+    File binaryFile=new File(rootDir,BASE_NAME+".bin");
+    long length=writeTruncatedFile(binaryFile);
+    Currency currency=new Currency(BASE_NAME,"Test",Scope.CHARACTER,"Test");
+    CurrencyHistoryFiles files=new CurrencyHistoryFiles(rootDir,BASE_NAME);
+    Assert.assertNull(files.load(currency));
+    File badFile=new File(rootDir,BASE_NAME+".bin.bad");
+    Assert.assertTrue(badFile.exists());
+    Assert.assertEquals(length,badFile.length());
+    Assert.assertFalse(binaryFile.exists());
+    // Save the new history: the bad file is kept
+    CurrencyHistory history=new CurrencyHistory(currency);
+    history.getStorage().setValueAt(1000,10);
+    Assert.assertTrue(files.save(history));
+    Assert.assertEquals(length,badFile.length());
+    CurrencyHistory loaded=new CurrencyHistoryFiles(rootDir,BASE_NAME).load(currency);
+    Assert.assertNotNull(loaded);
+    Assert.assertEquals(1,loaded.getStorage().getPoints());
+    // Another bad file does not replace the previous one
+    length=writeTruncatedFile(binaryFile);
+    files=new CurrencyHistoryFiles(rootDir,BASE_NAME);
+    Assert.assertNull(files.load(currency));
+    File badFile1=new File(rootDir,BASE_NAME+".bin.bad1");
+    Assert.assertTrue(badFile.exists());
+    Assert.assertEquals(length,badFile1.length());
+    cleanup(rootDir);
+  }
+
+  private long writeTruncatedFile(File file) throws Exception
+  {
+    CurrencyStorage storage=new CurrencyStorage();
+    for(int i=0;i<100;i++)
+    {
+      storage.appendPoint(1000L*(i+1),i*3);
+    }
+    Assert.assertTrue(CurrencyStorageBinaryIo.write(file,storage));
+    long length=file.length()/2;
+    RandomAccessFile raf=new RandomAccessFile(file,"rw");
+    try
+    {
+      raf.setLength(length);
+    }
+    finally
+    {
+      raf.close();
+    }
+    return length;
+  }
+
+  private File createRootDir() throws Exception
+  {
+    File rootDir=File.createTempFile("currencies","");
+    rootDir.delete();
+    rootDir.mkdirs();
+    return rootDir;
+  }
+
+  private void cleanup(File rootDir)
+  {
+    File[] files=rootDir.listFiles();
+    if (files!=null)
+    {
+      for(File file : files)
+      {
+        file.delete();
+      }
+    }
+    rootDir.delete();
+  }
+}
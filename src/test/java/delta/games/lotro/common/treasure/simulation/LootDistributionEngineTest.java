@@ -0,0 +1,193 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.games.lotro.common.treasure.ItemsTable;
+import delta.games.lotro.common.treasure.ItemsTableEntry;
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.common.treasure.LootsManager;
+import delta.games.lotro.common.treasure.TreasureList;
+import delta.games.lotro.common.treasure.TreasureListEntry;
+import delta.games.lotro.common.treasure.TrophyList;
+import delta.games.lotro.common.treasure.TrophyListEntry;
+import delta.games.lotro.common.treasure.WeightedTreasureTable;
+import delta.games.lotro.common.treasure.WeightedTreasureTableEntry;
+import delta.games.lotro.common.treasure.io.binary.LootDistributionsBinaryIo;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Tests for the exact loot distributions engine.
+ * @author DAM
+ */
+public class LootDistributionEngineTest extends TestCase
+{
+  private LootsManager _lootsMgr;
+  private WeightedTreasureTable _root;
+  private TrophyList _twice;
+
+  @Override
+  protected void setUp()
+  {
+    _lootsMgr=new LootsManager();
+    // Items table: item 1 (weight 3), item 2 (weight 1, 2x)
+    ItemsTable itemsTable=new ItemsTable(10);
+    itemsTable.addEntry(new ItemsTableEntry(3,buildItem(1),1));
+    itemsTable.addEntry(new ItemsTableEntry(1,buildItem(2),2));
+    // Treasure list: items table (weight 1), nothing (weight 1)
+    TreasureList treasureList=new TreasureList(11);
+    treasureList.addEntry(new TreasureListEntry(1,itemsTable));
+    treasureList.addEntry(new TreasureListEntry(1,null));
+    // Trophy lists
+    TrophyList trophyList1=new TrophyList(12);
+    trophyList1.addEntry(new TrophyListEntry(0.5f,treasureList));
+    trophyList1.addEntry(new TrophyListEntry(0.25f,buildItem(3),1));
+    TrophyList trophyList2=new TrophyList(13);
+    trophyList2.addEntry(new TrophyListEntry(1.0f,treasureList));
+    // Weighted treasure table
+    _root=new WeightedTreasureTable(14);
+    _root.addEntry(new WeightedTreasureTableEntry(1,trophyList1));
+    _root.addEntry(new WeightedTreasureTableEntry(3,trophyList2));
+    // Trophy list with the same item rolled twice
+    _twice=new TrophyList(15);
+    _twice.addEntry(new TrophyListEntry(0.5f,buildItem(4),1));
+    _twice.addEntry(new TrophyListEntry(0.5f,buildItem(4),1));
+    for(LootTable table : new LootTable[] {itemsTable,treasureList,trophyList1,trophyList2,_root,_twice})
+    {
+      _lootsMgr.getTables().add(table);
+    }
+  }
+
+  private Item buildItem(int id)
+  {
+    Item item=new Item();
+    item.setIdentifier(id);
+    return item;
+  }
+
+  /**
+   * Test the exact distribution of a composite table.
+   */
+  public void testDistribution()
+  {
+    LootDistributionEngine engine=new LootDistributionEngine();
+    LootDistribution distribution=engine.getDistribution(_root);
+    Assert.assertEquals(14,distribution.getTableId());
+    Assert.assertEquals(3,distribution.getItemsCount());
+    // Items table reached with probability 7/8*1/2
+    double itemsTable=7.0/8/2;
+    checkItem(distribution,1,itemsTable*3/4,itemsTable*3/4);
+    checkItem(distribution,2,itemsTable*1/4*2,itemsTable*1/4);
+    checkItem(distribution,3,1.0/16,1.0/16);
+    Assert.assertTrue(distribution.indexOf(4)<0);
+    // Sub-tables are memoized
+    Assert.assertEquals(5,engine.getDistributionsCount());
+    // Agrees with the expected quantities of the compiled table
+    CompiledLootTable compiled=CompiledLootTable.compile(_root);
+    double[] expected=compiled.computeExpectedDrops();
+    int[] itemIds=compiled.getItemIds();
+    for(int i=0;i<itemIds.length;i++)
+    {
+      int index=distribution.indexOf(itemIds[i]);
+      Assert.assertEquals(expected[i],distribution.getExpectedQuantity(index),1e-9);
+    }
+  }
+
+  /**
+   * Test independent rolls of the same item in a trophy list.
+   */
+  public void testIndependentRolls()
+  {
+    LootDistribution distribution=new LootDistributionEngine().getDistribution(_twice);
+    checkItem(distribution,4,1.0,0.75);
+    // Quantity distribution: none, once or twice
+    double[] quantities=distribution.getQuantityProbabilities(distribution.indexOf(4));
+    Assert.assertEquals(3,quantities.length);
+    Assert.assertEquals(0.25,quantities[0],1e-9);
+    Assert.assertEquals(0.5,quantities[1],1e-9);
+    Assert.assertEquals(0.25,quantities[2],1e-9);
+  }
+
+  /**
+   * Test the quantity distributions of a composite table.
+   */
+  public void testQuantityDistributions()
+  {
+    LootDistribution distribution=new LootDistributionEngine().getDistribution(_root);
+    double itemsTable=7.0/8/2;
+    // Item 2 always drops by 2
+    double[] quantities=distribution.getQuantityProbabilities(distribution.indexOf(2));
+    Assert.assertEquals(3,quantities.length);
+    Assert.assertEquals(1-itemsTable/4,quantities[0],1e-9);
+    Assert.assertEquals(0,quantities[1],1e-9);
+    Assert.assertEquals(itemsTable/4,quantities[2],1e-9);
+  }
+
+  /**
+   * Test that cyclic tables are rejected, and not memoized.
+   */
+  public void testCycle()
+  {
+    TreasureList list=new TreasureList(20);
+    TreasureList other=new TreasureList(21);
+    list.addEntry(new TreasureListEntry(1,other));
+    other.addEntry(new TreasureListEntry(1,list));
+    LootDistributionEngine engine=new LootDistributionEngine();
+    try
+    {
+      engine.getDistribution(list);
+      Assert.fail("Cycle not detected");
+    }
+    catch(IllegalArgumentException e)
+    {
+      // Expected
+    }
+    Assert.assertEquals(0,engine.getDistributionsCount());
+  }
+
+  private void checkItem(LootDistribution distribution, int itemId, double quantity, double probability)
+  {
+    int index=distribution.indexOf(itemId);
+    Assert.assertTrue(index>=0);
+    Assert.assertEquals(quantity,distribution.getExpectedQuantity(index),1e-9);
+    Assert.assertEquals(probability,distribution.getDropProbability(index),1e-9);
+  }
+
+  /**
+   * Test the parallel computation and the binary export.
+   * @throws IOException If a temporary file cannot be created.
+   */
+  public void testComputeAllAndExport() throws IOException
+  {
+    LootDistributionEngine engine=new LootDistributionEngine();
+    engine.setThreads(4);
+    List<LootDistribution> distributions=engine.computeAll(_lootsMgr);
+    Assert.assertEquals(6,distributions.size());
+    Assert.assertEquals(10,distributions.get(0).getTableId());
+    File file=File.createTempFile("loots",".bin");
+    file.delete();
+    file.deleteOnExit();
+    Assert.assertTrue(LootDistributionsBinaryIo.write(file,distributions));
+    List<LootDistribution> read=LootDistributionsBinaryIo.read(file);
+    Assert.assertNotNull(read);
+    Assert.assertEquals(distributions.size(),read.size());
+    for(int i=0;i<distributions.size();i++)
+    {
+      LootDistribution written=distributions.get(i);
+      LootDistribution loaded=read.get(i);
+      Assert.assertEquals(written.getTableId(),loaded.getTableId());
+      Assert.assertEquals(written.getItemsCount(),loaded.getItemsCount());
+      for(int j=0;j<written.getItemsCount();j++)
+      {
+        Assert.assertEquals(written.getItemId(j),loaded.getItemId(j));
+        Assert.assertEquals(written.getExpectedQuantity(j),loaded.getExpectedQuantity(j),1e-6);
+        Assert.assertEquals(written.getDropProbability(j),loaded.getDropProbability(j),1e-6);
+        Assert.assertEquals(written.getQuantityProbabilities(j).length,loaded.getQuantityProbabilities(j).length);
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.games.lotro.common.treasure.ItemsTable;
+import delta.games.lotro.common.treasure.ItemsTableEntry;
+import delta.games.lotro.common.treasure.LootItemsIndex;
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.common.treasure.LootsManager;
+import delta.games.lotro.common.treasure.TreasureGroupProfile;
+import delta.games.lotro.common.treasure.TreasureList;
+import delta.games.lotro.common.treasure.TreasureListEntry;
+import delta.games.lotro.common.treasure.TrophyList;
+import delta.games.lotro.common.treasure.TrophyListEntry;
+import delta.games.lotro.common.treasure.WeightedTreasureTable;
+import delta.games.lotro.common.treasure.WeightedTreasureTableEntry;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Tests for the loot items index and the loot simulator.
+ * @author DAM
+ */
+public class LootSimulatorTest extends TestCase
+{
+  private static final long ROLLS=1000000;
+
+  private LootsManager _lootsMgr;
+  private WeightedTreasureTable _root;
+
+  @Override
+  protected void setUp()
+  {
+    _lootsMgr=new LootsManager();
+    // Items table: item 1 (weight 3), item 2 (weight 1, 2x)
+    ItemsTable itemsTable=new ItemsTable(10);
+    itemsTable.addEntry(new ItemsTableEntry(3,buildItem(1),1));
+    itemsTable.addEntry(new ItemsTableEntry(1,buildItem(2),2));
+    // Treasure list: items table (weight 1), nothing (weight 1)
+    TreasureList treasureList=new TreasureList(11);
+    treasureList.addEntry(new TreasureListEntry(1,itemsTable));
+    treasureList.addEntry(new TreasureListEntry(1,null));
+    // Trophy lists
+    TrophyList trophyList1=new TrophyList(12);
+    trophyList1.addEntry(new TrophyListEntry(0.5f,treasureList));
+    trophyList1.addEntry(new TrophyListEntry(0.25f,buildItem(3),1));
+    TrophyList trophyList2=new TrophyList(13);
+    trophyList2.addEntry(new TrophyListEntry(1.0f,treasureList));
+    // Weighted treasure table
+    _root=new WeightedTreasureTable(14);
+    _root.addEntry(new WeightedTreasureTableEntry(1,trophyList1));
+    _root.addEntry(new WeightedTreasureTableEntry(3,trophyList2));
+    for(LootTable table : new LootTable[] {itemsTable,treasureList,trophyList1,trophyList2,_root})
+    {
+      _lootsMgr.getTables().add(table);
+    }
+  }
+
+  private Item buildItem(int id)
+  {
+    Item item=new Item();
+    item.setIdentifier(id);
+    return item;
+  }
+
+  /**
+   * Test the reverse index.
+   */
+  public void testItemsIndex()
+  {
+    LootItemsIndex index=new LootItemsIndex(_lootsMgr);
+    Assert.assertEquals(3,index.getItemsCount());
+    List<LootTable> tables=index.getTables(1);
+    Assert.assertEquals(5,tables.size());
+    Assert.assertEquals(10,tables.get(0).getIdentifier());
+    tables=index.getTables(3);
+    Assert.assertEquals(2,tables.size());
+    Assert.assertEquals(12,tables.get(0).getIdentifier());
+    Assert.assertEquals(14,tables.get(1).getIdentifier());
+    Assert.assertTrue(index.getTables(4).isEmpty());
+    Assert.assertTrue(index.contains(_root,2));
+    Assert.assertFalse(index.contains(_root,4));
+  }
+
+  /**
+   * Test exact and simulated drop rates.
+   */
+  public void testDropRates()
+  {
+    LootDropRates rates=LootSimulator.simulate(_root,ROLLS,42);
+    Assert.assertEquals(ROLLS,rates.getRolls());
+    Assert.assertEquals(3,rates.getItemsCount());
+    // Treasure list reached with probability 1/4*1/2+3/4=7/8, then items table with 1/2
+    double itemsTable=7.0/8/2;
+    for(int i=0;i<rates.getItemsCount();i++)
+    {
+      int itemId=rates.getItemId(i);
+      double expected;
+      if (itemId==1) expected=itemsTable*3/4;
+      else if (itemId==2) expected=itemsTable*1/4*2;
+      else expected=1.0/4*1/4;
+      Assert.assertEquals(expected,rates.getExpectedQuantity(i),1e-9);
+      Assert.assertEquals(expected,rates.getSimulatedQuantity(i),0.005);
+    }
+    Assert.assertTrue(rates.getMaxDeviation()<0.005);
+  }
+
+  /**
+   * Test a wide and deep table: no branch shall be lost.
+   */
+  public void testDeepTable()
+  {
+    ItemsTable itemsTable=new ItemsTable(100);
+    itemsTable.addEntry(new ItemsTableEntry(1,buildItem(1),1));
+    TreasureGroupProfile group=itemsTable;
+    for(int i=0;i<300;i++)
+    {
+      TreasureList treasureList=new TreasureList(101+i);
+      treasureList.addEntry(new TreasureListEntry(1,group));
+      group=treasureList;
+    }
+    TrophyList root=new TrophyList(99);
+    for(int i=0;i<20;i++)
+    {
+      root.addEntry(new TrophyListEntry(1.0f,group));
+    }
+    LootDropRates rates=LootSimulator.simulate(root,1000,42);
+    Assert.assertEquals(20,rates.getExpectedQuantity(0),1e-9);
+    Assert.assertEquals(20,rates.getSimulatedQuantity(0),1e-9);
+  }
+
+  /**
+   * Test that cyclic tables are rejected.
+   */
+  public void testCycle()
+  {
+    TreasureList list1=new TreasureList(1);
+    TreasureList list2=new TreasureList(2);
+    list1.addEntry(new TreasureListEntry(1,list2));
+    list2.addEntry(new TreasureListEntry(1,list1));
+    try
+    {
+      CompiledLootTable.compile(list1);
+      Assert.fail();
+    }
+    catch(IllegalArgumentException e)
+    {
+      // Expected
+    }
+  }
+}
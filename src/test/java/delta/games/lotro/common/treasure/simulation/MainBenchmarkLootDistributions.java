@@ -0,0 +1,54 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import delta.games.lotro.common.treasure.LootsManager;
+import delta.games.lotro.common.treasure.io.binary.LootDistributionsBinaryIo;
+
+/**
+ * Benchmark: compute the exact distributions of all the loot tables, then export them.
+ * @author DAM
+ */
+public class MainBenchmarkLootDistributions
+{
+  private void doIt() throws IOException
+  {
+    LootsManager lootsMgr=LootsManager.getInstance();
+    int nbThreads=Runtime.getRuntime().availableProcessors();
+    run(lootsMgr,1);
+    run(lootsMgr,nbThreads);
+  }
+
+  private void run(LootsManager lootsMgr, int nbThreads) throws IOException
+  {
+    LootDistributionEngine engine=new LootDistributionEngine();
+    engine.setThreads(nbThreads);
+    long start=System.currentTimeMillis();
+    List<LootDistribution> distributions=engine.computeAll(lootsMgr);
+    long duration=System.currentTimeMillis()-start;
+    long entries=0;
+    for(LootDistribution distribution : distributions)
+    {
+      entries+=distribution.getItemsCount();
+    }
+    System.out.println(nbThreads+" thread(s): "+distributions.size()+" tables, "+entries+" item entries in "+duration+"ms");
+    File file=File.createTempFile("loots",".bin");
+    file.deleteOnExit();
+    start=System.currentTimeMillis();
+    LootDistributionsBinaryIo.write(file,distributions);
+    duration=System.currentTimeMillis()-start;
+    System.out.println("Export: "+file.length()+" bytes in "+duration+"ms");
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   * @throws IOException If a temporary file cannot be created.
+   */
+  public static void main(String[] args) throws IOException
+  {
+    new MainBenchmarkLootDistributions().doIt();
+  }
+}
@@ -0,0 +1,51 @@
+package delta.games.lotro.common.treasure.simulation;
+
+import java.util.List;
+
+import delta.games.lotro.common.treasure.LootItemsIndex;
+import delta.games.lotro.common.treasure.LootTable;
+import delta.games.lotro.common.treasure.LootsManager;
+
+/**
+ * Benchmark: build the loot items index, then simulate rolls of the instance and mob loot tables.
+ * @author DAM
+ */
+public class MainBenchmarkLootSimulation
+{
+  private static final long ROLLS=1000000;
+
+  private void doIt()
+  {
+    LootsManager lootsMgr=LootsManager.getInstance();
+    long start=System.currentTimeMillis();
+    LootItemsIndex index=new LootItemsIndex(lootsMgr);
+    System.out.println("Items index: "+index.getItemsCount()+" items in "+(System.currentTimeMillis()-start)+"ms");
+    LootSimulator simulator=new LootSimulator();
+    simulator.setSeed(1);
+    simulate(simulator,"Instances",LootSimulator.getInstanceLootTables());
+    simulate(simulator,"Mobs",LootSimulator.getMobLootTables());
+  }
+
+  private void simulate(LootSimulator simulator, String label, List<LootTable> tables)
+  {
+    long start=System.currentTimeMillis();
+    List<LootDropRates> results=simulator.simulate(tables,ROLLS);
+    long duration=Math.max(1,System.currentTimeMillis()-start);
+    double maxDeviation=0;
+    for(LootDropRates rates : results)
+    {
+      maxDeviation=Math.max(maxDeviation,rates.getMaxDeviation());
+    }
+    long totalRolls=ROLLS*results.size();
+    System.out.println(label+": "+results.size()+" tables, "+totalRolls+" rolls in "+duration+"ms ("+(totalRolls*1000/duration)+" rolls/s), max deviation="+maxDeviation);
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkLootSimulation().doIt();
+  }
+}
@@ -0,0 +1,118 @@
+package delta.games.lotro.common.utils;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.deeds.io.xml.DeedsSaxParser;
+import delta.games.lotro.lore.items.io.xml.ItemSaxParser;
+import delta.games.lotro.lore.quests.io.xml.QuestsSaxParser;
+
+/**
+ * Benchmark: compare the retained heap of a full load of items, quests and deeds,
+ * with and without load-time interning.
+ * @author DAM
+ */
+public class MainBenchmarkLoreInterning
+{
+  private static final int RUNS=3;
+
+  private File _itemsFile;
+  private File _questsFile;
+  private File _deedsFile;
+
+  private MainBenchmarkLoreInterning()
+  {
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    _itemsFile=cfg.getFile(DataFiles.ITEMS);
+    _questsFile=cfg.getFile(DataFiles.QUESTS);
+    _deedsFile=cfg.getFile(DataFiles.DEEDS);
+  }
+
+  private void doIt()
+  {
+    // Warm-up: loads the dependencies (enums, stats, progressions, items...)
+    load();
+    for(int i=0;i<RUNS;i++)
+    {
+      long without=measure(false);
+      long estimatedBefore=LoreInterners.getSavedBytes();
+      long with=measure(true);
+      long estimated=LoreInterners.getSavedBytes()-estimatedBefore;
+      System.out.println("Run #"+i+": saved="+((without-with)/1024)+"kB, estimated="+(estimated/1024)+"kB");
+    }
+    System.out.println(LoreInterners.dump());
+  }
+
+  private long measure(boolean interning)
+  {
+    LoreInterners.clear();
+    LoreInterners.setEnabled(interning);
+    long usedBefore=getUsedHeap();
+    resetPeaks();
+    long start=System.nanoTime();
+    List<Object> data=load();
+    long duration=(System.nanoTime()-start)/1000000;
+    long peak=getPeakHeap();
+    long retained=getUsedHeap()-usedBefore;
+    System.out.println("Interning="+interning+": "+data.size()+" elements in "+duration+"ms, peak heap="+(peak/(1024*1024))+"MB, retained="+(retained/1024)+"kB");
+    return retained;
+  }
+
+  private List<Object> load()
+  {
+    List<Object> ret=new ArrayList<Object>();
+    ret.addAll(ItemSaxParser.parseItemsFile(_itemsFile));
+    ret.addAll(QuestsSaxParser.parseQuestsFile(_questsFile));
+    ret.addAll(DeedsSaxParser.parseDeedsFile(_deedsFile));
+    return ret;
+  }
+
+  private long getUsedHeap()
+  {
+    Runtime runtime=Runtime.getRuntime();
+    for(int i=0;i<3;i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+
+  private void resetPeaks()
+  {
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private long getPeakHeap()
+  {
+    long ret=0;
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        ret+=pool.getPeakUsage().getUsed();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkLoreInterning().doIt();
+  }
+}
@@ -0,0 +1,116 @@
+package delta.games.lotro.lore.crafting.recipes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.games.lotro.lore.crafting.Profession;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Tests for the frozen recipes index.
+ * @author DAM
+ */
+public class RecipesIndexTest extends TestCase
+{
+  private Profession _profession;
+  private RecipesIndex _index;
+
+  @Override
+  protected void setUp()
+  {
+    _profession=new Profession();
+    _profession.setIdentifier(1);
+    List<Recipe> recipes=new ArrayList<Recipe>();
+    // Tier 2, then tier 1
+    recipes.add(buildRecipe(10,"Sword",2,100,new int[] {200,201},300));
+    recipes.add(buildRecipe(11,"Axe",1,101,new int[] {200},0));
+    recipes.add(buildRecipe(12,"Bow",1,102,new int[] {202,202},0));
+    _index=new RecipesIndex(recipes);
+  }
+
+  private Recipe buildRecipe(int id, String name, int tier, int resultId, int[] ingredientIds, int scrollId)
+  {
+    Recipe recipe=new Recipe();
+    recipe.setIdentifier(id);
+    recipe.setName(name);
+    recipe.setTier(tier);
+    recipe.setProfession(_profession);
+    RecipeVersion version=new RecipeVersion();
+    CraftingResult regular=new CraftingResult();
+    regular.setItem(buildItem(resultId));
+    regular.setQuantity(1);
+    version.setRegular(regular);
+    for(int ingredientId : ingredientIds)
+    {
+      Ingredient ingredient=new Ingredient();
+      ingredient.setItem(buildItem(ingredientId));
+      ingredient.setQuantity(1);
+      version.getIngredients().add(ingredient);
+    }
+    recipe.getVersions().add(version);
+    if (scrollId!=0)
+    {
+      recipe.setRecipeScroll(buildItem(scrollId));
+    }
+    return recipe;
+  }
+
+  private Item buildItem(int id)
+  {
+    Item item=new Item();
+    item.setIdentifier(id);
+    return item;
+  }
+
+  /**
+   * Test the profession/tier index.
+   */
+  public void testProfessionAndTiers()
+  {
+    List<Integer> tiers=_index.getTiers(1);
+    Assert.assertEquals(2,tiers.size());
+    Assert.assertEquals(1,tiers.get(0).intValue());
+    Assert.assertEquals(2,tiers.get(1).intValue());
+    List<Recipe> tier1=_index.getRecipes(1,1);
+    Assert.assertEquals(2,tier1.size());
+    Assert.assertEquals("Axe",tier1.get(0).getName());
+    Assert.assertEquals("Bow",tier1.get(1).getName());
+    // Shared, frozen lists
+    Assert.assertSame(tier1,_index.getRecipes(1,1));
+    try
+    {
+      tier1.clear();
+      Assert.fail();
+    }
+    catch(UnsupportedOperationException uoe)
+    {
+      // Expected
+    }
+    Assert.assertEquals(3,_index.getRecipes(1).size());
+    Assert.assertEquals("Sword",_index.getRecipes(1).get(2).getName());
+    Assert.assertTrue(_index.getRecipes(1,3).isEmpty());
+    Assert.assertTrue(_index.getTiers(2).isEmpty());
+  }
+
+  /**
+   * Test the item indexes.
+   */
+  public void testItems()
+  {
+    List<Recipe> producing100=_index.getResultsIndex().getRecipes(100);
+    Assert.assertEquals(10,producing100.get(0).getIdentifier());
+    // Frozen: no allocation on lookup
+    Assert.assertSame(producing100,_index.getResultsIndex().getRecipes(100));
+    List<Recipe> using200=_index.getRecipesUsingIngredient(200);
+    Assert.assertEquals(2,using200.size());
+    Assert.assertEquals(10,using200.get(0).getIdentifier());
+    Assert.assertEquals(11,using200.get(1).getIdentifier());
+    Assert.assertEquals(1,_index.getRecipesUsingIngredient(202).size());
+    Assert.assertTrue(_index.getRecipesUsingIngredient(100).isEmpty());
+    Assert.assertEquals(10,_index.getRecipesForScroll(300).get(0).getIdentifier());
+    Assert.assertTrue(_index.getRecipesForScroll(301).isEmpty());
+  }
+}
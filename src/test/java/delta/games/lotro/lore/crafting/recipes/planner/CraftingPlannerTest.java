@@ -0,0 +1,204 @@
+package delta.games.lotro.lore.crafting.recipes.planner;
+
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.games.lotro.lore.crafting.Profession;
+import delta.games.lotro.lore.crafting.recipes.CraftingResult;
+import delta.games.lotro.lore.crafting.recipes.Ingredient;
+import delta.games.lotro.lore.crafting.recipes.IngredientPack;
+import delta.games.lotro.lore.crafting.recipes.Recipe;
+import delta.games.lotro.lore.crafting.recipes.RecipeVersion;
+import delta.games.lotro.lore.crafting.recipes.RecipesManager;
+import delta.games.lotro.lore.items.Item;
+
+/**
+ * Tests for the crafting planner.
+ * @author DAM
+ */
+public class CraftingPlannerTest extends TestCase
+{
+  private static final int ORE=1;
+  private static final int INGOT=2;
+  private static final int SWORD=3;
+  private static final int LEATHER=4;
+  private static final int SHIELD=6;
+  private static final int PACK=7;
+
+  private RecipesManager _recipesMgr;
+  private Profession _profession;
+
+  @Override
+  protected void setUp()
+  {
+    _recipesMgr=new RecipesManager(false);
+    _profession=new Profession();
+    _profession.setIdentifier(1);
+    // Ingot: 2 ore, 50% critical chance for 2 ingots
+    RecipeVersion ingot=buildVersion(INGOT,1);
+    CraftingResult critical=new CraftingResult();
+    critical.setItem(buildItem(INGOT));
+    critical.setQuantity(2);
+    critical.setCriticalResult(true);
+    ingot.setCritical(critical);
+    ingot.setBaseCriticalChance(Integer.valueOf(50));
+    addIngredient(ingot,ORE,2);
+    _recipesMgr.registerRecipe(buildRecipe(100,ingot));
+    // Sword: 3 ingots, 1 leather
+    RecipeVersion sword=buildVersion(SWORD,1);
+    addIngredient(sword,INGOT,3);
+    addIngredient(sword,LEATHER,1);
+    _recipesMgr.registerRecipe(buildRecipe(101,sword));
+    // Shield: 2 ingots, or a pack for 5 shields
+    RecipeVersion shield=buildVersion(SHIELD,1);
+    addIngredient(shield,INGOT,2);
+    Recipe shieldRecipe=buildRecipe(102,shield);
+    shieldRecipe.setIngredientPack(new IngredientPack(buildItem(PACK),5));
+    _recipesMgr.registerRecipe(shieldRecipe);
+    // Cycle: 8 from 9, 9 from 8
+    RecipeVersion cycle1=buildVersion(8,1);
+    addIngredient(cycle1,9,1);
+    _recipesMgr.registerRecipe(buildRecipe(103,cycle1));
+    RecipeVersion cycle2=buildVersion(9,1);
+    addIngredient(cycle2,8,1);
+    _recipesMgr.registerRecipe(buildRecipe(104,cycle2));
+  }
+
+  private Item buildItem(int id)
+  {
+    Item item=new Item();
+    item.setIdentifier(id);
+    return item;
+  }
+
+  private RecipeVersion buildVersion(int itemId, int quantity)
+  {
+    RecipeVersion version=new RecipeVersion();
+    CraftingResult regular=new CraftingResult();
+    regular.setItem(buildItem(itemId));
+    regular.setQuantity(quantity);
+    version.setRegular(regular);
+    return version;
+  }
+
+  private void addIngredient(RecipeVersion version, int itemId, int quantity)
+  {
+    Ingredient ingredient=new Ingredient();
+    ingredient.setItem(buildItem(itemId));
+    ingredient.setQuantity(quantity);
+    version.getIngredients().add(ingredient);
+  }
+
+  private Recipe buildRecipe(int id, RecipeVersion version)
+  {
+    Recipe recipe=new Recipe();
+    recipe.setIdentifier(id);
+    recipe.setProfession(_profession);
+    recipe.getVersions().add(version);
+    return recipe;
+  }
+
+  /**
+   * Test the results index.
+   */
+  public void testResultsIndex()
+  {
+    Assert.assertEquals(5,_recipesMgr.getResultsIndex().getItemsCount());
+    Assert.assertTrue(_recipesMgr.getResultsIndex().isCraftable(INGOT));
+    Assert.assertFalse(_recipesMgr.getResultsIndex().isCraftable(ORE));
+    Assert.assertEquals(100,_recipesMgr.getResultsIndex().getRecipes(INGOT).get(0).getIdentifier());
+  }
+
+  /**
+   * Test a plan with critical results.
+   */
+  public void testPlanWithCriticals()
+  {
+    CraftingPlanner planner=new CraftingPlanner(_recipesMgr);
+    CraftingPlan plan=planner.plan(SWORD,3);
+    // 9 ingots, 1.5 ingots per craft
+    Assert.assertEquals(3.0,plan.getCraftCountForRecipe(101),1e-9);
+    Assert.assertEquals(6.0,plan.getCraftCountForRecipe(100),1e-9);
+    Assert.assertEquals(12.0,plan.getMaterialQuantityForItem(ORE),1e-9);
+    Assert.assertEquals(3.0,plan.getMaterialQuantityForItem(LEATHER),1e-9);
+    Assert.assertEquals(2,plan.getMaterialsCount());
+    Assert.assertEquals(4,planner.getMemoizedPlansCount());
+    // Without critical results
+    planner=new CraftingPlanner(_recipesMgr,false,false,false);
+    plan=planner.plan(SWORD,3);
+    Assert.assertEquals(9.0,plan.getCraftCountForRecipe(100),1e-9);
+    Assert.assertEquals(18.0,plan.getMaterialQuantityForItem(ORE),1e-9);
+  }
+
+  /**
+   * Test ingredient packs.
+   */
+  public void testIngredientPacks()
+  {
+    CraftingPlanner planner=new CraftingPlanner(_recipesMgr,false,false,false);
+    CraftingPlan plan=planner.plan(SHIELD,5);
+    Assert.assertEquals(20.0,plan.getMaterialQuantityForItem(ORE),1e-9);
+    planner=new CraftingPlanner(_recipesMgr,false,false,true);
+    plan=planner.plan(SHIELD,5);
+    Assert.assertEquals(1,plan.getMaterialsCount());
+    Assert.assertEquals(1.0,plan.getMaterialQuantityForItem(PACK),1e-9);
+    Assert.assertEquals(5.0,plan.getCraftCountForRecipe(102),1e-9);
+  }
+
+  /**
+   * Test parallel planning, merging and cycles.
+   */
+  public void testPlanAll()
+  {
+    CraftingPlanner planner=new CraftingPlanner(_recipesMgr);
+    planner.setThreads(3);
+    List<CraftingPlan> plans=planner.planAll(new int[] {SWORD,SHIELD,8,ORE},new int[] {3,3,1,4});
+    Assert.assertEquals(4,plans.size());
+    Assert.assertEquals(SHIELD,plans.get(1).getItemId());
+    Assert.assertEquals(1.0,plans.get(2).getMaterialQuantityForItem(8),1e-9);
+    Assert.assertEquals(4.0,plans.get(3).getMaterialQuantityForItem(ORE),1e-9);
+    CraftingPlan total=CraftingPlan.merge(plans);
+    // Ore: 12 (swords) + 8 (shields) + 4
+    Assert.assertEquals(24.0,total.getMaterialQuantityForItem(ORE),1e-9);
+    Assert.assertEquals(10.0,total.getCraftCountForRecipe(100),1e-9);
+  }
+
+  /**
+   * Test that the plans of items in a cycle do not depend on the planning order.
+   */
+  public void testCycles()
+  {
+    CraftingPlanner planner=new CraftingPlanner(_recipesMgr);
+    CraftingPlan plan8=planner.plan(8,1);
+    CraftingPlan plan9=planner.plan(9,1);
+    Assert.assertEquals(1.0,plan8.getMaterialQuantityForItem(8),1e-9);
+    Assert.assertEquals(1.0,plan9.getMaterialQuantityForItem(9),1e-9);
+    Assert.assertEquals(0.0,plan9.getMaterialQuantityForItem(8),1e-9);
+    Assert.assertEquals(0,planner.getMemoizedPlansCount());
+    // An item made from an item of the cycle is memoized
+    RecipeVersion version=buildVersion(10,1);
+    addIngredient(version,9,2);
+    _recipesMgr.registerRecipe(buildRecipe(105,version));
+    CraftingPlan plan10=planner.plan(10,1);
+    Assert.assertEquals(2.0,plan10.getMaterialQuantityForItem(9),1e-9);
+    Assert.assertEquals(1,planner.getMemoizedPlansCount());
+  }
+
+  /**
+   * Test that memoized plans are dropped when recipes change.
+   */
+  public void testRecipesChange()
+  {
+    CraftingPlanner planner=new CraftingPlanner(_recipesMgr,false,false,false);
+    Assert.assertEquals(6.0,planner.plan(INGOT,3).getMaterialQuantityForItem(ORE),1e-9);
+    Assert.assertEquals(2,planner.getMemoizedPlansCount());
+    // Better recipe for ingots: 2 ingots from 1 ore
+    RecipeVersion version=buildVersion(INGOT,2);
+    addIngredient(version,ORE,1);
+    _recipesMgr.registerRecipe(buildRecipe(99,version));
+    Assert.assertEquals(0,planner.getMemoizedPlansCount());
+    Assert.assertEquals(1.5,planner.plan(INGOT,3).getMaterialQuantityForItem(ORE),1e-9);
+  }
+}
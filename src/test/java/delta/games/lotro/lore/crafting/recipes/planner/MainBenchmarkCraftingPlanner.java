@@ -0,0 +1,49 @@
+package delta.games.lotro.lore.crafting.recipes.planner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import delta.games.lotro.lore.crafting.recipes.RecipesManager;
+
+/**
+ * Benchmark: plan the crafting of every craftable item.
+ * @author DAM
+ */
+public class MainBenchmarkCraftingPlanner
+{
+  private static final int QUANTITY=10;
+
+  private void doIt()
+  {
+    RecipesManager recipesMgr=RecipesManager.getInstance();
+    long start=System.currentTimeMillis();
+    int[] itemIds=recipesMgr.getResultsIndex().getItemIds();
+    System.out.println("Results index: "+itemIds.length+" items in "+(System.currentTimeMillis()-start)+"ms");
+    int[] quantities=new int[itemIds.length];
+    Arrays.fill(quantities,QUANTITY);
+    int nbThreads=Runtime.getRuntime().availableProcessors();
+    run(new CraftingPlanner(recipesMgr),1,itemIds,quantities,"cold");
+    CraftingPlanner planner=new CraftingPlanner(recipesMgr);
+    run(planner,nbThreads,itemIds,quantities,"cold");
+    run(planner,nbThreads,itemIds,quantities,"memoized");
+  }
+
+  private void run(CraftingPlanner planner, int nbThreads, int[] itemIds, int[] quantities, String label)
+  {
+    planner.setThreads(nbThreads);
+    long start=System.currentTimeMillis();
+    List<CraftingPlan> plans=planner.planAll(itemIds,quantities);
+    long duration=Math.max(1,System.currentTimeMillis()-start);
+    CraftingPlan total=CraftingPlan.merge(plans);
+    System.out.println(nbThreads+" thread(s), "+label+": "+plans.size()+" targets in "+duration+"ms ("+(plans.size()*1000L/duration)+" targets/s), "+total.getMaterialsCount()+" raw materials, "+total.getCraftsCount()+" recipes");
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkCraftingPlanner().doIt();
+  }
+}
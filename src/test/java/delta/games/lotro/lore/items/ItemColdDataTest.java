@@ -0,0 +1,98 @@
+package delta.games.lotro.lore.items;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.games.lotro.common.Identifiable;
+import delta.games.lotro.lore.items.details.GrantType;
+import delta.games.lotro.lore.items.details.GrantedElement;
+import delta.games.lotro.lore.items.scaling.Munging;
+
+/**
+ * Tests for the compact storage of item data.
+ * @author DAM
+ */
+public class ItemColdDataTest extends TestCase
+{
+  /**
+   * Test optional integer properties.
+   */
+  public void testOptionalIntegers()
+  {
+    Item item=new Item();
+    Assert.assertNull(item.getTier());
+    Assert.assertNull(item.getItemLevel());
+    Assert.assertNull(item.getItemLevelForStats());
+    item.setTier(Integer.valueOf(3));
+    item.setItemLevelOffset(Integer.valueOf(-2));
+    Assert.assertEquals(Integer.valueOf(3),item.getTier());
+    Assert.assertEquals(Integer.valueOf(-2),item.getItemLevelForStats());
+    item.setItemLevel(Integer.valueOf(500));
+    Assert.assertEquals(Integer.valueOf(498),item.getItemLevelForStats());
+    item.setTier(null);
+    Assert.assertNull(item.getTier());
+  }
+
+  /**
+   * Test detached cold data.
+   */
+  public void testDetachedColdData()
+  {
+    Item item=new Item();
+    item.setIdentifier(12);
+    Assert.assertEquals("",item.getDescription());
+    Assert.assertNull(item.detachColdData());
+    item.setDescription("A sword");
+    final ItemColdData coldData=item.detachColdData();
+    Assert.assertNotNull(coldData);
+    Assert.assertEquals("",item.getDescription());
+    item.setDescription("A sword");
+    DetachedItemColdData detached=new DetachedItemColdData(new ItemColdDataSource()
+    {
+      @Override
+      public ItemColdData getColdData(int itemId)
+      {
+        return (itemId==12)?coldData:null;
+      }
+    });
+    Assert.assertTrue(item.detachColdData(detached));
+    Assert.assertEquals("A sword",item.getDescription());
+    Assert.assertFalse(item.isScalable());
+    Munging munging=new Munging(Integer.valueOf(1),Integer.valueOf(2),null);
+    item.setMunging(munging);
+    Assert.assertSame(munging,coldData.getMunging());
+    Assert.assertTrue(item.isScalable());
+  }
+
+  /**
+   * Test the granted elements of detached items.
+   */
+  public void testDetachedGrantedElements()
+  {
+    Item item=new Item();
+    item.setIdentifier(12);
+    Assert.assertTrue(item.getGrantedElements().isEmpty());
+    Identifiable trait=new Identifiable()
+    {
+      @Override
+      public int getIdentifier()
+      {
+        return 1234;
+      }
+    };
+    Item.addDetail(item,new GrantedElement<Identifiable>(GrantType.TRAIT,trait));
+    Assert.assertEquals(1,item.getGrantedElements().size());
+    // Cold data is not available: granted elements are kept in memory
+    DetachedItemColdData detached=new DetachedItemColdData(new ItemColdDataSource()
+    {
+      @Override
+      public ItemColdData getColdData(int itemId)
+      {
+        throw new IllegalStateException("Unexpected cold data access");
+      }
+    });
+    Assert.assertTrue(item.detachColdData(detached));
+    Assert.assertEquals(1,item.getGrantedElements().size());
+    Assert.assertSame(trait,item.getGrantedElements().get(0).getGrantedElement());
+  }
+}
@@ -0,0 +1,83 @@
+package delta.games.lotro.lore.items;
+
+import java.io.File;
+import java.util.List;
+
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.items.io.xml.ItemSaxParser;
+
+/**
+ * Benchmark: heap footprint of the full items set, with the rarely used data
+ * kept in items or detached to the cold data table.
+ * @author DAM
+ */
+public class MainBenchmarkItemsFootprint
+{
+  private static final int RUNS=3;
+
+  private File _itemsFile;
+
+  private MainBenchmarkItemsFootprint()
+  {
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    _itemsFile=cfg.getFile(DataFiles.ITEMS);
+  }
+
+  private void doIt()
+  {
+    // Warm-up: loads the dependencies (enums, stats, progressions...)
+    List<Item> items=ItemSaxParser.parseItemsFile(_itemsFile);
+    System.out.println("Items: "+items.size());
+    items=null;
+    for(int i=0;i<RUNS;i++)
+    {
+      long full=measure(false);
+      long compact=measure(true);
+      System.out.println("Run #"+i+": saved="+((full-compact)/1024)+"kB");
+    }
+    // Cold data access
+    ItemsColdDataTable table=new ItemsColdDataTable(_itemsFile);
+    items=ItemSaxParser.parseItemsFile(_itemsFile,table);
+    long start=System.currentTimeMillis();
+    items.get(0).getDescription();
+    System.out.println("First cold data access (index build) in "+(System.currentTimeMillis()-start)+"ms");
+    start=System.nanoTime();
+    for(Item item : items)
+    {
+      item.getDetails();
+    }
+    System.out.println("Cold data read for "+items.size()+" items in "+((System.nanoTime()-start)/1000000)+"ms");
+  }
+
+  private long measure(boolean detachColdData)
+  {
+    long usedBefore=getUsedHeap();
+    long start=System.nanoTime();
+    ItemsColdDataTable table=detachColdData?new ItemsColdDataTable(_itemsFile):null;
+    List<Item> items=ItemSaxParser.parseItemsFile(_itemsFile,table);
+    long duration=(System.nanoTime()-start)/1000000;
+    long retained=getUsedHeap()-usedBefore;
+    System.out.println("Detached cold data="+detachColdData+": "+items.size()+" items in "+duration+"ms, retained="+(retained/1024)+"kB ("+(retained/items.size())+" bytes/item)");
+    return retained;
+  }
+
+  private long getUsedHeap()
+  {
+    Runtime runtime=Runtime.getRuntime();
+    for(int i=0;i<3;i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkItemsFootprint().doIt();
+  }
+}
@@ -0,0 +1,163 @@
+package delta.games.lotro.lore.items.filters.engine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import delta.common.utils.collections.filters.CompoundFilter;
+import delta.common.utils.collections.filters.Filter;
+import delta.common.utils.collections.filters.Operator;
+import delta.games.lotro.character.classes.ClassDescription;
+import delta.games.lotro.common.enums.ItemClass;
+import delta.games.lotro.common.stats.StatDescription;
+import delta.games.lotro.lore.items.EquipmentLocation;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemQuality;
+import delta.games.lotro.lore.items.filters.ItemClassFilter;
+import delta.games.lotro.lore.items.filters.ItemEquipmentLocationFilter;
+import delta.games.lotro.lore.items.filters.ItemLevelFilter;
+import delta.games.lotro.lore.items.filters.ItemNameFilter;
+import delta.games.lotro.lore.items.filters.ItemQualityFilter;
+import delta.games.lotro.lore.items.filters.ItemRequiredClassFilter;
+import delta.games.lotro.lore.items.filters.ItemStatFilter;
+import delta.games.lotro.lore.items.filters.TierFilter;
+
+/**
+ * Tests for the item filter engine: compiled plans must select the same items as linear filtering.
+ * @author DAM
+ */
+public class ItemFilterEngineTest extends TestCase
+{
+  private static final String[] NAMES={"Sword of Fire","Shield","Fire Helm","Boots","Gloves of the Sword"};
+
+  private EquipmentLocation[] _locations;
+  private ItemClass[] _classes;
+  private ItemQuality[] _qualities;
+  private StatDescription[] _stats;
+  private ClassDescription[] _characterClasses;
+  private List<Item> _items;
+  private ItemFilterEngine _engine;
+
+  @Override
+  protected void setUp()
+  {
+    _locations=new EquipmentLocation[] {new EquipmentLocation(),new EquipmentLocation(),null};
+    _classes=new ItemClass[] {new ItemClass(),new ItemClass()};
+    _qualities=new ItemQuality[] {new ItemQuality(),new ItemQuality(),new ItemQuality()};
+    _stats=new StatDescription[] {new StatDescription(),new StatDescription()};
+    _characterClasses=new ClassDescription[] {new ClassDescription(1,1,"A"),new ClassDescription(2,2,"B")};
+    Random random=new Random(1);
+    _items=new ArrayList<Item>();
+    for(int i=0;i<500;i++)
+    {
+      Item item=new Item();
+      item.setIdentifier(i+1);
+      String name=NAMES[random.nextInt(NAMES.length)]+" "+i;
+      // Some items have no name
+      item.setName(((i%50)!=7)?name:null);
+      item.setEquipmentLocation(_locations[random.nextInt(_locations.length)]);
+      item.setItemClass(_classes[random.nextInt(_classes.length)]);
+      item.setQuality(_qualities[random.nextInt(_qualities.length)]);
+      int tier=random.nextInt(4);
+      item.setTier((tier>0)?Integer.valueOf(tier):null);
+      int level=random.nextInt(60);
+      item.setItemLevel((level>0)?Integer.valueOf(level):null);
+      for(StatDescription stat : _stats)
+      {
+        if (random.nextBoolean())
+        {
+          item.getStats().setStat(stat,10);
+        }
+      }
+      int classIndex=random.nextInt(_characterClasses.length+1);
+      if (classIndex<_characterClasses.length)
+      {
+        item.getUsageRequirements().addAllowedClass(_characterClasses[classIndex]);
+      }
+      _items.add(item);
+    }
+    _engine=new ItemFilterEngine(_items);
+  }
+
+  private void check(Filter<Item> filter)
+  {
+    List<Item> expected=new ArrayList<Item>();
+    for(Item item : _items)
+    {
+      if (filter.accept(item))
+      {
+        expected.add(item);
+      }
+    }
+    ItemFilterPlan plan=_engine.compile(filter);
+    List<Item> selected=plan.execute();
+    Assert.assertEquals(plan.describe(),expected,selected);
+    Assert.assertEquals(expected.size(),plan.count());
+  }
+
+  /**
+   * Test single filters.
+   */
+  public void testSingleFilters()
+  {
+    Set<EquipmentLocation> locations=new HashSet<EquipmentLocation>();
+    locations.add(_locations[0]);
+    locations.add(null);
+    check(new ItemEquipmentLocationFilter(locations));
+    check(new ItemClassFilter(_classes[1]));
+    check(new ItemClassFilter(null));
+    check(new ItemQualityFilter(_qualities[2]));
+    TierFilter tierFilter=new TierFilter();
+    check(tierFilter);
+    tierFilter.setTier(Integer.valueOf(2));
+    check(tierFilter);
+    ItemLevelFilter levelFilter=new ItemLevelFilter();
+    levelFilter.setRange(Integer.valueOf(10),Integer.valueOf(20));
+    check(levelFilter);
+    levelFilter.setRange(null,Integer.valueOf(5));
+    check(levelFilter);
+    ItemStatFilter statFilter=new ItemStatFilter(3);
+    statFilter.setStat(0,_stats[0]);
+    statFilter.setStat(2,_stats[1]);
+    check(statFilter);
+    check(new ItemRequiredClassFilter(_characterClasses[0],true));
+    check(new ItemRequiredClassFilter(_characterClasses[1],false));
+    check(new ItemNameFilter("sword"));
+    check(new ItemNameFilter(""));
+  }
+
+  /**
+   * Test compound filters, with a predicate fallback.
+   */
+  public void testCompoundFilters()
+  {
+    List<Filter<Item>> andFilters=new ArrayList<Filter<Item>>();
+    andFilters.add(new ItemNameFilter("fire"));
+    andFilters.add(new ItemQualityFilter(_qualities[0]));
+    ItemLevelFilter levelFilter=new ItemLevelFilter();
+    levelFilter.setRange(Integer.valueOf(5),Integer.valueOf(40));
+    andFilters.add(levelFilter);
+    // Not indexed: evaluated as a predicate
+    andFilters.add(new Filter<Item>()
+    {
+      @Override
+      public boolean accept(Item item)
+      {
+        return (item.getIdentifier()%3)!=0;
+      }
+    });
+    CompoundFilter<Item> and=new CompoundFilter<Item>(Operator.AND,andFilters);
+    check(and);
+    List<Filter<Item>> orFilters=new ArrayList<Filter<Item>>();
+    orFilters.add(and);
+    orFilters.add(new ItemClassFilter(_classes[0]));
+    orFilters.add(new ItemNameFilter("boots"));
+    check(new CompoundFilter<Item>(Operator.OR,orFilters));
+    check(new CompoundFilter<Item>(Operator.AND,new ArrayList<Filter<Item>>()));
+  }
+}
@@ -0,0 +1,105 @@
+package delta.games.lotro.lore.items.filters.engine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import delta.common.utils.collections.filters.CompoundFilter;
+import delta.common.utils.collections.filters.Filter;
+import delta.common.utils.collections.filters.Operator;
+import delta.games.lotro.lore.items.EquipmentLocation;
+import delta.games.lotro.lore.items.EquipmentLocations;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemQualities;
+import delta.games.lotro.lore.items.ItemsManager;
+import delta.games.lotro.lore.items.filters.ItemEquipmentLocationFilter;
+import delta.games.lotro.lore.items.filters.ItemLevelFilter;
+import delta.games.lotro.lore.items.filters.ItemNameFilter;
+import delta.games.lotro.lore.items.filters.ItemQualityFilter;
+
+/**
+ * Benchmark: compiled item filters versus linear filtering.
+ * @author DAM
+ */
+public class MainBenchmarkItemFilterEngine
+{
+  private static final int ITERATIONS=100;
+
+  private void doIt()
+  {
+    List<Item> items=ItemsManager.getInstance().getAllItems();
+    long start=System.currentTimeMillis();
+    ItemFilterEngine engine=new ItemFilterEngine(items);
+    System.out.println("Index: "+items.size()+" items in "+(System.currentTimeMillis()-start)+"ms");
+    run(engine,items,buildQualityFilter(),"quality");
+    run(engine,items,buildArmourFilter(),"armour");
+    run(engine,items,buildNameFilter(),"armour+name");
+  }
+
+  private Filter<Item> buildQualityFilter()
+  {
+    return new ItemQualityFilter(ItemQualities.INCOMPARABLE);
+  }
+
+  private CompoundFilter<Item> buildArmourFilter()
+  {
+    Set<EquipmentLocation> locations=new HashSet<EquipmentLocation>();
+    locations.add(EquipmentLocations.HEAD);
+    locations.add(EquipmentLocations.CHEST);
+    ItemLevelFilter levelFilter=new ItemLevelFilter();
+    levelFilter.setRange(Integer.valueOf(100),Integer.valueOf(500));
+    List<Filter<Item>> filters=new ArrayList<Filter<Item>>();
+    filters.add(new ItemEquipmentLocationFilter(locations));
+    filters.add(new ItemQualityFilter(ItemQualities.RARE));
+    filters.add(levelFilter);
+    return new CompoundFilter<Item>(Operator.AND,filters);
+  }
+
+  private Filter<Item> buildNameFilter()
+  {
+    List<Filter<Item>> filters=new ArrayList<Filter<Item>>();
+    filters.add(new ItemNameFilter("sword"));
+    filters.add(buildArmourFilter());
+    return new CompoundFilter<Item>(Operator.AND,filters);
+  }
+
+  private void run(ItemFilterEngine engine, List<Item> items, Filter<Item> filter, String label)
+  {
+    ItemFilterPlan plan=engine.compile(filter);
+    // Linear filtering
+    int linearCount=0;
+    long start=System.nanoTime();
+    for(int i=0;i<ITERATIONS;i++)
+    {
+      linearCount=0;
+      for(Item item : items)
+      {
+        if (filter.accept(item))
+        {
+          linearCount++;
+        }
+      }
+    }
+    long linear=(System.nanoTime()-start)/ITERATIONS;
+    // Compiled plan
+    int planCount=0;
+    start=System.nanoTime();
+    for(int i=0;i<ITERATIONS;i++)
+    {
+      planCount=plan.execute().size();
+    }
+    long compiled=(System.nanoTime()-start)/ITERATIONS;
+    System.out.println(label+": "+plan.describe());
+    System.out.println("\tlinear: "+linearCount+" items in "+(linear/1000)+"us, plan: "+planCount+" items in "+(compiled/1000)+"us, same count: "+(linearCount==planCount));
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkItemFilterEngine().doIt();
+  }
+}
@@ -0,0 +1,105 @@
+package delta.games.lotro.lore.items.io;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.io.xml.ItemSaxParser;
+
+/**
+ * Benchmark: compare items loading from XML and from the binary snapshot.
+ * @author DAM
+ */
+public class MainBenchmarkItemsSnapshot
+{
+  private static final int RUNS=5;
+
+  private File _itemsFile;
+  private File _snapshotFile;
+
+  private MainBenchmarkItemsSnapshot() throws Exception
+  {
+    _itemsFile=LotroCoreConfig.getInstance().getFile(DataFiles.ITEMS);
+    _snapshotFile=File.createTempFile("items",".bin");
+    _snapshotFile.deleteOnExit();
+  }
+
+  private void doIt()
+  {
+    long start=System.currentTimeMillis();
+    ItemSaxParser.buildItemsSnapshot(_itemsFile,_snapshotFile);
+    System.out.println("Snapshot built in "+(System.currentTimeMillis()-start)+"ms");
+    // Warm-up: loads the dependencies (enums, stats, progressions...)
+    List<Item> items=ItemSaxParser.parseItemsFile(_itemsFile);
+    System.out.println("Items: "+items.size());
+    System.out.println("XML file size: "+_itemsFile.length()+" bytes");
+    System.out.println("Snapshot file size: "+_snapshotFile.length()+" bytes");
+    items=null;
+    for(int i=0;i<RUNS;i++)
+    {
+      measure("XML",false);
+      measure("Snapshot",true);
+    }
+  }
+
+  private void measure(String label, boolean snapshot)
+  {
+    long usedBefore=getUsedHeap();
+    resetPeaks();
+    long start=System.nanoTime();
+    List<Item> items=snapshot?ItemSaxParser.parseItemsSnapshot(_snapshotFile):ItemSaxParser.parseItemsFile(_itemsFile);
+    long duration=(System.nanoTime()-start)/1000000;
+    long peak=getPeakHeap();
+    long retained=getUsedHeap()-usedBefore;
+    System.out.println(label+": "+items.size()+" items in "+duration+"ms, peak heap="+(peak/(1024*1024))+"MB, retained="+(retained/(1024*1024))+"MB");
+  }
+
+  private long getUsedHeap()
+  {
+    Runtime runtime=Runtime.getRuntime();
+    for(int i=0;i<3;i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+
+  private void resetPeaks()
+  {
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private long getPeakHeap()
+  {
+    long ret=0;
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        ret+=pool.getPeakUsage().getUsed();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   * @throws Exception If an error occurs.
+   */
+  public static void main(String[] args) throws Exception
+  {
+    new MainBenchmarkItemsSnapshot().doIt();
+  }
+}
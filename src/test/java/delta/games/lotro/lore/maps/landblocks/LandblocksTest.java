@@ -0,0 +1,146 @@
+package delta.games.lotro.lore.maps.landblocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import delta.common.utils.math.geometry.Vector3D;
+import delta.games.lotro.lore.geo.BlockReference;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for the landblocks and their cells index.
+ * @author DAM
+ */
+public class LandblocksTest extends TestCase
+{
+  private Random _random=new Random(1234);
+
+  private Cell buildCell(int index, Integer dungeonId, float x, float y, float z)
+  {
+    Cell cell=new Cell(index,dungeonId);
+    Vector3D position=new Vector3D();
+    position.set(x,y,z);
+    cell.setPosition(position);
+    return cell;
+  }
+
+  private List<Cell> buildCells(int nbCells)
+  {
+    List<Cell> ret=new ArrayList<Cell>();
+    for(int i=0;i<nbCells;i++)
+    {
+      // Coarse coordinates, to get ties
+      float x=_random.nextInt(20)*8;
+      float y=_random.nextInt(20)*8;
+      float z=_random.nextInt(10)*4;
+      ret.add(buildCell(i+1,Integer.valueOf(1000+i),x,y,z));
+    }
+    return ret;
+  }
+
+  /**
+   * Reference implementation: scan of all cells.
+   */
+  private Cell findNearestCell(List<Cell> cells, float x, float y, float z)
+  {
+    Cell ret=null;
+    float min=Float.MAX_VALUE;
+    for(Cell cell : cells)
+    {
+      Vector3D cellPosition=cell.getPosition();
+      float dx=Math.abs(x-cellPosition.getX());
+      float dy=Math.abs(y-cellPosition.getY());
+      float dz=Math.abs(z-cellPosition.getZ());
+      float value=dx*dx+dy*dy+dz*dz;
+      if (value<min)
+      {
+        ret=cell;
+        min=value;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Test the nearest cell search.
+   */
+  public void testNearestCell()
+  {
+    int[] sizes={1,2,3,10,50,300};
+    for(int size : sizes)
+    {
+      List<Cell> cells=buildCells(size);
+      CellsIndex index=new CellsIndex(cells);
+      for(int i=0;i<2000;i++)
+      {
+        float x=_random.nextFloat()*180-10;
+        float y=_random.nextFloat()*180-10;
+        float z=(i%2==0)?_random.nextInt(10)*4:_random.nextFloat()*50-5;
+        Cell expected=findNearestCell(cells,x,y,z);
+        Assert.assertSame(expected,index.getNearestCell(x,y,z));
+      }
+    }
+    Assert.assertNull(new CellsIndex(new ArrayList<Cell>()).getNearestCell(0,0,0));
+  }
+
+  /**
+   * Test the parent zone resolution.
+   */
+  public void testParentZones()
+  {
+    LandblocksManager manager=new LandblocksManager();
+    Landblock landblock=new Landblock(new BlockReference(1,12,200));
+    landblock.setParentArea(100);
+    landblock.setCenterHeight(50);
+    for(Cell cell : buildCells(20))
+    {
+      landblock.addCell(cell);
+    }
+    manager.addLandblock(landblock);
+    Landblock landscape=new Landblock(new BlockReference(1,13,200));
+    landscape.setParentArea(200);
+    manager.addLandblock(landscape);
+
+    Assert.assertSame(landblock,manager.getLandblock(1,12,200));
+    Assert.assertNull(manager.getLandblock(2,12,200));
+    Assert.assertNull(manager.getLandblock(1,300,200));
+
+    int nbPositions=6;
+    int[] regions={1,1,1,1,1,2};
+    int[] blockXs={12,12,12,12,13,12};
+    int[] blockYs={200,200,200,200,200,200};
+    int[] cells={0,3,-1,-1,-1,0};
+    float[] xs={10,10,10,10,10,10};
+    float[] ys={10,10,10,10,10,10};
+    float[] zs={10,10,10,80,10,10};
+    int[] zones=new int[nbPositions];
+    int nbResolved=manager.resolveParentZones(regions,blockXs,blockYs,cells,xs,ys,zs,zones);
+    Assert.assertEquals(5,nbResolved);
+    // Landscape
+    Assert.assertEquals(100,zones[0]);
+    // Cell
+    Assert.assertEquals(1002,zones[1]);
+    // Entity below center height: nearest cell
+    List<Cell> allCells=new ArrayList<Cell>();
+    for(Integer cellIndex : landblock.getCellIndexes())
+    {
+      allCells.add(landblock.getCell(cellIndex.intValue()));
+    }
+    Cell nearest=findNearestCell(allCells,10,10,10);
+    Assert.assertEquals(nearest.getDungeonId().intValue(),zones[2]);
+    // Entity above center height: area
+    Assert.assertEquals(100,zones[3]);
+    Assert.assertEquals(200,zones[4]);
+    // Unknown landblock
+    Assert.assertEquals(0,zones[5]);
+    for(int i=0;i<nbPositions;i++)
+    {
+      Vector3D position=new Vector3D();
+      position.set(xs[i],ys[i],zs[i]);
+      Integer zone=manager.getParentZone(regions[i],blockXs[i],blockYs[i],cells[i],position);
+      Assert.assertEquals(zones[i],(zone!=null)?zone.intValue():0);
+    }
+  }
+}
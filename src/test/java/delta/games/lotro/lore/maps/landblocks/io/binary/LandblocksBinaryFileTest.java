@@ -0,0 +1,95 @@
+package delta.games.lotro.lore.maps.landblocks.io.binary;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import delta.common.utils.math.geometry.Vector3D;
+import delta.games.lotro.lore.geo.BlockReference;
+import delta.games.lotro.lore.maps.landblocks.Cell;
+import delta.games.lotro.lore.maps.landblocks.Landblock;
+import delta.games.lotro.lore.maps.landblocks.LandblocksManager;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for the landblocks binary files.
+ * @author DAM
+ */
+public class LandblocksBinaryFileTest extends TestCase
+{
+  private List<Landblock> buildLandblocks()
+  {
+    List<Landblock> ret=new ArrayList<Landblock>();
+    int[] regions={2,1,1,3};
+    for(int i=0;i<regions.length;i++)
+    {
+      Landblock landblock=new Landblock(new BlockReference(regions[i],200+i,i*10));
+      if (i%2==0)
+      {
+        landblock.setParentArea(100+i);
+      }
+      if (i!=1)
+      {
+        landblock.setParentDungeon(500+i);
+      }
+      landblock.setCenterHeight(12.5f*i);
+      for(int j=0;j<i;j++)
+      {
+        Cell cell=new Cell(j+1,(j%2==0)?Integer.valueOf(1000+j):null);
+        if (j!=2)
+        {
+          Vector3D position=new Vector3D();
+          position.set(j,-j,0.5f*j);
+          cell.setPosition(position);
+        }
+        landblock.addCell(cell);
+      }
+      ret.add(landblock);
+    }
+    return ret;
+  }
+
+  /**
+   * Test a write/read round trip, and the paging of regions.
+   * @throws Exception If an error occurs.
+   */
+  public void testRoundTrip() throws Exception
+  {
+    File source=File.createTempFile("landblocks",".xml");
+    source.deleteOnExit();
+    File binary=File.createTempFile("landblocks",".bin");
+    binary.deleteOnExit();
+    List<Landblock> landblocks=buildLandblocks();
+    Assert.assertTrue(LandblocksBinaryWriter.write(source,binary,landblocks));
+    Assert.assertTrue(LandblocksBinaryFile.isUpToDate(binary,source));
+    LandblocksBinaryFile file=LandblocksBinaryFile.open(binary);
+    Assert.assertNotNull(file);
+    Assert.assertEquals(3,file.getRegions().length);
+    Assert.assertEquals(2,file.getLandblocksCount(1));
+    Assert.assertEquals(0,file.getLandblocksCount(4));
+
+    LandblocksManager manager=new LandblocksManager(file);
+    Assert.assertEquals(0,manager.getLoadedRegionsCount());
+    for(Landblock expected : landblocks)
+    {
+      BlockReference blockId=expected.getBlockId();
+      Landblock landblock=manager.getLandblock(blockId.getRegion(),blockId.getBlockX(),blockId.getBlockY());
+      Assert.assertNotNull(landblock);
+      Assert.assertEquals(expected.toString(),landblock.toString());
+    }
+    Assert.assertEquals(3,manager.getLoadedRegionsCount());
+    Assert.assertNull(manager.getLandblock(1,0,0));
+    List<Landblock> all=manager.getLandblocks();
+    Assert.assertEquals(landblocks.size(),all.size());
+    // Decoded regions are reused
+    Assert.assertSame(all.get(0),manager.getLandblocks().get(0));
+    // Nothing is idle yet
+    Assert.assertEquals(0,manager.evictIdleRegions());
+    manager.setIdleDelay(0);
+    Assert.assertEquals(3,manager.evictIdleRegions());
+    Assert.assertEquals(0,manager.getLoadedRegionsCount());
+    Assert.assertNotNull(manager.getLandblock(2,200,0));
+    Assert.assertEquals(1,manager.getLoadedRegionsCount());
+  }
+}
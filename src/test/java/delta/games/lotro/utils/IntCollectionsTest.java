@@ -0,0 +1,102 @@
+package delta.games.lotro.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for classes IntObjectMap and IntSet.
+ * @author DAM
+ */
+public class IntCollectionsTest extends TestCase
+{
+  private static final int OPERATIONS=200000;
+
+  /**
+   * Test the int map against a reference map, with random operations.
+   */
+  public void testIntObjectMap()
+  {
+    Random random=new Random(1234);
+    IntObjectMap<String> map=new IntObjectMap<String>();
+    Map<Integer,String> reference=new HashMap<Integer,String>();
+    for(int i=0;i<OPERATIONS;i++)
+    {
+      int key=randomKey(random);
+      int operation=random.nextInt(3);
+      if (operation==0)
+      {
+        String value=String.valueOf(i);
+        Assert.assertEquals(reference.put(Integer.valueOf(key),value),map.put(key,value));
+      }
+      else if (operation==1)
+      {
+        Assert.assertEquals(reference.remove(Integer.valueOf(key)),map.remove(key));
+      }
+      else
+      {
+        Assert.assertEquals(reference.get(Integer.valueOf(key)),map.get(key));
+      }
+      Assert.assertEquals(reference.size(),map.size());
+    }
+    for(Map.Entry<Integer,String> entry : reference.entrySet())
+    {
+      Assert.assertEquals(entry.getValue(),map.get(entry.getKey().intValue()));
+    }
+    int[] keys=map.keys();
+    Assert.assertEquals(reference.size(),keys.length);
+    for(int i=1;i<keys.length;i++)
+    {
+      Assert.assertTrue(keys[i-1]<keys[i]);
+    }
+    Assert.assertEquals(new HashSet<String>(reference.values()),new HashSet<String>(map.values()));
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertNull(map.get(0));
+  }
+
+  /**
+   * Test the int set against a reference set, with random operations.
+   */
+  public void testIntSet()
+  {
+    Random random=new Random(5678);
+    IntSet set=new IntSet();
+    Set<Integer> reference=new HashSet<Integer>();
+    for(int i=0;i<OPERATIONS;i++)
+    {
+      int value=randomKey(random);
+      int operation=random.nextInt(3);
+      if (operation==0)
+      {
+        Assert.assertEquals(reference.add(Integer.valueOf(value)),set.add(value));
+      }
+      else if (operation==1)
+      {
+        Assert.assertEquals(reference.remove(Integer.valueOf(value)),set.remove(value));
+      }
+      else
+      {
+        Assert.assertEquals(reference.contains(Integer.valueOf(value)),set.contains(value));
+      }
+      Assert.assertEquals(reference.size(),set.size());
+    }
+    int[] values=set.toArray();
+    Assert.assertEquals(reference.size(),values.length);
+    for(int value : values)
+    {
+      Assert.assertTrue(reference.contains(Integer.valueOf(value)));
+    }
+  }
+
+  private int randomKey(Random random)
+  {
+    // Mix of small keys (many collisions, zero included) and large game identifiers
+    return random.nextBoolean()?random.nextInt(64)-8:0x70000000+random.nextInt(5000);
+  }
+}
@@ -0,0 +1,63 @@
+package delta.games.lotro.utils;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the interner.
+ * @author DAM
+ */
+public class InternerTest extends TestCase
+{
+  /**
+   * Test that equal values are shared.
+   */
+  public void testSharedValues()
+  {
+    Interner<String> interner=new Interner<String>("strings");
+    String m1=new String("icon");
+    String m2=new String("icon");
+    String m3=new String("key");
+    Assert.assertSame(m1,interner.intern(m1));
+    Assert.assertSame(m1,interner.intern(m2));
+    Assert.assertSame(m3,interner.intern(m3));
+    Assert.assertNull(interner.intern(null));
+    Assert.assertEquals(2,interner.size());
+    Assert.assertEquals(3,interner.getLookups());
+    Assert.assertEquals(1,interner.getHits());
+    // Sizes are not estimated
+    Assert.assertEquals(0,interner.getSavedBytes());
+  }
+
+  /**
+   * Test the estimated heap saving of the strings interner.
+   */
+  public void testSavedBytes()
+  {
+    Interner<String> interner=new StringInterner("strings");
+    interner.intern(new String("icon"));
+    interner.intern(new String("icon"));
+    interner.intern(new String("icon"));
+    // 2 duplicates: string object (24) and array (16+4, aligned to 24)
+    Assert.assertEquals(2*(24+24),interner.getSavedBytes());
+  }
+
+  /**
+   * Test a disabled interner.
+   */
+  public void testDisabled()
+  {
+    Interner<String> interner=new Interner<String>("strings");
+    String s1=new String("icon");
+    String s2=new String("icon");
+    interner.setEnabled(false);
+    Assert.assertSame(s1,interner.intern(s1));
+    Assert.assertSame(s2,interner.intern(s2));
+    interner.setEnabled(true);
+    Assert.assertSame(s1,interner.intern(s1));
+    Assert.assertSame(s1,interner.intern(s2));
+    interner.clear();
+    Assert.assertEquals(0,interner.size());
+    Assert.assertSame(s2,interner.intern(s2));
+  }
+}
@@ -0,0 +1,133 @@
+package delta.games.lotro.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark: compare lookup throughput and retained memory
+ * of <code>HashMap&lt;Integer,...&gt;</code> and {@link IntObjectMap}.
+ * @author DAM
+ */
+public class MainBenchmarkIntObjectMap
+{
+  private static final int SIZE=300000;
+  private static final int LOOKUPS=10000000;
+  private static final int RUNS=5;
+
+  private int[] _ids;
+  private int[] _lookups;
+  private Object[] _values;
+
+  private MainBenchmarkIntObjectMap()
+  {
+    Random random=new Random(42);
+    // Identifiers look like game DIDs: a large base value, with gaps
+    _ids=new int[SIZE];
+    _values=new Object[SIZE];
+    int id=0x70000000;
+    for(int i=0;i<SIZE;i++)
+    {
+      id+=1+random.nextInt(8);
+      _ids[i]=id;
+      _values[i]=new Object();
+    }
+    // Mostly hits, some misses
+    _lookups=new int[LOOKUPS];
+    for(int i=0;i<LOOKUPS;i++)
+    {
+      _lookups[i]=(random.nextInt(10)==0)?random.nextInt():_ids[random.nextInt(SIZE)];
+    }
+  }
+
+  private void doIt()
+  {
+    long before=getUsedHeap();
+    Map<Integer,Object> hashMap=buildHashMap();
+    long hashMapSize=getUsedHeap()-before;
+    before=getUsedHeap();
+    IntObjectMap<Object> intMap=buildIntMap();
+    long intMapSize=getUsedHeap()-before;
+    System.out.println("Retained memory for "+SIZE+" entries: HashMap="+(hashMapSize/1024)+"kB, IntObjectMap="+(intMapSize/1024)+"kB");
+    for(int i=0;i<RUNS;i++)
+    {
+      long start=System.nanoTime();
+      int hits=lookupHashMap(hashMap);
+      long hashMapTime=System.nanoTime()-start;
+      start=System.nanoTime();
+      int hits2=lookupIntMap(intMap);
+      long intMapTime=System.nanoTime()-start;
+      System.out.println("Run #"+i+": HashMap="+rate(hashMapTime)+" Mops/s, IntObjectMap="+rate(intMapTime)+" Mops/s (hits="+hits+"/"+hits2+")");
+    }
+  }
+
+  private Map<Integer,Object> buildHashMap()
+  {
+    Map<Integer,Object> ret=new HashMap<Integer,Object>();
+    for(int i=0;i<SIZE;i++)
+    {
+      ret.put(Integer.valueOf(_ids[i]),_values[i]);
+    }
+    return ret;
+  }
+
+  private IntObjectMap<Object> buildIntMap()
+  {
+    IntObjectMap<Object> ret=new IntObjectMap<Object>();
+    for(int i=0;i<SIZE;i++)
+    {
+      ret.put(_ids[i],_values[i]);
+    }
+    return ret;
+  }
+
+  private int lookupHashMap(Map<Integer,Object> map)
+  {
+    int hits=0;
+    for(int key : _lookups)
+    {
+      if (map.get(Integer.valueOf(key))!=null)
+      {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  private int lookupIntMap(IntObjectMap<Object> map)
+  {
+    int hits=0;
+    for(int key : _lookups)
+    {
+      if (map.get(key)!=null)
+      {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  private String rate(long nanos)
+  {
+    return String.valueOf((LOOKUPS*1000L)/nanos);
+  }
+
+  private long getUsedHeap()
+  {
+    Runtime runtime=Runtime.getRuntime();
+    for(int i=0;i<3;i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkIntObjectMap().doIt();
+  }
+}
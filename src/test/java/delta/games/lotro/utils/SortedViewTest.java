@@ -0,0 +1,43 @@
+package delta.games.lotro.utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the sorted views.
+ * @author DAM
+ */
+public class SortedViewTest extends TestCase
+{
+  /**
+   * Test that a view is built once and shared.
+   */
+  public void testSharedView()
+  {
+    SortedView<String> view=new SortedView<String>(String.CASE_INSENSITIVE_ORDER);
+    Assert.assertNull(view.get());
+    int generation=view.getGeneration();
+    List<String> built=view.build(generation,Arrays.asList("b","A","c"));
+    Assert.assertEquals(Arrays.asList("A","b","c"),built);
+    Assert.assertSame(built,view.get());
+    view.invalidate();
+    Assert.assertNull(view.get());
+  }
+
+  /**
+   * Test that a view built from stale elements is not shared.
+   */
+  public void testStaleBuild()
+  {
+    SortedView<String> view=new SortedView<String>(null);
+    int generation=view.getGeneration();
+    // The elements change while the view is being built
+    view.invalidate();
+    List<String> built=view.build(generation,Arrays.asList("a","b"));
+    Assert.assertEquals(2,built.size());
+    Assert.assertNull(view.get());
+  }
+}
@@ -0,0 +1,129 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import org.w3c.dom.Element;
+
+import delta.common.utils.xml.DOMParsingTools;
+import delta.games.lotro.config.DataFiles;
+import delta.games.lotro.config.LotroCoreConfig;
+
+/**
+ * Benchmark: compare parse time and peak heap of DOM parsing and streaming parsing,
+ * for each data file of the parsers that use the streaming parser.
+ * @author DAM
+ */
+public class MainBenchmarkStreamingXMLParsing
+{
+  private static final int RUNS=3;
+
+  private static final String[] DATA_FILES=
+  {
+    DataFiles.EFFECTS, DataFiles.SKILLS, DataFiles.TRAITS, DataFiles.RECIPES,
+    DataFiles.NPCS, DataFiles.MOBS, DataFiles.GEO_AREAS
+  };
+
+  private void doIt()
+  {
+    LotroCoreConfig cfg=LotroCoreConfig.getInstance();
+    for(String dataFile : DATA_FILES)
+    {
+      File file=cfg.getFile(dataFile);
+      System.out.println(dataFile+": "+file+" ("+(file.length()/1024)+"kB)");
+      for(int i=0;i<RUNS;i++)
+      {
+        measure("DOM",file,false);
+        measure("Streaming",file,true);
+      }
+    }
+  }
+
+  private void measure(String label, File file, boolean streaming)
+  {
+    getUsedHeap();
+    resetPeaks();
+    long start=System.nanoTime();
+    int records=streaming?parseStreaming(file):parseDOM(file);
+    long duration=(System.nanoTime()-start)/1000000;
+    long peak=getPeakHeap();
+    System.out.println("\t"+label+": "+records+" records in "+duration+"ms, peak heap="+(peak/(1024*1024))+"MB");
+  }
+
+  private int parseDOM(File file)
+  {
+    int ret=0;
+    Element root=DOMParsingTools.parse(file);
+    if (root!=null)
+    {
+      List<Element> tags=DOMParsingTools.getChildTags(root);
+      for(Element tag : tags)
+      {
+        tag.getAttributes().getLength();
+      }
+      ret=tags.size();
+    }
+    return ret;
+  }
+
+  private int parseStreaming(File file)
+  {
+    StreamingXMLParser parser=new StreamingXMLParser();
+    XMLRecordHandler handler=new XMLRecordHandler()
+    {
+      @Override
+      public void handleRecord(Element record)
+      {
+        record.getAttributes().getLength();
+      }
+    };
+    parser.parse(file,handler);
+    return parser.getRecordsCount();
+  }
+
+  private long getUsedHeap()
+  {
+    Runtime runtime=Runtime.getRuntime();
+    for(int i=0;i<3;i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+
+  private void resetPeaks()
+  {
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private long getPeakHeap()
+  {
+    long ret=0;
+    for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+    {
+      if (pool.getType()==MemoryType.HEAP)
+      {
+        ret+=pool.getPeakUsage().getUsed();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   */
+  public static void main(String[] args)
+  {
+    new MainBenchmarkStreamingXMLParsing().doIt();
+  }
+}
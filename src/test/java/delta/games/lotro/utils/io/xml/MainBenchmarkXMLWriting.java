@@ -0,0 +1,143 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import delta.common.utils.text.EncodingNames;
+import delta.games.lotro.common.effects.EffectsManager;
+import delta.games.lotro.common.effects.io.xml.EffectXMLWriter;
+import delta.games.lotro.common.treasure.LootsManager;
+import delta.games.lotro.common.treasure.io.xml.TreasureXMLWriter;
+import delta.games.lotro.lore.crafting.recipes.RecipesManager;
+import delta.games.lotro.lore.crafting.recipes.io.xml.RecipeXMLWriter;
+import delta.games.lotro.lore.deeds.DeedsManager;
+import delta.games.lotro.lore.deeds.io.xml.DeedXMLWriter;
+import delta.games.lotro.lore.items.Item;
+import delta.games.lotro.lore.items.ItemsManager;
+import delta.games.lotro.lore.items.io.xml.ItemXMLWriter;
+import delta.games.lotro.lore.quests.QuestDescription;
+import delta.games.lotro.lore.quests.QuestsManager;
+import delta.games.lotro.lore.quests.io.xml.QuestXMLWriter;
+
+/**
+ * Benchmark: time the writing of the large lore files, with a single writer
+ * and with sharded writers, and check that the outputs are identical.
+ * @author DAM
+ */
+public class MainBenchmarkXMLWriting
+{
+  private static final int RUNS=3;
+
+  private interface DataSetWriter
+  {
+    boolean write(File toFile);
+  }
+
+  private void doIt() throws Exception
+  {
+    List<String> names=new ArrayList<String>();
+    List<DataSetWriter> writers=new ArrayList<DataSetWriter>();
+    names.add("items");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return ItemXMLWriter.writeItemsFile(toFile,new ArrayList<Item>(ItemsManager.getInstance().getAllItems()));
+      }
+    });
+    names.add("effects");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return new EffectXMLWriter().write(toFile,EffectsManager.getInstance().getEffects());
+      }
+    });
+    names.add("recipes");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return new RecipeXMLWriter().write(toFile,RecipesManager.getInstance().getAll(),EncodingNames.UTF_8);
+      }
+    });
+    names.add("quests");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return QuestXMLWriter.writeQuestsFile(toFile,new ArrayList<QuestDescription>(QuestsManager.getInstance().getAll()));
+      }
+    });
+    names.add("deeds");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return new DeedXMLWriter().writeDeeds(toFile,DeedsManager.getInstance().getAll(),EncodingNames.UTF_8);
+      }
+    });
+    names.add("loots");
+    writers.add(new DataSetWriter()
+    {
+      @Override
+      public boolean write(File toFile)
+      {
+        return TreasureXMLWriter.writeLootsFile(toFile,LootsManager.getInstance());
+      }
+    });
+    int nbThreads=Runtime.getRuntime().availableProcessors();
+    for(int run=0;run<RUNS;run++)
+    {
+      long totalSingle=0;
+      long totalSharded=0;
+      for(int i=0;i<writers.size();i++)
+      {
+        String name=names.get(i);
+        DataSetWriter writer=writers.get(i);
+        File singleFile=File.createTempFile(name,"-single.xml");
+        File shardedFile=File.createTempFile(name,"-sharded.xml");
+        long single=write(writer,singleFile,1);
+        long sharded=write(writer,shardedFile,nbThreads);
+        boolean same=Arrays.equals(Files.readAllBytes(singleFile.toPath()),Files.readAllBytes(shardedFile.toPath()));
+        System.out.println("Run #"+run+": "+name+" ("+(singleFile.length()/1024)+"kB): 1 thread="+single+"ms, "+nbThreads+" threads="+sharded+"ms, identical="+same);
+        totalSingle+=single;
+        totalSharded+=sharded;
+        singleFile.delete();
+        shardedFile.delete();
+      }
+      System.out.println("Run #"+run+": full data set: 1 thread="+totalSingle+"ms, "+nbThreads+" threads="+totalSharded+"ms");
+    }
+  }
+
+  private long write(DataSetWriter writer, File toFile, int nbThreads)
+  {
+    ShardedXMLFileWriter.setDefaultThreads(nbThreads);
+    long start=System.currentTimeMillis();
+    boolean ok=writer.write(toFile);
+    long ret=System.currentTimeMillis()-start;
+    if (!ok)
+    {
+      System.out.println("Could not write: "+toFile);
+    }
+    return ret;
+  }
+
+  /**
+   * Main method for this benchmark.
+   * @param args Not used.
+   * @throws Exception If an error occurs.
+   */
+  public static void main(String[] args) throws Exception
+  {
+    new MainBenchmarkXMLWriting().doIt();
+  }
+}
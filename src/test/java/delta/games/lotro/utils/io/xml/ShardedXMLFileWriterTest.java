@@ -0,0 +1,82 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.transform.sax.TransformerHandler;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Tests for the sharded XML file writer.
+ * @author DAM
+ */
+public class ShardedXMLFileWriterTest extends TestCase
+{
+  private static final String ROOT_TAG="items";
+
+  private XMLRecordWriter<Integer> _recordWriter=new XMLRecordWriter<Integer>()
+  {
+    @Override
+    public void writeRecord(TransformerHandler hd, Integer record) throws Exception
+    {
+      int id=record.intValue();
+      AttributesImpl attrs=new AttributesImpl();
+      attrs.addAttribute("","","id","CDATA",String.valueOf(id));
+      attrs.addAttribute("","","name","CDATA","Item <"+id+"> & \"\u00e9\u20ac\"");
+      hd.startElement("","","item",attrs);
+      if (id%3==0)
+      {
+        AttributesImpl statAttrs=new AttributesImpl();
+        statAttrs.addAttribute("","","value","CDATA",String.valueOf(-id));
+        hd.startElement("","","stat",statAttrs);
+        hd.endElement("","","stat");
+      }
+      hd.endElement("","","item");
+    }
+  };
+
+  /**
+   * Test that sharded files are identical to files written by a single writer.
+   * @throws Exception If an error occurs.
+   */
+  public void testSameOutput() throws Exception
+  {
+    for(String encoding : new String[] {"UTF-8","ISO-8859-1"})
+    {
+      for(int nbRecords : new int[] {0,1,2,7,1000})
+      {
+        List<Integer> records=new ArrayList<Integer>();
+        for(int i=0;i<nbRecords;i++)
+        {
+          records.add(Integer.valueOf(i));
+        }
+        byte[] expected=write(records,encoding,1);
+        for(int nbThreads=2;nbThreads<=5;nbThreads++)
+        {
+          byte[] actual=write(records,encoding,nbThreads);
+          Assert.assertTrue(encoding+"/"+nbRecords+"/"+nbThreads,Arrays.equals(expected,actual));
+        }
+      }
+    }
+  }
+
+  private byte[] write(List<Integer> records, String encoding, int nbThreads) throws Exception
+  {
+    File file=File.createTempFile("sharded",".xml");
+    ShardedXMLFileWriter<Integer> writer=new ShardedXMLFileWriter<Integer>(ROOT_TAG,_recordWriter);
+    writer.setThreads(nbThreads);
+    writer.setMinShardSize(1);
+    boolean ok=writer.write(file,encoding,records);
+    Assert.assertTrue(ok);
+    byte[] ret=Files.readAllBytes(file.toPath());
+    file.delete();
+    return ret;
+  }
+}
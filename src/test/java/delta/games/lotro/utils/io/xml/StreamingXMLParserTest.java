@@ -0,0 +1,112 @@
+package delta.games.lotro.utils.io.xml;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests for the streaming XML parser.
+ * @author DAM
+ */
+public class StreamingXMLParserTest extends TestCase
+{
+  private static final String XML="<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      +"<effects version=\"2\">\n"
+      +"  <effect id=\"1\" key=\"FIRE\" name=\"Fire &amp; Ice\">\n"
+      +"    <stat name=\"MIGHT\" value=\"-3\"/>\n"
+      +"    <stat name=\"AGILITY\" value=\"5\">text</stat>\n"
+      +"  </effect>\n"
+      +"  <proc id=\"2\" key=\"FIRE\"/>\n"
+      +"</effects>\n";
+
+  /**
+   * Test the records and their contents.
+   * @throws Exception If an error occurs.
+   */
+  public void testRecords() throws Exception
+  {
+    File file=writeFile(XML);
+    final List<Element> records=new ArrayList<Element>();
+    XMLRecordHandler handler=new XMLRecordHandler()
+    {
+      @Override
+      public void handleRecord(Element record)
+      {
+        records.add(record);
+      }
+    };
+    StreamingXMLParser parser=new StreamingXMLParser();
+    boolean ok=parser.parse(file,handler);
+    Assert.assertTrue(ok);
+    Assert.assertEquals(2,parser.getRecordsCount());
+    Assert.assertEquals(2,records.size());
+    // First record
+    Element effect=records.get(0);
+    Assert.assertEquals("effect",effect.getTagName());
+    Assert.assertEquals("1",effect.getAttribute("id"));
+    Assert.assertEquals("Fire & Ice",effect.getAttribute("name"));
+    NodeList children=effect.getChildNodes();
+    Assert.assertEquals(2,children.getLength());
+    Element stat=(Element)children.item(1);
+    Assert.assertEquals("stat",stat.getTagName());
+    Assert.assertEquals("AGILITY",stat.getAttribute("name"));
+    Assert.assertEquals("text",stat.getTextContent());
+    Assert.assertEquals("-3",((Element)children.item(0)).getAttribute("value"));
+    Node parent=effect.getParentNode();
+    Assert.assertNull(parent);
+    // Second record
+    Element proc=records.get(1);
+    Assert.assertEquals("proc",proc.getTagName());
+    Assert.assertEquals(0,proc.getChildNodes().getLength());
+    // Pooled values
+    Assert.assertSame(effect.getAttribute("key"),proc.getAttribute("key"));
+    file.delete();
+  }
+
+  /**
+   * Test a malformed file.
+   * @throws Exception If an error occurs.
+   */
+  public void testMalformedFile() throws Exception
+  {
+    File file=writeFile("<effects><effect id=\"1\"/><effect id=\"2\"></effects>");
+    final List<Element> records=new ArrayList<Element>();
+    XMLRecordHandler handler=new XMLRecordHandler()
+    {
+      @Override
+      public void handleRecord(Element record)
+      {
+        records.add(record);
+      }
+    };
+    boolean ok=StreamingXMLParser.parseRecords(file,handler);
+    Assert.assertFalse(ok);
+    Assert.assertEquals(1,records.size());
+    file.delete();
+  }
+
+  private File writeFile(String contents) throws Exception
+  {
+    File file=File.createTempFile("records",".xml");
+    Writer writer=new OutputStreamWriter(new FileOutputStream(file),"UTF-8");
+    try
+    {
+      writer.write(contents);
+    }
+    finally
+    {
+      writer.close();
+    }
+    return file;
+  }
+}
@@ -0,0 +1,109 @@
+package delta.games.lotro.utils.maths;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Test class for the linear interpolating progression.
+ * @author DAM
+ */
+public class LinearInterpolatingProgressionTest extends TestCase
+{
+  private static final int NB_POINTS=12;
+
+  private LinearInterpolatingProgression build(Random random, boolean increasing)
+  {
+    LinearInterpolatingProgression ret=new LinearInterpolatingProgression(1,NB_POINTS);
+    int x=1+random.nextInt(5);
+    float y=random.nextFloat()*10;
+    for(int i=0;i<NB_POINTS;i++)
+    {
+      ret.set(i,x,y);
+      x+=1+random.nextInt(20);
+      float delta=random.nextFloat()*100;
+      y+=(increasing || random.nextBoolean())?delta:-delta;
+    }
+    return ret;
+  }
+
+  /**
+   * Reference implementation: scan of the control points.
+   */
+  private Float referenceValue(LinearInterpolatingProgression p, int x)
+  {
+    int n=p.getNumberOfPoints();
+    if (x<p.getX(0))
+    {
+      return null;
+    }
+    if (x>=p.getX(n-1))
+    {
+      float slope=(p.getY(n-1)-p.getY(n-2))/(p.getX(n-1)-p.getX(n-2));
+      return Float.valueOf(p.getY(n-2)+(x-p.getX(n-2))*slope);
+    }
+    for(int i=0;i<n-1;i++)
+    {
+      if ((x>=p.getX(i)) && (x<=p.getX(i+1)))
+      {
+        return Float.valueOf(p.getY(i)+(p.getY(i+1)-p.getY(i))*(x-p.getX(i))/(p.getX(i+1)-p.getX(i)));
+      }
+    }
+    return null;
+  }
+
+  private Float referenceXValue(LinearInterpolatingProgression p, float y)
+  {
+    int n=p.getNumberOfPoints();
+    if (y<p.getY(0))
+    {
+      return null;
+    }
+    for(int i=0;i<n-1;i++)
+    {
+      if ((y>=p.getY(i)) && (y<=p.getY(i+1)))
+      {
+        return Float.valueOf(p.getX(i)+(p.getX(i+1)-p.getX(i))*(y-p.getY(i))/(p.getY(i+1)-p.getY(i)));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Test values and reverse values.
+   */
+  public void testValues()
+  {
+    Random random=new Random(42);
+    for(int run=0;run<50;run++)
+    {
+      LinearInterpolatingProgression p=build(random,(run%2)==0);
+      int maxX=p.getMaxX();
+      for(int x=-2;x<maxX+10;x++)
+      {
+        Float expected=referenceValue(p,x);
+        Assert.assertEquals(expected,p.getValue(x));
+        float value=p.valueAt(x);
+        if (expected==null)
+        {
+          Assert.assertTrue(Float.isNaN(value));
+        }
+        else
+        {
+          Assert.assertEquals(expected.floatValue(),value,0f);
+        }
+      }
+      for(int i=0;i<500;i++)
+      {
+        float y=p.getY(0)-10+random.nextFloat()*1500;
+        Assert.assertEquals(referenceXValue(p,y),p.getXValue(y));
+      }
+      // Control points
+      for(int i=0;i<NB_POINTS;i++)
+      {
+        Assert.assertEquals(referenceXValue(p,p.getY(i)),p.getXValue(p.getY(i)));
+      }
+    }
+  }
+}